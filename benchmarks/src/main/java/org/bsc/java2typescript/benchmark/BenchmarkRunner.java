@@ -0,0 +1,27 @@
+package org.bsc.java2typescript.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run benchmarks with the allocation (gc) profiler always enabled, so that allocation
+ * regressions in the hot path show up next to timings.
+ *
+ * Accepts the standard JMH command line, eg. {@code java -jar benchmarks.jar EndToEnd -f 2}
+ *
+ * @author bsorrentino
+ *
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+
+        new Runner( new OptionsBuilder()
+                        .parent( new CommandLineOptions(args) )
+                        .addProfiler( GCProfiler.class )
+                        .build() )
+                .run();
+    }
+}
@@ -0,0 +1,72 @@
+package org.bsc.java2typescript.benchmark;
+
+import org.bsc.java2typescript.TSType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.bsc.java2typescript.Java2TSConverter.PREDEFINED_TYPES;
+
+/**
+ * Declared type set shared by benchmarks, close to the one built by the processor
+ *
+ * @author bsorrentino
+ *
+ */
+final class BenchmarkTypes {
+
+    static final List<TSType> TYPES = List.of(
+            TSType.of(java.lang.String.class).withExport(true),
+            TSType.of(java.lang.Iterable.class).withExport(true).withFunctional(true),
+            TSType.of(java.util.Iterator.class),
+            TSType.of(java.util.Collection.class),
+            TSType.of(java.util.List.class),
+            TSType.of(java.util.Set.class),
+            TSType.of(java.util.Map.class),
+            TSType.of(java.util.Optional.class).withExport(true),
+            TSType.of(java.util.stream.Stream.class).withExport(true),
+            TSType.of(java.util.stream.Collector.class),
+            TSType.of(java.util.stream.Collectors.class).withExport(true),
+            TSType.of(java.util.Collections.class).withExport(true),
+            TSType.of(java.util.concurrent.CompletableFuture.class).withExport(true),
+            TSType.of(java.util.concurrent.CompletionStage.class),
+            TSType.of(java.util.concurrent.ConcurrentHashMap.class).withExport(true),
+            TSType.of(java.util.concurrent.Executor.class),
+            TSType.of(java.util.concurrent.TimeUnit.class),
+            TSType.of(java.util.function.Function.class).withAlias("Func"),
+            TSType.of(java.util.function.BiFunction.class).withAlias("BiFunction"),
+            TSType.of(java.util.function.Consumer.class).withAlias("Consumer"),
+            TSType.of(java.util.function.BiConsumer.class).withAlias("BiConsumer"),
+            TSType.of(java.util.function.UnaryOperator.class).withAlias("UnaryOperator"),
+            TSType.of(java.util.function.BinaryOperator.class).withAlias("BinaryOperator"),
+            TSType.of(java.util.function.Supplier.class).withAlias("Supplier"),
+            TSType.of(java.util.function.Predicate.class).withAlias("Predicate"),
+            TSType.of(java.util.function.BiPredicate.class).withAlias("BiPredicate"),
+            TSType.of(java.lang.Runnable.class),
+            TSType.of(java.lang.Comparable.class)
+    );
+
+    private BenchmarkTypes() {}
+
+    /**
+     *
+     * @return a new declared type map, predefined types included
+     */
+    static Map<String, TSType> declaredTypes() {
+        return Stream.concat( PREDEFINED_TYPES.stream(), TYPES.stream() )
+                .collect( Collectors.toMap( t -> t.getValue().getName(), t -> t, (a, b) -> a ) );
+    }
+
+    /**
+     *
+     * @param className
+     * @return declared type of the given class, or a plain type if it isn't declared
+     */
+    static TSType typeOf( Map<String, TSType> declaredTypes, String className ) {
+        final TSType result = declaredTypes.get(className);
+        if( result != null ) return result;
+        return TSType.builder().value(className).build();
+    }
+}
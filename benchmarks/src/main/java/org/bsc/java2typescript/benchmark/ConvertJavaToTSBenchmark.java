@@ -0,0 +1,65 @@
+package org.bsc.java2typescript.benchmark;
+
+import org.bsc.java2typescript.Java2TSConverter;
+import org.bsc.java2typescript.TSType;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.TypeVariable;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Conversion of the generic return type of representative methods
+ *
+ * @author bsorrentino
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConvertJavaToTSBenchmark {
+
+    @Param({
+        "java.util.stream.Stream#collect",
+        "java.util.stream.Collectors#toMap",
+        "java.util.concurrent.CompletableFuture#thenCombine",
+        "java.util.concurrent.ConcurrentHashMap#entrySet"
+    })
+    public String signature;
+
+    private Map<String, TSType> declaredTypes;
+    private TSType declaringType;
+    private Method method;
+
+    private final Consumer<TypeVariable<?>> onTypeMismatch = tv -> {};
+
+    @Setup
+    public void setup() {
+        final String[] parts = signature.split("#");
+
+        declaredTypes = BenchmarkTypes.declaredTypes();
+        declaringType = BenchmarkTypes.typeOf(declaredTypes, parts[0]);
+        method = Stream.of(declaringType.getValue().getMethods())
+                    .filter( m -> m.getName().equals(parts[1]) )
+                    .max( (a, b) -> Integer.compare(a.getParameterCount(), b.getParameterCount()) )
+                    .orElseThrow();
+    }
+
+    @Benchmark
+    public String convertReturnType() {
+        return Java2TSConverter.convertJavaToTS( method.getGenericReturnType(),
+                                                method,
+                                                declaringType,
+                                                declaredTypes,
+                                                true,
+                                                Optional.of(onTypeMismatch) );
+    }
+
+}
@@ -0,0 +1,57 @@
+package org.bsc.java2typescript.benchmark;
+
+import org.bsc.java2typescript.Java2TSConverter;
+import org.bsc.java2typescript.TSConverterContext;
+import org.bsc.java2typescript.TSType;
+import org.bsc.java2typescript.transformer.TSJavaClass2DeclarationTransformer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full declaration of heavy JDK types
+ *
+ * @author bsorrentino
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DeclarationTransformerBenchmark {
+
+    @Param({
+        "java.util.stream.Stream",
+        "java.util.stream.Collectors",
+        "java.util.concurrent.CompletableFuture",
+        "java.util.concurrent.ConcurrentHashMap"
+    })
+    public String className;
+
+    @Param({"GRAALJS", "RHINO"})
+    public Java2TSConverter.Compatibility compatibility;
+
+    private Map<String, TSType> declaredTypes;
+    private TSType type;
+    private Java2TSConverter.Options options;
+
+    private final TSJavaClass2DeclarationTransformer transformer = new TSJavaClass2DeclarationTransformer();
+
+    @Setup
+    public void setup() {
+        declaredTypes = BenchmarkTypes.declaredTypes();
+        type = BenchmarkTypes.typeOf(declaredTypes, className);
+        options = Java2TSConverter.Options.of(compatibility);
+    }
+
+    @Benchmark
+    public String declaration() {
+        return TSConverterContext.of(type, declaredTypes, options)
+                .apply(transformer)
+                .toString();
+    }
+
+}
@@ -0,0 +1,52 @@
+package org.bsc.java2typescript.benchmark;
+
+import org.bsc.java2typescript.Java2TSConverter;
+import org.bsc.java2typescript.TSType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.bsc.java2typescript.Java2TSConverter.PREDEFINED_TYPES;
+
+/**
+ * Conversion of a whole declared set, as done by the processor for each compilation
+ *
+ * @author bsorrentino
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EndToEndBenchmark {
+
+    @Param({"GRAALJS", "RHINO"})
+    public Java2TSConverter.Compatibility compatibility;
+
+    @Benchmark
+    public void declaredSet(Blackhole bh) {
+
+        // new map and converter, so each invocation starts with a cold conversion cache
+        final Map<String, TSType> declaredTypes = BenchmarkTypes.declaredTypes();
+        final Java2TSConverter converter = Java2TSConverter.builder()
+                                                .compatibility(compatibility)
+                                                .build();
+
+        declaredTypes.values().stream()
+                .filter( t -> !PREDEFINED_TYPES.contains(t) )
+                .map( t -> converter.javaClass2DeclarationTransformer(0, t, declaredTypes) )
+                .sorted()
+                .forEach(bh::consume);
+
+        declaredTypes.values().stream()
+                .filter( TSType::isExport )
+                .map( t -> converter.javaClass2StaticDefinitionTransformer(t, declaredTypes) )
+                .sorted()
+                .forEach(bh::consume);
+    }
+
+}
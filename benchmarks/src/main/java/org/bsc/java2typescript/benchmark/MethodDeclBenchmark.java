@@ -0,0 +1,65 @@
+package org.bsc.java2typescript.benchmark;
+
+import org.bsc.java2typescript.Java2TSConverter;
+import org.bsc.java2typescript.TSConverterContext;
+import org.bsc.java2typescript.TSType;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Rendering of method parameters and return type, with a new (cold) and a shared (warm) conversion cache
+ *
+ * @author bsorrentino
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MethodDeclBenchmark {
+
+    @Param({
+        "java.util.stream.Stream#collect",
+        "java.util.stream.Collectors#groupingBy",
+        "java.util.concurrent.CompletableFuture#thenCombineAsync",
+        "java.util.concurrent.ConcurrentHashMap#reduceEntries"
+    })
+    public String signature;
+
+    private Map<String, TSType> declaredTypes;
+    private TSType declaringType;
+    private Method method;
+    private Java2TSConverter converter;
+
+    @Setup
+    public void setup() {
+        final String[] parts = signature.split("#");
+
+        declaredTypes = BenchmarkTypes.declaredTypes();
+        declaringType = BenchmarkTypes.typeOf(declaredTypes, parts[0]);
+        method = Stream.of(declaringType.getValue().getMethods())
+                    .filter( m -> m.getName().equals(parts[1]) )
+                    .max( Comparator.comparingInt(Method::getParameterCount) )
+                    .orElseThrow();
+        converter = Java2TSConverter.builder().build();
+    }
+
+    @Benchmark
+    public String coldCache() {
+        return TSConverterContext.of(declaringType, declaredTypes, converter.getOptions())
+                .getMethodParametersAndReturnDecl(method, true);
+    }
+
+    @Benchmark
+    public String warmCache() {
+        return converter.getMethodParametersAndReturnDecl(method, declaringType, declaredTypes, true);
+    }
+
+}
@@ -1,5 +1,5 @@
 module org.bsc.java2typescript {
-
+    requires jdk.jfr;
 
     exports org.bsc.java2typescript;
 
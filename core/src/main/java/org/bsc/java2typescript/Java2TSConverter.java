@@ -5,11 +5,17 @@ import org.bsc.java2typescript.transformer.TSJavaClass2StaticDefinitionTransform
 
 import java.lang.reflect.Executable;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static java.lang.String.format;
 
 /**
+ * Thread safe: types are immutable and conversions are memoized in a concurrent cache, so that a converter and an
+ * unmodifiable declared type map can be shared by concurrent renderings and builds.
+ *
  * @author bsorrentino
  */
 public class Java2TSConverter extends TSConverterStatic {
@@ -17,6 +23,8 @@ public class Java2TSConverter extends TSConverterStatic {
 
         private Compatibility compatibility = Compatibility.NASHORN;
         private boolean foreignObjectPrototype = false;
+        private boolean omitInherited = false;
+        private TSDeclarationCache declarationCache;
 
         private Builder() {}
 
@@ -60,9 +68,31 @@ public class Java2TSConverter extends TSConverterStatic {
             return this;
         }
 
+        /**
+         *
+         * @param omitInherited if true a declaration extends its declared supertypes and omits the members inherited
+         *                      from them, overrides are kept only if their signature differs. False by default
+         * @return
+         */
+        public Builder omitInherited(boolean omitInherited) {
+            this.omitInherited = omitInherited;
+            return this;
+        }
+
+        /**
+         *
+         * @param declarationCache renderings of the runtime classes shared with other converters, none by default
+         * @return
+         */
+        public Builder declarationCache(TSDeclarationCache declarationCache) {
+            this.declarationCache = declarationCache;
+            return this;
+        }
+
         public Java2TSConverter build() {
             return new Java2TSConverter(
-                    new Options( compatibility, foreignObjectPrototype) );
+                    new Options( compatibility, foreignObjectPrototype, omitInherited),
+                    Optional.ofNullable(declarationCache) );
         }
     }
 
@@ -92,22 +122,49 @@ public class Java2TSConverter extends TSConverterStatic {
     public static class Options {
         public final Compatibility compatibility;
         public final boolean foreignObjectPrototype;
+        public final boolean omitInherited;
 
-        private Options(Compatibility compatibility, boolean foreignObjectPrototype) {
+        private Options(Compatibility compatibility, boolean foreignObjectPrototype, boolean omitInherited) {
             this.compatibility = compatibility;
             this.foreignObjectPrototype = foreignObjectPrototype;
+            this.omitInherited = omitInherited;
+        }
+
+        public static Options of(Compatibility compatibility, boolean foreignObjectPrototype, boolean omitInherited) {
+            return new Options(compatibility, foreignObjectPrototype, omitInherited);
         }
 
         public static Options of(Compatibility compatibility, boolean foreignObjectPrototype) {
-            return new Options(compatibility, foreignObjectPrototype);
+            return new Options(compatibility, foreignObjectPrototype, false);
         }
 
         public static Options of(Compatibility compatibility) {
-            return new Options(compatibility, false);
+            return new Options(compatibility, false, false);
         }
 
         public static Options ofDefault() {
-            return new Options(Compatibility.NASHORN, false);
+            return new Options(Compatibility.NASHORN, false, false);
+        }
+
+        /**
+         *
+         * @return true if the methods of List not allowed by the graaljs foreign object prototype are omitted
+         */
+        public boolean isForeignObjectPrototypeEnabled() {
+            return compatibility == Compatibility.GRAALJS && foreignObjectPrototype;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Options other)) return false;
+            return compatibility == other.compatibility && foreignObjectPrototype == other.foreignObjectPrototype
+                    && omitInherited == other.omitInherited;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(compatibility, foreignObjectPrototype, omitInherited);
         }
     }
 
@@ -116,44 +173,219 @@ public class Java2TSConverter extends TSConverterStatic {
     final TSJavaClass2DeclarationTransformer javaClass2DeclarationTransformer;
     final TSJavaClass2StaticDefinitionTransformer JavaClass2StaticDefinitionTransformer;
 
-    private Java2TSConverter(Options options) {
+    private final AtomicReference<TSConverterCache> cache;
+    private final Optional<TSDeclarationCache> declarationCache;
+
+    private Java2TSConverter(Options options, Optional<TSDeclarationCache> declarationCache) {
+        this(options, new AtomicReference<>(), declarationCache);
+    }
+
+    private Java2TSConverter(Options options, AtomicReference<TSConverterCache> cache, Optional<TSDeclarationCache> declarationCache) {
         super();
         this.options = options;
+        this.cache = cache;
+        this.declarationCache = declarationCache;
 
         javaClass2DeclarationTransformer = new TSJavaClass2DeclarationTransformer();
         JavaClass2StaticDefinitionTransformer = new TSJavaClass2StaticDefinitionTransformer();
     }
 
+    /**
+     *
+     * @return
+     */
+    public final Options getOptions() {
+        return options;
+    }
+
     public final boolean isRhino() {
         return options.compatibility == Compatibility.RHINO;
     }
 
+    /**
+     * the conversion of java types doesn't depend on the options, so that several targets can share it
+     *
+     * @param options
+     * @return converter with the given options, sharing the conversion and declaration caches of this one
+     */
+    public Java2TSConverter fork( Options options ) {
+        return new Java2TSConverter( options, cache, declarationCache );
+    }
+
+    /**
+     *
+     * @return renderings of the runtime classes shared with other converters, if any
+     */
+    public Optional<TSDeclarationCache> getDeclarationCache() {
+        return declarationCache;
+    }
+
+    /**
+     * the compatibility affects only the static definitions and the header, apart from the foreign object prototype
+     *
+     * @param other
+     * @return true if the given converter renders the same declarations of this one
+     */
+    public boolean hasSameDeclarations( Java2TSConverter other ) {
+        return options.isForeignObjectPrototypeEnabled() == other.options.isForeignObjectPrototypeEnabled()
+                && options.omitInherited == other.options.omitInherited;
+    }
+
+    /**
+     * the conversion cache is shared as long as the same declared type map instance is used
+     *
+     * @param declaredTypeMap
+     * @return conversion cache bound to the given declared type map
+     */
+    TSConverterCache getCache(Map<String, TSType> declaredTypeMap) {
+        final TSConverterCache current = cache.get();
+
+        if( current != null && current.declaredTypeMap == declaredTypeMap ) return current;
+
+        // concurrent renderings of the same map must share one cache
+        return cache.updateAndGet( c ->
+                ( c != null && c.declaredTypeMap == declaredTypeMap ) ? c : new TSConverterCache(declaredTypeMap) );
+    }
+
     public <E extends Executable> String getMethodParametersAndReturnDecl(E m,
                                                                           TSType type,
                                                                           Map<String, TSType> declaredTypeMap,
                                                                           boolean packageResolution)
     {
 
-        return TSConverterContext.of(type, declaredTypeMap, options)
+        return TSConverterContext.of(type, getCache(declaredTypeMap), options)
                 .getMethodParametersAndReturnDecl(m, packageResolution);
     }
 
     public String javaClass2StaticDefinitionTransformer(TSType tstype,
                                                         Map<String, TSType> declaredTypeMap) {
 
-        return TSConverterContext.of(tstype, declaredTypeMap, options)
-                .apply( JavaClass2StaticDefinitionTransformer )
-                .toString();
+        return render(TSDeclarationBundle.STATIC_DEFINITION, tstype, declaredTypeMap, new StringBuilder()).toString();
     }
 
     public String javaClass2DeclarationTransformer(int level,
                                                    TSType tstype,
                                                    Map<String, TSType> declaredTypeMap) {
 
-        return TSConverterContext.of(tstype, declaredTypeMap, options)
-                .apply(javaClass2DeclarationTransformer)
-                .toString();
+        return render(TSDeclarationBundle.DECLARATION, tstype, declaredTypeMap, new StringBuilder()).toString();
+    }
+
+    /**
+     * render the static definition into the given buffer, reused across types to avoid
+     * allocating a new one for each of them
+     *
+     * @param tstype
+     * @param declaredTypeMap
+     * @param buffer cleared before rendering
+     * @return rendered static definition, backed by the given buffer
+     */
+    public CharSequence javaClass2StaticDefinitionTransformer(TSType tstype,
+                                                              Map<String, TSType> declaredTypeMap,
+                                                              StringBuilder buffer) {
+
+        return render(TSDeclarationBundle.STATIC_DEFINITION, tstype, declaredTypeMap, buffer);
+    }
+
+    /**
+     * render the declaration into the given buffer, reused across types to avoid
+     * allocating a new one for each of them
+     *
+     * @param level
+     * @param tstype
+     * @param declaredTypeMap
+     * @param buffer cleared before rendering
+     * @return rendered declaration, backed by the given buffer
+     */
+    public CharSequence javaClass2DeclarationTransformer(int level,
+                                                         TSType tstype,
+                                                         Map<String, TSType> declaredTypeMap,
+                                                         StringBuilder buffer) {
+
+        return render(TSDeclarationBundle.DECLARATION, tstype, declaredTypeMap, buffer);
+    }
+
+    /**
+     * the names looked up are the ones of the declared types the declaration refers to, the names not declared included
+     *
+     * @param tstype
+     * @param declaredTypeMap
+     * @return names looked up in the given declared types while rendering the declaration of the given type
+     */
+    public Set<String> javaClass2DeclarationLookups(TSType tstype,
+                                                    Map<String, TSType> declaredTypeMap) {
+
+        final Optional<TSRendering> cached = declarationCache.flatMap( c ->
+                c.find(TSDeclarationBundle.DECLARATION, tstype, options, declaredTypeMap) );
+
+        if( cached.isPresent() ) return cached.get().dependencies().keySet();
 
+        final TSConverterContext ctx = render(TSDeclarationBundle.DECLARATION, tstype, getCache(declaredTypeMap), new StringBuilder());
+
+        declarationCache.ifPresent( c ->
+            c.put(TSDeclarationBundle.DECLARATION, tstype, options, TSRendering.of(tstype, ctx.lookups, declaredTypeMap, ctx.toString())) );
+
+        return Set.copyOf(ctx.lookups);
+    }
+
+    /**
+     * render the declaration or the static definition, reusing the one held by the declaration cache if still valid
+     *
+     * @param extension {@link TSDeclarationBundle#DECLARATION} or {@link TSDeclarationBundle#STATIC_DEFINITION}
+     * @param tstype
+     * @param declaredTypeMap
+     * @param buffer cleared before rendering
+     * @return rendered content, backed by the given buffer unless cached
+     */
+    private CharSequence render(String extension,
+                                TSType tstype,
+                                Map<String, TSType> declaredTypeMap,
+                                StringBuilder buffer) {
+
+        final TSRenderEvent event = new TSRenderEvent();
+        event.begin();
+
+        final Optional<String> cached = declarationCache.flatMap( c -> c.get(extension, tstype, options, declaredTypeMap) );
+
+        final CharSequence result;
+        if( cached.isPresent() ) {
+            result = cached.get();
+        }
+        else {
+            final TSConverterContext ctx = render(extension, tstype, getCache(declaredTypeMap), buffer);
+
+            declarationCache.ifPresent( c ->
+                c.put(extension, tstype, options, TSRendering.of(tstype, ctx.lookups, declaredTypeMap, ctx.toString())) );
+
+            result = ctx.toCharSequence();
+        }
+
+        if( event.shouldCommit() ) {
+            event.typeName = tstype.getJavaClass().getName();
+            event.compatibility = options.compatibility.name();
+            event.extension = extension;
+            event.cached = cached.isPresent();
+            event.commit();
+        }
+        return result;
+    }
+
+    /**
+     *
+     * @param extension {@link TSDeclarationBundle#DECLARATION} or {@link TSDeclarationBundle#STATIC_DEFINITION}
+     * @param tstype
+     * @param cache
+     * @param buffer cleared before rendering
+     * @return context of the rendering, holding the names of the declared types looked up
+     */
+    TSConverterContext render(String extension,
+                              TSType tstype,
+                              TSConverterCache cache,
+                              StringBuilder buffer) {
+
+        return TSConverterContext.of(tstype, cache, options, buffer)
+                .apply( TSDeclarationBundle.DECLARATION.equals(extension) ?
+                        javaClass2DeclarationTransformer :
+                        JavaClass2StaticDefinitionTransformer );
     }
 
 }
@@ -0,0 +1,678 @@
+package org.bsc.java2typescript;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * {@link TSJavaClass} read from a class file, the class is never loaded.
+ *
+ * Members are read from the method and field tables, generic types from the {@code Signature}
+ * attributes, parameter names from the {@code MethodParameters} attribute (when compiled with
+ * {@code -parameters}), exactly as reflection does. Supertypes and declaring class are looked up
+ * lazily from the given {@link TSClassSource}.
+ *
+ * @author bsorrentino
+ *
+ */
+final class TSClassFile extends TSJavaClass {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int ACC_SUPER      = 0x0020;
+    private static final int ACC_INTERFACE  = 0x0200;
+    private static final int WRITTEN_FLAGS  = 0x7FFF;
+    private static final int METHOD_FLAGS   = 0x1DFF;
+    private static final int FIELD_FLAGS    = 0x50DF;
+    private static final int PARAM_SYNTHETIC = 0x1000;
+    private static final int PARAM_MANDATED  = 0x8000;
+
+    private static final String TSTYPE_ANNOTATION = "Lorg/bsc/java2typescript/annotation/TsType;";
+
+    /**
+     *
+     * @param bytes content of the class file
+     * @param source source of the referred classes
+     * @return
+     */
+    static TSClassFile read( byte[] bytes, TSClassSource source ) {
+        try {
+            return new TSClassFile( new DataInputStream(new ByteArrayInputStream(bytes)), source );
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private final TSClassSource source;
+
+    private final String name;
+    private final String simpleName;
+    private final int modifiers;
+    private final String superclassName;
+    private final List<String> interfaceNames;
+    private final String declaringClassName;
+    private final List<TSJavaTypeParameter> typeParameters;
+    private final Optional<TSJavaType> genericSuperclass;
+    private final List<TSJavaType> genericInterfaces;
+    private final Set<String> annotations;
+    private final List<TSJavaMethod> methods = new ArrayList<>();
+    private final List<TSJavaMethod> constructors = new ArrayList<>();
+    private final List<TSJavaField> fields = new ArrayList<>();
+
+    private volatile Optional<TSJavaClass> superclass;
+    private volatile List<TSJavaClass> interfaces;
+
+    private TSClassFile( DataInputStream in, TSClassSource source ) throws IOException {
+        this.source = source;
+
+        if( in.readInt() != MAGIC ) {
+            throw new IllegalArgumentException( "invalid class file!" );
+        }
+        in.readUnsignedShort(); // minor version
+        in.readUnsignedShort(); // major version
+
+        final ConstantPool pool = new ConstantPool(in);
+
+        final int accessFlags = in.readUnsignedShort();
+        final String thisClass = pool.className(in.readUnsignedShort());
+        final int superIndex = in.readUnsignedShort();
+
+        this.name = thisClass;
+        this.superclassName = ( superIndex == 0 || (accessFlags & ACC_INTERFACE) != 0 ) ? null : pool.className(superIndex);
+
+        final int interfacesCount = in.readUnsignedShort();
+        final List<String> interfaceList = new ArrayList<>(interfacesCount);
+        for( int i = 0 ; i < interfacesCount ; ++i ) {
+            interfaceList.add( pool.className(in.readUnsignedShort()) );
+        }
+        this.interfaceNames = List.copyOf(interfaceList);
+
+        final List<MemberInfo> fieldInfos = readMembers(in, pool);
+        final List<MemberInfo> methodInfos = readMembers(in, pool);
+
+        String signature = null;
+        int innerFlags = -1;
+        String innerName = null;
+        String outerName = null;
+        final Set<String> annotationSet = new HashSet<>();
+
+        final int attributesCount = in.readUnsignedShort();
+        for( int i = 0 ; i < attributesCount ; ++i ) {
+            final String attribute = pool.utf8(in.readUnsignedShort());
+            final int length = in.readInt();
+
+            switch( attribute ) {
+                case "Signature" -> signature = pool.utf8(in.readUnsignedShort());
+                case "InnerClasses" -> {
+                    final int classes = in.readUnsignedShort();
+                    for( int c = 0 ; c < classes ; ++c ) {
+                        final int inner = in.readUnsignedShort();
+                        final int outer = in.readUnsignedShort();
+                        final int innerNameIndex = in.readUnsignedShort();
+                        final int flags = in.readUnsignedShort();
+
+                        if( innerFlags < 0 && inner != 0 && pool.className(inner).equals(thisClass) ) {
+                            innerFlags = flags;
+                            innerName = ( innerNameIndex != 0 ) ? pool.utf8(innerNameIndex) : "";
+                            outerName = ( outer != 0 ) ? pool.className(outer) : null;
+                        }
+                    }
+                }
+                case "RuntimeVisibleAnnotations" -> {
+                    final int count = in.readUnsignedShort();
+                    for( int a = 0 ; a < count ; ++a ) {
+                        annotationSet.add( typeName(readAnnotation(in, pool).type()) );
+                    }
+                }
+                default -> in.skipBytes(length);
+            }
+        }
+
+        this.modifiers = ( (innerFlags >= 0 ? innerFlags : accessFlags) & ~ACC_SUPER ) & WRITTEN_FLAGS;
+        this.simpleName = ( innerName != null ) ? innerName : thisClass.substring(thisClass.lastIndexOf('.') + 1);
+        this.declaringClassName = outerName;
+        this.annotations = Set.copyOf(annotationSet);
+        if( signature != null ) {
+            final SignatureReader reader = new SignatureReader(signature);
+            this.typeParameters = reader.typeParameters();
+            final TSJavaType superType = reader.type();
+            final List<TSJavaType> interfaceTypes = new ArrayList<>(interfacesCount);
+            while( !reader.isEnd() ) {
+                interfaceTypes.add( reader.type() );
+            }
+            // the signature of an interface has java.lang.Object as superclass
+            this.genericSuperclass = Optional.ofNullable(superclassName).map( n -> superType );
+            this.genericInterfaces = List.copyOf(interfaceTypes);
+        }
+        else {
+            this.typeParameters = List.of();
+            this.genericSuperclass = Optional.ofNullable(superclassName).map(TSJavaType.ClassType::new);
+            this.genericInterfaces = interfaceNames.stream()
+                                        .map(TSJavaType.ClassType::new)
+                                        .collect(Collectors.toUnmodifiableList());
+        }
+
+        for( MemberInfo info : fieldInfos ) {
+            final TSJavaType type = new SignatureReader(info.descriptor).type();
+            fields.add( TSJavaField.of( this,
+                                        info.name,
+                                        info.flags & FIELD_FLAGS,
+                                        ( info.signature != null ) ? new SignatureReader(info.signature).type() : type,
+                                        type ));
+        }
+
+        for( MemberInfo info : methodInfos ) {
+            switch( info.name ) {
+                case "<clinit>" -> {}
+                case "<init>" -> constructors.add( toMethod( TSJavaMethod.constructor(this), info ) );
+                default -> methods.add( toMethod( TSJavaMethod.method(this).name(info.name), info ) );
+            }
+        }
+    }
+
+    /**
+     * same rules of {@link java.lang.reflect.Executable#getParameters()} and
+     * {@link java.lang.reflect.Parameter#getParameterizedType()}
+     *
+     * @param builder
+     * @param info
+     * @return
+     */
+    private TSJavaMethod toMethod( TSJavaMethod.Builder builder, MemberInfo info ) {
+
+        final int modifiers = info.flags & METHOD_FLAGS;
+
+        final MethodSignature raw = new SignatureReader(info.descriptor).methodSignature();
+        final MethodSignature generic = ( info.signature != null ) ?
+                new SignatureReader(info.signature).methodSignature() :
+                raw;
+
+        final int count = raw.parameters.size();
+        final boolean realParameterData = info.parameterNames != null && info.parameterNames.size() == count;
+
+        final List<TSJavaType> parameterTypes = new ArrayList<>(count);
+        if( info.signature == null ) {
+            parameterTypes.addAll(raw.parameters);
+        }
+        else if( realParameterData ) {
+            int fromIndex = 0;
+            for( int i = 0 ; i < count ; ++i ) {
+                final boolean implicit = (info.parameterFlags.get(i) & (PARAM_SYNTHETIC | PARAM_MANDATED)) != 0;
+                parameterTypes.add( ( implicit || fromIndex >= generic.parameters.size() ) ?
+                        raw.parameters.get(i) :
+                        generic.parameters.get(fromIndex++) );
+            }
+        }
+        else {
+            parameterTypes.addAll( ( generic.parameters.size() == count ) ? generic.parameters : raw.parameters );
+        }
+
+        // annotations of implicit leading parameters may be omitted
+        final List<Optional<String>> tsTypes = new ArrayList<>(count);
+        final List<Optional<String>> annotated = ( info.parameterTsTypes != null ) ? info.parameterTsTypes : List.of();
+        final int shift = Math.max( 0, count - annotated.size() );
+        for( int i = 0 ; i < count ; ++i ) {
+            tsTypes.add( ( i >= shift && i - shift < annotated.size() ) ? annotated.get(i - shift) : Optional.empty() );
+        }
+
+        final boolean varArgs = (modifiers & TSJavaMember.VARARGS) != 0;
+
+        final List<TSJavaParameter> parameters = new ArrayList<>(count);
+        for( int i = 0 ; i < count ; ++i ) {
+            final String parameterName = ( realParameterData && info.parameterNames.get(i) != null ) ?
+                    info.parameterNames.get(i) :
+                    "arg" + i;
+            parameters.add( new TSJavaParameter( parameterName,
+                                                parameterTypes.get(i),
+                                                varArgs && i == count - 1,
+                                                tsTypes.get(i)) );
+        }
+
+        if( !"<init>".equals(info.name) ) {
+            builder.genericReturnType( generic.returnType )
+                   .returnType( raw.returnType );
+        }
+
+        return builder.modifiers( modifiers )
+                .typeParameters( generic.typeParameters )
+                .parameters( parameters )
+                .genericParameterTypes( generic.parameters )
+                .parameterTypes( raw.parameters )
+                .exceptionTypes( ( !generic.exceptions.isEmpty() ) ? generic.exceptions : info.exceptions )
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getSimpleName() {
+        return simpleName;
+    }
+
+    @Override
+    public int getModifiers() {
+        return modifiers;
+    }
+
+    @Override
+    public Optional<TSJavaClass> getDeclaringClass() {
+        return Optional.ofNullable(declaringClassName).map(this::lookup);
+    }
+
+    @Override
+    public Optional<TSJavaClass> getSuperclass() {
+        Optional<TSJavaClass> result = superclass;
+        if( result == null ) {
+            superclass = result = Optional.ofNullable(superclassName).map(this::lookup);
+        }
+        return result;
+    }
+
+    @Override
+    public List<TSJavaClass> getInterfaces() {
+        List<TSJavaClass> result = interfaces;
+        if( result == null ) {
+            interfaces = result = interfaceNames.stream()
+                                    .map(this::lookup)
+                                    .collect(Collectors.toUnmodifiableList());
+        }
+        return result;
+    }
+
+    @Override
+    public Optional<TSJavaType> getGenericSuperclass() {
+        return genericSuperclass;
+    }
+
+    @Override
+    public List<TSJavaType> getGenericInterfaces() {
+        return genericInterfaces;
+    }
+
+    @Override
+    public List<TSJavaTypeParameter> getTypeParameters() {
+        return typeParameters;
+    }
+
+    @Override
+    public List<TSJavaMethod> getDeclaredMethods() {
+        return List.copyOf(methods);
+    }
+
+    @Override
+    public List<TSJavaMethod> getDeclaredConstructors() {
+        return List.copyOf(constructors);
+    }
+
+    @Override
+    public List<TSJavaField> getDeclaredFields() {
+        return List.copyOf(fields);
+    }
+
+    @Override
+    public boolean isAnnotationPresent( String annotationName ) {
+        return annotations.contains(annotationName);
+    }
+
+    private TSJavaClass lookup( String className ) {
+        return source.find(className)
+                .orElseThrow( () -> new IllegalStateException( format("class not found [%s] referred by [%s]", className, name)) );
+    }
+
+    /**
+     *
+     * @param descriptor field descriptor (eg. {@code Ljava/lang/FunctionalInterface;})
+     * @return binary name
+     */
+    private static String typeName( String descriptor ) {
+        return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+    }
+
+    /**
+     * method or field as read from the class file
+     */
+    private static final class MemberInfo {
+        int flags;
+        String name;
+        String descriptor;
+        String signature;
+        List<TSJavaType> exceptions = List.of();
+        List<String> parameterNames;
+        List<Integer> parameterFlags;
+        List<Optional<String>> parameterTsTypes;
+    }
+
+    private static List<MemberInfo> readMembers( DataInputStream in, ConstantPool pool ) throws IOException {
+
+        final int count = in.readUnsignedShort();
+        final List<MemberInfo> result = new ArrayList<>(count);
+
+        for( int i = 0 ; i < count ; ++i ) {
+            final MemberInfo info = new MemberInfo();
+            info.flags = in.readUnsignedShort();
+            info.name = pool.utf8(in.readUnsignedShort());
+            info.descriptor = pool.utf8(in.readUnsignedShort());
+
+            final int attributesCount = in.readUnsignedShort();
+            for( int a = 0 ; a < attributesCount ; ++a ) {
+                final String attribute = pool.utf8(in.readUnsignedShort());
+                final int length = in.readInt();
+
+                switch( attribute ) {
+                    case "Signature" -> info.signature = pool.utf8(in.readUnsignedShort());
+                    case "Exceptions" -> {
+                        final int exceptions = in.readUnsignedShort();
+                        final List<TSJavaType> types = new ArrayList<>(exceptions);
+                        for( int e = 0 ; e < exceptions ; ++e ) {
+                            types.add( new TSJavaType.ClassType(pool.className(in.readUnsignedShort())) );
+                        }
+                        info.exceptions = types;
+                    }
+                    case "MethodParameters" -> {
+                        final int parameters = in.readUnsignedByte();
+                        info.parameterNames = new ArrayList<>(parameters);
+                        info.parameterFlags = new ArrayList<>(parameters);
+                        for( int p = 0 ; p < parameters ; ++p ) {
+                            final int nameIndex = in.readUnsignedShort();
+                            info.parameterNames.add( ( nameIndex != 0 ) ? pool.utf8(nameIndex) : null );
+                            info.parameterFlags.add( in.readUnsignedShort() );
+                        }
+                    }
+                    case "RuntimeVisibleParameterAnnotations" -> {
+                        final int parameters = in.readUnsignedByte();
+                        info.parameterTsTypes = new ArrayList<>(parameters);
+                        for( int p = 0 ; p < parameters ; ++p ) {
+                            Optional<String> tsType = Optional.empty();
+                            final int annotations = in.readUnsignedShort();
+                            for( int n = 0 ; n < annotations ; ++n ) {
+                                final Annotation annotation = readAnnotation(in, pool);
+                                if( TSTYPE_ANNOTATION.equals(annotation.type()) ) {
+                                    tsType = Optional.ofNullable(annotation.value());
+                                }
+                            }
+                            info.parameterTsTypes.add(tsType);
+                        }
+                    }
+                    default -> in.skipBytes(length);
+                }
+            }
+            result.add(info);
+        }
+
+        return result;
+    }
+
+    /**
+     *
+     * @param type field descriptor of the annotation type
+     * @param value the string {@code value} element, if any
+     */
+    private record Annotation( String type, String value ) {}
+
+    private static Annotation readAnnotation( DataInputStream in, ConstantPool pool ) throws IOException {
+        final String type = pool.utf8(in.readUnsignedShort());
+        String value = null;
+
+        final int pairs = in.readUnsignedShort();
+        for( int i = 0 ; i < pairs ; ++i ) {
+            final String element = pool.utf8(in.readUnsignedShort());
+            final Object v = readElementValue(in, pool);
+            if( "value".equals(element) && v instanceof String ) {
+                value = (String) v;
+            }
+        }
+        return new Annotation(type, value);
+    }
+
+    /**
+     *
+     * @return the string constant, null for any other kind of value
+     */
+    private static Object readElementValue( DataInputStream in, ConstantPool pool ) throws IOException {
+        final int tag = in.readUnsignedByte();
+        switch( tag ) {
+            case 's':
+                return pool.utf8(in.readUnsignedShort());
+            case 'B': case 'C': case 'D': case 'F': case 'I': case 'J': case 'S': case 'Z': case 'c':
+                in.readUnsignedShort();
+                return null;
+            case 'e':
+                in.readUnsignedShort();
+                in.readUnsignedShort();
+                return null;
+            case '@':
+                readAnnotation(in, pool);
+                return null;
+            case '[':
+                final int values = in.readUnsignedShort();
+                for( int i = 0 ; i < values ; ++i ) readElementValue(in, pool);
+                return null;
+            default:
+                throw new IllegalArgumentException( format("invalid element value tag '%c'!", (char)tag) );
+        }
+    }
+
+    /**
+     * constant pool, only utf8 and class entries are retained
+     */
+    private static final class ConstantPool {
+
+        private final String[] utf8;
+        private final int[] classes;
+
+        ConstantPool( DataInputStream in ) throws IOException {
+            final int count = in.readUnsignedShort();
+            utf8 = new String[count];
+            classes = new int[count];
+
+            for( int i = 1 ; i < count ; ++i ) {
+                final int tag = in.readUnsignedByte();
+                switch( tag ) {
+                    case 1 -> utf8[i] = in.readUTF();
+                    case 7 -> classes[i] = in.readUnsignedShort();
+                    case 8, 16, 19, 20 -> in.skipBytes(2);
+                    case 15 -> in.skipBytes(3);
+                    case 3, 4, 9, 10, 11, 12, 17, 18 -> in.skipBytes(4);
+                    case 5, 6 -> {
+                        in.skipBytes(8);
+                        ++i; // takes two entries
+                    }
+                    default -> throw new IllegalArgumentException( format("invalid constant pool tag %d!", tag) );
+                }
+            }
+        }
+
+        String utf8( int index ) {
+            return Objects.requireNonNull( utf8[index], "invalid constant pool index!");
+        }
+
+        /**
+         *
+         * @param index
+         * @return binary name of the class entry
+         */
+        String className( int index ) {
+            return utf8(classes[index]).replace('/', '.');
+        }
+    }
+
+    private record MethodSignature( List<TSJavaTypeParameter> typeParameters,
+                                    List<TSJavaType> parameters,
+                                    TSJavaType returnType,
+                                    List<TSJavaType> exceptions ) {}
+
+    /**
+     * parser of descriptors and generic signatures (JVMS 4.7.9.1), producing the same types of
+     * the reflective generic signature parser
+     */
+    private static final class SignatureReader {
+
+        private final String signature;
+        private int index;
+
+        SignatureReader( String signature ) {
+            this.signature = signature;
+        }
+
+        private char current() {
+            return signature.charAt(index);
+        }
+
+        boolean isEnd() {
+            return index >= signature.length();
+        }
+
+        private void expect( char c ) {
+            if( current() != c ) {
+                throw new IllegalArgumentException( format("'%c' expected at %d in signature '%s'", c, index, signature));
+            }
+            ++index;
+        }
+
+        private String identifier( String terminators ) {
+            final int start = index;
+            while( terminators.indexOf(current()) < 0 ) ++index;
+            return signature.substring(start, index);
+        }
+
+        List<TSJavaTypeParameter> typeParameters() {
+            if( index >= signature.length() || current() != '<' ) return List.of();
+
+            final List<TSJavaTypeParameter> result = new ArrayList<>();
+            expect('<');
+            while( current() != '>' ) {
+                final String name = identifier(":");
+                final List<TSJavaType> bounds = new ArrayList<>();
+                expect(':');
+                if( current() != ':' ) { // class bound
+                    bounds.add( type() );
+                }
+                while( current() == ':' ) { // interface bounds
+                    ++index;
+                    bounds.add( type() );
+                }
+                result.add( new TSJavaTypeParameter(name, bounds) );
+            }
+            expect('>');
+            return result;
+        }
+
+        MethodSignature methodSignature() {
+            final List<TSJavaTypeParameter> typeParameters = typeParameters();
+
+            final List<TSJavaType> parameters = new ArrayList<>();
+            expect('(');
+            while( current() != ')' ) {
+                parameters.add( type() );
+            }
+            expect(')');
+
+            final TSJavaType returnType = type();
+
+            final List<TSJavaType> exceptions = new ArrayList<>();
+            while( index < signature.length() && current() == '^' ) {
+                ++index;
+                exceptions.add( type() );
+            }
+
+            return new MethodSignature( typeParameters, parameters, returnType, exceptions );
+        }
+
+        TSJavaType type() {
+            final char c = current();
+            ++index;
+            switch( c ) {
+                case 'B': return new TSJavaType.ClassType("byte");
+                case 'C': return new TSJavaType.ClassType("char");
+                case 'D': return new TSJavaType.ClassType("double");
+                case 'F': return new TSJavaType.ClassType("float");
+                case 'I': return new TSJavaType.ClassType("int");
+                case 'J': return new TSJavaType.ClassType("long");
+                case 'S': return new TSJavaType.ClassType("short");
+                case 'Z': return new TSJavaType.ClassType("boolean");
+                case 'V': return new TSJavaType.ClassType("void");
+                case '[': return new TSJavaType.ArrayType( type() );
+                case 'T': {
+                    final String name = identifier(";");
+                    expect(';');
+                    return new TSJavaType.TypeVariable(name);
+                }
+                case 'L': return classType();
+                default:
+                    throw new IllegalArgumentException( format("invalid type '%c' at %d in signature '%s'", c, index - 1, signature));
+            }
+        }
+
+        /**
+         * a raw class type up to the first simple class type having type arguments, then a chain of
+         * parameterized types each owned by the previous one
+         */
+        private TSJavaType classType() {
+            final StringBuilder name = new StringBuilder( identifier("<.;").replace('/', '.') );
+            List<TSJavaType> arguments = typeArguments();
+
+            while( arguments.isEmpty() && current() == '.' ) {
+                ++index;
+                name.append('$').append( identifier("<.;") );
+                arguments = typeArguments();
+            }
+
+            if( arguments.isEmpty() ) {
+                expect(';');
+                return new TSJavaType.ClassType(name.toString());
+            }
+
+            TSJavaType.ParameterizedType result =
+                    new TSJavaType.ParameterizedType( new TSJavaType.ClassType(name.toString()), arguments );
+
+            while( current() == '.' ) {
+                ++index;
+                name.append('$').append( identifier("<.;") );
+                result = new TSJavaType.ParameterizedType( new TSJavaType.ClassType(name.toString()), typeArguments(), result );
+            }
+
+            expect(';');
+            return result;
+        }
+
+        private List<TSJavaType> typeArguments() {
+            if( current() != '<' ) return List.of();
+
+            final List<TSJavaType> result = new ArrayList<>();
+            expect('<');
+            while( current() != '>' ) {
+                switch( current() ) {
+                    case '*' -> {
+                        ++index;
+                        result.add( new TSJavaType.WildcardType( List.of(TSJavaType.OBJECT), List.of() ) );
+                    }
+                    case '+' -> {
+                        ++index;
+                        result.add( new TSJavaType.WildcardType( List.of(type()), List.of() ) );
+                    }
+                    case '-' -> {
+                        ++index;
+                        result.add( new TSJavaType.WildcardType( List.of(TSJavaType.OBJECT), List.of(type()) ) );
+                    }
+                    default -> result.add( type() );
+                }
+            }
+            expect('>');
+            return result;
+        }
+    }
+
+}
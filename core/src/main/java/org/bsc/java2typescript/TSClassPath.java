@@ -0,0 +1,199 @@
+package org.bsc.java2typescript;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * {@link TSClassSource} that reads class files from directories and jars, followed by the
+ * runtime image of the running JDK. Classes are never loaded, so it can process code that
+ * doesn't resolve on the current class path.
+ *
+ * @author bsorrentino
+ *
+ */
+public final class TSClassPath implements TSClassSource, Closeable {
+
+    /**
+     *
+     * @param entries directories or jars
+     * @return
+     */
+    public static TSClassPath of( Path... entries ) {
+        return of( Arrays.asList(entries) );
+    }
+
+    /**
+     *
+     * @param entries directories or jars
+     * @return
+     */
+    public static TSClassPath of( List<Path> entries ) {
+        return new TSClassPath(entries, null);
+    }
+
+    /**
+     * classes are looked up in the parent first, as class loaders do, so that the models read by the parent
+     * (eg. the runtime image) are shared by the class paths having the same parent
+     *
+     * @param entries directories or jars
+     * @param parent class path looked up first, reading the runtime image
+     * @return
+     */
+    public static TSClassPath of( List<Path> entries, TSClassPath parent ) {
+        return new TSClassPath(entries, Objects.requireNonNull(parent, "parent is null!"));
+    }
+
+    @FunctionalInterface
+    private interface Root {
+        Optional<byte[]> read( String path ) throws IOException;
+    }
+
+    private final TSClassPath parent;
+    private final List<Root> roots = new ArrayList<>();
+    private final List<ZipFile> jars = new ArrayList<>();
+    private final Map<String,Optional<TSJavaClass>> classes = new ConcurrentHashMap<>();
+
+    private TSClassPath( List<Path> entries, TSClassPath parent ) {
+        this.parent = parent;
+        try {
+            for( Path entry : entries ) {
+                if( Files.isDirectory(entry) ) {
+                    roots.add( path -> {
+                        final Path file = entry.resolve(path);
+                        return ( Files.isRegularFile(file) ) ? Optional.of(Files.readAllBytes(file)) : Optional.empty();
+                    });
+                }
+                else if( Files.isRegularFile(entry) ) {
+                    final ZipFile jar = new ZipFile(entry.toFile());
+                    jars.add(jar);
+                    roots.add( path -> {
+                        final ZipEntry e = jar.getEntry(path);
+                        if( e == null ) return Optional.empty();
+                        try( InputStream is = jar.getInputStream(e) ) {
+                            return Optional.of(is.readAllBytes());
+                        }
+                    });
+                }
+            }
+        }
+        catch( IOException e ) {
+            close();
+            throw new UncheckedIOException(e);
+        }
+
+        if( parent == null ) {
+            runtimeImage().ifPresent(roots::add);
+        }
+    }
+
+    /**
+     * classes of the running JDK, looked up by package in the {@code jrt:/} file system
+     */
+    private static Optional<Root> runtimeImage() {
+        final FileSystem jrt;
+        try {
+            jrt = FileSystems.getFileSystem(URI.create("jrt:/"));
+        }
+        catch( Exception e ) {
+            return Optional.empty();
+        }
+
+        return Optional.of( path -> {
+            final int index = path.lastIndexOf('/');
+            if( index < 0 ) return Optional.empty();
+
+            final Path pkg = jrt.getPath( "/packages", path.substring(0, index).replace('/', '.') );
+            if( !Files.isDirectory(pkg) ) return Optional.empty();
+
+            try( Stream<Path> modules = Files.list(pkg) ) {
+                for( Path module : (Iterable<Path>)modules::iterator ) {
+                    final Path file = jrt.getPath( "/modules", module.getFileName().toString(), path );
+                    if( Files.isRegularFile(file) ) {
+                        return Optional.of(Files.readAllBytes(file));
+                    }
+                }
+            }
+            return Optional.empty();
+        });
+    }
+
+    /**
+     * same lookup rules of {@link TSClassResolver}: a canonical name of a nested class is accepted too
+     *
+     * @param name binary or canonical class name
+     * @return
+     */
+    @Override
+    public Optional<TSJavaClass> find( String name ) {
+
+        String binaryName = name;
+        Optional<TSJavaClass> result = load(binaryName);
+
+        int index;
+        while( result.isEmpty() && (index = binaryName.lastIndexOf('.')) > 0 ) {
+            binaryName = binaryName.substring(0, index) + '$' + binaryName.substring(index + 1);
+            result = load(binaryName);
+        }
+        return result;
+    }
+
+    private Optional<TSJavaClass> load( String binaryName ) {
+        if( parent != null ) {
+            final Optional<TSJavaClass> result = parent.load(binaryName);
+            if( result.isPresent() ) return result;
+        }
+
+        // not computeIfAbsent, since reading a class may look up others
+        Optional<TSJavaClass> result = classes.get(binaryName);
+        if( result == null ) {
+            result = read( binaryName.replace('.', '/') + ".class" )
+                        .map( bytes -> (TSJavaClass)TSClassFile.read(bytes, this) );
+            final Optional<TSJavaClass> previous = classes.putIfAbsent(binaryName, result);
+            if( previous != null ) result = previous;
+        }
+        return result;
+    }
+
+    private Optional<byte[]> read( String path ) {
+        try {
+            for( Root root : roots ) {
+                final Optional<byte[]> result = root.read(path);
+                if( result.isPresent() ) return result;
+            }
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * close the opened jars, not the ones of the parent
+     */
+    @Override
+    public void close() {
+        for( ZipFile jar : jars ) {
+            try {
+                jar.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+}
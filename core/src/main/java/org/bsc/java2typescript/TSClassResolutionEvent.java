@@ -0,0 +1,31 @@
+package org.bsc.java2typescript;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event of the resolution, by name, of the class of a declared type. The model is shared by all
+ * the compatibility targets, so none is recorded.
+ *
+ * @author bsorrentino
+ */
+@Name("org.bsc.java2typescript.ClassResolution")
+@Label("Class Resolution")
+@Category("java2typescript")
+@Description("Resolution of the class of a declared type from its source")
+@StackTrace(false)
+final class TSClassResolutionEvent extends jdk.jfr.Event {
+
+    @Label("Type Name")
+    String typeName;
+
+    @Label("Source")
+    @Description("runtime classes or class path")
+    String source;
+
+    @Label("Found")
+    boolean found;
+}
@@ -0,0 +1,112 @@
+package org.bsc.java2typescript;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolve class names to classes without running their static initializers.
+ *
+ * Results, including not found ones, are cached per class loader. Loaders are weakly referenced,
+ * so the cache doesn't prevent them from being collected.
+ *
+ * Names of member classes may use either the binary ({@code java.util.Map$Entry})
+ * or the canonical ({@code java.util.Map.Entry}) form.
+ *
+ * @author bsorrentino
+ *
+ */
+public final class TSClassResolver {
+
+    private static final Object NOT_FOUND = new Object();
+
+    private static final Map<ClassLoader, Map<String,Object>> CACHE =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private TSClassResolver() {}
+
+    /**
+     *
+     * @return the class loader used when none is given
+     */
+    public static ClassLoader getDefaultClassLoader() {
+        return TSClassResolver.class.getClassLoader();
+    }
+
+    /**
+     *
+     * @param name fully qualified class name
+     * @return resolved class using the default class loader
+     */
+    public static Optional<Class<?>> resolve( String name ) {
+        return resolve( name, getDefaultClassLoader() );
+    }
+
+    /**
+     *
+     * @param name fully qualified class name
+     * @param loader class loader to use, null for the bootstrap one
+     * @return resolved class
+     */
+    public static Optional<Class<?>> resolve( String name, ClassLoader loader ) {
+        Objects.requireNonNull(name, "name is null!");
+
+        final Map<String,Object> classes = CACHE.computeIfAbsent( loader, l -> new ConcurrentHashMap<>() );
+
+        Optional<Class<?>> result = load( name, loader, classes );
+
+        // try as member class, replacing '.' with '$' from right to left
+        final char[] ch = name.toCharArray();
+        for( int i = name.lastIndexOf('.') ; result.isEmpty() && i > 0 ; i = name.lastIndexOf('.', i - 1) ) {
+            ch[i] = '$';
+            result = load( String.valueOf(ch), loader, classes );
+        }
+
+        return result;
+    }
+
+    /**
+     *
+     * @param name fully qualified class name
+     * @return resolved class using the default class loader
+     * @throws ClassNotFoundException
+     */
+    public static Class<?> forName( String name ) throws ClassNotFoundException {
+        return resolve( name ).orElseThrow( () -> new ClassNotFoundException(name) );
+    }
+
+    /**
+     * drop all cached results
+     */
+    public static void clear() {
+        CACHE.clear();
+    }
+
+    private static Optional<Class<?>> load( String name, ClassLoader loader, Map<String,Object> classes ) {
+
+        final Object cached = classes.get(name);
+
+        if( cached instanceof WeakReference<?> ref ) {
+            final Object type = ref.get();
+            if( type != null ) return Optional.of((Class<?>)type);
+        }
+        else if( cached == NOT_FOUND ) {
+            return Optional.empty();
+        }
+
+        try {
+            final Class<?> type = Class.forName(name, false, loader);
+            classes.put( name, new WeakReference<>(type) );
+            return Optional.of(type);
+        }
+        catch( ClassNotFoundException e ) {
+            classes.put( name, NOT_FOUND );
+            return Optional.empty();
+        }
+    }
+
+}
@@ -0,0 +1,26 @@
+package org.bsc.java2typescript;
+
+import java.util.Optional;
+
+/**
+ * Source of the {@link TSJavaClass} models to convert
+ *
+ * @author bsorrentino
+ *
+ */
+@FunctionalInterface
+public interface TSClassSource {
+
+    /**
+     * classes loaded through {@link TSClassResolver}, static initializers are not run
+     */
+    TSClassSource REFLECTION = name -> TSClassResolver.resolve(name).map(TSJavaClass::of);
+
+    /**
+     *
+     * @param name fully qualified name, nested classes may be separated by either '.' or '$'
+     * @return
+     */
+    Optional<TSJavaClass> find( String name );
+
+}
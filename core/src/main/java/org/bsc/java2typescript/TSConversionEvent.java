@@ -0,0 +1,37 @@
+package org.bsc.java2typescript;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event of a conversion of a java type taking longer than the threshold (1 ms by default,
+ * see the {@code threshold} setting).
+ *
+ * @author bsorrentino
+ */
+@Name("org.bsc.java2typescript.Conversion")
+@Label("Conversion")
+@Category("java2typescript")
+@Description("Conversion of a java type used by a member of the rendered type")
+@StackTrace(false)
+@Threshold("1 ms")
+final class TSConversionEvent extends jdk.jfr.Event {
+
+    @Label("Type Name")
+    @Description("rendered type")
+    String typeName;
+
+    @Label("Compatibility")
+    String compatibility;
+
+    @Label("Java Type")
+    @Description("converted java type")
+    String javaType;
+
+    @Label("Member")
+    String member;
+}
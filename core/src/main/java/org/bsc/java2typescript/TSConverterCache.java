@@ -0,0 +1,195 @@
+package org.bsc.java2typescript;
+
+import java.lang.reflect.Member;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Memoize the typescript type model built by {@link TSConverterStatic#convertJavaToTS(TSJavaType, TSJavaMember, TSType, Map, boolean, Optional)}
+ * for a given declared type map.
+ *
+ * Each entry records the type variables notified to {@code onTypeMismatch} during the conversion,
+ * so that a cache hit replays them without recomputing the result. The same way it records the
+ * declared types looked up, so that a rendering knows all the declared types it depends on.
+ *
+ * The declared type map must not change while the cache is in use, the cache itself is thread safe.
+ *
+ * @author bsorrentino
+ */
+public final class TSConverterCache {
+
+    /**
+     * how type variables not bound to the declaring type are handled
+     */
+    enum MismatchMode {
+        /** rendered as any */
+        REPLACE,
+        /** rendered as any, static member or constructor (every type variable mismatches) */
+        REPLACE_ALL,
+        /** notified to onTypeMismatch */
+        COLLECT,
+        /** notified to onTypeMismatch, static member or constructor (every type variable mismatches) */
+        COLLECT_ALL;
+
+        static MismatchMode of( TSJavaMember declaringMember, boolean collect ) {
+            final boolean all = TSConverterStatic.isStatic(declaringMember) || TSConverterStatic.isConstructor(declaringMember);
+
+            if( collect ) return ( all ) ? COLLECT_ALL : COLLECT;
+            return ( all ) ? REPLACE_ALL : REPLACE;
+        }
+    }
+
+    record Key( TSJavaType type,
+                String declaringClass,
+                boolean declaringSupportNamespace,
+                boolean packageResolution,
+                MismatchMode mode ) {}
+
+    record Entry( TSTypeNode result, List<TSJavaType.TypeVariable> typeVariables, Set<String> lookups ) {}
+
+    final Map<String, TSType> declaredTypeMap;
+
+    private final Map<Key,Entry> entries = new ConcurrentHashMap<>();
+
+    TSConverterCache(Map<String, TSType> declaredTypeMap) {
+        this.declaredTypeMap = Objects.requireNonNull(declaredTypeMap, "declaredTypeMap is null!");
+    }
+
+    /**
+     * cached version of {@link TSConverterStatic#convertJavaToTS(Type, Member, TSType, Map, boolean, Optional)}
+     *
+     * @param type
+     * @param declaringMember
+     * @param declaringType
+     * @param packageResolution
+     * @param onTypeMismatch
+     * @param <M>
+     * @return
+     */
+    public <M extends Member> String convertJavaToTS( Type type,
+                                                      M declaringMember,
+                                                      TSType declaringType,
+                                                      boolean packageResolution,
+                                                      Optional<Consumer<TypeVariable<?>>> onTypeMismatch )
+    {
+        Objects.requireNonNull(type, "Type argument is null!");
+        Objects.requireNonNull(declaringMember, "declaringMethod argument is null!");
+
+        return toTSType( TSReflectionClass.toJavaType(type),
+                        TSConverterStatic.toJavaMember(declaringMember),
+                        declaringType,
+                        packageResolution,
+                        TSConverterStatic.reflective( onTypeMismatch, type, declaringMember, declaringType ) ).toTypeString();
+    }
+
+    /**
+     * cached version of {@link TSConverterStatic#convertJavaToTS(TSJavaType, TSJavaMember, TSType, Map, boolean, Optional)}
+     *
+     * @param type
+     * @param declaringMember
+     * @param declaringType
+     * @param packageResolution
+     * @param onTypeMismatch
+     * @return
+     */
+    public String convertJavaToTS( TSJavaType type,
+                                   TSJavaMember declaringMember,
+                                   TSType declaringType,
+                                   boolean packageResolution,
+                                   Optional<Consumer<TSJavaType.TypeVariable>> onTypeMismatch )
+    {
+        return toTSType( type, declaringMember, declaringType, packageResolution, onTypeMismatch ).toTypeString();
+    }
+
+    /**
+     *
+     * @param type
+     * @param declaringMember
+     * @param declaringType
+     * @param packageResolution
+     * @param onTypeMismatch
+     * @return cached typescript type model
+     */
+    TSTypeNode toTSType( TSJavaType type,
+                         TSJavaMember declaringMember,
+                         TSType declaringType,
+                         boolean packageResolution,
+                         Optional<Consumer<TSJavaType.TypeVariable>> onTypeMismatch )
+    {
+        return toTSType( type, declaringMember, declaringType, packageResolution, onTypeMismatch, lookups -> {} );
+    }
+
+    /**
+     *
+     * @param type
+     * @param declaringMember
+     * @param declaringType
+     * @param packageResolution
+     * @param onTypeMismatch
+     * @param onLookups notified with the names of the declared types looked up by the conversion
+     * @return cached typescript type model
+     */
+    TSTypeNode toTSType( TSJavaType type,
+                         TSJavaMember declaringMember,
+                         TSType declaringType,
+                         boolean packageResolution,
+                         Optional<Consumer<TSJavaType.TypeVariable>> onTypeMismatch,
+                         Consumer<Set<String>> onLookups )
+    {
+        Objects.requireNonNull(type, "Type argument is null!");
+        Objects.requireNonNull(declaringMember, "declaringMethod argument is null!");
+        Objects.requireNonNull(declaringType, "declaringType argument is null!");
+
+        final Key key = new Key( type,
+                                declaringType.getJavaClass().getName(),
+                                declaringType.supportNamespace(),
+                                packageResolution,
+                                MismatchMode.of(declaringMember, onTypeMismatch.isPresent()));
+
+        final Entry cached = entries.get(key);
+
+        if( TSTrace.DEBUG ) TSConverterStatic.traceMember( type, declaringMember, declaringType, cached != null );
+
+        if( cached != null ) {
+            onTypeMismatch.ifPresent( tm -> cached.typeVariables().forEach(tm) );
+            onLookups.accept( cached.lookups() );
+            return cached.result();
+        }
+
+        final List<TSJavaType.TypeVariable> typeVariables = new ArrayList<>();
+        final Set<String> lookups = new HashSet<>();
+
+        final TSTypeNode result = TSConverterStatic.toTSType( type,
+                                                    declaringMember,
+                                                    declaringType,
+                                                    new TSLookups(declaredTypeMap, lookups),
+                                                    packageResolution,
+                                                    onTypeMismatch.map( tm -> tv -> {
+                                                        typeVariables.add(tv);
+                                                        tm.accept(tv);
+                                                    }));
+
+        entries.putIfAbsent( key, new Entry( result, List.copyOf(typeVariables), Set.copyOf(lookups) ) );
+        onLookups.accept( lookups );
+
+        return result;
+    }
+
+    /**
+     *
+     * @return number of cached conversions
+     */
+    public int size() {
+        return entries.size();
+    }
+
+}
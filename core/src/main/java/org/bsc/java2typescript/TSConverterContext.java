@@ -1,12 +1,12 @@
 package org.bsc.java2typescript;
 
-import org.bsc.java2typescript.annotation.TsType;
-
-import java.lang.reflect.*;
-import java.util.Arrays;
-import java.util.Map;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.HashSet;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -15,7 +15,12 @@ public class TSConverterContext extends TSConverterStatic implements Cloneable,
     public final TSType type;
     public final java.util.Map<String, TSType> declaredTypeMap;
     public final Java2TSConverter.Options options;
-    final StringBuilder sb = new StringBuilder();
+    final TSConverterCache cache;
+    final StringBuilder sb;
+    /** names of the declared types looked up while rendering */
+    final Set<String> lookups;
+    /** declared supertypes extended by the declaration, computed on demand */
+    private TSInheritance inheritance;
 
     /**
      * @param tstype
@@ -25,17 +30,43 @@ public class TSConverterContext extends TSConverterStatic implements Cloneable,
     public static TSConverterContext of(TSType tstype,
                                         java.util.Map<String, TSType> declaredTypeMap,
                                         Java2TSConverter.Options options) {
-        return new TSConverterContext(tstype, declaredTypeMap, options);
+        return new TSConverterContext(tstype, options, new TSConverterCache(declaredTypeMap), new StringBuilder(), new HashSet<>());
+    }
+
+    /**
+     * @param tstype
+     * @param cache conversion cache shared among contexts of the same declared type map
+     * @return
+     */
+    static TSConverterContext of(TSType tstype,
+                                 TSConverterCache cache,
+                                 Java2TSConverter.Options options) {
+        return of(tstype, cache, options, new StringBuilder());
     }
 
+    /**
+     * @param tstype
+     * @param cache conversion cache shared among contexts of the same declared type map
+     * @param buffer buffer the declaration is rendered into, it is cleared first
+     * @return
+     */
+    static TSConverterContext of(TSType tstype,
+                                 TSConverterCache cache,
+                                 Java2TSConverter.Options options,
+                                 StringBuilder buffer) {
+        buffer.setLength(0);
+        return new TSConverterContext(tstype, options, cache, buffer, new HashSet<>());
+    }
 
-    private TSConverterContext(TSType type, Map<String, TSType> declaredClassMap, Java2TSConverter.Options options) {
+    private TSConverterContext(TSType type, Java2TSConverter.Options options, TSConverterCache cache, StringBuilder sb, Set<String> lookups) {
         Objects.requireNonNull(type, "type is null!");
-        Objects.requireNonNull(declaredClassMap, "declaredClassMap is null!");
 
         this.type = type;
-        this.declaredTypeMap = declaredClassMap;
+        this.declaredTypeMap = new TSLookups(cache.declaredTypeMap, lookups);
         this.options = options;
+        this.cache = cache;
+        this.sb = sb;
+        this.lookups = lookups;
     }
 
     @Override
@@ -76,11 +107,11 @@ public class TSConverterContext extends TSConverterStatic implements Cloneable,
 
         final StringBuilder inherited = new StringBuilder();
 
-        if (type.getValue().isInterface()) {
+        if (type.getJavaClass().isInterface()) {
             sb.append("interface ");
         } else {
 
-            if (type.getValue().isEnum())
+            if (type.getJavaClass().isEnum())
                 sb.append("/* enum */");
 
             if (type.hasAlias())
@@ -88,35 +119,41 @@ public class TSConverterContext extends TSConverterStatic implements Cloneable,
 
             sb.append("class ");
 
-            final TSType superclass = TSType.of(type.getValue().getSuperclass());
-
-            if (superclass != null) {
-                inherited.append(" extends ")
-                        .append(getTypeName(superclass, type, true));
-            }
+            type.getMetadata().getSuperclass()
+                    .map(TSType::of)
+                    .ifPresent( superclass ->
+                        inherited.append(" extends ")
+                            .append(getTypeName(superclass, type, true)) );
         }
 
-        final Class<?>[] interfaces = type.getValue().getInterfaces();
+        final java.util.List<TSJavaClass> interfaces = type.getMetadata().getInterfaces();
 
-        if (interfaces.length > 0) {
+        if (!interfaces.isEmpty()) {
 
-            final String ifc = Arrays.stream(interfaces).map(c -> TSType.of(c))
+            final String ifc = interfaces.stream().map(c -> TSType.of(c))
                     .map(t -> getTypeName(t, type, true))
                     .collect(Collectors.joining(", "));
 
-            inherited.append((type.getValue().isInterface()) ? " extends " : " implements ")
+            inherited.append((type.getJavaClass().isInterface()) ? " extends " : " implements ")
                     .append(ifc);
 
         }
 
         sb.append(getTypeName(type, type, true));
 
+        if (isInheritanceEnabled() && !getInheritance().getParents().isEmpty()) {
+            sb.append(" extends ")
+              .append(getInheritance().getParents().stream()
+                        .map(p -> getSupertypeReference(p).toTypeString())
+                        .collect(Collectors.joining(", ")));
+        }
+
         if (inherited.length() > 0 || type.hasAlias()) {
 
             sb.append("/*");
 
             if (type.hasAlias())
-                sb.append(type.getValue().getName());
+                sb.append(type.getJavaClass().getName());
             if (inherited.length() > 0)
                 sb.append(inherited);
 
@@ -128,19 +165,112 @@ public class TSConverterContext extends TSConverterStatic implements Cloneable,
         return this;
     }
 
+    /**
+     *
+     * @return true if the declaration extends its declared supertypes, omitting the members inherited from them
+     */
+    public boolean isInheritanceEnabled() {
+        return options.omitInherited && !type.isFunctional();
+    }
+
+    private TSInheritance getInheritance() {
+        if (inheritance == null) {
+            inheritance = TSInheritance.of(type, declaredTypeMap);
+        }
+        return inheritance;
+    }
+
+    /**
+     * Omit the instance methods inherited from the declared supertypes, and the overrides having the same
+     * signature. An overload is kept if another method of the same name is, otherwise it would be hidden.
+     *
+     * @param methods methods of the declaration
+     * @return methods to declare
+     */
+    public Set<TSJavaMethod> omitInherited(Set<TSJavaMethod> methods) {
+        if (!isInheritanceEnabled()) return methods;
+
+        final TSInheritance inheritance = getInheritance();
+
+        final Set<String> declared = methods.stream()
+                .filter(m -> isStatic(m) || !(inheritance.isInherited(m) || inheritance.isSameAsInherited(m)))
+                .map(TSJavaMethod::getName)
+                .collect(Collectors.toSet());
+
+        return methods.stream()
+                .filter(m -> declared.contains(m.getName()))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     *
+     * @param f field of the declaration
+     * @return true if the given instance field is inherited from a declared supertype
+     */
+    public boolean isInherited(TSJavaField f) {
+        return isInheritanceEnabled() && !isStatic(f) && getInheritance().isInherited(f);
+    }
+
+    /**
+     *
+     * @param parent
+     * @return reference to a declared supertype, with the type arguments given by the rendered type
+     */
+    private TSTypeNode getSupertypeReference(TSInheritance.Parent parent) {
+        final java.util.List<String> parameters = parent.type().getMetadata().getTypeParameterNames();
+
+        final java.util.List<TSTypeNode> arguments =
+                (parent.reference() instanceof TSJavaType.ParameterizedType p && p.arguments().size() == parameters.size()) ?
+                        p.arguments().stream().map(this::getTypeArgument).collect(Collectors.toList()) :
+                        parameters.stream().map(n -> TSTypeNode.ANY).collect(Collectors.toList());
+
+        return new TSTypeNode.Reference(getReferenceName(parent.type()), arguments);
+    }
+
+    private String getReferenceName(TSType declared) {
+        return (declared.getJavaClass().getPackageName().equals(type.getJavaClass().getPackageName())) ?
+                declared.getSimpleTypeName() :
+                declared.getTypeName();
+    }
+
+    private TSTypeNode getTypeArgument(TSJavaType t) {
+        if (t instanceof TSJavaType.TypeVariable tv) {
+            return (type.getMetadata().getTypeParameterNames().contains(tv.name())) ?
+                    new TSTypeNode.TypeVariable(tv.name()) :
+                    TSTypeNode.anyWithNote(tv.name());
+        }
+        if (t instanceof TSJavaType.ParameterizedType p) {
+            final TSType declared = declaredTypeMap.get(p.rawType().name());
+            if (declared == null) return TSTypeNode.anyOf(p.rawType().name());
+
+            return new TSTypeNode.Reference(getReferenceName(declared),
+                    (p.arguments().size() == declared.getMetadata().getTypeParameterNames().size()) ?
+                            p.arguments().stream().map(this::getTypeArgument).collect(Collectors.toList()) :
+                            declared.getMetadata().getTypeParameterNames().stream()
+                                    .map(n -> TSTypeNode.ANY)
+                                    .collect(Collectors.toList()));
+        }
+        if (t instanceof TSJavaType.WildcardType wt) {
+            final java.util.List<TSJavaType> bounds = wt.lowerBounds().isEmpty() ? wt.upperBounds() : wt.lowerBounds();
+            return (bounds.size() == 1) ?
+                    new TSTypeNode.Wildcard(getTypeArgument(bounds.get(0))) :
+                    TSTypeNode.anyWithNote(wt.getTypeName());
+        }
+        if (t instanceof TSJavaType.ArrayType at && at.isGeneric()) {
+            return new TSTypeNode.Array(getTypeArgument(at.component()));
+        }
+        return TSConverterStatic.toTSType(t, type, declaredTypeMap, true, Optional.empty());
+    }
+
     /**
      * @return
      */
     public TSConverterContext processEnumDecl() {
-        if (type.getValue().isEnum()) {
-            type.setExport(true); // force export
-            // fix #4
-            // Arrays.stream(type.getValue().getEnumConstants())
-            Arrays.stream(type.getValue().getFields())
-                    .filter(f -> f.isEnumConstant())
+        if (type.getJavaClass().isEnum()) {
+            type.getMetadata().getEnumConstants()
                     .forEach((c) -> sb.append('\t')
                             .append("// ")
-                            .append(c.getName())
+                            .append(c)
                             .append(':')
                             .append(type.getSimpleTypeName())
                             .append(';')
@@ -166,10 +296,10 @@ public class TSConverterContext extends TSConverterStatic implements Cloneable,
      * // .append(" {\n\n")
      * // ;
      * <p>
-     * Stream.of(memberClasses).peek(c -> debug("nested class name[%s]", c.getName()))
+     * Stream.of(memberClasses).peek(c -> TSTrace.debug("nestedClass", "name", c.getName()))
      * // .filter(distinctByKey( c -> c.getSimpleName() ))
      * .filter(distinctByKey(c -> c.getName())).map(cl -> TSType.of(cl))
-     * .peek(t -> debug("nested type name[%s]", t.getTypeName()))
+     * .peek(t -> TSTrace.debug("nestedType", "name", t.getTypeName()))
      * .map(t -> processClass(level + 1, t, declaredTypeMap))
      * .forEach(decl -> sb.append(decl));
      * <p>
@@ -183,12 +313,9 @@ public class TSConverterContext extends TSConverterStatic implements Cloneable,
 
     public TSConverterContext processEnumType() {
 
-        // fix #4
-        // Arrays.stream(type.getValue().getEnumConstants())
-        Arrays.stream(type.getValue().getFields())
-                .filter(f -> f.isEnumConstant())
+        type.getMetadata().getEnumConstants()
                 .forEach((c) -> sb.append('\t')
-                        .append(c.getName())
+                        .append(c)
                         .append(':')
                         .append(type.getTypeName())
                         .append(';')
@@ -201,61 +328,98 @@ public class TSConverterContext extends TSConverterStatic implements Cloneable,
 
     public <E extends Executable> String getMethodParametersAndReturnDecl(E m,
                                                                           boolean packageResolution) {
+        return getMethodParametersAndReturnDecl(TSReflectionClass.toJavaMethod(m), packageResolution);
+    }
+
+    public String getMethodParametersAndReturnDecl(TSJavaMethod m,
+                                                   boolean packageResolution) {
+        return appendMethodParametersAndReturnDecl(m, packageResolution, new StringBuilder()).toString();
+    }
+
+    /**
+     * the type model of parameters and return type is built first, since type variables
+     * collected by it must be declared in front of them.
+     *
+     * @param m
+     * @param packageResolution
+     * @param result
+     * @return given string builder
+     */
+    StringBuilder appendMethodParametersAndReturnDecl(TSJavaMethod m,
+                                                      boolean packageResolution,
+                                                      StringBuilder result) {
         final java.util.Set<String> TypeVarSet = new java.util.HashSet<>(5);
 
-        final Consumer<TypeVariable<?>> addTypeVar = tv -> TypeVarSet.add(tv.getName());
+        final Optional<Consumer<TSJavaType.TypeVariable>> addTypeVar = Optional.of(tv -> TypeVarSet.add(tv.name()));
+
+        final java.util.List<TSJavaParameter> params = m.getParameters();
 
-        final Parameter[] params = m.getParameters();
+        final TSTypeNode[] paramTypes = new TSTypeNode[params.size()];
 
-        final String params_string = Arrays.stream(params).map((tp) -> {
+        for (int i = 0; i < params.size(); ++i) {
+            final TSJavaParameter tp = params.get(i);
 
-            final String name = getParameterName(tp);
+            if (tp.tsType().isPresent()) continue;
 
-            TsType tsAnno = tp.getAnnotation(TsType.class);
-            if(tsAnno != null){
-                return String.format("%s:%s", name, tsAnno.value());
+            if (tp.varArgs()) {
+
+                paramTypes[i] = toTSType(((TSJavaType.ArrayType) tp.type()).component(), m,
+                        packageResolution, addTypeVar);
+                continue;
             }
 
-            if (tp.isVarArgs()) {
+            paramTypes[i] = toTSType(tp.type(), m,
+                    packageResolution, addTypeVar);
+        }
 
-                String typeName = null;
-                if (tp.getParameterizedType() instanceof GenericArrayType) {
+        final TSJavaType returnType = (m.isConstructor()) ? type.getJavaClass().asType() : m.getGenericReturnType();
 
-                    typeName = convertJavaToTS(((GenericArrayType) tp.getParameterizedType()).getGenericComponentType(), m,
-                            type, declaredTypeMap, packageResolution, Optional.of(addTypeVar));
-                } else {
-                    typeName = convertJavaToTS(tp.getType().getComponentType(), m, type, declaredTypeMap,
-                            packageResolution, Optional.of(addTypeVar));
-                }
-                return String.format("...%s:%s[]", name, typeName);
+        final TSTypeNode tsReturnType = toTSType(returnType, m, packageResolution, addTypeVar);
 
-            }
+        if (!TypeVarSet.isEmpty()) {
+            result.append('<').append(String.join(",", TypeVarSet)).append('>');
+        }
 
-            final String typeName = convertJavaToTS(tp.getParameterizedType(), m, type, declaredTypeMap,
-                    packageResolution, Optional.of(addTypeVar));
-            return String.format("%s:%s", name, typeName);
-        }).collect(Collectors.joining(", "));
+        result.append("( ");
 
-        final Type returnType = (m instanceof Method) ? ((Method) m).getGenericReturnType() : type.getValue();
+        for (int i = 0; i < params.size(); ++i) {
+            final TSJavaParameter tp = params.get(i);
 
-        final String tsReturnType = convertJavaToTS(returnType, m, type, declaredTypeMap, packageResolution,
-                Optional.of(addTypeVar));
+            if (i > 0) result.append(", ");
 
-        final StringBuilder result = new StringBuilder();
+            if (tp.tsType().isPresent()) {
+                result.append(getParameterName(tp)).append(':').append(tp.tsType().get());
+                continue;
+            }
 
-        if (!TypeVarSet.isEmpty()) {
-            result.append('<').append(TypeVarSet.stream().collect(Collectors.joining(","))).append('>');
+            if (tp.varArgs()) {
+                result.append("...");
+            }
+
+            result.append(getParameterName(tp)).append(':');
+            paramTypes[i].render(result);
+
+            if (tp.varArgs()) {
+                result.append("[]");
+            }
         }
-        return result.append("( ").append(params_string).append(" ):").append(tsReturnType).toString();
+
+        result.append(" ):");
+
+        return tsReturnType.render(result);
     }
 
     public String getMethodDecl(final Method m, boolean optional) {
+        return getMethodDecl(TSReflectionClass.toJavaMethod(m), optional);
+    }
+
+    public String getMethodDecl(final TSJavaMethod m, boolean optional) {
 
         final StringBuilder sb = new StringBuilder();
 
-        if (Modifier.isStatic(m.getModifiers())) {
+        if (m.isStatic()) {
 
-            if (type.getValue().isInterface()) {
+            if (type.getJavaClass().isInterface()) {
                 sb.append("// ");
             }
 
@@ -266,13 +430,15 @@ public class TSConverterContext extends TSConverterStatic implements Cloneable,
                 sb.append('?');
         }
 
-        sb.append(getMethodParametersAndReturnDecl(m, true));
-
-        return sb.toString();
+        return appendMethodParametersAndReturnDecl(m, true, sb).toString();
 
     }
 
     public String getFieldDecl(final Field f, boolean optional, boolean isStatic) {
+        return getFieldDecl(TSReflectionClass.toJavaField(f), optional, isStatic);
+    }
+
+    public String getFieldDecl(final TSJavaField f, boolean optional, boolean isStatic) {
 
         final StringBuilder sb = new StringBuilder();
 
@@ -283,13 +449,40 @@ public class TSConverterContext extends TSConverterStatic implements Cloneable,
         if (optional)
             sb.append('?');
 
-        final String typeName =  convertJavaToTS( f.getType(), type, declaredTypeMap, false, Optional.empty());
         sb.append(": ");
 
-        sb.append(typeName);
+        return toTSType( f.getType(), f, false, Optional.empty())
+                .render(sb)
+                .toString();
 
-        return sb.toString();
+    }
 
+    /**
+     * cached conversion of a java type used by a member of the rendered type, recording the declared types looked up
+     *
+     * @param javaType
+     * @param member
+     * @param packageResolution
+     * @param onTypeMismatch
+     * @return typescript type model
+     */
+    private TSTypeNode toTSType(TSJavaType javaType,
+                                TSJavaMember member,
+                                boolean packageResolution,
+                                Optional<Consumer<TSJavaType.TypeVariable>> onTypeMismatch) {
+        final TSConversionEvent event = new TSConversionEvent();
+        event.begin();
+
+        final TSTypeNode result = cache.toTSType(javaType, member, type, packageResolution, onTypeMismatch, lookups::addAll);
+
+        if (event.shouldCommit()) {
+            event.typeName = type.getJavaClass().getName();
+            event.compatibility = options.compatibility.name();
+            event.javaType = javaType.getTypeName();
+            event.member = member.getName();
+            event.commit();
+        }
+        return result;
     }
 
     /**
@@ -298,7 +491,7 @@ public class TSConverterContext extends TSConverterStatic implements Cloneable,
      */
     public TSConverterContext clone() {
 
-        return new TSConverterContext(type, declaredTypeMap, options);
+        return new TSConverterContext(type, options, cache, new StringBuilder(), lookups);
     }
 
     /**
@@ -309,6 +502,14 @@ public class TSConverterContext extends TSConverterStatic implements Cloneable,
         return sb.toString();
     }
 
+    /**
+     *
+     * @return rendered content, without copying it
+     */
+    public CharSequence toCharSequence() {
+        return sb;
+    }
+
 } // end Context
 
 
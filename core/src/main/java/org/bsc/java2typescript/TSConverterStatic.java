@@ -6,7 +6,6 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.io.Serializable;
 import java.lang.reflect.*;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -29,7 +28,7 @@ public abstract class TSConverterStatic {
     
     public static final String ENDL = ";\n";
 
-    public static final List<TSType> PREDEFINED_TYPES = Arrays.asList(
+    public static final List<TSType> PREDEFINED_TYPES = List.of(
             TSType.of(Class.class),
             TSType.of(Serializable.class),
             TSType.of(Closeable.class),
@@ -38,37 +37,71 @@ public abstract class TSConverterStatic {
             TSType.of(RandomAccess.class)
          );
 
+    /**
+     * types always declared by the processor
+     */
+    public static final List<TSType> REQUIRED_TYPES = List.of(
+            TSType.of(java.lang.String.class).withExport(true),
+            TSType.of(java.lang.Iterable.class).withExport(true).withFunctional(true),
+            TSType.of(java.util.Iterator.class),
+            TSType.of(java.util.Collection.class),
+            TSType.of(java.util.List.class),
+            TSType.of(java.util.Set.class),
+            TSType.of(java.util.Map.class),
+            TSType.of(java.util.Optional.class).withExport(true),
+            TSType.of(java.util.stream.Stream.class).withExport(true),
+
+            // Utility class(s)
+            TSType.of(java.util.stream.Collectors.class).withExport(true),
+            TSType.of(java.util.Collections.class).withExport(true),
+
+            // Native functional interface(s)
+            TSType.of(java.util.function.Function.class).withAlias("Func"),
+            TSType.of(java.util.function.BiFunction.class).withAlias("BiFunction"),
+            TSType.of(java.util.function.Consumer.class).withAlias("Consumer"),
+            TSType.of(java.util.function.BiConsumer.class).withAlias("BiConsumer"),
+            TSType.of(java.util.function.UnaryOperator.class).withAlias("UnaryOperator"),
+            TSType.of(java.util.function.BinaryOperator.class).withAlias("BinaryOperator"),
+            TSType.of(java.util.function.Supplier.class).withAlias("Supplier"),
+            TSType.of(java.util.function.Predicate.class).withAlias("Predicate"),
+            TSType.of(java.util.function.BiPredicate.class).withAlias("BiPredicate"),
+            TSType.of(java.lang.Runnable.class),
+            TSType.of(java.lang.Comparable.class)
+         );
+
 
     /**
      *
      */
-    static BiPredicate<TSType, TSType> isNamespaceMatch = (a, b) -> 
+    static final BiPredicate<TSType, TSType> isNamespaceMatch = (a, b) -> 
         b.supportNamespace()  && a.getNamespace().equals(b.getNamespace()) ;
 
     /**
      *
      */
-    static BiPredicate<Class<?>,Type> typeParameterMatch = (declaringClass, type) ->
-        type instanceof TypeVariable && Arrays.stream(declaringClass.getTypeParameters())
-            .map(tp -> tp.getName())
-            .anyMatch(name -> name.equals(((TypeVariable<?>) type).getName()))
+    static final BiPredicate<TSType,TSJavaType.TypeVariable> typeParameterMatch = (declaringType, type) ->
+        declaringType.getMetadata().getTypeParameterNames().contains(type.name())
                     ;
 
-    static void log( String fmt, Object ...args ) {
-        if( Boolean.getBoolean("debug") ) System.out.printf( fmt, args);
-    }
-    
-    static void debug( String fmt, Object ...args ) {
-        System.out.print( "DEBUG: ");       
-        System.out.printf( fmt, args );
-    }
     /**
     *
     * @param p
     * @return
     */
    public static final String getParameterName( Parameter p ) {
-       final String name = p.getName();
+       return getParameterName( p.getName() );
+   }
+
+   /**
+    *
+    * @param p
+    * @return
+    */
+   public static final String getParameterName( TSJavaParameter p ) {
+       return getParameterName( p.name() );
+   }
+
+   private static String getParameterName( String name ) {
 
        switch( name ) {
        case "function":
@@ -91,6 +124,16 @@ public abstract class TSConverterStatic {
                Modifier.isPublic( modifier )) ;
   }
 
+   /**
+   *
+   * @param m
+   * @return
+   */
+  public static boolean isStatic( TSJavaMember m ) {
+
+      return m.isStatic() && m.isPublic();
+  }
+
    /**
     *
     * @param m
@@ -101,6 +144,17 @@ public abstract class TSConverterStatic {
            return (isStatic(m) &&
                    m.getReturnType().equals(m.getDeclaringClass()));
    }
+
+   /**
+    *
+    * @param m
+    * @return
+    */
+   public static boolean isFactoryMethod( TSJavaMethod m ) {
+
+           return (isStatic(m) &&
+                   m.getReturnType().equals(m.getDeclaringClass().asType()));
+   }
    
    /**
     *
@@ -170,32 +224,65 @@ public abstract class TSConverterStatic {
     * @return
     */
    public static String getTypeName( TSType type, TSType declaringType, boolean packageResolution ) {
+       return getTypeReference(type, declaringType, packageResolution).toTypeString();
+   }
+
+   /**
+    *
+    * @param type
+    * @param declaringType
+    * @param packageResolution
+    * @return type reference with type parameters bound to the declaring type ones
+    */
+   static TSTypeNode getTypeReference( TSType type, TSType declaringType, boolean packageResolution ) {
 
        final java.util.List<String> dc_parameters_list =
-               Arrays.stream(declaringType.getValue().getTypeParameters())
-                   .map( (tp) -> tp.getName())
-                   .collect(Collectors.toList());
+               declaringType.getMetadata().getTypeParameterNames();
 
-       final java.util.List<String> type_parameters_list =
-                  Arrays.stream(type.getValue().getTypeParameters())
-                           .map( tp -> (dc_parameters_list.contains(tp.getName()) ) ? tp.getName() : "any" )
+       final java.util.List<TSTypeNode> type_parameters_list =
+                  type.getMetadata().getTypeParameterNames().stream()
+                           .map( name -> (dc_parameters_list.contains(name) ) ?
+                                   new TSTypeNode.TypeVariable(name) :
+                                   TSTypeNode.ANY )
                            .collect(Collectors.toList());
 
-       final java.util.List<String>  parameters =
-                  dc_parameters_list.size() == type_parameters_list.size() ? dc_parameters_list : type_parameters_list ;
+       final java.util.List<TSTypeNode>  parameters =
+                  dc_parameters_list.size() == type_parameters_list.size() ?
+                          dc_parameters_list.stream()
+                                  .map( name -> (TSTypeNode)new TSTypeNode.TypeVariable(name) )
+                                  .collect(Collectors.toList()) :
+                          type_parameters_list ;
 
-       final Package currentNS = (packageResolution) ? declaringType.getValue().getPackage() : null;
+       final boolean currentNS = packageResolution &&
+               type.getJavaClass().getPackageName().equals(declaringType.getJavaClass().getPackageName());
 
-       return new StringBuilder()
-                   .append(
-                       type.getValue().getPackage().equals(currentNS)  ?
+       return new TSTypeNode.Reference(
+                       currentNS  ?
                            type.getSimpleTypeName() :
-                           type.getTypeName()
-                        )
-                   .append( getClassParametersDecl(parameters) )
-                   .toString();
+                           type.getTypeName(),
+                       parameters );
    }
-   
+
+   private static final TSTypeNode NULL = new TSTypeNode.Reference("null");
+
+   private static final TSJavaType CHARARRAY = new TSJavaType.ArrayType( new TSJavaType.ClassType("char") );
+   private static final TSJavaType BYTEARRAY = new TSJavaType.ArrayType( new TSJavaType.ClassType("byte") );
+
+   private static TSTypeNode primitive( String type, String name ) {
+       final TSTypeNode result = new TSTypeNode.Reference(name);
+       return ( type.indexOf('.') < 0 ) ? result : new TSTypeNode.Union( java.util.List.of( result, NULL ) );
+   }
+
+   /**
+    *
+    * @param type
+    * @return true if it is a class or an array of classes (ie. neither generic nor parameterized)
+    */
+   private static boolean isClass( TSJavaType type ) {
+       return type instanceof TSJavaType.ClassType ||
+               ( type instanceof TSJavaType.ArrayType at && !at.isGeneric() );
+   }
+
    /**
    *
    * @param type
@@ -210,48 +297,96 @@ public abstract class TSConverterStatic {
                                           boolean packageResolution,
                                           Optional<Consumer<TypeVariable<?>>> onTypeMismatch )
   {
+      return toTSType( ( type != null ) ? TSReflectionClass.toJavaType(type) : null,
+                        declaringType,
+                        declaredTypeMap,
+                        packageResolution,
+                        reflective( onTypeMismatch, type, null, declaringType ) ).toTypeString();
+  }
+
+   /**
+   *
+   * @param type a class or an array of classes
+   * @param declaringType
+   * @param declaredTypeMap
+   * @param packageResolution
+   * @return
+   */
+  public static String convertJavaToTS(  TSJavaType type,
+                                          TSType declaringType,
+                                          java.util.Map<String, TSType> declaredTypeMap,
+                                          boolean packageResolution,
+                                          Optional<Consumer<TSJavaType.TypeVariable>> onTypeMismatch )
+  {
+      return toTSType( type, declaringType, declaredTypeMap, packageResolution, onTypeMismatch ).toTypeString();
+  }
+
+   /**
+   *
+   * @param type a class or an array of classes
+   * @param declaringType
+   * @param declaredTypeMap
+   * @param packageResolution
+   * @return
+   */
+  static TSTypeNode toTSType(  TSJavaType type,
+                               TSType declaringType,
+                               java.util.Map<String, TSType> declaredTypeMap,
+                               boolean packageResolution,
+                               Optional<Consumer<TSJavaType.TypeVariable>> onTypeMismatch )
+  {
 
-      if( type == null ) return "any";
-
-      if( Void.class.isAssignableFrom(type) || type.equals(Void.TYPE) ) return "void";
-      if( Boolean.class.isAssignableFrom(type) || type.equals(Boolean.TYPE) ) return type.isPrimitive() ? "boolean" : "boolean|null" ;
-      if( Integer.class.isAssignableFrom(type) || type.equals(Integer.TYPE)) return type.isPrimitive() ? "int"  : "int|null" ;
-      if( Long.class.isAssignableFrom(type) || type.equals(Long.TYPE)) return type.isPrimitive() ? "long"  : "long|null" ;
-      if( Float.class.isAssignableFrom(type) || type.equals(Float.TYPE)) return type.isPrimitive() ? "float"  : "float|null" ;
-      if( Double.class.isAssignableFrom(type) || type.equals(Double.TYPE)) return type.isPrimitive() ? "double"  : "double|null" ;
-      if( Integer.class.isAssignableFrom(type) || type.equals(Integer.TYPE)) return type.isPrimitive() ? "int"  : "int|null" ;
-      if( String.class.isAssignableFrom(type) ) return "string";
-
-      if( char[].class.equals(type) ) return "chararray";
-      if( byte[].class.equals(type) ) return "bytearray";
-
-      if( type.isArray()) {
-              return format( "[%s]", convertJavaToTS(type.getComponentType(), 
-                                                      declaringType, 
-                                                      declaredTypeMap,
-                                                      packageResolution,
-                                                      Optional.empty()));
+      if( type == null ) return TSTypeNode.ANY;
+
+      if( type instanceof TSJavaType.ArrayType at ) {
+
+          if( CHARARRAY.equals(type) ) return new TSTypeNode.Reference("chararray");
+          if( BYTEARRAY.equals(type) ) return new TSTypeNode.Reference("bytearray");
+
+          return new TSTypeNode.Array( toTSType(at.component(),
+                                                  declaringType,
+                                                  declaredTypeMap,
+                                                  packageResolution,
+                                                  Optional.empty()));
+      }
+
+      if( !(type instanceof TSJavaType.ClassType) ) {
+          throw new IllegalArgumentException( format("type '%s' is not a class!", type.getTypeName()));
       }
 
-      final TSType tt = declaredTypeMap.get( type.getName() );
+      final String name = ((TSJavaType.ClassType)type).name();
+
+      switch( name ) {
+          case "void", "java.lang.Void": return new TSTypeNode.Reference("void");
+          case "boolean", "java.lang.Boolean": return primitive( name, "boolean" );
+          case "int", "java.lang.Integer": return primitive( name, "int" );
+          case "long", "java.lang.Long": return primitive( name, "long" );
+          case "float", "java.lang.Float": return primitive( name, "float" );
+          case "double", "java.lang.Double": return primitive( name, "double" );
+          case "java.lang.String": return new TSTypeNode.Reference("string");
+          default: break;
+      }
+
+      final TSType tt = declaredTypeMap.get( name );
       if( tt!=null ) {
 
           // FIX ISSUE ON NEW 
           onTypeMismatch.ifPresent( tm -> {
-              Stream.of(((Class<?>)type).getTypeParameters())
+              tt.getMetadata().getTypeParameters().stream()
+              .map( TSJavaTypeParameter::asType )
               .filter( tv -> {
-                  if( type.equals(declaringType.getValue()) ) return true;
-                  return !typeParameterMatch.test(declaringType.getValue(), tv );    
+                  if( name.equals(declaringType.getJavaClass().getName()) ) return true;
+                  return !typeParameterMatch.test(declaringType, tv );
               })
               .forEach( tv -> tm.accept(tv))
               ;
 
           });
       
-          return getTypeName(tt, declaringType, packageResolution);
+          return getTypeReference(tt, declaringType, packageResolution);
       }
 
-      return format("any /*%s*/",type.getName());
+      return TSTypeNode.anyOf(name);
 
   }
 
@@ -276,213 +411,329 @@ public abstract class TSConverterStatic {
   {
       Objects.requireNonNull(type, "Type argument is null!");
       Objects.requireNonNull(declaringMember, "declaringMethod argument is null!");
+
+      final TSJavaType javaType = TSReflectionClass.toJavaType(type);
+      final TSJavaMember member = toJavaMember(declaringMember);
+      if( TSTrace.DEBUG ) traceMember( javaType, member, declaringType, false );
+
+      return toTSType( javaType,
+                        member,
+                        declaringType,
+                        declaredTypeMap,
+                        packageResolution,
+                        reflective( onTypeMismatch, type, declaringMember, declaringType ) ).toTypeString();
+  }
+
+    /**
+     *
+     * @param type
+     * @param declaringMember
+     * @param declaringType
+     * @param declaredTypeMap
+     * @param packageResolution
+     * @param onTypeMismatch
+     * @return
+     */
+  public static String convertJavaToTS(
+                                          TSJavaType type,
+                                          TSJavaMember declaringMember,
+                                          TSType declaringType,
+                                          java.util.Map<String, TSType> declaredTypeMap,
+                                          boolean packageResolution,
+                                          Optional<Consumer<TSJavaType.TypeVariable>> onTypeMismatch)
+  {
+      if( TSTrace.DEBUG ) traceMember( type, declaringMember, declaringType, false );
+
+      return toTSType( type, declaringMember, declaringType, declaredTypeMap, packageResolution, onTypeMismatch ).toTypeString();
+  }
+
+    /**
+     * trace the conversion of a type used by a member, the type arguments it resolves are traced only if not cached
+     *
+     * @param type
+     * @param declaringMember
+     * @param declaringType
+     * @param cached true if the conversion is reused
+     */
+  static void traceMember( TSJavaType type, TSJavaMember declaringMember, TSType declaringType, boolean cached ) {
+      TSTrace.debug( "member",
+                     "type", declaringType.getTypeName(),
+                     "member", declaringMember.getName(),
+                     "javaType", ( type != null ) ? type.getTypeName() : null,
+                     "cached", cached );
+  }
+
+    /**
+     *
+     * @param type
+     * @param declaringMember
+     * @param declaringType
+     * @param declaredTypeMap
+     * @param packageResolution
+     * @param onTypeMismatch
+     * @return
+     */
+  static TSTypeNode toTSType(
+                                          TSJavaType type,
+                                          TSJavaMember declaringMember,
+                                          TSType declaringType,
+                                          java.util.Map<String, TSType> declaredTypeMap,
+                                          boolean packageResolution,
+                                          Optional<Consumer<TSJavaType.TypeVariable>> onTypeMismatch)
+  {
+      Objects.requireNonNull(type, "Type argument is null!");
+      Objects.requireNonNull(declaringMember, "declaringMethod argument is null!");
       Objects.requireNonNull(declaringType, "declaringType argument is null!");
       Objects.requireNonNull(declaredTypeMap, "declaredTypeMap argument is null!");
 
-      log( "PROCESSING MEMEBER: [%s]", declaringMember.getName());
-
       /**
        * 
        */
-      final Predicate<TypeVariable<?>> typeMismatch = ( tv ) -> {
+      final Predicate<TSJavaType.TypeVariable> typeMismatch = ( tv ) -> {
           if( isStatic(declaringMember) )              return true;
-          if( declaringMember instanceof Constructor ) return true;
-          return !typeParameterMatch.test(declaringType.getValue(), tv );
+          if( isConstructor(declaringMember) )         return true;
+          return !typeParameterMatch.test(declaringType, tv );
       };
       
-      if( type instanceof ParameterizedType ) {
+      if( type instanceof TSJavaType.ParameterizedType pType ) {
 
-          final ParameterizedType pType = (ParameterizedType) type;
+          final String rawType = pType.rawType().name();
 
-          final Class<?> rawType = (Class<?>)pType.getRawType();
-
-          final TSType tstype = declaredTypeMap.get(rawType.getName());
+          final TSType tstype = declaredTypeMap.get(rawType);
           if( tstype==null ) {
-                  return format("any /*%s*/",rawType.getName());
+                  return TSTypeNode.anyOf(rawType);
           }
 
-          log( "ParameterizedType\n\t[%s]\n\traw[%s]\n\ttstype[%s]", 
-          pType.getTypeName(),
-          rawType.getName(),
-          tstype.getTypeName() );
+          if( TSTrace.DEBUG ) TSTrace.debug( "parameterizedType",
+                  "type", declaringType.getTypeName(),
+                  "member", declaringMember.getName(),
+                  "parameterizedType", pType.getTypeName(),
+                  "raw", rawType,
+                  "tstype", tstype.getTypeName() );
 
-          String result = pType.getTypeName();
-          if( rawType.isMemberClass() ) {
-              result = result 
-              .replace( rawType.getDeclaringClass().getName().concat("."), "" ) // use Alias
-              ;                    
-          }
+          final String name = ( packageResolution && isNamespaceMatch.test(tstype, declaringType) ) ?
+                  tstype.getSimpleTypeName() :
+                  tstype.getTypeName();
 
-          result = result.replace( rawType.getName(), tstype.getTypeName()) // use Alias
-          ;
+          final java.util.List<TSJavaType> typeArgs = pType.arguments();
 
-          if( packageResolution && isNamespaceMatch.test(tstype, declaringType) ) {
-              result = result.replace( tstype.getTypeName(), tstype.getSimpleTypeName());
-          }
+          final java.util.List<TSTypeNode> arguments = new java.util.ArrayList<>(typeArgs.size());
 
-          final Type[] typeArgs = pType.getActualTypeArguments();
+          for( TSJavaType t : typeArgs ) {
+              if( TSTrace.TRACE ) TSTrace.trace( "typeArgument",
+                      "type", declaringType.getTypeName(),
+                      "member", declaringMember.getName(),
+                      "argument", t.getTypeName() );
 
-          for( Type t : typeArgs ) {
-              log( "TypeArgs [%s]", t.getTypeName());
+              if( t instanceof TSJavaType.ParameterizedType ) {
 
-              if( t instanceof ParameterizedType ) {
+                  arguments.add( toTSType( t,
+                                          declaringMember,
+                                          declaringType,
+                                          declaredTypeMap,
+                                          packageResolution,
+                                          onTypeMismatch) );
+              }
+              else if(  t instanceof TSJavaType.TypeVariable tv ) {
 
-                  final String typeName = convertJavaToTS( t,
-                                                          declaringMember,
-                                                          declaringType,
-                                                          declaredTypeMap,
-                                                          packageResolution,
-                                                          onTypeMismatch);
-                  result = result.replace( t.getTypeName(), typeName);
-                  log( "Parameterized Type\n\t%s\n\t%s\n\t%s",  t.getTypeName(), typeName, result );
+                  if( TSTrace.TRACE ) TSTrace.trace( "typeVariable",
+                          "type", declaringType.getTypeName(),
+                          "member", declaringMember.getName(),
+                          "name", tv.name(),
+                          "mismatch", typeMismatch.test(tv) );
 
-              }
-              else if(  t instanceof TypeVariable ) {
-
-                  log( "type variable: %s",  t );
-
-                  final TypeVariable<?> tv = (TypeVariable<?>)t;
-                  if( typeMismatch.test(tv)) {
-
-                      if( onTypeMismatch.isPresent() ) {
-                           onTypeMismatch.get().accept(tv);
-                       }
-                       else {
-                          final String name = tv.getName();
-                          result = result.replaceAll( "<"+name, "<any")
-                                      .replaceAll( ",\\s"+name, ", any")
-                                      .replaceAll( name +">", "any>")
-                                      ;
-                       }
+                  if( typeMismatch.test(tv) && onTypeMismatch.isEmpty() ) {
+                      arguments.add( TSTypeNode.ANY );
+                  }
+                  else {
+                      if( typeMismatch.test(tv) ) {
+                          onTypeMismatch.get().accept(tv);
+                      }
+                      arguments.add( new TSTypeNode.TypeVariable(tv.name()) );
                   }
-                  continue;
               }
-              else if( t instanceof Class ) {
-
-                  final String name = convertJavaToTS( (Class<?>)t, declaringType, declaredTypeMap, packageResolution, onTypeMismatch);
-
-                  final String commented = format("/*%s*/", t.getTypeName());
-                  result = result.replace( commented, "/*@*/")
-                                              .replace(t.getTypeName(), name)
-                                              .replace( "/*@*/", commented )
-                                              ;
-                  log( "Class Type\n\t%s\n\t%s",  t.getTypeName(),  result );
-                                          }
-              else if( t instanceof WildcardType ) {
-                  
-                  final WildcardType wt = (WildcardType) t;
+              else if( isClass(t) ) {
 
-                  final Type[] lb = wt.getLowerBounds();
-                  final Type[] ub = wt.getUpperBounds();
+                  arguments.add( toTSType( t, declaringType, declaredTypeMap, packageResolution, onTypeMismatch) );
+              }
+              else if( t instanceof TSJavaType.WildcardType wt ) {
+                  
+                  final java.util.List<TSJavaType> lb = wt.lowerBounds();
+                  final java.util.List<TSJavaType> ub = wt.upperBounds();
 
-                  log( "Wildcard Type: \n\t%s\n\tlb:%d\n\tup:%d",  wt.getTypeName(), lb.length, ub.length );
+                  if( TSTrace.TRACE ) TSTrace.trace( "wildcard",
+                          "type", declaringType.getTypeName(),
+                          "member", declaringMember.getName(),
+                          "wildcard", wt.getTypeName(),
+                          "lowerBounds", lb.size(),
+                          "upperBounds", ub.size() );
 
-                  if( lb.length <= 1 && ub.length==1) {
-                      final Type tt  = (lb.length==1) ? lb[0] : ub[0];
+                  if( lb.size() <= 1 && ub.size()==1) {
+                      final TSJavaType tt  = (lb.size()==1) ? lb.get(0) : ub.get(0);
 
-                      final String s = convertJavaToTS( tt,                           
+                      arguments.add( new TSTypeNode.Wildcard( toTSType( tt,
                               declaringMember,
                               declaringType,
                               declaredTypeMap,
                               packageResolution,
-                              onTypeMismatch);
-
-                      result = result.replace( wt.getTypeName(), s);
-
-                      if( tt instanceof ParameterizedType ) {
-                          
-                          // FIX ISSUE #7
-                          result = result.replace( "? extends ", "" );
-                          
-                          // CHECK FOR NESTED WILDCARDTYPE
-                          if( Stream.of(((ParameterizedType)tt).getActualTypeArguments())
-                                  .anyMatch( arg -> (arg instanceof WildcardType) ))
-                          {
-                              //final Class<?> clazz = (Class<?>) (((ParameterizedType)tt).getRawType());
-
-                              final String typeName = wt.getTypeName()
-                                      //.replace( clazz.getName(), clazz.getSimpleName())
-                                      .replace( "? extends ", "" )
-                                      ;
-                              result = result.replace( typeName, s);
-
-                          }
-
-                      }
-                      log( "Wildcard Type(1):\n\t%s\n\t%s\n\t%s",  t.getTypeName(), s, result );
+                              onTypeMismatch) ) );
                   }
                   else {
-                      result = result.replace(wt.getTypeName(), format( "any/*%s*/", wt));
-                      log( "Wildcard Type(2)\n\t%s\n\t%s",  t.getTypeName(), result );
+                      arguments.add( TSTypeNode.anyWithNote( wt.getTypeName() ) );
                   }
               }
-              else if( t instanceof GenericArrayType ) {
-                  //throw new IllegalArgumentException( format("type argument <%s> 'GenericArrayType' is a  not supported yet!", t));
+              else if( t instanceof TSJavaType.ArrayType at ) {
+                  // postfix, with its component converted (eg. java.util.List<string>[]) but type variables, kept as they are
+                  final TSTypeNode component = ( at.component() instanceof TSJavaType.TypeVariable ctv ) ?
+                          new TSTypeNode.TypeVariable( ctv.name() ) :
+                          toTSType( at.component(),
+                                  declaringMember,
+                                  declaringType,
+                                  declaredTypeMap,
+                                  packageResolution,
+                                  onTypeMismatch);
+
+                  arguments.add( new TSTypeNode.Array( component, true ) );
               }
 
           }
 
-          return result;
+          return new TSTypeNode.Reference( name, arguments );
       }
-      else if(  type instanceof TypeVariable ) {
-          log( "class: %s",  type.getTypeName() );
-
-          final TypeVariable<?> tv = (TypeVariable<?>)type;
+      else if(  type instanceof TSJavaType.TypeVariable tv ) {
+          if( TSTrace.TRACE ) TSTrace.trace( "typeVariable",
+                  "type", declaringType.getTypeName(),
+                  "member", declaringMember.getName(),
+                  "name", tv.name(),
+                  "mismatch", typeMismatch.test(tv) );
 
           if( typeMismatch.test(tv) ) {
 
-              final String name = tv.getName();
+              final String name = tv.name();
 
               if( onTypeMismatch.isPresent() ) {
                    onTypeMismatch.get().accept(tv);
-                   return name;
+                   return new TSTypeNode.TypeVariable(name);
               }
 
-              return format("any/*%s*/", name);
+              return TSTypeNode.anyWithNote(name);
           }
 
-          return type.getTypeName();
+          return new TSTypeNode.TypeVariable(type.getTypeName());
       }
-      else if( type instanceof Class ) {
-          final String result =  convertJavaToTS( (Class<?>)type, declaringType, declaredTypeMap, packageResolution, onTypeMismatch);
-          log( "class:\n\t%s\n\t%s",  type.getTypeName(), result );
-          return result;
-
+      else if( isClass(type) ) {
+          return toTSType( type, declaringType, declaredTypeMap, packageResolution, onTypeMismatch);
       }
-      else if( type instanceof WildcardType ) {
+      else if( type instanceof TSJavaType.WildcardType ) {
           throw new IllegalArgumentException( "type 'WildcardType' is a  not supported yet!");
       }
-      else if( type instanceof GenericArrayType ) {
-          final GenericArrayType t = (GenericArrayType)type;
+      else if( type instanceof TSJavaType.ArrayType t ) {
 
-          final Type componentType = t.getGenericComponentType();
+          final TSJavaType componentType = t.component();
 
-          log( "generic array type: %s",  componentType.getTypeName() );
+          if( TSTrace.TRACE ) TSTrace.trace( "genericArray",
+                  "type", declaringType.getTypeName(),
+                  "member", declaringMember.getName(),
+                  "component", componentType.getTypeName() );
 
-          final String tt = convertJavaToTS( componentType,
+          return new TSTypeNode.Array( toTSType( componentType,
                                               declaringMember,
                                               declaringType,
                                               declaredTypeMap,
                                               packageResolution,
-                                              onTypeMismatch);
-          return format("[%s]", tt);
-          
-          
-          //return ( typeParameterMatch.apply(declaringType.getValue(), componentType ))  ?
-          //      format("[%s]", componentType ) :
-          //      format("[any/*%s*/]", componentType );
-          
+                                              onTypeMismatch) );
       }
 
       throw new IllegalArgumentException( "type is a  not recognised type!");
   }
 
+    /**
+     *
+     * @param m
+     * @return true if it is a constructor
+     */
+    static boolean isConstructor( TSJavaMember m ) {
+        return m instanceof TSJavaMethod && ((TSJavaMethod)m).isConstructor();
+    }
+
+    /**
+     *
+     * @param m
+     * @return model of the given reflective member
+     */
+    static TSJavaMember toJavaMember( Member m ) {
+        if( m instanceof Executable ) return TSReflectionClass.toJavaMethod((Executable)m);
+        if( m instanceof Field ) return TSReflectionClass.toJavaField((Field)m);
+
+        throw new IllegalArgumentException( format("member '%s' is not supported!", m));
+    }
+
+    /**
+     * adapt a type mismatch consumer of reflective type variables to the model ones, these are
+     * mapped back by name to the type variables reachable from the converted type, its declaring
+     * member and the declaring type.
+     *
+     * @param onTypeMismatch
+     * @param type
+     * @param declaringMember
+     * @param declaringType
+     * @return
+     */
+    static Optional<Consumer<TSJavaType.TypeVariable>> reflective( Optional<Consumer<TypeVariable<?>>> onTypeMismatch,
+                                                                    Type type,
+                                                                    Member declaringMember,
+                                                                    TSType declaringType )
+    {
+        return onTypeMismatch.map( tm -> {
+            final Map<String,TypeVariable<?>> variables = new java.util.HashMap<>();
+
+            if( type != null ) collectTypeVariables( type, variables );
+            if( declaringMember instanceof GenericDeclaration ) {
+                Stream.of(((GenericDeclaration)declaringMember).getTypeParameters())
+                        .forEach( tv -> variables.putIfAbsent(tv.getName(), tv) );
+            }
+            declaringType.getJavaClass().toClass()
+                    .ifPresent( c -> Stream.of(c.getTypeParameters()).forEach( tv -> variables.putIfAbsent(tv.getName(), tv) ) );
+
+            return tv -> Optional.ofNullable(variables.get(tv.name())).ifPresent(tm);
+        });
+    }
+
+    private static void collectTypeVariables( Type type, Map<String,TypeVariable<?>> result ) {
+        if( type instanceof Class ) {
+            final Class<?> c = (Class<?>)type;
+            if( c.isArray() ) {
+                collectTypeVariables( c.getComponentType(), result );
+            }
+            else {
+                Stream.of(c.getTypeParameters()).forEach( tv -> result.putIfAbsent(tv.getName(), tv) );
+            }
+        }
+        else if( type instanceof ParameterizedType ) {
+            final ParameterizedType pt = (ParameterizedType)type;
+            Stream.of(pt.getActualTypeArguments()).forEach( t -> collectTypeVariables(t, result) );
+            collectTypeVariables( pt.getRawType(), result );
+        }
+        else if( type instanceof TypeVariable ) {
+            final TypeVariable<?> tv = (TypeVariable<?>)type;
+            result.put(tv.getName(), tv);
+        }
+        else if( type instanceof WildcardType ) {
+            final WildcardType wt = (WildcardType)type;
+            Stream.of(wt.getLowerBounds()).forEach( t -> collectTypeVariables(t, result) );
+            Stream.of(wt.getUpperBounds()).forEach( t -> collectTypeVariables(t, result) );
+        }
+        else if( type instanceof GenericArrayType ) {
+            collectTypeVariables( ((GenericArrayType)type).getGenericComponentType(), result );
+        }
+    }
+
     /**
      *
      * @param ctx
      * @return
      */
-    protected Stream<Field> getPublicFieldsAsStream(TSConverterContext ctx) {
+    protected Stream<TSJavaField> getPublicFieldsAsStream(TSConverterContext ctx) {
 
         return ctx.type.getPublicFieldsAsStream();
     }
@@ -492,7 +743,7 @@ public abstract class TSConverterStatic {
      * @param md
      * @return
      */
-    protected boolean testFieldNotAllowed(Field md ) {
+    protected boolean testFieldNotAllowed(TSJavaField md ) {
         // For now all fields are allowed
         return true;
     }
@@ -0,0 +1,271 @@
+package org.bsc.java2typescript;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static java.lang.String.format;
+
+/**
+ * Declarations of the {@link TSConverterStatic#REQUIRED_TYPES required types} rendered at build time, shipped
+ * by resource for each JDK feature version and {@link Java2TSConverter.Compatibility compatibility}.
+ *
+ * A fragment is reused only if the declared types looked up while it was rendered haven't changed (see {@link TSRendering}).
+ * Otherwise, as for a JDK without bundle, the type must be rendered.
+ *
+ * Regenerate the bundles with {@code mvn -Pbundle -pl core process-classes} whenever the rendering changes.
+ *
+ * @author bsorrentino
+ *
+ */
+public final class TSDeclarationBundle {
+
+    public static final String DECLARATION = "d.ts";
+    public static final String STATIC_DEFINITION = "js";
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final Map<String, Optional<TSDeclarationBundle>> bundles = new ConcurrentHashMap<>();
+
+    private final int feature;
+    private final Java2TSConverter.Options options;
+    private final Map<String, Map<String, TSRendering>> fragments;
+
+    private TSDeclarationBundle( int feature, Java2TSConverter.Options options, Map<String, Map<String, TSRendering>> fragments ) {
+        this.feature = feature;
+        this.options = options;
+        this.fragments = fragments;
+    }
+
+    /**
+     *
+     * @param feature JDK feature version
+     * @param compatibility
+     * @return name of the bundle resource, relative to this class
+     */
+    static String resourceName( int feature, Java2TSConverter.Compatibility compatibility ) {
+        return format( "bundle/jdk%d-%s.gz", feature, compatibility );
+    }
+
+    /**
+     *
+     * @param options converter options
+     * @return the bundle rendered with the given options for the running JDK, if shipped
+     */
+    public static Optional<TSDeclarationBundle> of( Java2TSConverter.Options options ) {
+        Objects.requireNonNull(options, "options is null!");
+
+        final String name = resourceName( Runtime.version().feature(), options.compatibility );
+
+        return bundles.computeIfAbsent( name, n -> {
+                    try( InputStream is = TSDeclarationBundle.class.getResourceAsStream(n) ) {
+                        return ( is == null ) ? Optional.empty() : Optional.of( read(is) );
+                    } catch (IOException e) {
+                        throw new UncheckedIOException( format("error reading bundle [%s]", n), e);
+                    }
+                })
+                .filter( b -> b.options.foreignObjectPrototype == options.foreignObjectPrototype
+                                && b.options.omitInherited == options.omitInherited );
+    }
+
+    /**
+     * render the given types, recording the declared types each rendering depends on
+     *
+     * @param converter
+     * @param types types to render, static definitions are rendered for the exported ones only
+     * @param declaredTypeMap
+     * @return bundle of the renderings
+     */
+    public static TSDeclarationBundle render( Java2TSConverter converter, Collection<TSType> types, Map<String, TSType> declaredTypeMap ) {
+        final Map<String, Map<String, TSRendering>> fragments = new TreeMap<>();
+
+        final TSConverterCache cache = converter.getCache(declaredTypeMap);
+
+        for( TSType type : types ) {
+            put( fragments, DECLARATION, type, converter, cache );
+
+            if( type.isExport() ) {
+                put( fragments, STATIC_DEFINITION, type, converter, cache );
+            }
+        }
+
+        return new TSDeclarationBundle( Runtime.version().feature(), converter.getOptions(), fragments );
+    }
+
+    private static void put( Map<String, Map<String, TSRendering>> fragments, String extension, TSType type, Java2TSConverter converter, TSConverterCache cache ) {
+        final TSConverterContext ctx = converter.render( extension, type, cache, new StringBuilder() );
+
+        fragments.computeIfAbsent( extension, e -> new TreeMap<>() )
+                .put( type.getJavaClass().getName(), TSRendering.of( type, ctx.lookups, cache.declaredTypeMap, ctx.toString() ) );
+    }
+
+    /**
+     *
+     * @param extension {@link #DECLARATION} or {@link #STATIC_DEFINITION}
+     * @param type
+     * @param declaredTypeMap
+     * @return the rendering of the given type, if bundled and still valid for the given declared types
+     */
+    public Optional<String> get( String extension, TSType type, Map<String, TSType> declaredTypeMap ) {
+        // fragments are rendered from the runtime classes
+        if( !(type.getJavaClass() instanceof TSReflectionClass) ) return Optional.empty();
+
+        final TSRendering fragment = fragments.getOrDefault( extension, Map.of() ).get( type.getJavaClass().getName() );
+
+        if( fragment == null || !fragment.isValid( type, declaredTypeMap ) ) return Optional.empty();
+
+        return Optional.of( fragment.content() );
+    }
+
+    /**
+     *
+     * @return number of bundled renderings
+     */
+    public int size() {
+        return fragments.values().stream().mapToInt(Map::size).sum();
+    }
+
+    /**
+     *
+     * @param os
+     * @throws IOException
+     */
+    public void write( OutputStream os ) throws IOException {
+        final GZIPOutputStream gz = new GZIPOutputStream(os);
+        final DataOutputStream out = new DataOutputStream( gz );
+
+        out.writeInt( FORMAT_VERSION );
+        out.writeInt( feature );
+        writeString( out, options.compatibility.name() );
+        out.writeBoolean( options.foreignObjectPrototype );
+
+        out.writeInt( fragments.size() );
+        for( Map.Entry<String, Map<String, TSRendering>> e : fragments.entrySet() ) {
+            writeString( out, e.getKey() );
+            out.writeInt( e.getValue().size() );
+            for( Map.Entry<String, TSRendering> f : e.getValue().entrySet() ) {
+                writeString( out, f.getKey() );
+                writeString( out, f.getValue().signature() );
+                out.writeInt( f.getValue().dependencies().size() );
+                for( Map.Entry<String, String> d : f.getValue().dependencies().entrySet() ) {
+                    writeString( out, d.getKey() );
+                    writeString( out, d.getValue() );
+                }
+                writeString( out, f.getValue().content() );
+            }
+        }
+        out.flush();
+        gz.finish();
+    }
+
+    /**
+     *
+     * @param is
+     * @return the bundle written by {@link #write(OutputStream)}
+     * @throws IOException
+     */
+    static TSDeclarationBundle read( InputStream is ) throws IOException {
+        final DataInputStream in = new DataInputStream( new GZIPInputStream(is) );
+
+        final int version = in.readInt();
+        if( version != FORMAT_VERSION ) {
+            throw new IOException( format("unsupported bundle format [%d]", version) );
+        }
+        final int feature = in.readInt();
+        final Java2TSConverter.Options options =
+                Java2TSConverter.Options.of( Java2TSConverter.Compatibility.valueOf(readString(in)), in.readBoolean() );
+
+        final Map<String, Map<String, TSRendering>> fragments = new HashMap<>();
+        for( int i = in.readInt(); i > 0; --i ) {
+            final String extension = readString(in);
+            final Map<String, TSRendering> byName = new HashMap<>();
+            for( int j = in.readInt(); j > 0; --j ) {
+                final String name = readString(in);
+                final String signature = readString(in);
+                final Map<String, String> dependencies = new HashMap<>();
+                for( int k = in.readInt(); k > 0; --k ) {
+                    dependencies.put( readString(in), readString(in) );
+                }
+                byName.put( name, new TSRendering( signature, dependencies, readString(in) ) );
+            }
+            fragments.put( extension, byName );
+        }
+        return new TSDeclarationBundle( feature, options, fragments );
+    }
+
+    private static void writeString( DataOutputStream out, String value ) throws IOException {
+        if( value == null ) {
+            out.writeInt(-1);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt( bytes.length );
+        out.write( bytes );
+    }
+
+    private static String readString( DataInputStream in ) throws IOException {
+        final int length = in.readInt();
+        if( length < 0 ) return null;
+        final byte[] bytes = new byte[length];
+        in.readFully( bytes );
+        return new String( bytes, StandardCharsets.UTF_8 );
+    }
+
+    /**
+     *
+     * @return the types declared by the processor when no other one is declared
+     */
+    static Map<String, TSType> requiredTypeMap() {
+        return Stream.concat( TSConverterStatic.PREDEFINED_TYPES.stream(), TSConverterStatic.REQUIRED_TYPES.stream() )
+                .collect( Collectors.collectingAndThen( Collectors.toMap( t -> t.getJavaClass().getName(), t -> t ),
+                                                        Collections::unmodifiableMap ) );
+    }
+
+    /**
+     * write the bundles of the running JDK, one for each compatibility
+     *
+     * @param args output folder
+     * @throws IOException
+     */
+    public static void main( String[] args ) throws IOException {
+        if( args.length != 1 ) {
+            System.err.println("usage: TSDeclarationBundle <resources folder>");
+            System.exit(2);
+        }
+
+        final Map<String, TSType> declaredTypeMap = requiredTypeMap();
+
+        for( Java2TSConverter.Compatibility compatibility : Java2TSConverter.Compatibility.values() ) {
+            final Java2TSConverter converter = Java2TSConverter.builder().compatibility(compatibility).build();
+
+            final TSDeclarationBundle bundle = render( converter, TSConverterStatic.REQUIRED_TYPES, declaredTypeMap );
+
+            final Path file = Paths.get( args[0], TSDeclarationBundle.class.getPackageName().replace('.', '/'),
+                                         resourceName( bundle.feature, compatibility ) );
+            Files.createDirectories( file.getParent() );
+            try( OutputStream os = Files.newOutputStream(file) ) {
+                bundle.write( os );
+            }
+            System.out.printf( "%s: %d renderings%n", file, bundle.size() );
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package org.bsc.java2typescript;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.String.format;
+
+/**
+ * Bounded cache of the renderings of the declared types, keyed by class identity and converter {@link Java2TSConverter.Options options},
+ * so that the renderings are shared across the builds of a long running process (eg. the daemon of the command line).
+ *
+ * The identity is the one of the {@link TSJavaClass class model}: a runtime class has a single model, while the classes
+ * read from a {@link TSClassPath} have one for each class path. Models are weakly referenced: the entries of a class are
+ * evicted once it is collected together with its class loader (or class path), otherwise the least recently used
+ * entries are evicted beyond the maximum size. A rendering is reused only if the declared types it depends on haven't
+ * changed (see {@link TSRendering}).
+ *
+ * The metadata of the classes is cached by their models, that are kept by the {@link ClassValue} of the runtime
+ * classes and by the class paths, so it shares the same lifetime.
+ *
+ * @author bsorrentino
+ */
+public final class TSDeclarationCache {
+
+    /**
+     * default maximum number of renderings, overridden by the {@code java2ts.cache.size} system property
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 4096;
+
+    private static final TSDeclarationCache SHARED =
+            new TSDeclarationCache( Integer.getInteger("java2ts.cache.size", DEFAULT_MAXIMUM_SIZE) );
+
+    /**
+     * counts since the cache has been created
+     *
+     * @param hits renderings reused
+     * @param misses renderings not cached, or no longer valid
+     * @param evictions renderings evicted, because of the maximum size or because their class has been collected
+     */
+    public record Stats( long hits, long misses, long evictions ) {
+
+        @Override
+        public String toString() {
+            return format( "hits [%d] misses [%d] evictions [%d]", hits, misses, evictions );
+        }
+    }
+
+    /**
+     * class identity, options and extension of a rendering
+     */
+    private static final class Key extends WeakReference<TSJavaClass> {
+        final Java2TSConverter.Options options;
+        final String extension;
+        final int hash;
+
+        Key( TSJavaClass type, Java2TSConverter.Options options, String extension, ReferenceQueue<TSJavaClass> queue ) {
+            super( type, queue );
+            this.options = options;
+            this.extension = extension;
+            this.hash = Objects.hash( System.identityHashCode(type), options, extension );
+        }
+
+        @Override
+        public boolean equals( Object o ) {
+            if( this == o ) return true;
+            if( !(o instanceof Key k) ) return false;
+
+            final TSJavaClass type = get();
+            return type != null && type == k.get() && options.equals(k.options) && extension.equals(k.extension);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private final int maximumSize;
+    private final ReferenceQueue<TSJavaClass> queue = new ReferenceQueue<>();
+    private final Map<Key, TSRendering> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     *
+     * @param maximumSize maximum number of renderings
+     */
+    public TSDeclarationCache( int maximumSize ) {
+        if( maximumSize <= 0 ) throw new IllegalArgumentException( format("invalid maximum size [%d]", maximumSize) );
+
+        this.maximumSize = maximumSize;
+        this.entries = new LinkedHashMap<>( 16, 0.75f, true ) {
+            @Override
+            protected boolean removeEldestEntry( Map.Entry<Key, TSRendering> eldest ) {
+                if( size() <= TSDeclarationCache.this.maximumSize ) return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    /**
+     *
+     * @return the cache shared by the converters of this process
+     */
+    public static TSDeclarationCache shared() {
+        return SHARED;
+    }
+
+    /**
+     *
+     * @param extension {@link TSDeclarationBundle#DECLARATION} or {@link TSDeclarationBundle#STATIC_DEFINITION}
+     * @param type
+     * @param options
+     * @param declaredTypeMap
+     * @return the rendering of the given type, if cached and still valid for the given declared types
+     */
+    Optional<String> get( String extension, TSType type, Java2TSConverter.Options options, Map<String, TSType> declaredTypeMap ) {
+        return find( extension, type, options, declaredTypeMap ).map( TSRendering::content );
+    }
+
+    /**
+     *
+     * @param extension {@link TSDeclarationBundle#DECLARATION} or {@link TSDeclarationBundle#STATIC_DEFINITION}
+     * @param type
+     * @param options
+     * @param declaredTypeMap
+     * @return the rendering of the given type together with its lookups, if cached and still valid for the given declared types
+     */
+    Optional<TSRendering> find( String extension, TSType type, Java2TSConverter.Options options, Map<String, TSType> declaredTypeMap ) {
+        final TSRendering rendering;
+        synchronized( entries ) {
+            expunge();
+            rendering = entries.get( new Key( type.getJavaClass(), options, extension, null ) );
+        }
+
+        if( rendering == null || !rendering.isValid( type, declaredTypeMap ) ) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of( rendering );
+    }
+
+    /**
+     *
+     * @param extension {@link TSDeclarationBundle#DECLARATION} or {@link TSDeclarationBundle#STATIC_DEFINITION}
+     * @param type
+     * @param options
+     * @param rendering rendering of the given type, replacing the cached one
+     */
+    void put( String extension, TSType type, Java2TSConverter.Options options, TSRendering rendering ) {
+        synchronized( entries ) {
+            expunge();
+            entries.put( new Key( type.getJavaClass(), options, extension, queue ), rendering );
+        }
+    }
+
+    /**
+     * evict the entries whose class model has been collected, must hold the lock of the entries
+     */
+    private void expunge() {
+        for( Reference<? extends TSJavaClass> key; (key = queue.poll()) != null; ) {
+            if( entries.remove(key) != null ) evictions.increment();
+        }
+    }
+
+    /**
+     *
+     * @return number of cached renderings
+     */
+    public int size() {
+        synchronized( entries ) {
+            expunge();
+            return entries.size();
+        }
+    }
+
+    /**
+     *
+     * @return hits, misses and evictions counted so far
+     */
+    public Stats stats() {
+        return new Stats( hits.sum(), misses.sum(), evictions.sum() );
+    }
+
+    /**
+     * remove all the renderings, the counts are kept
+     */
+    public void clear() {
+        synchronized( entries ) {
+            while( queue.poll() != null );
+            entries.clear();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.bsc.java2typescript;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Signature digest of the types to convert, used to detect which declarations must be regenerated.
+ *
+ * A digest covers everything the rendering of a type depends on: its attributes, the public signature
+ * of its members (inherited ones included), the converter options and the declared type map, since
+ * whether a referenced type is declared changes how it is rendered.
+ *
+ * @author bsorrentino
+ *
+ */
+public final class TSFingerprint {
+
+    /**
+     * bump it whenever the rendering changes, to invalidate digests computed by previous versions
+     */
+    private static final String FORMAT_VERSION = "2";
+
+    private final byte[] context;
+
+    private TSFingerprint( byte[] context ) {
+        this.context = context;
+    }
+
+    /**
+     *
+     * @param declaredTypeMap
+     * @param options
+     * @return fingerprint bound to the given declared type map and converter options
+     */
+    public static TSFingerprint of( Map<String, TSType> declaredTypeMap, Java2TSConverter.Options options ) {
+        Objects.requireNonNull(declaredTypeMap, "declaredTypeMap is null!");
+        Objects.requireNonNull(options, "options is null!");
+
+        final MessageDigest md = newDigest();
+
+        update( md, FORMAT_VERSION );
+        update( md, Java2TSConverter.class.getPackage().getImplementationVersion() );
+        update( md, options.compatibility.name() );
+        update( md, String.valueOf(options.foreignObjectPrototype) );
+        update( md, String.valueOf(options.omitInherited) );
+
+        new TreeMap<>(declaredTypeMap).forEach( (name, type) -> {
+            update( md, name );
+            appendAttributes( md, type );
+        });
+
+        return new TSFingerprint( md.digest() );
+    }
+
+    /**
+     *
+     * @param type
+     * @return hex digest of the given type
+     */
+    public String digest( TSType type ) {
+        Objects.requireNonNull(type, "type is null!");
+
+        final MessageDigest md = newDigest();
+
+        md.update(context);
+
+        update( md, type.getJavaClass().getName() );
+        appendAttributes( md, type );
+
+        final TSTypeMetadata metadata = type.getMetadata();
+
+        update( md, String.valueOf(metadata.getModifiers()) );
+        metadata.getSuperclass().ifPresent( c -> update( md, c.getName() ) );
+        metadata.getInterfaces().forEach( c -> update( md, c.getName() ) );
+        appendGenericSupertypes( md, type.getJavaClass() );
+        metadata.getTypeParameterNames().forEach( name -> update( md, name ) );
+        metadata.getEnumConstants().forEach( name -> update( md, name ) );
+        // members are sorted because the order returned by reflection is not stable across runs
+        Stream.of( metadata.getConstructors().stream().map(TSFingerprint::signature),
+                   metadata.getMethods().stream().map(TSFingerprint::signature),
+                   metadata.getFields().stream().map(TSJavaField::toGenericString) )
+                .flatMap( Function.identity() )
+                .sorted()
+                .forEach( s -> update( md, s ) );
+
+        return HexFormat.of().formatHex( md.digest() );
+    }
+
+    private static void appendAttributes( MessageDigest md, TSType type ) {
+        update( md, type.getTypeName() );
+        update( md, type.getNamespace() );
+        update( md, String.valueOf(type.isExport()) );
+        update( md, String.valueOf(type.isFunctional()) );
+        update( md, type.getPre() );
+        update( md, type.getPost() );
+    }
+
+    /**
+     * the type arguments of the supertypes, all the way up, select the declared supertypes a declaration extends
+     * and the overrides omitted with the inherited members (see {@link Java2TSConverter.Builder#omitInherited(boolean)})
+     *
+     * @param md
+     * @param type
+     */
+    private static void appendGenericSupertypes( MessageDigest md, TSJavaClass type ) {
+        final Set<String> visited = new HashSet<>();
+        final Deque<TSJavaClass> queue = new ArrayDeque<>();
+        queue.add(type);
+        visited.add(type.getName());
+
+        while( !queue.isEmpty() ) {
+            final TSJavaClass c = queue.poll();
+            update( md, c.getName() );
+            c.getGenericSuperclass().ifPresent( t -> update( md, t.getTypeName() ) );
+            c.getGenericInterfaces().forEach( t -> update( md, t.getTypeName() ) );
+
+            c.getSuperclass().filter( s -> visited.add(s.getName()) ).ifPresent( queue::add );
+            c.getInterfaces().stream().filter( i -> visited.add(i.getName()) ).forEach( queue::add );
+        }
+    }
+
+    private static String signature( TSJavaMethod e ) {
+        final StringBuilder result = new StringBuilder(e.toGenericString());
+        for( TSJavaParameter p : e.getParameters() ) {
+            result.append(' ').append(p.name());
+            p.tsType().ifPresent( value -> result.append(':').append(value) );
+        }
+        return result.toString();
+    }
+
+    private static void update( MessageDigest md, String value ) {
+        md.update( String.valueOf(value).getBytes(StandardCharsets.UTF_8) );
+        md.update( (byte)0 );
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,17 +1,23 @@
 package org.bsc.java2typescript;
 
-import java.util.Collections;
-import java.util.Set;
-import java.util.stream.Collectors;
-
 import static java.lang.String.format;
 
-public record TSGlobal(String name, Class<?> type ) {
+/**
+ * global constant declared with the given type
+ *
+ * @param name
+ * @param type model of the type, read from the same {@link TSClassSource} of the declared types
+ */
+public record TSGlobal(String name, TSJavaClass type ) {
 
-    public static TSGlobal of(String name, Class<?> type ) {
+    public static TSGlobal of(String name, TSJavaClass type ) {
         return new TSGlobal( name, type );
     }
 
+    public static TSGlobal of(String name, Class<?> type ) {
+        return new TSGlobal( name, TSJavaClass.of(type) );
+    }
+
     @Override
     public String toString() {
         return format( "TSGlobal: { name: '%s', type: %s  }",
@@ -0,0 +1,256 @@
+package org.bsc.java2typescript;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Declared supertypes a declaration extends, when the members inherited from them are omitted
+ * (see {@link Java2TSConverter.Builder#omitInherited(boolean)}).
+ *
+ * An interface extends its nearest declared super interfaces, a class its nearest declared superclass, looking
+ * through the supertypes that are not declared. Functional and aliased types are never extended, since their
+ * declarations don't render all their members.
+ *
+ * Supertypes are seen from the declaring type: their type arguments are expressed by its type variables,
+ * so that an override can be compared with the overridden method.
+ *
+ * @author bsorrentino
+ */
+final class TSInheritance {
+
+    /**
+     * declared supertype extended by a declaration
+     *
+     * @param type declared type
+     * @param reference supertype as seen from the declaring type (eg. {@code java.util.List<E>})
+     */
+    record Parent( TSType type, TSJavaType reference ) {}
+
+    private final TSType type;
+    private final List<Parent> parents;
+    /** supertypes as seen from the declaring type, by class name */
+    private final Map<String, TSJavaType> views;
+    /** classes whose members are inherited from the parents */
+    private final Set<String> inherited;
+
+    private TSInheritance( TSType type, List<Parent> parents, Map<String, TSJavaType> views ) {
+        this.type = type;
+        this.parents = parents;
+        this.views = views;
+        this.inherited = parents.stream()
+                            .flatMap( p -> p.type().getMetadata().getSupertypes().stream() )
+                            .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     *
+     * @param type
+     * @param declaredTypeMap
+     * @return declared supertypes extended by the declaration of the given type
+     */
+    static TSInheritance of( TSType type, Map<String, TSType> declaredTypeMap ) {
+        final TSJavaClass javaClass = type.getJavaClass();
+
+        final Map<String, TSJavaType> views = new HashMap<>();
+        final Map<String, TSJavaClass> classes = new HashMap<>();
+        final Deque<TSJavaClass> queue = new ArrayDeque<>();
+        queue.add(javaClass);
+        classes.put(javaClass.getName(), javaClass);
+
+        while( !queue.isEmpty() ) {
+            final TSJavaClass c = queue.poll();
+            final Map<String, TSJavaType> bindings = bindings( c, views.get(c.getName()) );
+
+            final List<TSJavaClass> supers = new ArrayList<>();
+            final List<TSJavaType> references = new ArrayList<>();
+            c.getSuperclass().ifPresent( supers::add );
+            c.getGenericSuperclass().ifPresent( references::add );
+            supers.addAll( c.getInterfaces() );
+            references.addAll( c.getGenericInterfaces() );
+
+            for( int i = 0 ; i < supers.size() ; ++i ) {
+                final TSJavaClass s = supers.get(i);
+                final TSJavaType reference = ( i < references.size() && s.getName().equals(rawName(references.get(i))) ) ?
+                        references.get(i) :
+                        s.asType();
+
+                if( classes.putIfAbsent( s.getName(), s ) == null ) {
+                    views.put( s.getName(), substitute( reference, bindings ) );
+                    queue.add(s);
+                }
+            }
+        }
+
+        final Map<String, Parent> parents = new LinkedHashMap<>();
+        if( javaClass.isInterface() ) {
+            collectInterfaces( javaClass, type, declaredTypeMap, classes, views, parents );
+        }
+        else {
+            for( Optional<TSJavaClass> s = javaClass.getSuperclass(); s.isPresent(); s = s.get().getSuperclass() ) {
+                final Optional<TSType> parent = parent( s.get().getName(), type, declaredTypeMap );
+                if( parent.isPresent() ) {
+                    parents.put( s.get().getName(), new Parent( parent.get(), views.get(s.get().getName()) ) );
+                    break;
+                }
+            }
+        }
+
+        // a parent extending another one is enough
+        final List<Parent> result = parents.values().stream()
+                .filter( p -> parents.keySet().stream()
+                                .filter( name -> !name.equals(p.type().getJavaClass().getName()) )
+                                .noneMatch( name -> parents.get(name).type().getMetadata().getSupertypes()
+                                                        .contains( p.type().getJavaClass().getName() ) ) )
+                .collect(Collectors.toUnmodifiableList());
+
+        return new TSInheritance( type, result, views );
+    }
+
+    private static void collectInterfaces( TSJavaClass c,
+                                           TSType type,
+                                           Map<String, TSType> declaredTypeMap,
+                                           Map<String, TSJavaClass> classes,
+                                           Map<String, TSJavaType> views,
+                                           Map<String, Parent> parents )
+    {
+        for( TSJavaClass i : c.getInterfaces() ) {
+            final Optional<TSType> parent = parent( i.getName(), type, declaredTypeMap );
+            if( parent.isPresent() ) {
+                parents.putIfAbsent( i.getName(), new Parent( parent.get(), views.get(i.getName()) ) );
+            }
+            else {
+                collectInterfaces( classes.getOrDefault(i.getName(), i), type, declaredTypeMap, classes, views, parents );
+            }
+        }
+    }
+
+    private static Optional<TSType> parent( String name, TSType type, Map<String, TSType> declaredTypeMap ) {
+        if( name.equals( type.getJavaClass().getName() ) ) return Optional.empty();
+
+        return Optional.ofNullable( declaredTypeMap.get(name) )
+                    .filter( t -> !t.isFunctional() && !t.hasAlias() );
+    }
+
+    private static String rawName( TSJavaType type ) {
+        if( type instanceof TSJavaType.ParameterizedType p ) return p.rawType().name();
+        if( type instanceof TSJavaType.ClassType c ) return c.name();
+        return type.getTypeName();
+    }
+
+    /**
+     *
+     * @param c
+     * @param view type of the given class as seen from the declaring type, null for the declaring type itself
+     * @return type arguments of the given view, by type variable of the given class
+     */
+    private static Map<String, TSJavaType> bindings( TSJavaClass c, TSJavaType view ) {
+        if( view == null ) return Map.of();
+
+        final List<TSJavaTypeParameter> parameters = c.getTypeParameters();
+        final Map<String, TSJavaType> result = new HashMap<>();
+        for( int i = 0 ; i < parameters.size() ; ++i ) {
+            // raw types are erased to object
+            result.put( parameters.get(i).name(),
+                        ( view instanceof TSJavaType.ParameterizedType p && p.arguments().size() == parameters.size() ) ?
+                            p.arguments().get(i) :
+                            TSJavaType.OBJECT );
+        }
+        return result;
+    }
+
+    private static TSJavaType substitute( TSJavaType type, Map<String, TSJavaType> bindings ) {
+        if( bindings.isEmpty() ) return type;
+
+        if( type instanceof TSJavaType.TypeVariable tv ) {
+            return bindings.getOrDefault( tv.name(), tv );
+        }
+        if( type instanceof TSJavaType.ParameterizedType p ) {
+            return new TSJavaType.ParameterizedType( p.rawType(),
+                        substitute( p.arguments(), bindings ),
+                        ( p.owner() != null ) ? (TSJavaType.ParameterizedType)substitute( p.owner(), bindings ) : null );
+        }
+        if( type instanceof TSJavaType.ArrayType a ) {
+            return new TSJavaType.ArrayType( substitute( a.component(), bindings ) );
+        }
+        if( type instanceof TSJavaType.WildcardType w ) {
+            return new TSJavaType.WildcardType( substitute( w.upperBounds(), bindings ), substitute( w.lowerBounds(), bindings ) );
+        }
+        return type;
+    }
+
+    private static List<TSJavaType> substitute( List<TSJavaType> types, Map<String, TSJavaType> bindings ) {
+        return types.stream().map( t -> substitute( t, bindings ) ).collect(Collectors.toList());
+    }
+
+    /**
+     *
+     * @return declared supertypes extended by the declaration
+     */
+    List<Parent> getParents() {
+        return parents;
+    }
+
+    /**
+     *
+     * @param m field or method of the declaring type
+     * @return true if the given member is declared by a parent or by one of its supertypes
+     */
+    boolean isInherited( TSJavaMember m ) {
+        return inherited.contains( m.getDeclaringClass().getName() );
+    }
+
+    /**
+     *
+     * @param m method of the declaring type
+     * @return true if the given method overrides a method of a parent with the same signature, as seen from the
+     * declaring type
+     */
+    boolean isSameAsInherited( TSJavaMethod m ) {
+        final Optional<Signature> signature = signature(m);
+        if( signature.isEmpty() ) return false;
+
+        return parents.stream()
+                .flatMap( p -> p.type().getMetadata().getMethods().stream() )
+                .filter( pm -> !pm.isStatic()
+                                && pm.getName().equals(m.getName())
+                                && pm.getParameterTypes().size() == m.getParameterTypes().size() )
+                .anyMatch( pm -> signature.equals( signature(pm) ) );
+    }
+
+    /**
+     * signature of a method as seen from the declaring type
+     *
+     * @param typeVariables names of the type variables of the method
+     * @param parameterTypes
+     * @param returnType
+     */
+    private record Signature( List<String> typeVariables, List<TSJavaType> parameterTypes, TSJavaType returnType ) {}
+
+    private Optional<Signature> signature( TSJavaMethod m ) {
+        final String declaringClass = m.getDeclaringClass().getName();
+        final boolean self = declaringClass.equals( type.getJavaClass().getName() );
+        if( !self && !views.containsKey(declaringClass) ) return Optional.empty();
+
+        final Map<String, TSJavaType> bindings = new HashMap<>( ( self ) ?
+                Map.of() :
+                bindings( m.getDeclaringClass(), views.get(declaringClass) ) );
+
+        // type variables of the method hide the ones of its class
+        final List<String> typeVariables = m.getTypeParameters().stream()
+                                                .map( TSJavaTypeParameter::name )
+                                                .collect(Collectors.toList());
+        typeVariables.forEach( bindings::remove );
+
+        return Optional.of( new Signature( typeVariables,
+                                           substitute( m.getGenericParameterTypes(), bindings ),
+                                           substitute( m.getGenericReturnType(), bindings ) ) );
+    }
+}
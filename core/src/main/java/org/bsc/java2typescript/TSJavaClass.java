@@ -0,0 +1,180 @@
+package org.bsc.java2typescript;
+
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Java class or interface to convert, independent of the source it has been read from.
+ *
+ * The conversion pipeline works on this model only, so that types can be read through reflection
+ * ({@link #of(Class)}), from class files ({@link TSClassPath}) or from any other source without
+ * loading them.
+ *
+ * @author bsorrentino
+ *
+ */
+public abstract class TSJavaClass {
+
+    private volatile TSTypeMetadata metadata;
+
+    protected TSJavaClass() {}
+
+    /**
+     *
+     * @param type
+     * @return cached model of the given class, backed by reflection
+     */
+    public static TSJavaClass of( Class<?> type ) {
+        return TSReflectionClass.forClass(type);
+    }
+
+    /**
+     *
+     * @return binary name (eg. {@code java.util.Map$Entry})
+     */
+    public abstract String getName();
+
+    /**
+     *
+     * @return
+     */
+    public abstract String getSimpleName();
+
+    /**
+     *
+     * @return
+     */
+    public String getPackageName() {
+        final String name = getName();
+        final int index = name.lastIndexOf('.');
+        return ( index < 0 ) ? "" : name.substring(0, index);
+    }
+
+    /**
+     *
+     * @return modifiers, as returned by {@link Class#getModifiers()}
+     */
+    public abstract int getModifiers();
+
+    public boolean isInterface() {
+        return Modifier.isInterface(getModifiers());
+    }
+
+    public boolean isAbstract() {
+        return Modifier.isAbstract(getModifiers());
+    }
+
+    public boolean isEnum() {
+        return (getModifiers() & TSJavaMember.ENUM) != 0 &&
+                getSuperclass().map(TSJavaClass::getName).filter("java.lang.Enum"::equals).isPresent();
+    }
+
+    public boolean isMemberClass() {
+        return getDeclaringClass().isPresent();
+    }
+
+    /**
+     *
+     * @return declaring class of a member class
+     */
+    public abstract Optional<TSJavaClass> getDeclaringClass();
+
+    /**
+     *
+     * @return superclass, empty for interfaces and {@code java.lang.Object}
+     */
+    public abstract Optional<TSJavaClass> getSuperclass();
+
+    /**
+     *
+     * @return directly implemented interfaces
+     */
+    public abstract List<TSJavaClass> getInterfaces();
+
+    /**
+     *
+     * @return superclass with the type arguments given by this class, raw if not available
+     */
+    public Optional<TSJavaType> getGenericSuperclass() {
+        return getSuperclass().map(TSJavaClass::asType);
+    }
+
+    /**
+     *
+     * @return directly implemented interfaces with the type arguments given by this class, raw if not available
+     */
+    public List<TSJavaType> getGenericInterfaces() {
+        return getInterfaces().stream().map(TSJavaClass::asType).collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     *
+     * @return
+     */
+    public abstract List<TSJavaTypeParameter> getTypeParameters();
+
+    /**
+     *
+     * @return declared methods, including synthetic and bridge ones, excluding initializers
+     */
+    public abstract List<TSJavaMethod> getDeclaredMethods();
+
+    /**
+     *
+     * @return declared constructors
+     */
+    public abstract List<TSJavaMethod> getDeclaredConstructors();
+
+    /**
+     *
+     * @return declared fields
+     */
+    public abstract List<TSJavaField> getDeclaredFields();
+
+    /**
+     *
+     * @param annotationName fully qualified name of an annotation type
+     * @return true if a runtime visible annotation of the given type is present
+     */
+    public abstract boolean isAnnotationPresent( String annotationName );
+
+    /**
+     *
+     * @return the loaded class, resolved by name if this model is not backed by reflection
+     */
+    public Optional<Class<?>> toClass() {
+        return TSClassResolver.resolve(getName());
+    }
+
+    /**
+     *
+     * @return type referring to this class
+     */
+    public TSJavaType.ClassType asType() {
+        return new TSJavaType.ClassType(getName());
+    }
+
+    /**
+     *
+     * @return metadata computed once from this model
+     */
+    public final TSTypeMetadata getMetadata() {
+        TSTypeMetadata result = metadata;
+        if( result == null ) {
+            synchronized(this) {
+                result = metadata;
+                if( result == null ) {
+                    metadata = result = new TSTypeMetadata(this);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+}
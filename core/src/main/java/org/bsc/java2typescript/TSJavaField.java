@@ -0,0 +1,106 @@
+package org.bsc.java2typescript;
+
+import java.lang.reflect.Modifier;
+import java.util.Objects;
+
+/**
+ * Field of a {@link TSJavaClass}.
+ *
+ * Equality follows the {@link java.lang.reflect.Field} one (declaring class, name and erased type),
+ * so does the hash code.
+ *
+ * @author bsorrentino
+ *
+ */
+public final class TSJavaField implements TSJavaMember {
+
+    /**
+     *
+     * @param declaringClass
+     * @param name
+     * @param modifiers
+     * @param genericType
+     * @param type erased type
+     * @return
+     */
+    public static TSJavaField of( TSJavaClass declaringClass, String name, int modifiers, TSJavaType genericType, TSJavaType type ) {
+        return new TSJavaField(declaringClass, name, modifiers, genericType, type);
+    }
+
+    private final TSJavaClass declaringClass;
+    private final String name;
+    private final int modifiers;
+    private final TSJavaType genericType;
+    private final TSJavaType type;
+
+    private TSJavaField( TSJavaClass declaringClass, String name, int modifiers, TSJavaType genericType, TSJavaType type ) {
+        this.declaringClass = Objects.requireNonNull(declaringClass, "declaringClass is null!");
+        this.name = Objects.requireNonNull(name, "name is null!");
+        this.modifiers = modifiers;
+        this.genericType = Objects.requireNonNull(genericType, "genericType is null!");
+        this.type = Objects.requireNonNull(type, "type is null!");
+    }
+
+    @Override
+    public TSJavaClass getDeclaringClass() {
+        return declaringClass;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getModifiers() {
+        return modifiers;
+    }
+
+    public boolean isEnumConstant() {
+        return (modifiers & ENUM) != 0;
+    }
+
+    public TSJavaType getGenericType() {
+        return genericType;
+    }
+
+    /**
+     *
+     * @return erased type
+     */
+    public TSJavaType getType() {
+        return type;
+    }
+
+    /**
+     *
+     * @return same result of {@link java.lang.reflect.Field#toGenericString()}
+     */
+    @Override
+    public String toGenericString() {
+        return ( ( modifiers == 0 ) ? "" : Modifier.toString(modifiers) + " " ) +
+                genericType.getTypeName() + " " +
+                declaringClass.getName() + "." +
+                name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if( this == o ) return true;
+        if( !(o instanceof TSJavaField other) ) return false;
+
+        return declaringClass.getName().equals(other.declaringClass.getName()) &&
+                name.equals(other.name) &&
+                type.equals(other.type);
+    }
+
+    @Override
+    public int hashCode() {
+        return declaringClass.getName().hashCode() ^ name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return toGenericString();
+    }
+}
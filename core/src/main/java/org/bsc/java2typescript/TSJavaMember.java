@@ -0,0 +1,65 @@
+package org.bsc.java2typescript;
+
+import java.lang.reflect.Modifier;
+
+/**
+ * Member (method, constructor or field) of a {@link TSJavaClass}
+ *
+ * @author bsorrentino
+ *
+ */
+public interface TSJavaMember {
+
+    int BRIDGE    = 0x00000040;
+    int VARARGS   = 0x00000080;
+    int SYNTHETIC = 0x00001000;
+    int ENUM      = 0x00004000;
+
+    /**
+     *
+     * @return declaring class
+     */
+    TSJavaClass getDeclaringClass();
+
+    /**
+     *
+     * @return
+     */
+    String getName();
+
+    /**
+     *
+     * @return modifiers, as returned by {@link java.lang.reflect.Member#getModifiers()}
+     */
+    int getModifiers();
+
+    /**
+     *
+     * @return
+     */
+    default boolean isSynthetic() {
+        return (getModifiers() & SYNTHETIC) != 0;
+    }
+
+    /**
+     *
+     * @return
+     */
+    default boolean isStatic() {
+        return Modifier.isStatic(getModifiers());
+    }
+
+    /**
+     *
+     * @return
+     */
+    default boolean isPublic() {
+        return Modifier.isPublic(getModifiers());
+    }
+
+    /**
+     *
+     * @return declaration in the {@link java.lang.reflect.Member} {@code toGenericString()} format
+     */
+    String toGenericString();
+}
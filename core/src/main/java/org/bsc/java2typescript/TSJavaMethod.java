@@ -0,0 +1,340 @@
+package org.bsc.java2typescript;
+
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
+
+/**
+ * Method or constructor of a {@link TSJavaClass}.
+ *
+ * Equality follows the {@link java.lang.reflect.Method} one (declaring class, name, erased parameter
+ * and return types), so does the hash code.
+ *
+ * @author bsorrentino
+ *
+ */
+public final class TSJavaMethod implements TSJavaMember {
+
+    private static final TSJavaType VOID = new TSJavaType.ClassType("void");
+
+    /**
+     * Builder of {@link TSJavaMethod}
+     */
+    public static final class Builder {
+
+        private final TSJavaClass declaringClass;
+        private final boolean constructor;
+        private String name;
+        private int modifiers;
+        private List<TSJavaTypeParameter> typeParameters = List.of();
+        private List<TSJavaParameter> parameters = List.of();
+        private List<TSJavaType> genericParameterTypes;
+        private List<TSJavaType> parameterTypes;
+        private TSJavaType genericReturnType = VOID;
+        private TSJavaType returnType;
+        private List<TSJavaType> exceptionTypes = List.of();
+
+        private Builder( TSJavaClass declaringClass, boolean constructor ) {
+            this.declaringClass = Objects.requireNonNull(declaringClass, "declaringClass is null!");
+            this.constructor = constructor;
+            this.name = ( constructor ) ? declaringClass.getName() : null;
+        }
+
+        public Builder name( String value ) {
+            this.name = value;
+            return this;
+        }
+
+        public Builder modifiers( int value ) {
+            this.modifiers = value;
+            return this;
+        }
+
+        public Builder typeParameters( List<TSJavaTypeParameter> value ) {
+            this.typeParameters = value;
+            return this;
+        }
+
+        /**
+         *
+         * @param value parameters, including synthetic ones
+         * @return
+         */
+        public Builder parameters( List<TSJavaParameter> value ) {
+            this.parameters = value;
+            return this;
+        }
+
+        /**
+         *
+         * @param value generic parameter types as declared by the signature, parameter types if not set
+         * @return
+         */
+        public Builder genericParameterTypes( List<TSJavaType> value ) {
+            this.genericParameterTypes = value;
+            return this;
+        }
+
+        /**
+         *
+         * @param value erased parameter types, types of the parameters if not set
+         * @return
+         */
+        public Builder parameterTypes( List<TSJavaType> value ) {
+            this.parameterTypes = value;
+            return this;
+        }
+
+        public Builder genericReturnType( TSJavaType value ) {
+            this.genericReturnType = value;
+            return this;
+        }
+
+        /**
+         *
+         * @param value erased return type, generic return type if not set
+         * @return
+         */
+        public Builder returnType( TSJavaType value ) {
+            this.returnType = value;
+            return this;
+        }
+
+        public Builder exceptionTypes( List<TSJavaType> value ) {
+            this.exceptionTypes = value;
+            return this;
+        }
+
+        public TSJavaMethod build() {
+            final List<TSJavaType> rawTypes = ( parameterTypes != null ) ?
+                    parameterTypes :
+                    parameters.stream().map(TSJavaParameter::type).collect(Collectors.toList());
+
+            return new TSJavaMethod( this,
+                    rawTypes,
+                    ( genericParameterTypes != null ) ? genericParameterTypes : rawTypes,
+                    ( returnType != null ) ? returnType : genericReturnType );
+        }
+    }
+
+    /**
+     *
+     * @param declaringClass
+     * @return builder of a method
+     */
+    public static Builder method( TSJavaClass declaringClass ) {
+        return new Builder(declaringClass, false);
+    }
+
+    /**
+     *
+     * @param declaringClass
+     * @return builder of a constructor, named after its declaring class
+     */
+    public static Builder constructor( TSJavaClass declaringClass ) {
+        return new Builder(declaringClass, true);
+    }
+
+    private final TSJavaClass declaringClass;
+    private final boolean constructor;
+    private final String name;
+    private final int modifiers;
+    private final List<TSJavaTypeParameter> typeParameters;
+    private final List<TSJavaParameter> parameters;
+    private final List<TSJavaType> genericParameterTypes;
+    private final List<TSJavaType> parameterTypes;
+    private final TSJavaType genericReturnType;
+    private final TSJavaType returnType;
+    private final List<TSJavaType> exceptionTypes;
+
+    private TSJavaMethod( Builder builder, List<TSJavaType> parameterTypes, List<TSJavaType> genericParameterTypes, TSJavaType returnType ) {
+        this.declaringClass = builder.declaringClass;
+        this.constructor = builder.constructor;
+        this.name = Objects.requireNonNull(builder.name, "name is null!");
+        this.modifiers = builder.modifiers;
+        this.typeParameters = List.copyOf(builder.typeParameters);
+        this.parameters = List.copyOf(builder.parameters);
+        this.genericParameterTypes = List.copyOf(genericParameterTypes);
+        this.parameterTypes = List.copyOf(parameterTypes);
+        this.genericReturnType = Objects.requireNonNull(builder.genericReturnType, "genericReturnType is null!");
+        this.returnType = returnType;
+        this.exceptionTypes = List.copyOf(builder.exceptionTypes);
+    }
+
+    @Override
+    public TSJavaClass getDeclaringClass() {
+        return declaringClass;
+    }
+
+    /**
+     *
+     * @return method name, binary name of the declaring class for a constructor
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getModifiers() {
+        return modifiers;
+    }
+
+    public boolean isConstructor() {
+        return constructor;
+    }
+
+    public boolean isBridge() {
+        return (modifiers & BRIDGE) != 0;
+    }
+
+    public boolean isVarArgs() {
+        return (modifiers & VARARGS) != 0;
+    }
+
+    public boolean isAbstract() {
+        return Modifier.isAbstract(modifiers);
+    }
+
+    /**
+     *
+     * @return true if it is a public non-abstract instance method declared in an interface
+     */
+    public boolean isDefault() {
+        return !constructor &&
+                (modifiers & (Modifier.ABSTRACT | Modifier.PUBLIC | Modifier.STATIC)) == Modifier.PUBLIC &&
+                declaringClass.isInterface();
+    }
+
+    public List<TSJavaTypeParameter> getTypeParameters() {
+        return typeParameters;
+    }
+
+    /**
+     *
+     * @return parameters, including synthetic ones
+     */
+    public List<TSJavaParameter> getParameters() {
+        return parameters;
+    }
+
+    /**
+     *
+     * @return erased parameter types
+     */
+    public List<TSJavaType> getParameterTypes() {
+        return parameterTypes;
+    }
+
+    /**
+     *
+     * @return generic parameter types as declared by the signature
+     */
+    public List<TSJavaType> getGenericParameterTypes() {
+        return genericParameterTypes;
+    }
+
+    /**
+     *
+     * @return generic return type, {@code void} for a constructor
+     */
+    public TSJavaType getGenericReturnType() {
+        return genericReturnType;
+    }
+
+    /**
+     *
+     * @return erased return type, {@code void} for a constructor
+     */
+    public TSJavaType getReturnType() {
+        return returnType;
+    }
+
+    public List<TSJavaType> getExceptionTypes() {
+        return exceptionTypes;
+    }
+
+    /**
+     *
+     * @return same result of {@link java.lang.reflect.Method#toGenericString()} and {@link java.lang.reflect.Constructor#toGenericString()}
+     */
+    @Override
+    public String toGenericString() {
+        final StringBuilder sb = new StringBuilder();
+
+        final boolean isDefault = isDefault();
+        int mod = modifiers & (( constructor ) ? Modifier.constructorModifiers() : Modifier.methodModifiers());
+
+        if( mod != 0 && !isDefault ) {
+            sb.append(Modifier.toString(mod)).append(' ');
+        }
+        else {
+            final int accessMod = mod & (Modifier.PUBLIC | Modifier.PROTECTED | Modifier.PRIVATE);
+            if( accessMod != 0 )
+                sb.append(Modifier.toString(accessMod)).append(' ');
+            if( isDefault )
+                sb.append("default ");
+            mod = mod & ~(Modifier.PUBLIC | Modifier.PROTECTED | Modifier.PRIVATE);
+            if( mod != 0 )
+                sb.append(Modifier.toString(mod)).append(' ');
+        }
+
+        if( !typeParameters.isEmpty() ) {
+            sb.append( typeParameters.stream()
+                            .map(TSJavaTypeParameter::toGenericString)
+                            .collect(Collectors.joining(",", "<", "> ")));
+        }
+
+        if( constructor ) {
+            sb.append(declaringClass.getName());
+        }
+        else {
+            sb.append(genericReturnType.getTypeName()).append(' ')
+              .append(declaringClass.getName()).append('.')
+              .append(name);
+        }
+
+        final StringJoiner params = new StringJoiner(",", "(", ")");
+        for( int i = 0 ; i < genericParameterTypes.size() ; ++i ) {
+            final String param = genericParameterTypes.get(i).getTypeName();
+            params.add( ( isVarArgs() && i == genericParameterTypes.size() - 1 ) ?
+                    param.replaceFirst("\\[\\]$", "...") :
+                    param );
+        }
+        sb.append(params);
+
+        if( !exceptionTypes.isEmpty() ) {
+            sb.append( exceptionTypes.stream()
+                            .map(TSJavaType::getTypeName)
+                            .collect(Collectors.joining(",", " throws ", "")));
+        }
+
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if( this == o ) return true;
+        if( !(o instanceof TSJavaMethod other) ) return false;
+
+        return constructor == other.constructor &&
+                declaringClass.getName().equals(other.declaringClass.getName()) &&
+                name.equals(other.name) &&
+                returnType.equals(other.returnType) &&
+                parameterTypes.equals(other.parameterTypes);
+    }
+
+    @Override
+    public int hashCode() {
+        return ( constructor ) ?
+                declaringClass.getName().hashCode() :
+                declaringClass.getName().hashCode() ^ name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return toGenericString();
+    }
+}
@@ -0,0 +1,25 @@
+package org.bsc.java2typescript;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Parameter of a method or constructor
+ *
+ * @param name name of the parameter, {@code arg<index>} if not available
+ * @param type generic type of the parameter
+ * @param varArgs true if it is the variable arity parameter
+ * @param tsType value of the {@link org.bsc.java2typescript.annotation.TsType} annotation, if present
+ *
+ * @author bsorrentino
+ *
+ */
+public record TSJavaParameter( String name, TSJavaType type, boolean varArgs, Optional<String> tsType ) {
+
+    public TSJavaParameter {
+        Objects.requireNonNull(name, "name is null!");
+        Objects.requireNonNull(type, "type is null!");
+        Objects.requireNonNull(tsType, "tsType is null!");
+    }
+
+}
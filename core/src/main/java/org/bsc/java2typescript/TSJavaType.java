@@ -0,0 +1,163 @@
+package org.bsc.java2typescript;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Use of a java type (eg. type of a parameter, of a field or a return type), independent of
+ * the source it has been read from (reflection, class files, language model).
+ *
+ * Type names follow the {@link java.lang.reflect.Type#getTypeName()} format, so that a type read
+ * from a class file renders exactly as its reflective counterpart.
+ *
+ * @author bsorrentino
+ *
+ */
+public sealed interface TSJavaType {
+
+    ClassType OBJECT = new ClassType("java.lang.Object");
+
+    /**
+     *
+     * @return name in the {@link java.lang.reflect.Type#getTypeName()} format
+     */
+    String getTypeName();
+
+    /**
+     * class, interface or primitive type
+     *
+     * @param name binary name (eg. {@code java.util.Map$Entry}, {@code int})
+     */
+    record ClassType( String name ) implements TSJavaType {
+
+        public ClassType {
+            Objects.requireNonNull(name, "name is null!");
+        }
+
+        @Override
+        public String getTypeName() {
+            return name;
+        }
+    }
+
+    /**
+     * array type
+     *
+     * @param component
+     */
+    record ArrayType( TSJavaType component ) implements TSJavaType {
+
+        public ArrayType {
+            Objects.requireNonNull(component, "component is null!");
+        }
+
+        /**
+         *
+         * @return true if the element type is not a class (eg. {@code T[]}, {@code List<String>[]})
+         */
+        public boolean isGeneric() {
+            if( component instanceof ArrayType a ) return a.isGeneric();
+            return !(component instanceof ClassType);
+        }
+
+        @Override
+        public String getTypeName() {
+            return component.getTypeName().concat("[]");
+        }
+    }
+
+    /**
+     * parameterized type (eg. {@code List<String>})
+     *
+     * @param rawType
+     * @param arguments
+     * @param owner parameterized owner of an inner class type, null otherwise
+     */
+    record ParameterizedType( ClassType rawType, List<TSJavaType> arguments, ParameterizedType owner ) implements TSJavaType {
+
+        public ParameterizedType {
+            Objects.requireNonNull(rawType, "rawType is null!");
+            arguments = List.copyOf(arguments);
+        }
+
+        public ParameterizedType( ClassType rawType, List<TSJavaType> arguments ) {
+            this( rawType, arguments, null );
+        }
+
+        @Override
+        public String getTypeName() {
+            final StringBuilder sb = new StringBuilder();
+
+            if( owner != null ) {
+                sb.append(owner.getTypeName())
+                  .append('$')
+                  .append(rawType.name().replace( owner.rawType().name().concat("$"), ""));
+            }
+            else {
+                sb.append(rawType.name());
+            }
+
+            if( !arguments.isEmpty() ) {
+                sb.append( arguments.stream()
+                                .map(TSJavaType::getTypeName)
+                                .collect(Collectors.joining(", ", "<", ">")));
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * type variable
+     *
+     * @param name
+     */
+    record TypeVariable( String name ) implements TSJavaType {
+
+        public TypeVariable {
+            Objects.requireNonNull(name, "name is null!");
+        }
+
+        @Override
+        public String getTypeName() {
+            return name;
+        }
+    }
+
+    /**
+     * wildcard type argument, an unbounded wildcard has {@code java.lang.Object} as upper bound
+     *
+     * @param upperBounds
+     * @param lowerBounds
+     */
+    record WildcardType( List<TSJavaType> upperBounds, List<TSJavaType> lowerBounds ) implements TSJavaType {
+
+        public WildcardType {
+            upperBounds = List.copyOf(upperBounds);
+            lowerBounds = List.copyOf(lowerBounds);
+        }
+
+        @Override
+        public String getTypeName() {
+            final List<TSJavaType> bounds;
+            final String prefix;
+
+            if( !lowerBounds.isEmpty() ) {
+                bounds = lowerBounds;
+                prefix = "? super ";
+            }
+            else if( !upperBounds.isEmpty() && !upperBounds.get(0).equals(OBJECT) ) {
+                bounds = upperBounds;
+                prefix = "? extends ";
+            }
+            else {
+                return "?";
+            }
+
+            return bounds.stream()
+                        .map(TSJavaType::getTypeName)
+                        .collect(Collectors.joining(" & ", prefix, ""));
+        }
+    }
+
+}
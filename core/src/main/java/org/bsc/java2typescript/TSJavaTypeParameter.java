@@ -0,0 +1,43 @@
+package org.bsc.java2typescript;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Type parameter of a generic class or method
+ *
+ * @param name
+ * @param bounds upper bounds, {@code java.lang.Object} if not bounded
+ *
+ * @author bsorrentino
+ *
+ */
+public record TSJavaTypeParameter( String name, List<TSJavaType> bounds ) {
+
+    public TSJavaTypeParameter {
+        Objects.requireNonNull(name, "name is null!");
+        bounds = List.copyOf(bounds);
+    }
+
+    /**
+     *
+     * @return type variable referring to this parameter
+     */
+    public TSJavaType.TypeVariable asType() {
+        return new TSJavaType.TypeVariable(name);
+    }
+
+    /**
+     *
+     * @return declaration in the {@link java.lang.reflect.Method#toGenericString()} format (eg. {@code T extends Comparable<T>})
+     */
+    public String toGenericString() {
+        if( bounds.size() == 1 && bounds.get(0).equals(TSJavaType.OBJECT) ) {
+            return name;
+        }
+        return bounds.stream()
+                    .map(TSJavaType::getTypeName)
+                    .collect(Collectors.joining(" & ", name.concat(" extends "), ""));
+    }
+}
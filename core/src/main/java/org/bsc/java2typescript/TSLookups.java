@@ -0,0 +1,50 @@
+package org.bsc.java2typescript;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Declared type map recording the names looked up, so that a rendering knows the declared types it depends on.
+ *
+ * @author bsorrentino
+ */
+final class TSLookups extends AbstractMap<String, TSType> {
+
+    final Map<String, TSType> declaredTypeMap;
+    final Set<String> names;
+
+    /**
+     *
+     * @param declaredTypeMap
+     * @param names the looked up names are added to
+     */
+    TSLookups( Map<String, TSType> declaredTypeMap, Set<String> names ) {
+        this.declaredTypeMap = Objects.requireNonNull(declaredTypeMap, "declaredTypeMap is null!");
+        this.names = Objects.requireNonNull(names, "names is null!");
+    }
+
+    @Override
+    public TSType get( Object key ) {
+        names.add( String.valueOf(key) );
+        return declaredTypeMap.get(key);
+    }
+
+    @Override
+    public boolean containsKey( Object key ) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return declaredTypeMap.size();
+    }
+
+    @Override
+    public Set<Entry<String, TSType>> entrySet() {
+        // the whole map is read, the rendering depends on each declared type
+        names.addAll( declaredTypeMap.keySet() );
+        return declaredTypeMap.entrySet();
+    }
+}
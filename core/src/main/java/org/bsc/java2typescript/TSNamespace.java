@@ -1,6 +1,7 @@
 package org.bsc.java2typescript;
 
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -10,7 +11,7 @@ public record TSNamespace (String name, Set<TSType> types ) {
 
     public TSNamespace(String name, Set<TSType> types) {
         this.name = name;
-        this.types = Collections.unmodifiableSet(types);
+        this.types = Collections.unmodifiableSet(new LinkedHashSet<>(types));
     }
 
     public static TSNamespace of( String name, Set<TSType> types ) {
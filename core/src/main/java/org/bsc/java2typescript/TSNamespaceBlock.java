@@ -0,0 +1,63 @@
+package org.bsc.java2typescript;
+
+import static java.lang.String.format;
+
+/**
+ * {@code declare namespace} block wrapping the declaration of a type.
+ *
+ * Each declaration is rendered in its own block, so that it can be cached and reused alone. A generation may instead
+ * write a single block for all the types of a namespace: the declarations are split into the content of their block
+ * and the trailer following it (ie. the {@code declare const} of an exported type, that belongs to the global scope).
+ *
+ * @author bsorrentino
+ */
+public final class TSNamespaceBlock {
+
+    /**
+     * declaration of a type split around its namespace block
+     *
+     * @param namespace namespace of the block, null if the declaration isn't wrapped in a block (ie. aliased types)
+     * @param content declaration within the block
+     * @param trailer declaration following the block, empty if none
+     */
+    public record Declaration( String namespace, String content, String trailer ) {}
+
+    private TSNamespaceBlock() {}
+
+    /**
+     *
+     * @param namespace
+     * @return opening of the block of the given namespace
+     */
+    public static String begin( String namespace ) {
+        return format( "declare namespace %s {\n\n", namespace );
+    }
+
+    /**
+     *
+     * @param namespace
+     * @return closing of the block of the given namespace
+     */
+    public static String end( String namespace ) {
+        return format( "\n} // end namespace %s\n", namespace );
+    }
+
+    /**
+     *
+     * @param type
+     * @param declaration declaration rendered for the given type
+     * @return the given declaration split around its namespace block
+     */
+    public static Declaration split( TSType type, CharSequence declaration ) {
+        final String rendering = declaration.toString();
+        if( !type.supportNamespace() ) return new Declaration( null, rendering, "" );
+
+        final String begin = begin( type.getNamespace() );
+        final int end = rendering.lastIndexOf( end( type.getNamespace() ) );
+        if( !rendering.startsWith(begin) || end < begin.length() ) return new Declaration( null, rendering, "" );
+
+        return new Declaration( type.getNamespace(),
+                                rendering.substring( begin.length(), end ),
+                                rendering.substring( end + end( type.getNamespace() ).length() ) );
+    }
+}
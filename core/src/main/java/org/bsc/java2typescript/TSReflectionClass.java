@@ -0,0 +1,224 @@
+package org.bsc.java2typescript;
+
+import org.bsc.java2typescript.annotation.TsType;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * {@link TSJavaClass} backed by reflection, cached per class through a {@link ClassValue}
+ * so that it doesn't pin class loaders.
+ *
+ * @author bsorrentino
+ *
+ */
+final class TSReflectionClass extends TSJavaClass {
+
+    private static final ClassValue<TSReflectionClass> CACHE = new ClassValue<>() {
+        @Override
+        protected TSReflectionClass computeValue(Class<?> type) {
+            return new TSReflectionClass(type);
+        }
+    };
+
+    /**
+     *
+     * @param type
+     * @return cached model of the given class
+     */
+    static TSReflectionClass forClass( Class<?> type ) {
+        return CACHE.get(type);
+    }
+
+    /**
+     *
+     * @param type
+     * @return model of the given reflective type
+     */
+    static TSJavaType toJavaType( Type type ) {
+        if( type instanceof Class<?> c ) {
+            return ( c.isArray() ) ?
+                    new TSJavaType.ArrayType( toJavaType(c.getComponentType()) ) :
+                    new TSJavaType.ClassType( c.getName() );
+        }
+        if( type instanceof ParameterizedType p ) {
+            return new TSJavaType.ParameterizedType(
+                    new TSJavaType.ClassType( ((Class<?>)p.getRawType()).getName() ),
+                    toJavaTypes(p.getActualTypeArguments()),
+                    ( p.getOwnerType() instanceof ParameterizedType owner ) ?
+                            (TSJavaType.ParameterizedType)toJavaType(owner) :
+                            null );
+        }
+        if( type instanceof TypeVariable<?> tv ) {
+            return new TSJavaType.TypeVariable( tv.getName() );
+        }
+        if( type instanceof WildcardType wt ) {
+            return new TSJavaType.WildcardType( toJavaTypes(wt.getUpperBounds()), toJavaTypes(wt.getLowerBounds()) );
+        }
+        if( type instanceof GenericArrayType at ) {
+            return new TSJavaType.ArrayType( toJavaType(at.getGenericComponentType()) );
+        }
+        throw new IllegalArgumentException( "type is a  not recognised type!");
+    }
+
+    private static List<TSJavaType> toJavaTypes( Type[] types ) {
+        return Stream.of(types).map(TSReflectionClass::toJavaType).collect(Collectors.toUnmodifiableList());
+    }
+
+    private static List<TSJavaTypeParameter> toTypeParameters( TypeVariable<?>[] typeParameters ) {
+        return Stream.of(typeParameters)
+                .map( tv -> new TSJavaTypeParameter( tv.getName(), toJavaTypes(tv.getBounds()) ))
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     *
+     * @param e
+     * @return model of the given method or constructor
+     */
+    static TSJavaMethod toJavaMethod( Executable e ) {
+
+        final TSJavaMethod.Builder builder = ( e instanceof Constructor ) ?
+                TSJavaMethod.constructor( forClass(e.getDeclaringClass()) ) :
+                TSJavaMethod.method( forClass(e.getDeclaringClass()) ).name( e.getName() );
+
+        if( e instanceof Method m ) {
+            builder.genericReturnType( toJavaType(m.getGenericReturnType()) )
+                   .returnType( toJavaType(m.getReturnType()) );
+        }
+
+        return builder.modifiers( e.getModifiers() )
+                .typeParameters( toTypeParameters(e.getTypeParameters()) )
+                .parameters( Stream.of(e.getParameters())
+                        .map( p -> new TSJavaParameter( p.getName(),
+                                                        toJavaType(p.getParameterizedType()),
+                                                        p.isVarArgs(),
+                                                        Optional.ofNullable(p.getAnnotation(TsType.class)).map(TsType::value)))
+                        .collect(Collectors.toList()) )
+                .genericParameterTypes( toJavaTypes(e.getGenericParameterTypes()) )
+                .parameterTypes( toJavaTypes(e.getParameterTypes()) )
+                .exceptionTypes( toJavaTypes(e.getGenericExceptionTypes()) )
+                .build();
+    }
+
+    /**
+     *
+     * @param f
+     * @return model of the given field
+     */
+    static TSJavaField toJavaField( Field f ) {
+        return TSJavaField.of( forClass(f.getDeclaringClass()),
+                                f.getName(),
+                                f.getModifiers(),
+                                toJavaType(f.getGenericType()),
+                                toJavaType(f.getType()));
+    }
+
+    private final Class<?> type;
+
+    private TSReflectionClass( Class<?> type ) {
+        this.type = type;
+    }
+
+    @Override
+    public String getName() {
+        return type.getName();
+    }
+
+    @Override
+    public String getSimpleName() {
+        return type.getSimpleName();
+    }
+
+    @Override
+    public String getPackageName() {
+        return type.getPackageName();
+    }
+
+    @Override
+    public int getModifiers() {
+        return type.getModifiers();
+    }
+
+    @Override
+    public boolean isInterface() {
+        return type.isInterface();
+    }
+
+    @Override
+    public boolean isEnum() {
+        return type.isEnum();
+    }
+
+    @Override
+    public boolean isMemberClass() {
+        return type.isMemberClass();
+    }
+
+    @Override
+    public Optional<TSJavaClass> getDeclaringClass() {
+        return Optional.ofNullable(type.getDeclaringClass()).map(TSReflectionClass::forClass);
+    }
+
+    @Override
+    public Optional<TSJavaClass> getSuperclass() {
+        return Optional.ofNullable(type.getSuperclass()).map(TSReflectionClass::forClass);
+    }
+
+    @Override
+    public List<TSJavaClass> getInterfaces() {
+        return Stream.of(type.getInterfaces()).map(TSReflectionClass::forClass).collect(Collectors.toUnmodifiableList());
+    }
+
+    @Override
+    public Optional<TSJavaType> getGenericSuperclass() {
+        return Optional.ofNullable(type.getGenericSuperclass()).map(TSReflectionClass::toJavaType);
+    }
+
+    @Override
+    public List<TSJavaType> getGenericInterfaces() {
+        return toJavaTypes(type.getGenericInterfaces());
+    }
+
+    @Override
+    public List<TSJavaTypeParameter> getTypeParameters() {
+        return toTypeParameters(type.getTypeParameters());
+    }
+
+    @Override
+    public List<TSJavaMethod> getDeclaredMethods() {
+        return Stream.of(type.getDeclaredMethods()).map(TSReflectionClass::toJavaMethod).collect(Collectors.toUnmodifiableList());
+    }
+
+    @Override
+    public List<TSJavaMethod> getDeclaredConstructors() {
+        return Stream.of(type.getDeclaredConstructors()).map(TSReflectionClass::toJavaMethod).collect(Collectors.toUnmodifiableList());
+    }
+
+    @Override
+    public List<TSJavaField> getDeclaredFields() {
+        return Stream.of(type.getDeclaredFields()).map(TSReflectionClass::toJavaField).collect(Collectors.toUnmodifiableList());
+    }
+
+    @Override
+    public boolean isAnnotationPresent( String annotationName ) {
+        return Stream.of(type.getAnnotations())
+                .anyMatch( a -> a.annotationType().getName().equals(annotationName) );
+    }
+
+    @Override
+    public Optional<Class<?>> toClass() {
+        return Optional.of(type);
+    }
+}
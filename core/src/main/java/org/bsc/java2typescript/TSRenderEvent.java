@@ -0,0 +1,34 @@
+package org.bsc.java2typescript;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event of the rendering of a declaration, or of a static definition, of a type.
+ *
+ * @author bsorrentino
+ */
+@Name("org.bsc.java2typescript.Render")
+@Label("Render")
+@Category("java2typescript")
+@Description("Rendering of the declaration, or of the static definition, of a type")
+@StackTrace(false)
+final class TSRenderEvent extends jdk.jfr.Event {
+
+    @Label("Type Name")
+    String typeName;
+
+    @Label("Compatibility")
+    String compatibility;
+
+    @Label("Extension")
+    @Description("d.ts for a declaration, js for a static definition")
+    String extension;
+
+    @Label("Cached")
+    @Description("reused from the declaration cache")
+    boolean cached;
+}
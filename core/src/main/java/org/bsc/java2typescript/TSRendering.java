@@ -0,0 +1,78 @@
+package org.bsc.java2typescript;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Rendering of a type together with the declared types looked up while it was rendered. It can be reused only
+ * if the type and each of them is declared, or not declared, the same way.
+ *
+ * @param signature attributes of the rendered type
+ * @param dependencies attributes of the declared types looked up while rendering, null if not declared
+ * @param content rendered declaration
+ *
+ * @author bsorrentino
+ */
+record TSRendering( String signature, Map<String,String> dependencies, String content ) {
+
+    /**
+     *
+     * @param type rendered type
+     * @param lookups names looked up while rendering
+     * @param declaredTypeMap declared types of the rendering
+     * @param content rendered declaration
+     * @return the rendering
+     */
+    static TSRendering of( TSType type, Collection<String> lookups, Map<String, TSType> declaredTypeMap, String content ) {
+        final Map<String, String> dependencies = new TreeMap<>();
+        for( String name : lookups ) {
+            final TSType dependency = declaredTypeMap.get(name);
+            dependencies.put( name, (dependency == null) ? null : signature(dependency) );
+        }
+        return new TSRendering( signature(type), Collections.unmodifiableMap(dependencies), content );
+    }
+
+    /**
+     *
+     * @param type
+     * @return attributes of the given type affecting the renderings referring to it
+     */
+    static String signature( TSType type ) {
+        return Stream.of( type.getTypeName(),
+                          type.getSimpleTypeName(),
+                          type.getNamespace(),
+                          type.supportNamespace(),
+                          type.isExport(),
+                          type.isFunctional(),
+                          type.getPre(),
+                          type.getPost(),
+                          type.getJavaClass().getTypeParameters().stream()
+                                .map(TSJavaTypeParameter::toGenericString)
+                                .collect(Collectors.joining(",")) )
+                .map(String::valueOf)
+                .collect(Collectors.joining("|"));
+    }
+
+    /**
+     *
+     * @param type type to render
+     * @param declaredTypeMap declared types of the rendering
+     * @return true if this rendering is still valid for the given type and declared types
+     */
+    boolean isValid( TSType type, Map<String, TSType> declaredTypeMap ) {
+        if( !signature.equals( signature(type) ) ) return false;
+
+        for( Map.Entry<String,String> e : dependencies.entrySet() ) {
+            final TSType dependency = declaredTypeMap.get( e.getKey() );
+            if( !Objects.equals( e.getValue(), (dependency == null) ? null : signature(dependency) ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,175 @@
+package org.bsc.java2typescript;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Trace of the type conversions, to investigate the resolution of the generic types.
+ *
+ * The level is read once, from the {@code java2ts.trace} system property, when the first conversion of the process
+ * is traced: call sites test the {@code static final} gates ({@link #DEBUG}, {@link #TRACE}) before building
+ * any record, so that a disabled trace costs nothing. The {@code debug} system property is still honored as
+ * the {@link Level#DEBUG debug} level.
+ *
+ * Each record is written as a json line to the file given by the {@code java2ts.trace.file} system property,
+ * otherwise to the standard output:
+ * <pre>
+ * {"level":"trace","event":"typeArgument","type":"java.util.Map","member":"get","argument":"K"}
+ * </pre>
+ *
+ * @author bsorrentino
+ */
+public final class TSTrace {
+
+    /**
+     * system property holding the level
+     */
+    public static final String LEVEL_PROPERTY = "java2ts.trace";
+
+    /**
+     * system property holding the file the records are written to
+     */
+    public static final String FILE_PROPERTY = "java2ts.trace.file";
+
+    /**
+     * trace levels
+     */
+    public enum Level {
+        /** nothing traced */
+        OFF,
+        /** members and parameterized types converted, the conversions of a member reused from the cache included */
+        DEBUG,
+        /** also the type arguments, type variables, wildcards and arrays resolved by the conversions not cached */
+        TRACE;
+
+        /**
+         *
+         * @param value level name, case insensitive
+         * @return the level
+         * @throws IllegalArgumentException if the given value isn't a level
+         */
+        public static Level of( String value ) {
+            return Level.valueOf( value.trim().toUpperCase(Locale.ROOT) );
+        }
+    }
+
+    private static final Level LEVEL = level( System.getProperty(LEVEL_PROPERTY) );
+
+    static final boolean DEBUG = LEVEL.compareTo(Level.DEBUG) >= 0;
+    static final boolean TRACE = LEVEL.compareTo(Level.TRACE) >= 0;
+
+    private static final PrintWriter out = ( LEVEL == Level.OFF ) ? null : open( System.getProperty(FILE_PROPERTY) );
+
+    private TSTrace() {}
+
+    private static Level level( String value ) {
+        if( value == null ) return Boolean.getBoolean("debug") ? Level.DEBUG : Level.OFF;
+        try {
+            return Level.of(value);
+        }
+        catch( IllegalArgumentException e ) {
+            return Level.OFF;
+        }
+    }
+
+    private static PrintWriter open( String file ) {
+        if( file == null || file.isBlank() ) {
+            return new PrintWriter( new OutputStreamWriter(System.out, StandardCharsets.UTF_8), true );
+        }
+        try {
+            final Path path = Paths.get(file);
+            if( path.getParent() != null ) Files.createDirectories( path.getParent() );
+            final PrintWriter result = new PrintWriter( new BufferedWriter( Files.newBufferedWriter(path, StandardCharsets.UTF_8) ) );
+            Runtime.getRuntime().addShutdownHook( new Thread( result::flush, "java2ts-trace" ) );
+            return result;
+        }
+        catch( IOException e ) {
+            throw new UncheckedIOException( String.format("cannot open trace file [%s]", file), e );
+        }
+    }
+
+    /**
+     *
+     * @return the level of this process, fixed from now on
+     */
+    public static Level level() {
+        return LEVEL;
+    }
+
+    /**
+     * write the buffered records
+     */
+    public static void flush() {
+        if( out != null ) out.flush();
+    }
+
+    /**
+     * write a record, if the {@link Level#DEBUG debug} level is enabled
+     *
+     * @param event record name
+     * @param fields names and values of the record fields
+     */
+    static void debug( String event, Object... fields ) {
+        if( DEBUG ) write( Level.DEBUG, event, fields );
+    }
+
+    /**
+     * write a record, if the {@link Level#TRACE trace} level is enabled
+     *
+     * @param event record name
+     * @param fields names and values of the record fields
+     */
+    static void trace( String event, Object... fields ) {
+        if( TRACE ) write( Level.TRACE, event, fields );
+    }
+
+    private static void write( Level level, String event, Object[] fields ) {
+        final StringBuilder sb = new StringBuilder(128)
+                .append("{\"level\":\"").append( level.name().toLowerCase(Locale.ROOT) )
+                .append("\",\"event\":");
+        quote( sb, event );
+        for( int i = 0; i + 1 < fields.length; i += 2 ) {
+            sb.append(',');
+            quote( sb, fields[i] );
+            sb.append(':');
+            if( fields[i+1] instanceof Number || fields[i+1] instanceof Boolean ) sb.append( fields[i+1] );
+            else quote( sb, fields[i+1] );
+        }
+        sb.append('}');
+
+        synchronized( out ) {
+            out.println( sb );
+        }
+    }
+
+    private static void quote( StringBuilder sb, Object value ) {
+        if( value == null ) {
+            sb.append("null");
+            return;
+        }
+        final String s = String.valueOf(value);
+        sb.append('"');
+        for( int i = 0; i < s.length(); ++i ) {
+            final char c = s.charAt(i);
+            switch( c ) {
+                case '"':  sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if( c < 0x20 ) sb.append( String.format("\\u%04x", (int)c) );
+                    else sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+}
@@ -1,22 +1,23 @@
 package org.bsc.java2typescript;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
-import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import static java.lang.String.format;
-import java.util.Arrays;
 
 /**
- * 
+ * Immutable descriptor of a java type to convert.
+ *
+ * The java class model is resolved once and names are computed at creation time,
+ * so descriptors hash and compare cheaply.
+ *
  * @author bsorrentino
  *
  */
-public class TSType extends HashMap<String, Object> {
+public final class TSType {
 
     private static final String ALIAS = "alias";
     private static final String VALUE = "value";
@@ -26,92 +27,241 @@ public class TSType extends HashMap<String, Object> {
     private static final String PRE = "pre";
     private static final String POST = "post";
 
-    protected TSType() {
-        super(3);
+    /**
+     * Builder of {@link TSType}, also fed by annotation values (eg. {@code @Type})
+     */
+    public static final class Builder {
+
+        private Object value = Void.class;
+        private TSClassSource source = TSClassSource.REFLECTION;
+        private boolean export;
+        private String alias;
+        private boolean functional;
+        private String pre = "";
+        private String post = "";
+        private String namespace;
+
+        private Builder() {}
+
+        /**
+         *
+         * @param value either the class, its model or its fully qualified name
+         * @return
+         */
+        public Builder value( Object value ) {
+            this.value = Objects.requireNonNull(value, "value is null!");
+            return this;
+        }
+
+        /**
+         *
+         * @param source source the class is looked up from when the value is a name, reflection by default
+         * @return
+         */
+        public Builder source( TSClassSource source ) {
+            this.source = Objects.requireNonNull(source, "source is null!");
+            return this;
+        }
+
+        public Builder export( boolean value ) {
+            this.export = value;
+            return this;
+        }
+
+        public Builder alias( String value ) {
+            this.alias = value;
+            return this;
+        }
+
+        public Builder functional( boolean value ) {
+            this.functional = value;
+            return this;
+        }
+
+        public Builder pre( String value ) {
+            this.pre = Objects.requireNonNullElse(value, "");
+            return this;
+        }
+
+        public Builder post( String value ) {
+            this.post = Objects.requireNonNullElse(value, "");
+            return this;
+        }
+
+        public Builder namespace( String value ) {
+            this.namespace = value;
+            return this;
+        }
+
+        /**
+         * set attributes from a map of annotation values (ie. value, export, alias, functional, pre, post)
+         *
+         * @param attributes
+         * @return
+         */
+        public Builder attributes( Map<String,?> attributes ) {
+            attributes.forEach( (k, v) -> {
+                if( v == null ) return;
+                switch( k ) {
+                    case VALUE -> value(v);
+                    case EXPORT -> export((Boolean)v);
+                    case ALIAS -> alias(String.valueOf(v));
+                    case FUNCTIONAL -> functional((Boolean)v);
+                    case PRE -> pre(String.valueOf(v));
+                    case POST -> post(String.valueOf(v));
+                    case NAMESPACE -> namespace(String.valueOf(v));
+                    default -> {}
+                }
+            });
+            return this;
+        }
+
+        public TSType build() {
+            return new TSType( getClassFrom(value, source), export, alias, functional, pre, post, namespace );
+        }
     }
 
+    /**
+     *
+     * @return
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     *
+     * @param attributes annotation values
+     * @return
+     */
+    public static Builder builder( Map<String,?> attributes ) {
+        return new Builder().attributes(attributes);
+    }
 
     public static TSType of() {
-        return new TSType() {
-            {
-                put(VALUE, Void.class);
-            }
-        };
+        return of(Void.class);
     }
+
     public static TSType of(Class<?> cl) {
-        return new TSType() {
-            {
-                put(VALUE, cl);
-            }
-        };
+        return of( TSJavaClass.of(cl) );
+    }
+
+    public static TSType of(TSJavaClass cl) {
+        return new TSType( cl, false, null, false, "", "", null );
+    }
+
+    private final TSJavaClass value;
+    private final boolean export;
+    private final String alias;
+    private final boolean functional;
+    private final String pre;
+    private final String post;
+    private final String namespace;
+    private final String typeName;
+    private final String simpleTypeName;
+
+    private TSType( TSJavaClass value, boolean export, String alias, boolean functional, String pre, String post, String namespace ) {
+        this.value = Objects.requireNonNull(value, "value is null!");
+        this.export = export || value.isEnum(); // enum are always exported
+        this.alias = alias;
+        this.functional = functional;
+        this.pre = pre;
+        this.post = post;
+        this.namespace = (namespace != null) ? namespace : value.getPackageName();
+
+        if( hasAlias() ) {
+            this.simpleTypeName = alias;
+            this.typeName = alias;
+        }
+        else {
+            this.simpleTypeName = (value.isMemberClass()) ?
+                    format( "%s$%s", value.getDeclaringClass().map(TSJavaClass::getSimpleName).orElse(""), value.getSimpleName()) :
+                    value.getSimpleName();
+            this.typeName = format( "%s.%s", this.namespace, this.simpleTypeName );
+        }
+    }
+
+    private Builder toBuilder() {
+        return builder()
+                .value(value)
+                .export(export)
+                .alias(alias)
+                .functional(functional)
+                .pre(pre)
+                .post(post)
+                .namespace(namespace);
     }
 
     /**
-     * 
-     * @return
+     *
+     * @return the loaded class, resolved by name if the model is not backed by reflection
      */
     public Class<?> getValue() {
-        return getClassFrom(super.get(VALUE));
+        return value.toClass()
+                .orElseThrow( () -> new IllegalStateException(String.format("class not found [%s]", value.getName())) );
+    }
+
+    /**
+     *
+     * @return model of the java class
+     */
+    public TSJavaClass getJavaClass() {
+        return value;
     }
 
     /**
-     * 
+     *
      * @return
      */
     public boolean isExport() {
-        return (boolean) super.getOrDefault(EXPORT, false);
+        return export;
     }
 
     /**
-     * 
-     * @return
+     *
+     * @return a copy of this type with the given export flag
      */
-    public TSType setExport(boolean value) {
-        super.put(EXPORT, value);
-        return this;
+    public TSType withExport(boolean value) {
+        return toBuilder().export(value).build();
     }
 
     /**
-     * 
+     *
      * @return
      */
     public boolean hasAlias() {
-        final String alias = (String) super.get(ALIAS);
         return alias != null && !alias.isEmpty();
     }
 
     /**
-     * 
+     *
      * @return
      */
     public String getAlias() {
-        return (String) super.get(ALIAS);
+        return alias;
     }
 
-       /**
-     * 
-     * @return
+    /**
+     *
+     * @return a copy of this type with the given alias
      */
-    public TSType setAlias( String value ) {
-        super.put(ALIAS,value);
-        return this;
+    public TSType withAlias( String value ) {
+        return toBuilder().alias(value).build();
     }
 
     /**
      * Test is functional interface
-     * 
+     *
      * @return
      */
     public boolean isFunctional() {
 
-        
-        if( !getValue().isInterface()) return false;
-        if( getValue().isAnnotationPresent(FunctionalInterface.class)) return true;
-        
-        return (Boolean)super.getOrDefault( FUNCTIONAL, false) && 
-                Arrays.stream(getValue().getDeclaredMethods())
-                    .filter( m -> Modifier.isAbstract(m.getModifiers()) )
-                    .count() == 1;
+        final TSTypeMetadata metadata = getMetadata();
+
+        if( !metadata.isInterface()) return false;
+        if( metadata.isFunctionalInterface()) return true;
+
+        return functional && metadata.hasSingleAbstractMethod();
     }
 
     /**
@@ -121,18 +271,15 @@ public class TSType extends HashMap<String, Object> {
      */
     public boolean isAbstract() {
 
-
-        return Modifier.isAbstract(getValue().getModifiers());
+        return getMetadata().isAbstract();
     }
 
     /**
-     * 
+     *
+     * @return a copy of this type with the given functional flag
      */
-    public TSType setFunctional( boolean value ) {
-
-        super.put(FUNCTIONAL, value);
-        return this;
-
+    public TSType withFunctional( boolean value ) {
+        return toBuilder().functional(value).build();
     }
 
     /**
@@ -140,16 +287,15 @@ public class TSType extends HashMap<String, Object> {
      * @return
      */
     public String getPre() {
-        return (String) super.getOrDefault(PRE, "");
+        return pre;
     }
 
     /**
      *
-     * @return
+     * @return a copy of this type with the given pre declaration
      */
-    public TSType setPre(String value) {
-        super.put(PRE, value);
-        return this;
+    public TSType withPre(String value) {
+        return toBuilder().pre(value).build();
     }
 
     /**
@@ -157,113 +303,81 @@ public class TSType extends HashMap<String, Object> {
      * @return
      */
     public String getPost() {
-        return (String) super.getOrDefault(POST, "");
+        return post;
     }
 
     /**
      *
-     * @return
+     * @return a copy of this type with the given post declaration
      */
-    public TSType setPost(String value) {
-        super.put(POST, value);
-        return this;
-    }
-
-    
-    private String getMemberSimpleTypeName() {
-
-        return format( "%s$%s", getValue().getDeclaringClass().getSimpleName(), getValue().getSimpleName());
+    public TSType withPost(String value) {
+        return toBuilder().post(value).build();
     }
 
     /**
-     * 
+     *
      * @return
      */
-    public final String getTypeName() {
-        return (hasAlias()) ? getAlias() : format( "%s.%s", getNamespace(), 
-                (getValue().isMemberClass() ? getMemberSimpleTypeName() : getValue().getSimpleName()));
+    public String getTypeName() {
+        return typeName;
     }
 
     /**
-     * 
+     *
      * @return
      */
-    public final String getSimpleTypeName() {
-        return (hasAlias()) ? getAlias() : 
-            ((getValue().isMemberClass()) ? getMemberSimpleTypeName() : getValue().getSimpleName());
+    public String getSimpleTypeName() {
+        return simpleTypeName;
     }
 
     /**
-     * 
+     *
      * @return
      */
-    public final boolean supportNamespace() {
+    public boolean supportNamespace() {
         return !hasAlias();
     }
-    
-    /**
-     * 
-     * @return
-     */
-    public final String getNamespace() {
-        return (String) super.getOrDefault(NAMESPACE, getValue().getPackage().getName());
-    }
-    
+
     /**
      *
      * @return
      */
-    public Set<Field> getFields() {
-
-        final Predicate<Field> std = f -> !f.isSynthetic() && Modifier.isPublic(f.getModifiers())
-                && Character.isJavaIdentifierStart(f.getName().charAt(0))
-                && f.getName().chars().skip(1).allMatch(Character::isJavaIdentifierPart);
-
-        return Stream.concat(Stream.of(getValue().getFields()), Stream.of(getValue().getDeclaredFields())).filter(std)
-                .collect(Collectors.toSet());
-
+    public String getNamespace() {
+        return namespace;
     }
 
     /**
      *
-     * @param m
-     * @return
+     * @return cached metadata
      */
-    protected boolean testIncludeMethod( Method m ) {
-        return !m.isBridge() && !m.isSynthetic() && Modifier.isPublic(m.getModifiers())
-                && Character.isJavaIdentifierStart(m.getName().charAt(0))
-                && m.getName().chars().skip(1).allMatch(Character::isJavaIdentifierPart);
+    public TSTypeMetadata getMetadata() {
+        return value.getMetadata();
     }
 
     /**
      *
-     * @param f
      * @return
      */
-    protected boolean testIncludeField( Field f ) {
-        return !f.isSynthetic() && Modifier.isPublic(f.getModifiers())
-                && Character.isJavaIdentifierStart(f.getName().charAt(0))
-                && f.getName().chars().skip(1).allMatch(Character::isJavaIdentifierPart);
-    }
+    public Set<TSJavaField> getFields() {
 
+        return new java.util.LinkedHashSet<>(getMetadata().getFields());
+
+    }
 
     /**
      *
      * @return
      */
-    public Stream<Method> getMethodsAsStream() {
+    public Stream<TSJavaMethod> getMethodsAsStream() {
 
-        return Stream.concat(
-                        Stream.of(getValue().getMethods()),
-                        Stream.of(getValue().getDeclaredMethods()))
-                .filter(this::testIncludeMethod);
+        return getMetadata().getMethods().stream();
     }
 
     /**
      *
      * @return
      */
-    public final Set<Method> getMethods() {
+    public Set<TSJavaMethod> getMethods() {
         return getMethodsAsStream().collect(Collectors.toSet());
     }
 
@@ -271,68 +385,59 @@ public class TSType extends HashMap<String, Object> {
      *
      * @return
      */
-    public Stream<Field> getPublicFieldsAsStream() {
+    public Stream<TSJavaField> getPublicFieldsAsStream() {
 
-        return Stream.concat(
-                        Stream.of(getValue().getFields()),
-                        Stream.of(getValue().getDeclaredFields()))
-                .filter(this::testIncludeField);
+        return getMetadata().getFields().stream();
     }
 
-    /**
-     * 
-     * @return
-     */
-    private Class<?> getMemberClassForName( String fqn ) throws ClassNotFoundException {
-        char[] ch = fqn.toCharArray();
-        int i = fqn.lastIndexOf('.');
-        ch[i] = '$';
-
-        return Class.forName(String.valueOf(ch));   
-    }
-    
     /**
      *
-     * @param dt
-     * @return
+     * @param dt either a class, its model or its fully qualified name
+     * @param source source the class is looked up from by name
+     * @return resolved class model
      */
-    private Class<?> getClassFrom(Object dt) {
+    private static TSJavaClass getClassFrom(Object dt, TSClassSource source) {
         if (dt instanceof Class)
-            return (Class<?>) dt;
+            return TSJavaClass.of((Class<?>) dt);
+        if (dt instanceof TSJavaClass)
+            return (TSJavaClass) dt;
 
-        final String fqn = dt.toString();
-        try {
-            return Class.forName(fqn);
+        final TSClassResolutionEvent event = new TSClassResolutionEvent();
+        event.begin();
 
-        } catch (ClassNotFoundException e1) {
+        final Optional<TSJavaClass> result = source.find(dt.toString());
 
-            try {
-                return getMemberClassForName(fqn);
-    
-            } catch (ClassNotFoundException e2) {
-                throw new RuntimeException(String.format("class not found [%s]", dt), e1);
-            }
+        if (event.shouldCommit()) {
+            event.typeName = dt.toString();
+            event.source = (source == TSClassSource.REFLECTION) ? "reflection" : source.getClass().getSimpleName();
+            event.found = result.isPresent();
+            event.commit();
         }
+        return result.orElseThrow( () -> new RuntimeException(String.format("class not found [%s]", dt)) );
     }
 
     @Override
     public boolean equals(Object o) {
-        if( o instanceof Class ) {
-            return getValue().equals(o);
-        }
-        if( o instanceof TSType ) {
-            return getValue().equals(((TSType) o).getValue());
-        }
-        return false;
+        if( this == o ) return true;
+        if( !(o instanceof TSType other) ) return false;
+
+        // class models are compared by identity, the same name may be read from different loaders or sources
+        return value == other.value &&
+                export == other.export &&
+                functional == other.functional &&
+                Objects.equals(alias, other.alias) &&
+                pre.equals(other.pre) &&
+                post.equals(other.post) &&
+                namespace.equals(other.namespace);
     }
 
     @Override
     public int hashCode() {
-        return getValue().hashCode();
+        return Objects.hash( System.identityHashCode(value), export, alias, functional, pre, post, namespace );
     }
 
     @Override
     public String toString() {
-        return format("TSType{ value: %s }", getValue().getName());
+        return format("TSType{ value: %s }", value.getName());
     }
 }
@@ -0,0 +1,315 @@
+package org.bsc.java2typescript;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Metadata of a class, computed once from its {@link TSJavaClass} model and cached by it.
+ *
+ * Public members are collected following the same rules of {@link Class#getMethods()} and
+ * {@link Class#getFields()}, so that every source of the model yields the same result.
+ *
+ * @author bsorrentino
+ *
+ */
+public final class TSTypeMetadata {
+
+    /**
+     *
+     * @param type
+     * @return cached metadata of the given class
+     */
+    public static TSTypeMetadata of( Class<?> type ) {
+        return TSJavaClass.of(type).getMetadata();
+    }
+
+    /**
+     *
+     * @param name
+     * @return true if name is a valid java identifier (eg. excludes lambda and synthetic names)
+     */
+    static boolean isJavaIdentifier( String name ) {
+        return !name.isEmpty() && Character.isJavaIdentifierStart(name.charAt(0))
+                && name.chars().skip(1).allMatch(Character::isJavaIdentifierPart);
+    }
+
+    /**
+     *
+     * @param m
+     * @return
+     */
+    static boolean testIncludeMethod( TSJavaMethod m ) {
+        return !m.isBridge() && !m.isSynthetic() && m.isPublic()
+                && isJavaIdentifier(m.getName());
+    }
+
+    /**
+     *
+     * @param f
+     * @return
+     */
+    static boolean testIncludeField( TSJavaField f ) {
+        return !f.isSynthetic() && f.isPublic()
+                && isJavaIdentifier(f.getName());
+    }
+
+    private final String name;
+    private final int modifiers;
+    private final Optional<TSJavaClass> superclass;
+    private final List<TSJavaClass> interfaces;
+    private final Set<String> supertypes;
+    private final List<TSJavaTypeParameter> typeParameters;
+    private final List<String> typeParameterNames;
+    private final List<TSJavaMethod> publicMethods;
+    private final List<TSJavaField> publicFields;
+    private final List<TSJavaMethod> methods;
+    private final List<TSJavaField> fields;
+    private final List<TSJavaMethod> constructors;
+    private final List<String> enumConstants;
+    private final boolean functionalInterface;
+    private final boolean singleAbstractMethod;
+
+    TSTypeMetadata( TSJavaClass type ) {
+
+        name            = type.getName();
+        modifiers       = type.getModifiers();
+        superclass      = type.getSuperclass();
+        interfaces      = type.getInterfaces();
+        typeParameters  = type.getTypeParameters();
+        typeParameterNames = typeParameters.stream()
+                                .map( TSJavaTypeParameter::name )
+                                .collect(Collectors.toUnmodifiableList());
+
+        final Set<String> allSupertypes = new HashSet<>();
+        allSupertypes.add(type.getName());
+        superclass.ifPresent( c -> allSupertypes.addAll(c.getMetadata().supertypes) );
+        interfaces.forEach( c -> allSupertypes.addAll(c.getMetadata().supertypes) );
+        supertypes = Set.copyOf(allSupertypes);
+
+        final List<TSJavaMethod> declaredMethods = type.getDeclaredMethods();
+        final List<TSJavaField> declaredFields = type.getDeclaredFields();
+
+        publicMethods = collectPublicMethods( declaredMethods );
+        publicFields = collectPublicFields( declaredFields );
+
+        methods = Stream.concat( publicMethods.stream(), declaredMethods.stream())
+                        .filter(TSTypeMetadata::testIncludeMethod)
+                        .collect(Collectors.toCollection(LinkedHashSet::new))
+                        .stream()
+                        .collect(Collectors.toUnmodifiableList());
+
+        fields = Stream.concat( publicFields.stream(), declaredFields.stream())
+                        .filter(TSTypeMetadata::testIncludeField)
+                        .collect(Collectors.toCollection(LinkedHashSet::new))
+                        .stream()
+                        .collect(Collectors.toUnmodifiableList());
+
+        // sorted because the order returned by reflection is not stable across runs
+        constructors = type.getDeclaredConstructors().stream()
+                        .filter( TSJavaMethod::isPublic )
+                        .sorted( Comparator.comparing(TSJavaMethod::toGenericString))
+                        .collect(Collectors.toUnmodifiableList());
+
+        // fix #4
+        enumConstants = ( type.isEnum() ) ?
+                publicFields.stream()
+                        .filter(TSJavaField::isEnumConstant)
+                        .map(TSJavaField::getName)
+                        .collect(Collectors.toUnmodifiableList()) :
+                List.of();
+
+        functionalInterface = type.isInterface() && type.isAnnotationPresent(FunctionalInterface.class.getName());
+
+        singleAbstractMethod = type.isInterface() &&
+                declaredMethods.stream()
+                    .filter( TSJavaMethod::isAbstract )
+                    .count() == 1;
+    }
+
+    /**
+     * same algorithm of {@link Class#getMethods()}: declared methods override inherited ones and
+     * methods declared by classes override the ones declared by interfaces
+     *
+     * @param declaredMethods
+     * @return public methods, inherited ones included
+     */
+    private List<TSJavaMethod> collectPublicMethods( List<TSJavaMethod> declaredMethods ) {
+
+        final Map<List<Object>,List<TSJavaMethod>> merged = new LinkedHashMap<>();
+
+        declaredMethods.stream()
+                .filter( TSJavaMethod::isPublic )
+                .forEach( m -> merge( merged, m ) );
+
+        superclass.ifPresent( c -> c.getMetadata().publicMethods.forEach( m -> merge( merged, m ) ));
+
+        // static interface methods are not inherited
+        interfaces.forEach( c -> c.getMetadata().publicMethods.stream()
+                                    .filter( m -> !m.isStatic() )
+                                    .forEach( m -> merge( merged, m ) ));
+
+        return merged.values().stream()
+                .flatMap( List::stream )
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    private void merge( Map<List<Object>,List<TSJavaMethod>> merged, TSJavaMethod method ) {
+
+        final List<TSJavaMethod> candidates =
+                merged.computeIfAbsent( List.of( method.getName(), method.getParameterTypes() ), k -> new ArrayList<>(1) );
+
+        final TSJavaClass dclass = method.getDeclaringClass();
+
+        for( java.util.Iterator<TSJavaMethod> i = candidates.iterator(); i.hasNext(); ) {
+            final TSJavaMethod existing = i.next();
+
+            if( !method.getReturnType().equals(existing.getReturnType()) ) continue;
+
+            final TSJavaClass xdclass = existing.getDeclaringClass();
+
+            if( dclass.isInterface() == xdclass.isInterface() ) {
+                // existing method is the same or overrides the new one
+                if( isAssignableFrom( dclass, xdclass ) ) return;
+                // new method overrides the existing one
+                if( isAssignableFrom( xdclass, dclass ) ) i.remove();
+            }
+            else if( dclass.isInterface() ) {
+                // methods declared by classes override the ones declared by interfaces
+                return;
+            }
+            else {
+                i.remove();
+            }
+        }
+
+        candidates.add(method);
+    }
+
+    private boolean isAssignableFrom( TSJavaClass type, TSJavaClass subtype ) {
+        // metadata of this class is still being computed
+        final Set<String> result = ( subtype.getName().equals(name) ) ?
+                supertypes :
+                subtype.getMetadata().supertypes;
+        return result.contains(type.getName());
+    }
+
+    /**
+     * same algorithm of {@link Class#getFields()}
+     *
+     * @param declaredFields
+     * @return public fields, inherited ones included
+     */
+    private List<TSJavaField> collectPublicFields( List<TSJavaField> declaredFields ) {
+
+        final Set<TSJavaField> result = new LinkedHashSet<>();
+
+        declaredFields.stream()
+                .filter( TSJavaField::isPublic )
+                .forEach( result::add );
+
+        interfaces.forEach( c -> result.addAll(c.getMetadata().publicFields) );
+
+        superclass.ifPresent( c -> result.addAll(c.getMetadata().publicFields) );
+
+        return List.copyOf(result);
+    }
+
+    public int getModifiers() {
+        return modifiers;
+    }
+
+    public boolean isAbstract() {
+        return Modifier.isAbstract(modifiers);
+    }
+
+    public boolean isInterface() {
+        return Modifier.isInterface(modifiers);
+    }
+
+    /**
+     *
+     * @return superclass, empty for interfaces, primitives and {@code java.lang.Object}
+     */
+    public Optional<TSJavaClass> getSuperclass() {
+        return superclass;
+    }
+
+    public List<TSJavaClass> getInterfaces() {
+        return interfaces;
+    }
+
+    public List<TSJavaTypeParameter> getTypeParameters() {
+        return typeParameters;
+    }
+
+    public List<String> getTypeParameterNames() {
+        return typeParameterNames;
+    }
+
+    /**
+     *
+     * @return names of this class and of all its superclasses and super interfaces
+     */
+    public Set<String> getSupertypes() {
+        return supertypes;
+    }
+
+    /**
+     *
+     * @return public methods (inherited and declared) having a valid identifier
+     */
+    public List<TSJavaMethod> getMethods() {
+        return methods;
+    }
+
+    /**
+     *
+     * @return public fields (inherited and declared) having a valid identifier
+     */
+    public List<TSJavaField> getFields() {
+        return fields;
+    }
+
+    /**
+     *
+     * @return public constructors
+     */
+    public List<TSJavaMethod> getConstructors() {
+        return constructors;
+    }
+
+    /**
+     *
+     * @return names of enum constants, empty if the class is not an enum
+     */
+    public List<String> getEnumConstants() {
+        return enumConstants;
+    }
+
+    /**
+     *
+     * @return true if it is an interface annotated with {@link FunctionalInterface}
+     */
+    public boolean isFunctionalInterface() {
+        return functionalInterface;
+    }
+
+    /**
+     *
+     * @return true if it is an interface that declares exactly one abstract method
+     */
+    public boolean hasSingleAbstractMethod() {
+        return singleAbstractMethod;
+    }
+
+}
@@ -0,0 +1,175 @@
+package org.bsc.java2typescript;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Typescript type model built from java reflection and rendered in one pass
+ *
+ * @author bsorrentino
+ *
+ */
+public sealed interface TSTypeNode {
+
+    TSTypeNode ANY = new Any(null, false);
+
+    /**
+     * type reference, optionally with type arguments (eg. {@code java.util.List<E>})
+     *
+     * @param name
+     * @param arguments
+     */
+    record Reference(String name, List<TSTypeNode> arguments) implements TSTypeNode {
+
+        public Reference(String name) {
+            this(name, List.of());
+        }
+
+        @Override
+        public void render(Appendable out) throws IOException {
+            out.append(name);
+            if( arguments.isEmpty() ) return;
+
+            out.append('<');
+            for( int i = 0 ; i < arguments.size() ; ++i ) {
+                if( i > 0 ) out.append(", ");
+                arguments.get(i).render(out);
+            }
+            out.append('>');
+        }
+    }
+
+    /**
+     * union type (eg. {@code int|null})
+     *
+     * @param types
+     */
+    record Union(List<TSTypeNode> types) implements TSTypeNode {
+
+        @Override
+        public void render(Appendable out) throws IOException {
+            for( int i = 0 ; i < types.size() ; ++i ) {
+                if( i > 0 ) out.append('|');
+                types.get(i).render(out);
+            }
+        }
+    }
+
+    /**
+     * array type (eg. {@code [string]}), or postfix array (eg. {@code T[]}) as the generic arrays used as type arguments
+     *
+     * @param component
+     * @param postfix
+     */
+    record Array(TSTypeNode component, boolean postfix) implements TSTypeNode {
+
+        public Array(TSTypeNode component) {
+            this(component, false);
+        }
+
+        @Override
+        public void render(Appendable out) throws IOException {
+            if( postfix ) {
+                component.render(out);
+                out.append("[]");
+                return;
+            }
+            out.append('[');
+            component.render(out);
+            out.append(']');
+        }
+    }
+
+    /**
+     * type variable (eg. {@code E})
+     *
+     * @param name
+     */
+    record TypeVariable(String name) implements TSTypeNode {
+
+        @Override
+        public void render(Appendable out) throws IOException {
+            out.append(name);
+        }
+    }
+
+    /**
+     * wildcard type argument, rendered as its bound
+     *
+     * @param bound
+     */
+    record Wildcard(TSTypeNode bound) implements TSTypeNode {
+
+        @Override
+        public void render(Appendable out) throws IOException {
+            bound.render(out);
+        }
+    }
+
+    /**
+     * any type, optionally commented with the original java type (eg. {@code any /*java.lang.Object*&#47;})
+     *
+     * @param comment
+     * @param spaced put a space between any and the comment
+     */
+    record Any(String comment, boolean spaced) implements TSTypeNode {
+
+        @Override
+        public void render(Appendable out) throws IOException {
+            out.append("any");
+            if( comment == null ) return;
+            if( spaced ) out.append(' ');
+            out.append("/*").append(comment).append("*/");
+        }
+    }
+
+    /**
+     *
+     * @param className
+     * @return any commented with the given not declared class name
+     */
+    static TSTypeNode anyOf( String className ) {
+        return new Any(className, true);
+    }
+
+    /**
+     *
+     * @param note
+     * @return any commented with the given note
+     */
+    static TSTypeNode anyWithNote( String note ) {
+        return new Any(note, false);
+    }
+
+    /**
+     * render the type
+     *
+     * @param out
+     * @throws IOException
+     */
+    void render(Appendable out) throws IOException;
+
+    /**
+     * render the type
+     *
+     * @param sb
+     * @return given string builder
+     */
+    default StringBuilder render(StringBuilder sb) {
+        try {
+            render((Appendable)sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sb;
+    }
+
+    /**
+     *
+     * @return rendered type
+     */
+    default String toTypeString() {
+        return render(new StringBuilder()).toString();
+    }
+}
@@ -2,16 +2,12 @@ package org.bsc.java2typescript.transformer;
 
 import org.bsc.java2typescript.*;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.util.Comparator;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static org.bsc.java2typescript.Java2TSConverter.Compatibility.GRAALJS;
 
 /**
  *
@@ -23,7 +19,7 @@ public class TSJavaClass2DeclarationTransformer extends TSConverterStatic implem
      * @param md
      * @return
      */
-    protected boolean testMethodNotAllowed(Method md ) {
+    protected boolean testMethodNotAllowed(TSJavaMethod md ) {
         final String name = md.getName();
         return !(name.contains("$")     || // remove unnamed
                 name.equals("getClass") ||
@@ -40,7 +36,7 @@ public class TSJavaClass2DeclarationTransformer extends TSConverterStatic implem
      * @param md
      * @return
      */
-    private boolean testMethodsNotAllowedInForeignObjectPrototypeOnList( Method md ) {
+    private boolean testMethodsNotAllowedInForeignObjectPrototypeOnList( TSJavaMethod md ) {
         final String name = md.getName();
 
         return !(name.equals("forEach")      ||
@@ -56,8 +52,26 @@ public class TSJavaClass2DeclarationTransformer extends TSConverterStatic implem
      * @return
      */
     private boolean isForeignObjectPrototypeOptionEnabled(TSConverterContext ctx) {
-        return ctx.options.compatibility == GRAALJS &&
-                ctx.options.foreignObjectPrototype;
+        return ctx.options.isForeignObjectPrototypeEnabled();
+    }
+
+    /**
+     *
+     * @param ctx
+     * @return true if List is declared as an array by the foreign object prototype
+     */
+    private boolean isForeignObjectPrototypeList(TSConverterContext ctx) {
+        return isForeignObjectPrototypeOptionEnabled(ctx) &&
+                ctx.type.getJavaClass().getName().equals(java.util.List.class.getName());
+    }
+
+    /**
+     *
+     * @param ctx
+     * @return true if the members inherited from the declared supertypes are omitted
+     */
+    protected boolean isInheritanceEnabled(TSConverterContext ctx) {
+        return ctx.isInheritanceEnabled() && !isForeignObjectPrototypeList(ctx);
     }
 
     /**
@@ -65,10 +79,9 @@ public class TSJavaClass2DeclarationTransformer extends TSConverterStatic implem
      * @param ctx
      * @return
      */
-    protected Stream<Method> getMethodsAsStream(TSConverterContext ctx) {
+    protected Stream<TSJavaMethod> getMethodsAsStream(TSConverterContext ctx) {
 
-        if(  isForeignObjectPrototypeOptionEnabled(ctx) &&
-                ctx.type.getValue().equals(java.util.List.class)) {
+        if( isForeignObjectPrototypeList(ctx) ) {
 
             return ctx.type.getMethodsAsStream()
                     .filter( this::testMethodsNotAllowedInForeignObjectPrototypeOnList );
@@ -85,8 +98,7 @@ public class TSJavaClass2DeclarationTransformer extends TSConverterStatic implem
      */
     protected TSConverterContext getClassDecl(TSConverterContext ctx) {
 
-        if(  isForeignObjectPrototypeOptionEnabled(ctx) &&
-                ctx.type.getValue().equals(java.util.List.class)) {
+        if( isForeignObjectPrototypeList(ctx) ) {
             return ctx.append("interface List<E> extends Array<E>/* extends Collection<E> */ {");
         }
 
@@ -94,9 +106,10 @@ public class TSJavaClass2DeclarationTransformer extends TSConverterStatic implem
     }
 
     protected TSConverterContext appendPublicFields(TSConverterContext ctx, boolean staticFields) {
-        final Set<Field> fields = getPublicFieldsAsStream(ctx).collect(Collectors.toSet());
+        final Set<TSJavaField> fields = getPublicFieldsAsStream(ctx).collect(Collectors.toSet());
         fields.stream()
                 .filter( md -> isStatic(md) == staticFields)
+                .filter( md -> !(isInheritanceEnabled(ctx) && ctx.isInherited(md)) )
                 .filter( this::testFieldNotAllowed)
                 .map( md -> ctx.getFieldDecl(md, false /* optional */, isStatic(md)) )
                 .sorted()
@@ -109,7 +122,7 @@ public class TSJavaClass2DeclarationTransformer extends TSConverterStatic implem
         String staticInterfaceName = ctx.type.getSimpleTypeName() + "Static";
         ctx.append("interface ").append(staticInterfaceName).append(" {\n\n");
 
-        if (ctx.type.getValue().isEnum()) {
+        if (ctx.type.getJavaClass().isEnum()) {
             ctx.processEnumType();
         }
 
@@ -122,8 +135,8 @@ public class TSJavaClass2DeclarationTransformer extends TSConverterStatic implem
         if (ctx.type.isFunctional()) {
 
             final java.util.Set<String> TypeVarSet = new java.util.HashSet<>(5);
-            final String tstype = convertJavaToTS(ctx.type.getValue(), ctx.type, ctx.declaredTypeMap, false,
-                    Optional.of((tv) -> TypeVarSet.add(tv.getName())));
+            final String tstype = convertJavaToTS(ctx.type.getJavaClass().asType(), ctx.type, ctx.declaredTypeMap, false,
+                    Optional.of((tv) -> TypeVarSet.add(tv.name())));
 
             ctx.append("\tnew");
             if (!TypeVarSet.isEmpty()) {
@@ -133,17 +146,17 @@ public class TSJavaClass2DeclarationTransformer extends TSConverterStatic implem
 
         } else {
 
-            Stream.of(ctx.type.getValue().getConstructors()).filter(c -> Modifier.isPublic(c.getModifiers()))
+            ctx.type.getMetadata().getConstructors()
                     .forEach(c -> {
                         ctx.append("\tnew").append(ctx.getMethodParametersAndReturnDecl(c, false)).append(ENDL);
                     });
 
-            final java.util.Set<Method> methodSet = ctx.type.getMethods().stream().filter(Java2TSConverter::isStatic)
+            final java.util.Set<TSJavaMethod> methodSet = ctx.type.getMethods().stream().filter(Java2TSConverter::isStatic)
                     .collect(Collectors.toCollection(() -> new java.util.LinkedHashSet<>()));
 
             if (!methodSet.isEmpty()) {
 
-                methodSet.stream().sorted(Comparator.comparing(Method::toGenericString)).forEach(md -> ctx.append('\t')
+                methodSet.stream().sorted(Comparator.comparing(TSJavaMethod::toGenericString)).forEach(md -> ctx.append('\t')
                         .append(md.getName()).append(ctx.getMethodParametersAndReturnDecl(md, false)).append(ENDL));
             }
 
@@ -162,11 +175,11 @@ public class TSJavaClass2DeclarationTransformer extends TSConverterStatic implem
 
         final TSType tstype = ctx.type;
 
-        final Set<Method> methods = getMethodsAsStream(ctx).collect(Collectors.toSet());;
+        final Set<TSJavaMethod> all = getMethodsAsStream(ctx).collect(Collectors.toSet());
+        final Set<TSJavaMethod> methods = ( isInheritanceEnabled(ctx) ) ? ctx.omitInherited(all) : all;
 
         if (tstype.supportNamespace())
-            ctx.append("declare namespace ")
-                .append(tstype.getNamespace()).append(" {\n\n");
+            ctx.append(TSNamespaceBlock.begin(tstype.getNamespace()));
 
         if(tstype.getPre() !=null){
             ctx.append(tstype.getPre());
@@ -180,7 +193,7 @@ public class TSJavaClass2DeclarationTransformer extends TSConverterStatic implem
         if (tstype.isFunctional()) {
 
             methods.stream()
-                    .filter( m -> Modifier.isAbstract(m.getModifiers()))
+                    .filter( m -> m.isAbstract() )
                     .findFirst()
                     .ifPresent( m -> ctx.append('\t')
                                     .append(ctx.getMethodParametersAndReturnDecl(m, false))
@@ -190,7 +203,7 @@ public class TSJavaClass2DeclarationTransformer extends TSConverterStatic implem
                                     .append(ENDL));
 
             methods.stream()
-                    .filter( m -> !Modifier.isAbstract(m.getModifiers()))
+                    .filter( m -> !m.isAbstract() )
                     .map( m -> ctx.getMethodDecl(m, true /* optional */))
                     .sorted()
                     .forEach( decl -> ctx.append('\t')
@@ -220,7 +233,7 @@ public class TSJavaClass2DeclarationTransformer extends TSConverterStatic implem
         }
 
         if (tstype.supportNamespace())
-            ctx.append("\n} // end namespace ").append(tstype.getNamespace()).append('\n');
+            ctx.append(TSNamespaceBlock.end(tstype.getNamespace()));
 
         // If exported output const
         if(tstype.isExport()) {
@@ -230,7 +243,7 @@ public class TSJavaClass2DeclarationTransformer extends TSConverterStatic implem
                 if(ctx.type.isAbstract()){
                     ctx.append(ctx.type.getTypeName());
                 }else {
-                    ctx.append(ctx.type.getValue().getName())
+                    ctx.append(ctx.type.getJavaClass().getName())
                             .append("Static");
                 }
                         ctx.append(ENDL)
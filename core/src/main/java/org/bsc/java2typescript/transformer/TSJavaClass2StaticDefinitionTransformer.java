@@ -27,10 +27,10 @@ public class TSJavaClass2StaticDefinitionTransformer extends TSConverterStatic i
                 .append(ctx.type.getSimpleTypeName())
                 .append(" = ");
         if(ctx.type.isAbstract()){
-            ctx.append(ctx.getOptions().compatibility.javaExtend(ctx.type.getValue().getName()));
+            ctx.append(ctx.getOptions().compatibility.javaExtend(ctx.type.getJavaClass().getName()));
 
         }else {
-                ctx.append(ctx.getOptions().compatibility.javaType(ctx.type.getValue().getName()));
+                ctx.append(ctx.getOptions().compatibility.javaType(ctx.type.getJavaClass().getName()));
         }
          ctx.append(ENDL)
                 .append("\n\n");
@@ -0,0 +1,169 @@
+package org.bsc.java2typescript;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * models read from class files must match the reflective ones
+ *
+ * @author bsorrentino
+ *
+ */
+public class ClassFileModelTest {
+
+    private static final List<Class<?>> CLASSES = List.of(
+            java.lang.String.class,
+            java.lang.Enum.class,
+            java.lang.Thread.class,
+            java.lang.Thread.State.class,
+            java.util.ArrayList.class,
+            java.util.HashMap.class,
+            java.util.Map.Entry.class,
+            java.util.Optional.class,
+            java.util.concurrent.ConcurrentHashMap.class,
+            java.util.concurrent.TimeUnit.class,
+            java.util.function.Function.class,
+            java.util.stream.Stream.class,
+            java.util.stream.Collectors.class,
+            java.nio.file.Files.class,
+            java.lang.ProcessBuilder.Redirect.Type.class,
+            Sample1.class,
+            Sample2.class,
+            ConverterTest.Action.class,
+            ConverterTest.Action2.class,
+            ConverterTest.TestBean.class,
+            TSType.class);
+
+    private static TSClassPath classPath;
+
+    private static Path location( Class<?> type ) throws Exception {
+        return Paths.get( type.getProtectionDomain().getCodeSource().getLocation().toURI() );
+    }
+
+    @BeforeClass
+    public static void openClassPath() throws Exception {
+        classPath = TSClassPath.of( location(ClassFileModelTest.class), location(TSType.class) );
+    }
+
+    @AfterClass
+    public static void closeClassPath() {
+        classPath.close();
+    }
+
+    private static TSJavaClass read( Class<?> type ) {
+        final TSJavaClass result = classPath.find(type.getName())
+                .orElseThrow( () -> new AssertionError( "class not found " + type.getName() ) );
+        assertFalse( result instanceof TSReflectionClass );
+        return result;
+    }
+
+    /**
+     * members are sorted, since reflection doesn't follow the class file order
+     */
+    private static List<String> toGenericStrings( List<? extends TSJavaMember> members ) {
+        return members.stream().map(TSJavaMember::toGenericString).sorted().collect(Collectors.toList());
+    }
+
+    @Test
+    public void testFind() {
+
+        assertSame( classPath.find("java.util.Map$Entry").get(), classPath.find("java.util.Map.Entry").get() );
+        assertFalse( classPath.find("java.util.NotExists").isPresent() );
+    }
+
+    @Test
+    public void testParent() throws Exception {
+
+        try( TSClassPath runtime = TSClassPath.of();
+             TSClassPath child = TSClassPath.of( List.of(location(ClassFileModelTest.class)), runtime ) ) {
+
+            assertSame( runtime.find("java.lang.String").get(), child.find("java.lang.String").get() );
+            assertTrue( child.find(Sample1.class.getName()).isPresent() );
+            assertFalse( runtime.find(Sample1.class.getName()).isPresent() );
+            assertSame( child.find("java.lang.Object").get(),
+                        child.find(Issue7Test.TestBean1.class.getName()).get().getMetadata().getMethods().stream()
+                            .filter( m -> m.getName().equals("getClass") )
+                            .findFirst().get().getDeclaringClass() );
+        }
+    }
+
+    @Test
+    public void testClass() {
+
+        for( Class<?> type : CLASSES ) {
+            final TSJavaClass expected = TSJavaClass.of(type);
+            final TSJavaClass actual = read(type);
+
+            assertEquals( type.getName(), expected.getName(), actual.getName() );
+            assertEquals( type.getName(), expected.getSimpleName(), actual.getSimpleName() );
+            assertEquals( type.getName(), expected.getPackageName(), actual.getPackageName() );
+            assertEquals( type.getName(), expected.getModifiers(), actual.getModifiers() );
+            assertEquals( type.getName(), expected.isEnum(), actual.isEnum() );
+            assertEquals( type.getName(), expected.isMemberClass(), actual.isMemberClass() );
+            assertEquals( type.getName(), expected.getDeclaringClass().map(TSJavaClass::getName),
+                                          actual.getDeclaringClass().map(TSJavaClass::getName) );
+            assertEquals( type.getName(), expected.getTypeParameters(), actual.getTypeParameters() );
+            assertEquals( type.getName(), expected.getGenericSuperclass(), actual.getGenericSuperclass() );
+            assertEquals( type.getName(), expected.getGenericInterfaces(), actual.getGenericInterfaces() );
+        }
+    }
+
+    @Test
+    public void testMetadata() {
+
+        for( Class<?> type : CLASSES ) {
+            final TSTypeMetadata expected = TSJavaClass.of(type).getMetadata();
+            final TSTypeMetadata actual = read(type).getMetadata();
+
+            assertEquals( type.getName(), toGenericStrings(expected.getMethods()), toGenericStrings(actual.getMethods()) );
+            assertEquals( type.getName(), toGenericStrings(expected.getFields()), toGenericStrings(actual.getFields()) );
+            assertEquals( type.getName(), toGenericStrings(expected.getConstructors()), toGenericStrings(actual.getConstructors()) );
+            assertEquals( type.getName(), expected.getEnumConstants(), actual.getEnumConstants() );
+            assertEquals( type.getName(), expected.isFunctionalInterface(), actual.isFunctionalInterface() );
+
+            final Map<String,List<TSJavaParameter>> expectedParameters = expected.getMethods().stream()
+                    .collect( Collectors.toMap( TSJavaMethod::toGenericString, TSJavaMethod::getParameters ));
+            final Map<String,List<TSJavaParameter>> actualParameters = actual.getMethods().stream()
+                    .collect( Collectors.toMap( TSJavaMethod::toGenericString, TSJavaMethod::getParameters ));
+            assertEquals( type.getName(), expectedParameters, actualParameters );
+        }
+    }
+
+    @Test
+    public void testDeclaration() {
+
+        final List<Java2TSConverter> converters = List.of(
+                Java2TSConverter.builder().build(),
+                Java2TSConverter.builder().omitInherited(true).build() );
+
+        final Map<String,TSType> reflectionTypes = CLASSES.stream()
+                .map( TSType::of )
+                .collect( Collectors.toMap( TSType::getTypeName, t -> t ));
+
+        final Map<String,TSType> classFileTypes = CLASSES.stream()
+                .map( c -> TSType.builder().value(c.getName()).source(classPath).build() )
+                .collect( Collectors.toMap( TSType::getTypeName, t -> t ));
+
+        Stream.of( reflectionTypes, classFileTypes ).forEach( m -> assertEquals( CLASSES.size(), m.size()) );
+
+        for( String name : reflectionTypes.keySet() ) {
+            assertFalse( classFileTypes.get(name).getJavaClass() instanceof TSReflectionClass );
+
+            for( Java2TSConverter converter : converters ) {
+                assertEquals( name,
+                        converter.javaClass2DeclarationTransformer(0, reflectionTypes.get(name), reflectionTypes),
+                        converter.javaClass2DeclarationTransformer(0, classFileTypes.get(name), classFileTypes) );
+            }
+        }
+    }
+}
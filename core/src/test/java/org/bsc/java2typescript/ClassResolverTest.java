@@ -0,0 +1,59 @@
+package org.bsc.java2typescript;
+
+import java.util.Optional;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author bsorrentino
+ *
+ */
+public class ClassResolverTest {
+
+    static boolean initialized = false;
+
+    public static class NotInitialized {
+        static {
+            initialized = true;
+        }
+    }
+
+    @Test
+    public void testResolveMemberClass() throws Exception {
+
+        assertEquals( Optional.of(java.util.Map.Entry.class), TSClassResolver.resolve("java.util.Map.Entry") );
+        assertEquals( Optional.of(java.util.Map.Entry.class), TSClassResolver.resolve("java.util.Map$Entry") );
+        assertEquals( Optional.of(ProcessBuilder.Redirect.Type.class), TSClassResolver.resolve("java.lang.ProcessBuilder.Redirect.Type") );
+
+        assertSame( TSType.builder().value("java.lang.ProcessBuilder.Redirect.Type").build().getValue(),
+                    ProcessBuilder.Redirect.Type.class );
+    }
+
+    @Test
+    public void testResolveNotFound() throws Exception {
+
+        assertFalse( TSClassResolver.resolve("org.bsc.java2typescript.Unknown").isPresent() );
+        assertFalse( TSClassResolver.resolve("org.bsc.java2typescript.Unknown").isPresent() );
+
+        try {
+            TSClassResolver.forName("org.bsc.java2typescript.Unknown");
+            fail( "ClassNotFoundException expected" );
+        }
+        catch( ClassNotFoundException e ) {
+            assertEquals( "org.bsc.java2typescript.Unknown", e.getMessage() );
+        }
+    }
+
+    @Test
+    public void testResolveWithoutInitialization() throws Exception {
+
+        final TSType type = TSType.builder().value("org.bsc.java2typescript.ClassResolverTest.NotInitialized").build();
+
+        assertEquals( "ClassResolverTest$NotInitialized", type.getSimpleTypeName() );
+        assertFalse( "static initializer must not run", initialized );
+    }
+
+}
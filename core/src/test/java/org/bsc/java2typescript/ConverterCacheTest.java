@@ -0,0 +1,103 @@
+package org.bsc.java2typescript;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author bsorrentino
+ *
+ */
+public class ConverterCacheTest extends AbstractConverterTest {
+
+    @Test
+    public void testCacheHitReplayTypeVariables() throws Exception {
+
+        final Class<?> type = Sample1.class;
+
+        final TSConverterCache cache = new TSConverterCache(
+                declaredTypeMap(TSType.of(java.util.function.BiPredicate.class).withExport(false).withAlias("BiPredicate")));
+
+        final Method m = type.getMethod("method1_3");
+        final Type rType = m.getGenericReturnType();
+
+        final java.util.Set<String> first = new java.util.HashSet<>();
+        final String result1 = cache.convertJavaToTS(rType, m, TSType.of(type), true, Optional.of( tv -> first.add(tv.getName())));
+
+        assertEquals( "BiPredicate<E2, E2>", result1 );
+        assertEquals( 1, cache.size() );
+        assertTrue( first.contains("E2") );
+
+        final java.util.Set<String> second = new java.util.HashSet<>();
+        final String result2 = cache.convertJavaToTS(rType, m, TSType.of(type), true, Optional.of( tv -> second.add(tv.getName())));
+
+        assertEquals( result1, result2 );
+        assertEquals( 1, cache.size() );
+        assertEquals( first, second );
+
+        // the memoized model is returned
+        final TSJavaType javaType = TSReflectionClass.toJavaType(rType);
+        final TSJavaMember member = TSConverterStatic.toJavaMember(m);
+        assertSame( cache.toTSType(javaType, member, TSType.of(type), true, Optional.of( tv -> {})),
+                    cache.toTSType(javaType, member, TSType.of(type), true, Optional.of( tv -> {})) );
+        assertEquals( 1, cache.size() );
+    }
+
+    @Test
+    public void testCacheMismatchMode() throws Exception {
+
+        final Class<?> type = Sample1.class;
+
+        final TSConverterCache cache = new TSConverterCache(
+                declaredTypeMap(TSType.of(java.util.function.BiPredicate.class).withExport(false).withAlias("BiPredicate")));
+
+        final Method m = type.getMethod("method1_3");
+        final Type rType = m.getGenericReturnType();
+
+        final String result1 = cache.convertJavaToTS(rType, m, TSType.of(type), true, Optional.of( tv -> {}));
+        final String result2 = cache.convertJavaToTS(rType, m, TSType.of(type), true, Optional.empty());
+
+        assertEquals( "BiPredicate<E2, E2>", result1 );
+        assertEquals( "BiPredicate<any, any>", result2 );
+        assertEquals( 2, cache.size() );
+    }
+
+    @Test
+    public void testConcurrentRendering() throws Exception {
+
+        final Map<String, TSType> declaredTypes = TSDeclarationBundle.requiredTypeMap();
+        final Java2TSConverter converter = Java2TSConverter.builder().build();
+
+        final List<String> expected = TSConverterStatic.REQUIRED_TYPES.stream()
+                .map( t -> Java2TSConverter.builder().build().javaClass2DeclarationTransformer(0, t, declaredTypes) )
+                .collect(Collectors.toList());
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<List<String>>> results = new java.util.ArrayList<>();
+            for( int i = 0; i < 8; ++i ) {
+                results.add( executor.submit( () -> TSConverterStatic.REQUIRED_TYPES.stream()
+                        .map( t -> converter.javaClass2DeclarationTransformer(0, t, declaredTypes) )
+                        .collect(Collectors.toList()) ) );
+            }
+            for( Future<List<String>> result : results ) {
+                assertEquals( expected, result.get() );
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+}
@@ -94,16 +94,16 @@ public class ConverterTest extends AbstractConverterTest {
         {
             TSType t = TSType.of(Consumer.class);
             assertTrue(t.isFunctional());
-            t.setFunctional(false);
-            assertTrue(t.isFunctional());
+            assertTrue(t.withFunctional(false).isFunctional());
 
         }
         assertTrue(TSType.of(Action.class).isFunctional());
         {
             TSType t = TSType.of(Action2.class);
             assertFalse(t.isFunctional());
-            t.setFunctional(true);
-            assertFalse(t.isFunctional());
+            final TSType functional = t.withFunctional(true);
+            assertNotSame(t, functional);
+            assertFalse(functional.isFunctional());
         }
 
     }
@@ -0,0 +1,97 @@
+package org.bsc.java2typescript;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author bsorrentino
+ *
+ */
+public class DeclarationBundleTest extends AbstractConverterTest {
+
+    final TSType stream = TSConverterStatic.REQUIRED_TYPES.stream()
+                            .filter( t -> t.getValue().equals(java.util.stream.Stream.class) )
+                            .findFirst()
+                            .orElseThrow();
+
+    @Test
+    public void testShippedBundleIsUpToDate() {
+
+        final Map<String, TSType> declaredTypes = TSDeclarationBundle.requiredTypeMap();
+
+        for( Java2TSConverter.Compatibility compatibility : Java2TSConverter.Compatibility.values() ) {
+            final Java2TSConverter converter = Java2TSConverter.builder().compatibility(compatibility).build();
+
+            final Optional<TSDeclarationBundle> bundle = TSDeclarationBundle.of(converter.getOptions());
+            Assume.assumeTrue( "no bundle for the running JDK", bundle.isPresent() );
+
+            for( TSType type : TSConverterStatic.REQUIRED_TYPES ) {
+                assertEquals( converter.javaClass2DeclarationTransformer(0, type, declaredTypes),
+                        bundle.get().get( TSDeclarationBundle.DECLARATION, type, declaredTypes ).orElse(null) );
+                if( type.isExport() ) {
+                    assertEquals( converter.javaClass2StaticDefinitionTransformer(type, declaredTypes),
+                            bundle.get().get( TSDeclarationBundle.STATIC_DEFINITION, type, declaredTypes ).orElse(null) );
+                }
+            }
+        }
+
+        final Java2TSConverter.Options foreignObjectPrototype =
+                Java2TSConverter.Options.of(Java2TSConverter.Compatibility.GRAALJS, true);
+        assertFalse( TSDeclarationBundle.of(foreignObjectPrototype).isPresent() );
+    }
+
+    @Test
+    public void testWriteRead() throws Exception {
+
+        final Java2TSConverter converter = Java2TSConverter.builder().build();
+        final Map<String, TSType> declaredTypes = TSDeclarationBundle.requiredTypeMap();
+
+        final TSDeclarationBundle bundle = TSDeclarationBundle.render( converter, TSConverterStatic.REQUIRED_TYPES, declaredTypes );
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bundle.write( out );
+
+        final TSDeclarationBundle result = TSDeclarationBundle.read( new ByteArrayInputStream(out.toByteArray()) );
+
+        assertEquals( bundle.size(), result.size() );
+        assertEquals( converter.javaClass2DeclarationTransformer(0, stream, declaredTypes),
+                result.get( TSDeclarationBundle.DECLARATION, stream, declaredTypes ).orElse(null) );
+    }
+
+    @Test
+    public void testDeclaredTypesChange() {
+
+        final Java2TSConverter converter = Java2TSConverter.builder().build();
+        final Map<String, TSType> declaredTypes = TSDeclarationBundle.requiredTypeMap();
+
+        final TSDeclarationBundle bundle = TSDeclarationBundle.render( converter, TSConverterStatic.REQUIRED_TYPES, declaredTypes );
+
+        // a type not referred by the rendering
+        final Map<String, TSType> unrelated = new HashMap<>(declaredTypes);
+        unrelated.putAll( declaredClassMap( Sample1.class ) );
+        assertTrue( bundle.get( TSDeclarationBundle.DECLARATION, stream, unrelated ).isPresent() );
+
+        // a referred type becomes declared
+        final Map<String, TSType> declared = new HashMap<>(declaredTypes);
+        declared.putAll( declaredClassMap( java.util.stream.IntStream.class ) );
+        assertFalse( bundle.get( TSDeclarationBundle.DECLARATION, stream, declared ).isPresent() );
+
+        // a referred type changes its alias
+        final Map<String, TSType> alias = new HashMap<>(declaredTypes);
+        alias.put( java.util.function.Function.class.getName(), TSType.of(java.util.function.Function.class).withAlias("Fn") );
+        assertFalse( bundle.get( TSDeclarationBundle.DECLARATION, stream, alias ).isPresent() );
+
+        // the type itself changes its attributes
+        assertFalse( bundle.get( TSDeclarationBundle.DECLARATION, TSType.of(java.util.stream.Stream.class), declaredTypes ).isPresent() );
+    }
+
+}
@@ -0,0 +1,104 @@
+package org.bsc.java2typescript;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author bsorrentino
+ *
+ */
+public class DeclarationCacheTest extends AbstractConverterTest {
+
+    @Test
+    public void testHitMiss() throws Exception {
+
+        final TSDeclarationCache cache = new TSDeclarationCache(16);
+        final Java2TSConverter converter = Java2TSConverter.builder().declarationCache(cache).build();
+        final Map<String, TSType> declaredTypes = TSDeclarationBundle.requiredTypeMap();
+        final TSType stream = TSType.of(java.util.stream.Stream.class).withExport(true);
+
+        final String expected = Java2TSConverter.builder().build().javaClass2DeclarationTransformer(0, stream, declaredTypes);
+
+        assertEquals( expected, converter.javaClass2DeclarationTransformer(0, stream, declaredTypes) );
+        assertEquals( new TSDeclarationCache.Stats(0, 1, 0), cache.stats() );
+
+        // another converter with the same options, another declared type map
+        final Java2TSConverter other = Java2TSConverter.builder().declarationCache(cache).build();
+        assertEquals( expected, other.javaClass2DeclarationTransformer(0, stream, new HashMap<>(declaredTypes)) );
+        assertEquals( new TSDeclarationCache.Stats(1, 1, 0), cache.stats() );
+
+        // other options
+        final Java2TSConverter rhino = Java2TSConverter.builder().compatibility("rhino").declarationCache(cache).build();
+        rhino.javaClass2DeclarationTransformer(0, stream, declaredTypes);
+        rhino.javaClass2StaticDefinitionTransformer(stream, declaredTypes);
+        assertEquals( new TSDeclarationCache.Stats(1, 3, 0), cache.stats() );
+        assertEquals( 3, cache.size() );
+
+        // a referred type becomes declared
+        final Map<String, TSType> declared = new HashMap<>(declaredTypes);
+        declared.putAll( declaredClassMap( java.util.stream.IntStream.class ) );
+        assertNotEquals( expected, converter.javaClass2DeclarationTransformer(0, stream, declared) );
+        assertEquals( new TSDeclarationCache.Stats(1, 4, 0), cache.stats() );
+
+        // class models read from a class path are keyed by the class path
+        final TSType optional = TSType.of(java.util.Optional.class);
+        try( TSClassPath runtime = TSClassPath.of() ) {
+            converter.javaClass2DeclarationTransformer(0, TSType.builder().value("java.util.Optional").source(runtime).build(), declaredTypes);
+            converter.javaClass2DeclarationTransformer(0, TSType.builder().value("java.util.Optional").source(runtime).build(), declaredTypes);
+            assertEquals( new TSDeclarationCache.Stats(2, 5, 0), cache.stats() );
+        }
+        converter.javaClass2DeclarationTransformer(0, optional, declaredTypes);
+        assertEquals( new TSDeclarationCache.Stats(2, 6, 0), cache.stats() );
+    }
+
+    @Test
+    public void testMaximumSize() {
+
+        final TSDeclarationCache cache = new TSDeclarationCache(1);
+        final Java2TSConverter converter = Java2TSConverter.builder().declarationCache(cache).build();
+        final Map<String, TSType> declaredTypes = declaredClassMap( Sample1.class, Sample2.class );
+
+        converter.javaClass2DeclarationTransformer(0, declaredTypes.get(Sample1.class.getName()), declaredTypes);
+        converter.javaClass2DeclarationTransformer(0, declaredTypes.get(Sample2.class.getName()), declaredTypes);
+        converter.javaClass2DeclarationTransformer(0, declaredTypes.get(Sample1.class.getName()), declaredTypes);
+
+        assertEquals( new TSDeclarationCache.Stats(0, 3, 2), cache.stats() );
+        assertEquals( 1, cache.size() );
+    }
+
+    @Test
+    public void testClassLoaderCollected() throws Exception {
+
+        final TSDeclarationCache cache = new TSDeclarationCache(16);
+
+        render( cache );
+        assertEquals( 1, cache.size() );
+
+        for( int i = 0; i < 50 && cache.stats().evictions() == 0; ++i ) {
+            System.gc();
+            Thread.sleep(100);
+            cache.size();
+        }
+        assertEquals( new TSDeclarationCache.Stats(0, 1, 1), cache.stats() );
+        assertEquals( 0, cache.size() );
+    }
+
+    private void render( TSDeclarationCache cache ) throws Exception {
+        final URL classes = Sample1.class.getProtectionDomain().getCodeSource().getLocation();
+
+        try( URLClassLoader loader = new URLClassLoader( new URL[] { classes }, null ) ) {
+            final Class<?> type = loader.loadClass( Sample1.class.getName() );
+            assertNotSame( Sample1.class, type );
+
+            final Java2TSConverter converter = Java2TSConverter.builder().declarationCache(cache).build();
+            converter.javaClass2DeclarationTransformer(0, TSType.of(type), declaredClassMap(type));
+        }
+    }
+}
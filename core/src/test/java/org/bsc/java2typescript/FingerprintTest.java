@@ -0,0 +1,97 @@
+package org.bsc.java2typescript;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.spi.ToolProvider;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author bsorrentino
+ *
+ */
+public class FingerprintTest extends AbstractConverterTest {
+
+    @Test
+    public void testDigestIsStable() {
+
+        final java.util.Map<String,TSType> declaredTypes = declaredClassMap( Sample1.class, Sample2.class, java.util.List.class );
+
+        final TSFingerprint f1 = TSFingerprint.of( declaredTypes, Java2TSConverter.Options.ofDefault() );
+        final TSFingerprint f2 = TSFingerprint.of( declaredClassMap( java.util.List.class, Sample2.class, Sample1.class ),
+                                                  Java2TSConverter.Options.ofDefault() );
+
+        assertEquals( f1.digest(TSType.of(Sample1.class)), f2.digest(TSType.of(Sample1.class)) );
+        assertNotEquals( f1.digest(TSType.of(Sample1.class)), f1.digest(TSType.of(Sample2.class)) );
+    }
+
+    @Test
+    public void testDigestChanges() {
+
+        final java.util.Map<String,TSType> declaredTypes = declaredClassMap( Sample1.class, Sample2.class );
+        final TSType type = TSType.of(Sample1.class);
+
+        final String digest = TSFingerprint.of( declaredTypes, Java2TSConverter.Options.ofDefault() ).digest(type);
+
+        // converter options
+        assertNotEquals( digest,
+                TSFingerprint.of( declaredTypes, Java2TSConverter.Options.of(Java2TSConverter.Compatibility.RHINO) ).digest(type) );
+
+        // declared types
+        assertNotEquals( digest,
+                TSFingerprint.of( declaredClassMap( Sample1.class ), Java2TSConverter.Options.ofDefault() ).digest(type) );
+
+        // type attributes
+        assertNotEquals( digest,
+                TSFingerprint.of( declaredTypes, Java2TSConverter.Options.ofDefault() ).digest(type.withExport(true)) );
+    }
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * compile the given names and sources of package {@code p} in a new folder
+     */
+    private Path compile( String... sources ) throws Exception {
+        final Path root = folder.newFolder().toPath();
+        final Path dir = Files.createDirectories( root.resolve("p") );
+        final List<String> args = new java.util.ArrayList<>( List.of("-d", root.toString()) );
+        for( int i = 0; i < sources.length; i += 2 ) {
+            args.add( Files.writeString( dir.resolve(sources[i] + ".java"), sources[i+1] ).toString() );
+        }
+        final ToolProvider javac = ToolProvider.findFirst("javac").orElseThrow();
+        assertEquals( 0, javac.run( System.out, System.err, args.toArray(new String[0]) ) );
+        return root;
+    }
+
+    private String digest( String typeArgument, Java2TSConverter.Options options ) throws Exception {
+        final Path classes = compile(
+                "Base", "package p; public class Base<T> { public T get() { return null; } }",
+                "Foo", "package p; public class Foo extends Base<" + typeArgument + "> {}" );
+
+        try( TSClassPath runtime = TSClassPath.of();
+             TSClassPath classPath = TSClassPath.of( List.of(classes), runtime ) ) {
+            final TSType foo = TSType.builder().value("p.Foo").source(classPath).build();
+            final TSType base = TSType.builder().value("p.Base").source(classPath).build();
+
+            return TSFingerprint.of( java.util.Map.of( "p.Foo", foo, "p.Base", base ), options ).digest(foo);
+        }
+    }
+
+    @Test
+    public void testDigestChangesWithGenericSupertypes() throws Exception {
+
+        final Java2TSConverter.Options omit =
+                Java2TSConverter.Options.of( Java2TSConverter.Compatibility.NASHORN, false, true );
+
+        assertEquals( digest("String", omit), digest("String", omit) );
+        assertNotEquals( digest("String", omit), digest("Integer", omit) );
+        assertNotEquals( digest("String", omit), digest("String", Java2TSConverter.Options.ofDefault()) );
+    }
+}
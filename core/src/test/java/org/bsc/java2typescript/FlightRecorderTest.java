@@ -0,0 +1,71 @@
+package org.bsc.java2typescript;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author bsorrentino
+ *
+ */
+public class FlightRecorderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testEvents() throws Exception {
+
+        final Path file = folder.getRoot().toPath().resolve("events.jfr");
+
+        try( Recording recording = new Recording() ) {
+            recording.enable("org.bsc.java2typescript.Render").withThreshold(java.time.Duration.ZERO);
+            recording.enable("org.bsc.java2typescript.ClassResolution").withThreshold(java.time.Duration.ZERO);
+            recording.start();
+
+            final TSType optional = TSType.builder().value("java.util.Optional").export(true).build();
+            assertThrows( RuntimeException.class, () -> TSType.builder().value("p.Missing").build() );
+
+            final Java2TSConverter converter = Java2TSConverter.builder().compatibility("RHINO").build();
+            final Map<String, TSType> declaredTypes = Map.of( optional.getJavaClass().getName(), optional );
+            converter.javaClass2DeclarationTransformer(0, optional, declaredTypes);
+            converter.javaClass2StaticDefinitionTransformer(optional, declaredTypes);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        final List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+        final Map<String, RecordedEvent> resolutions = events.stream()
+                .filter( e -> e.getEventType().getName().equals("org.bsc.java2typescript.ClassResolution") )
+                .collect( Collectors.toMap( e -> e.getString("typeName"), e -> e, (a, b) -> a ) );
+        assertTrue( resolutions.get("java.util.Optional").getBoolean("found") );
+        assertEquals( "reflection", resolutions.get("java.util.Optional").getString("source") );
+        assertFalse( resolutions.get("p.Missing").getBoolean("found") );
+
+        final List<RecordedEvent> renderings = events.stream()
+                .filter( e -> e.getEventType().getName().equals("org.bsc.java2typescript.Render") )
+                .filter( e -> e.getString("typeName").equals("java.util.Optional") )
+                .collect( Collectors.toList() );
+        assertEquals( List.of("d.ts", "js"), renderings.stream().map( e -> e.getString("extension") ).sorted().collect(Collectors.toList()) );
+        renderings.forEach( e -> {
+            assertEquals( "RHINO", e.getString("compatibility") );
+            assertFalse( e.getBoolean("cached") );
+        });
+
+        Files.deleteIfExists(file);
+    }
+}
@@ -0,0 +1,83 @@
+package org.bsc.java2typescript;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author bsorrentino
+ *
+ */
+public class InheritanceTest extends AbstractConverterTest {
+
+    public interface Shape<T> {
+        T get();
+        void accept(T value);
+        Shape<T> self();
+    }
+
+    public interface Named<T> extends Shape<T> {
+        String name();
+    }
+
+    public interface Circle extends Named<String> {
+        @Override
+        String get();       // same signature, as seen from Circle
+        @Override
+        Circle self();      // covariant
+        double radius();
+    }
+
+    private final Java2TSConverter converter = Java2TSConverter.builder().omitInherited(true).build();
+
+    @Test
+    public void testOmitInherited() {
+
+        final Map<String, TSType> declaredTypes = declaredClassMap( Shape.class, Circle.class );
+
+        final String circle = converter.javaClass2DeclarationTransformer(0, declaredTypes.get(Circle.class.getName()), declaredTypes);
+
+        // the undeclared supertype is looked through
+        assertTrue( circle, circle.contains("interface InheritanceTest$Circle extends InheritanceTest$Shape<string>/*") );
+        assertTrue( circle, circle.contains("\tname(  ):string;") );
+        assertTrue( circle, circle.contains("\tradius(  ):double;") );
+        assertTrue( circle, circle.contains("\tself(  ):InheritanceTest$Circle;") );
+        assertFalse( circle, circle.contains("\tget") );
+        assertFalse( circle, circle.contains("\taccept") );
+
+        // default emission
+        final String all = Java2TSConverter.builder().build()
+                .javaClass2DeclarationTransformer(0, declaredTypes.get(Circle.class.getName()), declaredTypes);
+        assertTrue( all, all.contains("interface InheritanceTest$Circle/*") );
+        assertTrue( all, all.contains("\tget(  ):string;") );
+        assertTrue( all, all.contains("\taccept<T>( value:T ):void;") );
+    }
+
+    @Test
+    public void testOverloads() {
+
+        final Map<String, TSType> declaredTypes = declaredClassMap(
+                java.lang.Iterable.class,
+                java.util.Collection.class,
+                java.util.List.class,
+                java.util.AbstractList.class,
+                java.util.ArrayList.class );
+
+        final String list = converter.javaClass2DeclarationTransformer(0, declaredTypes.get("java.util.List"), declaredTypes);
+
+        assertTrue( list, list.contains("interface List<E> extends Collection<E>/*") );
+        assertFalse( list, list.contains("\tsize(  ):int;") );
+        // add(int,E) is new, it would hide add(E) of Collection
+        assertTrue( list, list.contains("\tadd( arg0:int, arg1:E ):void;") );
+        assertTrue( list, list.contains("\tadd( arg0:E ):boolean;") );
+
+        final String arrayList = converter.javaClass2DeclarationTransformer(0, declaredTypes.get("java.util.ArrayList"), declaredTypes);
+
+        assertTrue( arrayList, arrayList.contains("class ArrayList<E> extends AbstractList<E>/*") );
+        assertTrue( arrayList, arrayList.contains("\ttrimToSize(  ):void;") );
+        assertFalse( arrayList, arrayList.contains("\tget( arg0:int ):E;") );
+    }
+}
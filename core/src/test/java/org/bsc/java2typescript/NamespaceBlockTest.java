@@ -0,0 +1,57 @@
+package org.bsc.java2typescript;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author bsorrentino
+ *
+ */
+public class NamespaceBlockTest extends AbstractConverterTest {
+
+    private final Java2TSConverter converter = Java2TSConverter.builder().build();
+
+    @Test
+    public void testSplit() {
+
+        final Map<String, TSType> declaredTypes = TSDeclarationBundle.requiredTypeMap();
+        final TSType stream = TSType.of(java.util.stream.Stream.class).withExport(true);
+
+        final String rendering = converter.javaClass2DeclarationTransformer(0, stream, declaredTypes);
+        final TSNamespaceBlock.Declaration declaration = TSNamespaceBlock.split(stream, rendering);
+
+        assertEquals( "java.util.stream", declaration.namespace() );
+        assertTrue( declaration.content().startsWith("interface Stream<T>") );
+        assertFalse( declaration.content().contains("declare namespace") );
+        assertEquals( "declare const Stream: java.util.stream.Stream;\n\n\n", declaration.trailer() );
+        assertEquals( rendering, TSNamespaceBlock.begin(declaration.namespace())
+                                    .concat(declaration.content())
+                                    .concat(TSNamespaceBlock.end(declaration.namespace()))
+                                    .concat(declaration.trailer()) );
+
+        // not exported
+        final TSType optional = TSType.of(java.util.Optional.class);
+        final TSNamespaceBlock.Declaration other =
+                TSNamespaceBlock.split(optional, converter.javaClass2DeclarationTransformer(0, optional, declaredTypes));
+        assertEquals( "java.util", other.namespace() );
+        assertEquals( "", other.trailer() );
+    }
+
+    @Test
+    public void testAlias() {
+
+        final TSType supplier = TSType.of(java.util.function.Supplier.class).withFunctional(true).withAlias("Supplier");
+        final Map<String, TSType> declaredTypes = declaredTypeMap( supplier );
+
+        final String rendering = converter.javaClass2DeclarationTransformer(0, supplier, declaredTypes);
+        final TSNamespaceBlock.Declaration declaration = TSNamespaceBlock.split(supplier, rendering);
+
+        assertNull( declaration.namespace() );
+        assertEquals( rendering, declaration.content() );
+        assertEquals( "", declaration.trailer() );
+    }
+}
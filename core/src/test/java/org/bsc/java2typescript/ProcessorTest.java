@@ -48,7 +48,7 @@ public class ProcessorTest extends AbstractConverterTest {
             final Method m = type.getValue().getMethod("merge", BiConsumer.class);
             final String result = converter.getMethodParametersAndReturnDecl(m,
                     type,
-                    declaredTypeMap(TSType.of(String.class), TSType.of(Sample2.class), TSType.of(BiConsumer.class).setExport(false).setAlias("BiConsumer")),
+                    declaredTypeMap(TSType.of(String.class), TSType.of(Sample2.class), TSType.of(BiConsumer.class).withExport(false).withAlias("BiConsumer")),
                     true);
 
             assertNotNull(result);
@@ -58,7 +58,7 @@ public class ProcessorTest extends AbstractConverterTest {
             final Method m = type.getValue().getMethod("concatMap", Function.class);
             final String result = converter.getMethodParametersAndReturnDecl(m,
                     type,
-                    declaredTypeMap(TSType.of(String.class), TSType.of(Sample2.class), TSType.of(Function.class).setExport(false).setAlias("Func")),
+                    declaredTypeMap(TSType.of(String.class), TSType.of(Sample2.class), TSType.of(Function.class).withExport(false).withAlias("Func")),
                     true);
 
             assertNotNull(result);
@@ -76,7 +76,7 @@ public class ProcessorTest extends AbstractConverterTest {
             final Type pType = m.getGenericParameterTypes()[0];
             final String result = Java2TSConverter.convertJavaToTS(pType, m,
                     type,
-                    declaredTypeMap(TSType.of(String.class), TSType.of(java.util.function.Function.class).setAlias("Func").setExport(false)),
+                    declaredTypeMap(TSType.of(String.class), TSType.of(java.util.function.Function.class).withAlias("Func").withExport(false)),
                     true,
                     Optional.empty());
             assertNotNull(result);
@@ -88,7 +88,7 @@ public class ProcessorTest extends AbstractConverterTest {
             final Method m = type.getValue().getMethod("transform", java.util.function.Function.class);
             final String result = converter.getMethodParametersAndReturnDecl(m,
                     type,
-                    declaredTypeMap(TSType.of(String.class), TSType.of(java.util.function.Function.class).setAlias("Func").setExport(false)),
+                    declaredTypeMap(TSType.of(String.class), TSType.of(java.util.function.Function.class).withAlias("Func").withExport(false)),
                     true);
 
             assertNotNull(result);
@@ -98,7 +98,7 @@ public class ProcessorTest extends AbstractConverterTest {
             final Method m = type.getValue().getMethod("creator", java.util.concurrent.Callable.class);
             final String result = converter.getMethodParametersAndReturnDecl(m,
                     type,
-                    declaredTypeMap(TSType.of(String.class), TSType.of(java.util.concurrent.Callable.class).setExport(false).setAlias("Supplier")),
+                    declaredTypeMap(TSType.of(String.class), TSType.of(java.util.concurrent.Callable.class).withExport(false).withAlias("Supplier")),
                     true);
 
             assertNotNull(result);
@@ -130,7 +130,7 @@ public class ProcessorTest extends AbstractConverterTest {
             final Type rType = m.getGenericReturnType();
             final String result = Java2TSConverter.convertJavaToTS(rType, m,
                     TSType.of(type),
-                    declaredTypeMap(TSType.of(String.class), TSType.of(java.util.List.class).setExport(false).setAlias("List")),
+                    declaredTypeMap(TSType.of(String.class), TSType.of(java.util.List.class).withExport(false).withAlias("List")),
                     true,
                     Optional.empty());
             assertNotNull(result);
@@ -141,7 +141,7 @@ public class ProcessorTest extends AbstractConverterTest {
 
             final String result = converter.getMethodParametersAndReturnDecl(m,
                     TSType.of(type),
-                    declaredTypeMap(TSType.of(String.class), TSType.of(java.util.List.class).setExport(false).setAlias("List")),
+                    declaredTypeMap(TSType.of(String.class), TSType.of(java.util.List.class).withExport(false).withAlias("List")),
                     true);
 
             assertNotNull(result);
@@ -211,7 +211,7 @@ public class ProcessorTest extends AbstractConverterTest {
             final Type rType = m.getGenericReturnType();
             final String result = Java2TSConverter.convertJavaToTS(rType, m,
                     TSType.of(type),
-                    declaredTypeMap(TSType.of(java.util.function.BiPredicate.class).setExport(false).setAlias("BiPredicate")),
+                    declaredTypeMap(TSType.of(java.util.function.BiPredicate.class).withExport(false).withAlias("BiPredicate")),
                     true,
                     Optional.of(addTypeVar));
             assertNotNull(result);
@@ -298,7 +298,7 @@ public class ProcessorTest extends AbstractConverterTest {
             final Type pType = m.getParameters()[0].getParameterizedType();
             final String rresult = Java2TSConverter.convertJavaToTS(pType, m,
                     TSType.of(type),
-                    declaredTypeMap(TSType.of(Sample2.class), TSType.of(Consumer.class).setExport(false).setAlias("Consumer")),
+                    declaredTypeMap(TSType.of(Sample2.class), TSType.of(Consumer.class).withExport(false).withAlias("Consumer")),
                     true,
                     Optional.empty());
             assertNotNull(rresult);
@@ -0,0 +1,94 @@
+package org.bsc.java2typescript;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author bsorrentino
+ *
+ */
+public class TypeBuilderTest {
+
+    @Test
+    public void testBuilderFromAttributes() {
+
+        final TSType type = TSType.builder( Map.of(
+                                    "value", "java.util.Map.Entry",
+                                    "export", true,
+                                    "functional", false,
+                                    "pre", "// pre\n" ))
+                                .build();
+
+        assertEquals( java.util.Map.Entry.class, type.getValue() );
+        assertTrue( type.isExport() );
+        assertFalse( type.hasAlias() );
+        assertEquals( "// pre\n", type.getPre() );
+        assertEquals( "", type.getPost() );
+        assertEquals( "java.util", type.getNamespace() );
+        assertEquals( "java.util.Map$Entry", type.getTypeName() );
+        assertEquals( "Map$Entry", type.getSimpleTypeName() );
+    }
+
+    @Test
+    public void testImmutable() {
+
+        final TSType type = TSType.of(java.util.function.Function.class);
+        final TSType alias = type.withAlias("Func").withExport(true);
+
+        assertNotSame( type, alias );
+        assertFalse( type.hasAlias() );
+        assertFalse( type.isExport() );
+        assertEquals( "java.util.function.Function", type.getTypeName() );
+
+        assertTrue( alias.hasAlias() );
+        assertTrue( alias.isExport() );
+        assertEquals( "Func", alias.getTypeName() );
+        assertEquals( "Func", alias.getSimpleTypeName() );
+        assertFalse( alias.supportNamespace() );
+
+        assertNotEquals( type, alias );
+        assertEquals( alias, TSType.of(java.util.function.Function.class).withExport(true).withAlias("Func") );
+        assertEquals( alias.hashCode(), type.withExport(true).withAlias("Func").hashCode() );
+    }
+
+    @Test
+    public void testEquality() {
+
+        final TSType type = TSType.of(java.util.function.Function.class);
+
+        // only types are equal to types
+        assertNotEquals( type, java.util.function.Function.class );
+
+        assertEquals( type, TSType.builder().value("java.util.function.Function").build() );
+        assertNotEquals( type, type.withExport(true) );
+        assertNotEquals( type, type.withFunctional(true) );
+        assertNotEquals( type, type.withPre("// pre\n") );
+        assertNotEquals( type, type.withPost("// post\n") );
+        assertNotEquals( type, TSType.builder().value(java.util.function.Function.class).namespace("fn").build() );
+    }
+
+    @Test
+    public void testEqualityOfClassModels() throws Exception {
+
+        // same name, different class: a model for each one
+        try( java.net.URLClassLoader loader = new java.net.URLClassLoader(
+                new java.net.URL[] { TypeBuilderTest.class.getProtectionDomain().getCodeSource().getLocation() }, null) ) {
+
+            final Class<?> other = loader.loadClass( TypeBuilderTest.class.getName() );
+            assertNotSame( TypeBuilderTest.class, other );
+
+            assertEquals( TSType.of(TypeBuilderTest.class), TSType.of(TypeBuilderTest.class) );
+            assertNotEquals( TSType.of(TypeBuilderTest.class), TSType.of(other) );
+        }
+    }
+
+    @Test
+    public void testEnumIsExported() {
+        assertTrue( TSType.of(java.util.concurrent.TimeUnit.class).isExport() );
+    }
+
+}
@@ -0,0 +1,55 @@
+package org.bsc.java2typescript;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author bsorrentino
+ *
+ */
+public class TypeMetadataTest {
+
+    @Test
+    public void testMetadataIsCached() {
+
+        assertSame( TSTypeMetadata.of(java.util.ArrayList.class), TSTypeMetadata.of(java.util.ArrayList.class) );
+        assertSame( TSType.of(java.util.ArrayList.class).getMetadata(), TSTypeMetadata.of(java.util.ArrayList.class) );
+    }
+
+    @Test
+    public void testMetadata() {
+
+        final TSTypeMetadata metadata = TSTypeMetadata.of(java.util.ArrayList.class);
+
+        assertEquals( List.of("E"), metadata.getTypeParameterNames() );
+        assertEquals( java.util.AbstractList.class.getName(), metadata.getSuperclass().map(TSJavaClass::getName).orElse(null) );
+        assertFalse( metadata.isInterface() );
+        assertFalse( metadata.isFunctionalInterface() );
+        assertTrue( metadata.getMethods().stream().noneMatch( m -> m.isBridge() || m.isSynthetic() ) );
+        assertEquals( metadata.getMethods().size(), metadata.getMethods().stream().distinct().count() );
+
+        final List<TSJavaMethod> constructors = metadata.getConstructors();
+        assertEquals( 3, constructors.size() );
+        for( int i = 1 ; i < constructors.size() ; ++i ) {
+            assertTrue( constructors.get(i-1).toGenericString().compareTo(constructors.get(i).toGenericString()) < 0 );
+        }
+
+        assertFalse( TSTypeMetadata.of(Object.class).getSuperclass().isPresent() );
+        assertEquals( List.of("NANOSECONDS", "MICROSECONDS", "MILLISECONDS", "SECONDS", "MINUTES", "HOURS", "DAYS"),
+                TSTypeMetadata.of(java.util.concurrent.TimeUnit.class).getEnumConstants() );
+    }
+
+    @Test
+    public void testFunctionalInterface() {
+
+        assertTrue( TSTypeMetadata.of(Runnable.class).isFunctionalInterface() );
+        assertTrue( TSTypeMetadata.of(ConverterTest.Action.class).isFunctionalInterface() );
+        assertFalse( TSTypeMetadata.of(ConverterTest.Action2.class).isFunctionalInterface() );
+        assertFalse( TSTypeMetadata.of(ConverterTest.Action2.class).hasSingleAbstractMethod() );
+        assertTrue( TSTypeMetadata.of(ConverterTest.Action.class).hasSingleAbstractMethod() );
+    }
+}
@@ -0,0 +1,82 @@
+package org.bsc.java2typescript;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author bsorrentino
+ *
+ */
+public class TypeNodeTest extends AbstractConverterTest {
+
+    public static class Arguments<T> {
+        public Map<String,String[]> classArray() { return null; }
+        public List<int[][]> primitiveArray() { return null; }
+        public List<T[]> typeVariableArray() { return null; }
+        public Map<String,List<String>[]> genericArray() { return null; }
+        public Map<String,StringBuilder> prefixedName() { return null; }
+        public Map<String,Map<String,List<String>>> nested() { return null; }
+        public List<? extends Number> wildcard() { return null; }
+        public Optional<T> typeVariable() { return null; }
+    }
+
+    @Test
+    public void testRender() {
+
+        final TSTypeNode string = new TSTypeNode.Reference("string");
+
+        assertEquals( "string", string.toTypeString() );
+        assertEquals( "java.util.List<E>",
+                new TSTypeNode.Reference("java.util.List", List.of(new TSTypeNode.TypeVariable("E"))).toTypeString() );
+        assertEquals( "int|null",
+                new TSTypeNode.Union(List.of(new TSTypeNode.Reference("int"), new TSTypeNode.Reference("null"))).toTypeString() );
+        assertEquals( "[string]", new TSTypeNode.Array(string).toTypeString() );
+        assertEquals( "[[string]]", new TSTypeNode.Array(new TSTypeNode.Array(string)).toTypeString() );
+        assertEquals( "T[]", new TSTypeNode.Array(new TSTypeNode.TypeVariable("T"), true).toTypeString() );
+        assertEquals( "E", new TSTypeNode.TypeVariable("E").toTypeString() );
+        assertEquals( "string", new TSTypeNode.Wildcard(string).toTypeString() );
+
+        assertEquals( "any", TSTypeNode.ANY.toTypeString() );
+        assertEquals( "any /*java.io.File*/", TSTypeNode.anyOf("java.io.File").toTypeString() );
+        assertEquals( "any/*T*/", TSTypeNode.anyWithNote("T").toTypeString() );
+
+        // nested generics
+        assertEquals( "java.util.Map<string, java.util.List<[any/*T*/]>>",
+                new TSTypeNode.Reference("java.util.Map", List.of(
+                        string,
+                        new TSTypeNode.Reference("java.util.List", List.of(
+                                new TSTypeNode.Array(TSTypeNode.anyWithNote("T"))))))
+                        .toTypeString() );
+
+        // rendered after the given content
+        assertEquals( "x:[string]", new TSTypeNode.Array(string).render(new StringBuilder("x:")).toString() );
+    }
+
+    @Test
+    public void testTypeArguments() throws Exception {
+
+        final Map<String, TSType> declaredTypes = declaredClassMap( Map.class, List.class, Optional.class, String.class, Arguments.class );
+
+        // arrays of classes are rendered as the other arrays
+        assertEquals( "java.util.Map<string, [string]>", getReturnType(declaredTypes, Arguments.class, "classArray") );
+        assertEquals( "java.util.List<[[int]]>", getReturnType(declaredTypes, Arguments.class, "primitiveArray") );
+
+        // generic arrays are postfix, with their component converted
+        assertEquals( "java.util.List<T[]>", getReturnType(declaredTypes, Arguments.class, "typeVariableArray") );
+        assertEquals( "java.util.Map<string, java.util.List<string>[]>", getReturnType(declaredTypes, Arguments.class, "genericArray") );
+
+        // a class whose name starts with the one of another argument isn't converted as the latter
+        assertEquals( "java.util.Map<string, any /*java.lang.StringBuilder*/>", getReturnType(declaredTypes, Arguments.class, "prefixedName") );
+
+        assertEquals( "java.util.Map<string, java.util.Map<string, java.util.List<string>>>",
+                getReturnType(declaredTypes, Arguments.class, "nested") );
+        assertEquals( "java.util.List<any /*java.lang.Number*/>", getReturnType(declaredTypes, Arguments.class, "wildcard") );
+        assertEquals( "java.util.Optional<T>", getReturnType(declaredTypes, Arguments.class, "typeVariable") );
+    }
+}
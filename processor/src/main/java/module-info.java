@@ -2,6 +2,8 @@ open module org.bsc.processor {
     requires org.kohsuke.metainf_services;
     requires java.json;
     requires java.compiler;
+    requires jdk.management;
+    requires jdk.jfr;
     requires org.bsc.java2typescript;
     exports org.bsc.processor.annotation;
 
@@ -113,11 +113,12 @@ public abstract class AbstractProcessorEx extends AbstractProcessor {
     /**
      * @param subfolder subfolder (e.g. confluence)
      * @param filePath relative path (e.g. children/file.wiki)
+     * @param originatingElements elements the file is generated from, used by incremental builds (e.g. Gradle)
      * @return
      * @throws IOException
      */
     protected FileObject getSourceOutputFile(Path subfolder,
-            Path filePath) throws IOException {
+            Path filePath, Element... originatingElements) throws IOException {
         final Filer filer = processingEnv.getFiler();
 
         System.out.println("========" + subfolder + " / " +filePath);
@@ -125,7 +126,8 @@ public abstract class AbstractProcessorEx extends AbstractProcessor {
                 = filer.createResource(
                         StandardLocation.SOURCE_OUTPUT,
                         subfolder.toString(),
-                        filePath.toString());
+                        filePath.toString(),
+                        originatingElements);
         return res;
     }
 
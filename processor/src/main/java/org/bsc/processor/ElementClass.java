@@ -0,0 +1,596 @@
+package org.bsc.processor;
+
+import org.bsc.java2typescript.TSJavaClass;
+import org.bsc.java2typescript.TSJavaField;
+import org.bsc.java2typescript.TSJavaMember;
+import org.bsc.java2typescript.TSJavaMethod;
+import org.bsc.java2typescript.TSJavaParameter;
+import org.bsc.java2typescript.TSJavaType;
+import org.bsc.java2typescript.TSJavaTypeParameter;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * {@link TSJavaClass} read from a {@link TypeElement}.
+ * <p>
+ * The compiler model hides the bridge methods that reflection reports, and these hide inherited methods
+ * from {@link Class#getMethods()}. So bridges are added following the same rules javac uses to generate them,
+ * in order to produce the same declarations of the reflection backend.
+ * </p>
+ */
+final class ElementClass extends TSJavaClass {
+
+  private static final String TSTYPE_ANNOTATION = "org.bsc.java2typescript.annotation.TsType";
+
+  private static final int ACCESS = Modifier.PUBLIC | Modifier.PROTECTED | Modifier.PRIVATE;
+  private static final int INTERFACE = Modifier.INTERFACE;
+  private static final int ANNOTATION = 0x2000;
+
+  /**
+   * method declared by a class, or bridge generated for it
+   *
+   * @param owner     declaring class
+   * @param element   method element, null for a bridge
+   * @param name      method name
+   * @param modifiers modifiers, as returned by reflection
+   * @param erasure   erasure of the parameter types followed by the erasure of the return type
+   */
+  private record Member(ElementClass owner, ExecutableElement element, String name, int modifiers, List<TSJavaType> erasure) {
+
+    boolean is(int modifier) {
+      return (modifiers & modifier) != 0;
+    }
+
+    int access() {
+      return modifiers & ACCESS;
+    }
+  }
+
+  private final ElementSource source;
+  private final TypeElement element;
+  private final String name;
+
+  private volatile int modifiers = -1;
+  private Optional<Map<String, List<String>>> parameterNames;
+  private volatile List<Member> members;
+  private volatile List<Member> bridges;
+  private volatile List<TSJavaMethod> declaredMethods;
+  private volatile List<TSJavaMethod> declaredConstructors;
+  private volatile List<TSJavaField> declaredFields;
+
+  ElementClass(ElementSource source, TypeElement element, String name) {
+    this.source = source;
+    this.element = element;
+    this.name = name;
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public String getSimpleName() {
+    return element.getSimpleName().toString();
+  }
+
+  /**
+   * same as {@link Class#getModifiers()}, implicit modifiers included
+   */
+  @Override
+  public int getModifiers() {
+    int result = modifiers;
+    if (result < 0) {
+      synchronized (source) {
+        result = ElementSource.toModifiers(element.getModifiers());
+
+        switch (element.getKind()) {
+          case ANNOTATION_TYPE -> result |= INTERFACE | Modifier.ABSTRACT | ANNOTATION;
+          case INTERFACE -> result |= INTERFACE | Modifier.ABSTRACT;
+          case ENUM -> result |= TSJavaMember.ENUM;
+          default -> {}
+        }
+        if (element.getNestingKind() == NestingKind.MEMBER && element.getKind() != ElementKind.CLASS) {
+          result |= Modifier.STATIC;
+        }
+        modifiers = result;
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public Optional<TSJavaClass> getDeclaringClass() {
+    if (element.getNestingKind() != NestingKind.MEMBER) return Optional.empty();
+
+    synchronized (source) {
+      return Optional.of(source.of((TypeElement) element.getEnclosingElement()));
+    }
+  }
+
+  @Override
+  public Optional<TSJavaClass> getSuperclass() {
+    return superclass().map(TSJavaClass.class::cast);
+  }
+
+  private Optional<ElementClass> superclass() {
+    synchronized (source) {
+      final TypeMirror type = element.getSuperclass();
+      return (type.getKind() == TypeKind.DECLARED) ?
+          Optional.of(source.of((TypeElement) ((DeclaredType) type).asElement())) :
+          Optional.empty();
+    }
+  }
+
+  @Override
+  public List<TSJavaClass> getInterfaces() {
+    return List.copyOf(interfaces());
+  }
+
+  private List<ElementClass> interfaces() {
+    synchronized (source) {
+      return element.getInterfaces().stream()
+          .map(t -> source.of((TypeElement) ((DeclaredType) t).asElement()))
+          .collect(Collectors.toUnmodifiableList());
+    }
+  }
+
+  @Override
+  public Optional<TSJavaType> getGenericSuperclass() {
+    synchronized (source) {
+      final TypeMirror type = element.getSuperclass();
+      return (type.getKind() == TypeKind.DECLARED) ? Optional.of(source.toJavaType(type)) : Optional.empty();
+    }
+  }
+
+  @Override
+  public List<TSJavaType> getGenericInterfaces() {
+    synchronized (source) {
+      return element.getInterfaces().stream()
+          .map(source::toJavaType)
+          .collect(Collectors.toUnmodifiableList());
+    }
+  }
+
+  @Override
+  public List<TSJavaTypeParameter> getTypeParameters() {
+    synchronized (source) {
+      return toTypeParameters(element.getTypeParameters());
+    }
+  }
+
+  @Override
+  public List<TSJavaMethod> getDeclaredMethods() {
+    List<TSJavaMethod> result = declaredMethods;
+    if (result == null) {
+      synchronized (source) {
+        final List<TSJavaMethod> methods = new ArrayList<>();
+        members().forEach(m -> methods.add(toMethod(m.element())));
+        bridges().forEach(b -> methods.add(toBridge(b)));
+        declaredMethods = result = List.copyOf(methods);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public List<TSJavaMethod> getDeclaredConstructors() {
+    List<TSJavaMethod> result = declaredConstructors;
+    if (result == null) {
+      synchronized (source) {
+        declaredConstructors = result = element.getEnclosedElements().stream()
+            .filter(e -> e.getKind() == ElementKind.CONSTRUCTOR)
+            .map(e -> toMethod((ExecutableElement) e))
+            .collect(Collectors.toUnmodifiableList());
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public List<TSJavaField> getDeclaredFields() {
+    List<TSJavaField> result = declaredFields;
+    if (result == null) {
+      synchronized (source) {
+        declaredFields = result = element.getEnclosedElements().stream()
+            .filter(e -> e.getKind() == ElementKind.FIELD || e.getKind() == ElementKind.ENUM_CONSTANT)
+            .map(e -> toField((VariableElement) e))
+            .collect(Collectors.toUnmodifiableList());
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public boolean isAnnotationPresent(String annotationName) {
+    synchronized (source) {
+      return element.getAnnotationMirrors().stream()
+          .anyMatch(am -> annotationName.equals(source.binaryName((TypeElement) am.getAnnotationType().asElement())));
+    }
+  }
+
+  private List<TSJavaTypeParameter> toTypeParameters(List<? extends TypeParameterElement> typeParameters) {
+    return typeParameters.stream()
+        .map(tp -> new TSJavaTypeParameter(tp.getSimpleName().toString(),
+            tp.getBounds().stream().map(source::toJavaType).collect(Collectors.toList())))
+        .collect(Collectors.toUnmodifiableList());
+  }
+
+  private TSJavaField toField(VariableElement e) {
+    final int modifiers = ElementSource.toModifiers(e.getModifiers()) |
+        ((e.getKind() == ElementKind.ENUM_CONSTANT) ? TSJavaMember.ENUM : 0);
+
+    return TSJavaField.of(this,
+        e.getSimpleName().toString(),
+        modifiers,
+        source.toJavaType(e.asType()),
+        source.erasure(e.asType()));
+  }
+
+  /**
+   * parameters are named {@code arg<index>} if reflection can't read their names from the class file.
+   * <p>
+   * Constructors of inner classes take the enclosing instance as first parameter, reported by reflection
+   * (named {@code this$0} if the class has been compiled with {@code -parameters}) but not by the compiler model.
+   * The generic signature doesn't include it, so that reflection falls back to erased parameter types
+   * when the names are not available.
+   * </p>
+   */
+  private TSJavaMethod toMethod(ExecutableElement e) {
+    final boolean constructor = e.getKind() == ElementKind.CONSTRUCTOR;
+
+    final TSJavaMethod.Builder builder = (constructor) ?
+        TSJavaMethod.constructor(this) :
+        TSJavaMethod.method(this).name(e.getSimpleName().toString());
+
+    final int modifiers = ElementSource.toModifiers(e.getModifiers()) |
+        ((e.isVarArgs()) ? TSJavaMember.VARARGS : 0);
+
+    final List<? extends VariableElement> elements = e.getParameters();
+    final List<TSJavaType> genericTypes = new ArrayList<>(elements.size());
+    final List<TSJavaType> rawTypes = new ArrayList<>(elements.size() + 1);
+    final List<TSJavaParameter> parameters = new ArrayList<>(elements.size() + 1);
+
+    final boolean inner = constructor &&
+        element.getKind() == ElementKind.CLASS &&
+        element.getNestingKind() == NestingKind.MEMBER &&
+        !element.getModifiers().contains(javax.lang.model.element.Modifier.STATIC);
+
+    if (inner) {
+      rawTypes.add(source.erasure(element.getEnclosingElement().asType()));
+    }
+    elements.forEach(p -> rawTypes.add(source.erasure(p.asType())));
+
+    if (parameterNames == null) {
+      parameterNames = source.parameterNames(element);
+    }
+    final List<String> names;
+    if (parameterNames.isPresent()) {
+      names = parameterNames.get().get(descriptor(e, rawTypes));
+    } else {
+      names = new ArrayList<>(rawTypes.size());
+      if (inner) names.add("this$0");
+      elements.forEach(p -> names.add(p.getSimpleName().toString()));
+    }
+    final boolean realNames = names != null;
+    final IntFunction<String> name = i -> (realNames && i < names.size() && names.get(i) != null) ? names.get(i) : "arg" + i;
+
+    if (inner) {
+      parameters.add(new TSJavaParameter(name.apply(0), rawTypes.get(0), false, Optional.empty()));
+    }
+
+    for (int i = 0; i < elements.size(); ++i) {
+      final VariableElement p = elements.get(i);
+      final TSJavaType genericType = source.toJavaType(p.asType());
+      final TSJavaType rawType = rawTypes.get(parameters.size());
+
+      genericTypes.add(genericType);
+      parameters.add(new TSJavaParameter(
+          name.apply(parameters.size()),
+          (inner && !realNames) ? rawType : genericType,
+          e.isVarArgs() && i == elements.size() - 1,
+          tsType(p)));
+    }
+
+    if (!constructor) {
+      builder.genericReturnType(source.toJavaType(e.getReturnType()))
+          .returnType(source.erasure(e.getReturnType()));
+    }
+
+    return builder.modifiers(modifiers)
+        .typeParameters(toTypeParameters(e.getTypeParameters()))
+        .parameters(parameters)
+        .genericParameterTypes(genericTypes)
+        .parameterTypes(rawTypes)
+        .exceptionTypes(e.getThrownTypes().stream().map(source::toJavaType).collect(Collectors.toList()))
+        .build();
+  }
+
+  /**
+   * @return name and descriptor of the method, as written in the class file
+   */
+  private String descriptor(ExecutableElement e, List<TSJavaType> parameterTypes) {
+    final boolean constructor = e.getKind() == ElementKind.CONSTRUCTOR;
+    return ((constructor) ? "<init>" : e.getSimpleName().toString()) +
+        parameterTypes.stream().map(ElementSource::descriptor).collect(Collectors.joining("", "(", ")")) +
+        ((constructor) ? "V" : ElementSource.descriptor(source.erasure(e.getReturnType())));
+  }
+
+  private TSJavaMethod toBridge(Member bridge) {
+    final List<TSJavaType> parameterTypes = bridge.erasure().subList(0, bridge.erasure().size() - 1);
+    final TSJavaType returnType = bridge.erasure().get(bridge.erasure().size() - 1);
+
+    final List<TSJavaParameter> parameters = new ArrayList<>(parameterTypes.size());
+    for (int i = 0; i < parameterTypes.size(); ++i) {
+      parameters.add(new TSJavaParameter("arg" + i, parameterTypes.get(i), false, Optional.empty()));
+    }
+
+    return TSJavaMethod.method(this)
+        .name(bridge.name())
+        .modifiers(bridge.modifiers())
+        .parameters(parameters)
+        .genericReturnType(returnType)
+        .build();
+  }
+
+  private Optional<String> tsType(VariableElement p) {
+    for (AnnotationMirror am : p.getAnnotationMirrors()) {
+      if (TSTYPE_ANNOTATION.equals(source.binaryName((TypeElement) am.getAnnotationType().asElement()))) {
+        return am.getElementValues().entrySet().stream()
+            .filter(v -> v.getKey().getSimpleName().contentEquals("value"))
+            .map(v -> v.getValue().getValue())
+            .map(String::valueOf)
+            .findFirst();
+      }
+    }
+    return Optional.empty();
+  }
+
+  /*
+   * bridges, as generated by javac (TransTypes.addBridges)
+   */
+
+  /**
+   * @return declared methods, bridges excluded
+   */
+  private List<Member> members() {
+    List<Member> result = members;
+    if (result == null) {
+      result = element.getEnclosedElements().stream()
+          .filter(e -> e.getKind() == ElementKind.METHOD)
+          .map(e -> {
+            final ExecutableElement m = (ExecutableElement) e;
+            return new Member(this, m, m.getSimpleName().toString(),
+                ElementSource.toModifiers(m.getModifiers()) | ((m.isVarArgs()) ? TSJavaMember.VARARGS : 0),
+                erasure(m));
+          })
+          .collect(Collectors.toUnmodifiableList());
+      members = result;
+    }
+    return result;
+  }
+
+  private List<TSJavaType> erasure(ExecutableElement m) {
+    final List<TSJavaType> result = new ArrayList<>(m.getParameters().size() + 1);
+    m.getParameters().forEach(p -> result.add(source.erasure(p.asType())));
+    result.add(source.erasure(m.getReturnType()));
+    return result;
+  }
+
+  /**
+   * @return bridges generated for this class
+   */
+  private List<Member> bridges() {
+    List<Member> result = bridges;
+    if (result == null) {
+      final List<Member> added = new ArrayList<>();
+
+      for (Optional<ElementClass> st = javaSuperclass(); st.isPresent(); st = st.get().javaSuperclass()) {
+        addBridges(st.get(), added);
+      }
+      interfaces().forEach(i -> addBridges(i, added));
+
+      bridges = result = List.copyOf(added);
+    }
+    return result;
+  }
+
+  /**
+   * @return superclass as seen by javac: {@code java.lang.Object} for interfaces
+   */
+  private Optional<ElementClass> javaSuperclass() {
+    if (element.getKind().isInterface()) {
+      return Optional.of(source.of(source.elements.getTypeElement("java.lang.Object")));
+    }
+    return superclass();
+  }
+
+  private void addBridges(ElementClass type, List<Member> added) {
+    type.members().forEach(m -> addBridgeIfNeeded(m, added));
+    type.interfaces().forEach(i -> addBridges(i, added));
+  }
+
+  private void addBridgeIfNeeded(Member meth, List<Member> added) {
+    if (meth.is(Modifier.PRIVATE | Modifier.STATIC) || !isMemberOf(meth, this)) return;
+
+    final Optional<Member> bridge = binaryImplementation(meth, added);
+    final Optional<Member> impl = implementation(meth, this);
+
+    if (bridge.isEmpty() || bridge.get() == meth ||
+        (impl.isPresent() && !bridge.get().owner().isSubClass(impl.get().owner()))) {
+
+      if (impl.isPresent() && bridge.orElse(null) != impl.get() && isBridgeNeeded(meth, impl.get())) {
+        added.add(bridge(meth, impl.get()));
+      }
+      else if (impl.isPresent() && impl.get() == meth &&
+          meth.owner() != this &&
+          !meth.is(Modifier.FINAL) &&
+          (meth.modifiers() & (Modifier.ABSTRACT | Modifier.PUBLIC)) == Modifier.PUBLIC &&
+          Modifier.isPublic(getModifiers()) && !Modifier.isPublic(meth.owner().getModifiers())) {
+        // public class inheriting public methods from a non public one
+        added.add(bridge(meth, meth));
+      }
+    }
+  }
+
+  private Member bridge(Member meth, Member impl) {
+    return new Member(this, null, meth.name(), impl.access() | TSJavaMember.SYNTHETIC | TSJavaMember.BRIDGE, meth.erasure());
+  }
+
+  /**
+   * @return the method or bridge overriding the given one once erased, looking at this class and its superclasses
+   */
+  private Optional<Member> binaryImplementation(Member meth, List<Member> added) {
+    for (Optional<ElementClass> c = Optional.of(this); c.isPresent(); c = c.get().javaSuperclass()) {
+      final List<Member> bridges = (c.get() == this) ? added : c.get().bridges();
+
+      for (List<Member> candidates : List.of(c.get().members(), bridges)) {
+        for (Member e : candidates) {
+          if (e.name().equals(meth.name()) && binaryOverrides(e, meth)) return Optional.of(e);
+        }
+      }
+    }
+    return Optional.empty();
+  }
+
+  private boolean binaryOverrides(Member e, Member other) {
+    if (e == other) return true;
+    if (!e.erasure().equals(other.erasure())) return false;
+
+    // direct implementation
+    if (isOverridableIn(other, e.owner()) && e.owner().isSubClass(other.owner())) return true;
+
+    // inherited implementation
+    return !e.is(Modifier.ABSTRACT) && isOverridableIn(other, this) && isMemberOf(e, this);
+  }
+
+  /**
+   * @return the first method implementing the given one in the given class or its superclasses,
+   * a concrete one if the class declares more of them
+   */
+  private Optional<Member> implementation(Member meth, ElementClass origin) {
+    for (Optional<ElementClass> c = Optional.of(origin); c.isPresent(); c = c.get().javaSuperclass()) {
+      Member best = null;
+      for (Member e : c.get().members()) {
+        if (!e.name().equals(meth.name())) continue;
+        if (e == meth || source.elements.overrides(e.element(), meth.element(), origin.element)) {
+          best = e;
+          if (!e.is(Modifier.ABSTRACT)) break;
+        }
+      }
+      if (best != null) return Optional.of(best);
+    }
+    // an implementation may be missed if a supertype is raw
+    if (!origin.element.getKind().isInterface() && origin.isDerivedRaw()) {
+      return origin.superclass().flatMap(s -> implementation(meth, s));
+    }
+    return Optional.empty();
+  }
+
+  private boolean isBridgeNeeded(Member method, Member impl) {
+    if (impl != method) {
+      return !isSameMemberWhenErased(method) ||
+          !isSameMemberWhenErased(impl) ||
+          !impl.erasure().equals(method.erasure());
+    }
+    return !method.is(Modifier.ABSTRACT) && !isSameMemberWhenErased(method);
+  }
+
+  /**
+   * @return true if the erasure of the method as member of this class is the erasure of the method
+   */
+  private boolean isSameMemberWhenErased(Member method) {
+    final TypeMirror type;
+    try {
+      type = source.types.asMemberOf((DeclaredType) element.asType(), method.element());
+    } catch (IllegalArgumentException e) {
+      return true;
+    }
+    final javax.lang.model.type.ExecutableType mt = (javax.lang.model.type.ExecutableType) type;
+
+    final List<TSJavaType> erasure = new ArrayList<>(mt.getParameterTypes().size() + 1);
+    mt.getParameterTypes().forEach(p -> erasure.add(source.erasure(p)));
+    erasure.add(source.erasure(mt.getReturnType()));
+
+    return erasure.equals(method.erasure());
+  }
+
+  private boolean isDerivedRaw() {
+    final List<TypeMirror> supertypes = new ArrayList<>(element.getInterfaces());
+    supertypes.add(element.getSuperclass());
+
+    for (TypeMirror t : supertypes) {
+      if (t.getKind() != TypeKind.DECLARED) continue;
+      final DeclaredType dt = (DeclaredType) t;
+      final TypeElement te = (TypeElement) dt.asElement();
+      if ((dt.getTypeArguments().isEmpty() && !te.getTypeParameters().isEmpty()) || source.of(te).isDerivedRaw()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isSubClass(ElementClass base) {
+    return this == base ||
+        source.types.isSubtype(source.types.erasure(element.asType()), source.types.erasure(base.element.asType())) ||
+        (element.getKind().isInterface() && base.name.equals("java.lang.Object"));
+  }
+
+  private static boolean isMemberOf(Member m, ElementClass clazz) {
+    return m.owner() == clazz || (clazz.isSubClass(m.owner()) && isInheritedIn(m, clazz));
+  }
+
+  private static boolean isInheritedIn(Member m, ElementClass clazz) {
+    switch (m.access()) {
+      case Modifier.PUBLIC:
+        return !m.owner().element.getKind().isInterface() || clazz == m.owner() || !m.is(Modifier.STATIC);
+      case Modifier.PRIVATE:
+        return m.owner() == clazz;
+      case Modifier.PROTECTED:
+        return !clazz.element.getKind().isInterface();
+      default: {
+        final PackageElement pkg = packageOf(m.owner().element);
+        for (Optional<ElementClass> sup = Optional.of(clazz); sup.isPresent() && sup.get() != m.owner(); sup = sup.get().javaSuperclass()) {
+          if (!packageOf(sup.get().element).equals(pkg)) return false;
+        }
+        return !clazz.element.getKind().isInterface();
+      }
+    }
+  }
+
+  private static boolean isOverridableIn(Member m, ElementClass origin) {
+    switch (m.access()) {
+      case Modifier.PRIVATE:
+        return false;
+      case Modifier.PUBLIC:
+        return !m.owner().element.getKind().isInterface() || !m.is(Modifier.STATIC);
+      case Modifier.PROTECTED:
+        return !origin.element.getKind().isInterface();
+      default:
+        return !origin.element.getKind().isInterface() && packageOf(m.owner().element).equals(packageOf(origin.element));
+    }
+  }
+
+  private static PackageElement packageOf(Element e) {
+    while (e.getKind() != ElementKind.PACKAGE) e = e.getEnclosingElement();
+    return (PackageElement) e;
+  }
+}
@@ -0,0 +1,267 @@
+package org.bsc.processor;
+
+import org.bsc.java2typescript.TSClassSource;
+import org.bsc.java2typescript.TSJavaClass;
+import org.bsc.java2typescript.TSJavaType;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.JavaFileObject;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * {@link TSClassSource} backed by the compiler model ({@code javax.lang.model}): classes are read from
+ * the symbols javac has already completed, so they don't need to be on the processor path.
+ *
+ * Javac elements are not thread safe, so the {@link ElementClass} models read them holding the lock of this source.
+ */
+final class ElementSource implements TSClassSource {
+
+  final Elements elements;
+  final Types types;
+
+  private final Map<String, ElementClass> classes = new ConcurrentHashMap<>();
+
+  ElementSource(ProcessingEnvironment processingEnv) {
+    this.elements = processingEnv.getElementUtils();
+    this.types = processingEnv.getTypeUtils();
+  }
+
+  /**
+   * @param element type element
+   * @return cached model of the given element
+   */
+  ElementClass of(TypeElement element) {
+    return classes.computeIfAbsent(binaryName(element), name -> new ElementClass(this, element, name));
+  }
+
+  @Override
+  public Optional<TSJavaClass> find(String name) {
+    synchronized (this) {
+      TypeElement element = elements.getTypeElement(name);
+      if (element == null && name.indexOf('$') > 0) {
+        element = elements.getTypeElement(name.replace('$', '.'));
+      }
+      return Optional.ofNullable(element).map(this::of);
+    }
+  }
+
+  /**
+   * @param element type element
+   * @return binary name (eg. {@code java.util.Map$Entry})
+   */
+  String binaryName(TypeElement element) {
+    return elements.getBinaryName(element).toString();
+  }
+
+  /**
+   * While processing annotations javac reads parameter names from the local variable tables too,
+   * reflection only from the {@code MethodParameters} attribute, written for every method by {@code -parameters}
+   * and otherwise only for the methods having mandated parameters (eg. {@code valueOf} of enums).
+   *
+   * @param element type element
+   * @return parameter names (null if not written) of the methods having the attribute, keyed by name and descriptor;
+   *         empty if the element has been read from source
+   */
+  Optional<Map<String, List<String>>> parameterNames(TypeElement element) {
+    final JavaFileObject file = elements.getFileObjectOf(element);
+    if (file == null || file.getKind() != JavaFileObject.Kind.CLASS) return Optional.empty();
+
+    try (DataInputStream is = new DataInputStream(new BufferedInputStream(file.openInputStream()))) {
+      return Optional.of(parameterNames(is));
+    } catch (IOException e) {
+      return Optional.of(Map.of());
+    }
+  }
+
+  private static Map<String, List<String>> parameterNames(DataInputStream is) throws IOException {
+    is.skipNBytes(8); // magic, minor and major version
+
+    final int count = is.readUnsignedShort();
+    final String[] utf8 = new String[count];
+    for (int i = 1; i < count; ++i) {
+      final int tag = is.readUnsignedByte();
+      switch (tag) {
+        case 1 -> utf8[i] = is.readUTF();
+        case 7, 8, 16, 19, 20 -> is.skipNBytes(2);
+        case 15 -> is.skipNBytes(3);
+        case 3, 4, 9, 10, 11, 12, 17, 18 -> is.skipNBytes(4);
+        case 5, 6 -> { is.skipNBytes(8); ++i; }
+        default -> throw new IOException(format("invalid constant pool tag %d", tag));
+      }
+    }
+
+    is.skipNBytes(6); // access flags, this and super class
+    is.skipNBytes(2L * is.readUnsignedShort()); // interfaces
+
+    for (int fields = is.readUnsignedShort(); fields > 0; --fields) {
+      is.skipNBytes(6);
+      skipAttributes(is);
+    }
+
+    final Map<String, List<String>> result = new HashMap<>();
+    for (int methods = is.readUnsignedShort(); methods > 0; --methods) {
+      is.skipNBytes(2);
+      final String name = utf8[is.readUnsignedShort()];
+      final String descriptor = utf8[is.readUnsignedShort()];
+      for (int attributes = is.readUnsignedShort(); attributes > 0; --attributes) {
+        final String attribute = utf8[is.readUnsignedShort()];
+        final long length = is.readInt() & 0xFFFFFFFFL;
+        if (!"MethodParameters".equals(attribute)) {
+          is.skipNBytes(length);
+          continue;
+        }
+        final List<String> names = new ArrayList<>();
+        for (int parameters = is.readUnsignedByte(); parameters > 0; --parameters) {
+          names.add(utf8[is.readUnsignedShort()]);
+          is.skipNBytes(2); // access flags
+        }
+        result.put(name + descriptor, names);
+      }
+    }
+    return result;
+  }
+
+  private static void skipAttributes(DataInputStream is) throws IOException {
+    for (int attributes = is.readUnsignedShort(); attributes > 0; --attributes) {
+      is.skipNBytes(2);
+      is.skipNBytes(is.readInt() & 0xFFFFFFFFL);
+    }
+  }
+
+  /**
+   * @param type erased type
+   * @return field descriptor of the given type
+   */
+  static String descriptor(TSJavaType type) {
+    if (type instanceof TSJavaType.ArrayType array) {
+      return "[" + descriptor(array.component());
+    }
+    final String name = ((TSJavaType.ClassType) type).name();
+    return switch (name) {
+      case "boolean" -> "Z";
+      case "byte" -> "B";
+      case "short" -> "S";
+      case "int" -> "I";
+      case "long" -> "J";
+      case "char" -> "C";
+      case "float" -> "F";
+      case "double" -> "D";
+      case "void" -> "V";
+      default -> "L" + name.replace('.', '/') + ";";
+    };
+  }
+
+  /**
+   * @param type type mirror
+   * @return model of the given type, in the same form produced from reflection
+   */
+  TSJavaType toJavaType(TypeMirror type) {
+    switch (type.getKind()) {
+      case BOOLEAN:
+      case BYTE:
+      case SHORT:
+      case INT:
+      case LONG:
+      case CHAR:
+      case FLOAT:
+      case DOUBLE:
+      case VOID:
+        return new TSJavaType.ClassType(type.getKind().name().toLowerCase());
+      case ARRAY:
+        return new TSJavaType.ArrayType(toJavaType(((ArrayType) type).getComponentType()));
+      case DECLARED:
+        return toJavaType((DeclaredType) type);
+      case TYPEVAR:
+        return new TSJavaType.TypeVariable(((TypeVariable) type).asElement().getSimpleName().toString());
+      case WILDCARD: {
+        final WildcardType wt = (WildcardType) type;
+        if (wt.getExtendsBound() != null) {
+          return new TSJavaType.WildcardType(List.of(toJavaType(wt.getExtendsBound())), List.of());
+        }
+        if (wt.getSuperBound() != null) {
+          return new TSJavaType.WildcardType(List.of(TSJavaType.OBJECT), List.of(toJavaType(wt.getSuperBound())));
+        }
+        return new TSJavaType.WildcardType(List.of(TSJavaType.OBJECT), List.of());
+      }
+      default:
+        throw new IllegalArgumentException(format("type [%s] of kind %s is not supported!", type, type.getKind()));
+    }
+  }
+
+  /**
+   * a member type of a parameterized type is owned by it, as in the generic signatures
+   */
+  private TSJavaType toJavaType(DeclaredType type) {
+    final TSJavaType.ClassType rawType = new TSJavaType.ClassType(binaryName((TypeElement) type.asElement()));
+
+    final List<TSJavaType> arguments = type.getTypeArguments().stream()
+        .map(this::toJavaType)
+        .collect(Collectors.toList());
+
+    final TSJavaType.ParameterizedType owner = (type.getEnclosingType() instanceof DeclaredType enclosing && isParameterized(enclosing)) ?
+        (TSJavaType.ParameterizedType) toJavaType(enclosing) :
+        null;
+
+    return (arguments.isEmpty() && owner == null) ?
+        rawType :
+        new TSJavaType.ParameterizedType(rawType, arguments, owner);
+  }
+
+  private static boolean isParameterized(DeclaredType type) {
+    return !type.getTypeArguments().isEmpty() ||
+        (type.getEnclosingType() instanceof DeclaredType enclosing && isParameterized(enclosing));
+  }
+
+  /**
+   * @param type type mirror
+   * @return model of the erasure of the given type
+   */
+  TSJavaType erasure(TypeMirror type) {
+    return toJavaType(types.erasure(type));
+  }
+
+  /**
+   * @param modifiers element modifiers
+   * @return modifiers as returned by reflection
+   */
+  static int toModifiers(Set<Modifier> modifiers) {
+    int result = 0;
+    for (Modifier m : modifiers) {
+      switch (m) {
+        case PUBLIC -> result |= java.lang.reflect.Modifier.PUBLIC;
+        case PROTECTED -> result |= java.lang.reflect.Modifier.PROTECTED;
+        case PRIVATE -> result |= java.lang.reflect.Modifier.PRIVATE;
+        case ABSTRACT -> result |= java.lang.reflect.Modifier.ABSTRACT;
+        case STATIC -> result |= java.lang.reflect.Modifier.STATIC;
+        case FINAL -> result |= java.lang.reflect.Modifier.FINAL;
+        case TRANSIENT -> result |= java.lang.reflect.Modifier.TRANSIENT;
+        case VOLATILE -> result |= java.lang.reflect.Modifier.VOLATILE;
+        case SYNCHRONIZED -> result |= java.lang.reflect.Modifier.SYNCHRONIZED;
+        case NATIVE -> result |= java.lang.reflect.Modifier.NATIVE;
+        default -> {} // strictfp is no longer written in class files
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,66 @@
+package org.bsc.processor;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Flight recorder event of the flush of a generated file, closing included.
+ */
+@Name("org.bsc.java2typescript.Flush")
+@Label("Flush")
+@Category("java2typescript")
+@Description("Flush of a generated file")
+@StackTrace(false)
+final class FlushEvent extends jdk.jfr.Event {
+
+  @Label("File")
+  @Description("path relative to the output folder")
+  String file;
+
+  @Label("Compatibility")
+  String compatibility;
+
+  @Label("Close")
+  @Description("flushed while closing")
+  boolean close;
+
+  /**
+   * @param output        destination of the generated files
+   * @param compatibility target of the generated files
+   * @return output recording the flushes of its files
+   */
+  static TSGenerator.Output recording(TSGenerator.Output output, String compatibility) {
+    return file -> new FilterWriter(output.open(file)) {
+      @Override
+      public void flush() throws IOException {
+        final FlushEvent event = new FlushEvent();
+        event.begin();
+        super.flush();
+        commit(event, false);
+      }
+
+      @Override
+      public void close() throws IOException {
+        final FlushEvent event = new FlushEvent();
+        event.begin();
+        super.close();
+        commit(event, true);
+      }
+
+      private void commit(FlushEvent event, boolean close) {
+        if (!event.shouldCommit()) return;
+        event.file = file.toString();
+        event.compatibility = compatibility;
+        event.close = close;
+        event.commit();
+      }
+    };
+  }
+}
@@ -0,0 +1,162 @@
+package org.bsc.processor;
+
+import org.bsc.java2typescript.TSFingerprint;
+import org.bsc.java2typescript.TSType;
+
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Manifest and fragment store of the incremental generation.
+ *
+ * The manifest ({@code <name>.manifest}) holds the digest of each rendered type, the fragment store
+ * ({@code <name>.fragments/}) the last rendering of each of them. A type whose digest matches the one
+ * of the previous run is read back from the store instead of being rendered again.
+ *
+ * Access to the {@link Filer} is serialized, renderings may run concurrently.
+ */
+class IncrementalStore implements TSGenerator.Renderings {
+
+  private final Filer filer;
+  private final String folder;
+  private final String name;
+  private final TSFingerprint fingerprint;
+  private final Properties previous;
+  private final Element[] originatingElements;
+  private final Map<String, String> current = new ConcurrentHashMap<>();
+
+  private final AtomicInteger reused = new AtomicInteger();
+  private final AtomicInteger rendered = new AtomicInteger();
+
+  private IncrementalStore(Filer filer, String folder, String name, TSFingerprint fingerprint, Properties previous,
+                           Element[] originatingElements) {
+    this.filer = filer;
+    this.folder = folder;
+    this.name = name;
+    this.fingerprint = fingerprint;
+    this.previous = previous;
+    this.originatingElements = originatingElements;
+  }
+
+  /**
+   * Open the store, loading the manifest of the previous run if any.
+   *
+   * @param filer       filer of the current processing environment
+   * @param folder      output subfolder (e.g. j2ts)
+   * @param name        base name of the generated files
+   * @param fingerprint digest of the types to render
+   * @param originatingElements elements the stored files are generated from
+   * @return the store
+   */
+  static IncrementalStore open(Filer filer, String folder, String name, TSFingerprint fingerprint,
+                               Element... originatingElements) {
+    final IncrementalStore store =
+        new IncrementalStore(filer, folder, name, fingerprint, new Properties(), originatingElements);
+
+    store.read(store.manifestName()).ifPresent(manifest -> {
+      try {
+        store.previous.load(new java.io.StringReader(manifest));
+      } catch (IOException e) {
+        store.previous.clear();
+      }
+    });
+
+    return store;
+  }
+
+  /**
+   * Wrap a renderer, reusing the stored fragment of unchanged types.
+   *
+   * @param extension extension of the fragment (e.g. d.ts)
+   * @param renderer  rendering of a single type
+   * @return a renderer reading unchanged types from the store
+   */
+  @Override
+  public Function<TSType, CharSequence> wrap(String extension, Function<TSType, ? extends CharSequence> renderer) {
+    return type -> {
+      final String key = type.getJavaClass().getName();
+      final String digest = current.computeIfAbsent(key, k -> fingerprint.digest(type));
+      final String fragmentName = fragmentName(key, extension);
+
+      if (digest.equals(previous.getProperty(key))) {
+        final Optional<String> fragment = read(fragmentName);
+        if (fragment.isPresent()) {
+          reused.incrementAndGet();
+          return fragment.get();
+        }
+      }
+
+      final CharSequence result = renderer.apply(type);
+      write(fragmentName, result);
+      rendered.incrementAndGet();
+      return result;
+    };
+  }
+
+  /**
+   * @return number of fragments read back from the store
+   */
+  int getReused() {
+    return reused.get();
+  }
+
+  /**
+   * @return number of fragments rendered
+   */
+  int getRendered() {
+    return rendered.get();
+  }
+
+  /**
+   * Write the manifest of the current run, sorted to be stable across runs.
+   */
+  void close() {
+    final StringBuilder manifest = new StringBuilder();
+    new TreeMap<>(current).forEach((k, v) -> manifest.append(k).append('=').append(v).append('\n'));
+    write(manifestName(), manifest);
+  }
+
+  private String manifestName() {
+    return name.concat(".manifest");
+  }
+
+  private String fragmentName(String key, String extension) {
+    return String.format("%s.fragments/%s.%s", name, key, extension);
+  }
+
+  private synchronized Optional<String> read(String relativeName) {
+    try {
+      final FileObject fo = filer.getResource(StandardLocation.SOURCE_OUTPUT, folder, relativeName);
+      try (final InputStream is = fo.openInputStream()) {
+        return Optional.of(new String(is.readAllBytes(), StandardCharsets.UTF_8));
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      return Optional.empty();
+    }
+  }
+
+  private synchronized void write(String relativeName, CharSequence content) {
+    try {
+      final FileObject fo = filer.createResource(StandardLocation.SOURCE_OUTPUT, folder, relativeName, originatingElements);
+      try (final OutputStream os = fo.openOutputStream()) {
+        os.write(content.toString().getBytes(StandardCharsets.UTF_8));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
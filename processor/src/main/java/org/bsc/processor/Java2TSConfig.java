@@ -0,0 +1,31 @@
+package org.bsc.processor;
+
+import org.bsc.java2typescript.TSGlobal;
+import org.bsc.java2typescript.TSNamespace;
+import org.bsc.processor.annotation.Java2TS;
+
+import javax.lang.model.element.Element;
+import java.util.List;
+
+/**
+ * configuration declared by a {@link Java2TS} annotation, read once per round, or by a configuration file
+ * of the {@link TypescriptCommand}
+ *
+ * @param element annotated package or class, null if read from a file
+ * @param namespace declared types
+ * @param globals declared global constants
+ * @param prePostTypes declarations added before and after the types
+ * @param prePostScripts code added before and after the exported definitions
+ */
+record Java2TSConfig(
+    Element element,
+    TSNamespace namespace,
+    List<TSGlobal> globals,
+    Tuple2<String, String> prePostTypes,
+    Tuple2<String, String> prePostScripts) {
+
+  Java2TSConfig {
+    globals = List.copyOf(globals);
+  }
+
+}
@@ -0,0 +1,408 @@
+package org.bsc.processor;
+
+import org.bsc.java2typescript.TSDeclarationBundle;
+import org.bsc.java2typescript.TSType;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Metrics of a generation, enabled by the {@code ts.metrics} option and written as json
+ * ({@code <ts.outfile>.metrics.json}) next to the outputs:
+ * <ul>
+ *   <li>wall time and allocated bytes, by thread, of each {@link Phase phase}</li>
+ *   <li>render time of the slowest types</li>
+ *   <li>{@code any} fallbacks of the written declarations: undeclared classes ({@code any /*java.io.File*&#47;}),
+ *   unresolved type variables and wildcards ({@code any/*T*&#47;}) and type arguments of mismatching type parameters
+ *   ({@code Map<any,V>})</li>
+ * </ul>
+ * <p>
+ * When disabled, it is a no-op: phases and renderers are not wrapped.
+ * </p>
+ */
+final class Metrics {
+
+  /**
+   * suffix of the metrics file
+   */
+  static final String FILE_SUFFIX = ".metrics.json";
+
+  /**
+   * number of the slowest types reported, if not given by the option
+   */
+  static final int DEFAULT_TOP = 20;
+
+  /**
+   * phases of a generation
+   */
+  enum Phase {
+    /** configurations read from the annotations, or from the files of the command line */
+    EXTRACTION("extraction"),
+    /** declared type map built from the configurations */
+    TYPE_MAP("typeMap"),
+    DECLARATIONS("declarations"),
+    STATIC_DEFINITIONS("staticDefinitions"),
+    /** output files opened and written */
+    WRITING("writing");
+
+    final String key;
+
+    Phase(String key) {
+      this.key = key;
+    }
+  }
+
+  /**
+   * measure of a phase, ends on close
+   */
+  @FunctionalInterface
+  interface Span extends AutoCloseable {
+    @Override
+    void close();
+  }
+
+  private record Rendering(String type, String extension, long nanos) {}
+
+  private static final Span NONE = () -> {};
+  private static final Metrics DISABLED = new Metrics(0);
+
+  private static final Pattern UNDECLARED = Pattern.compile("any /\\*([^*]+)\\*/");
+  private static final Pattern UNRESOLVED = Pattern.compile("any/\\*[^*]+\\*/");
+  private static final Pattern ARGUMENT = Pattern.compile("(?<=[<,] ?)any(?= ?[,>])");
+
+  private final int top;
+  private final com.sun.management.ThreadMXBean threads;
+  private final Map<Phase, LongAdder> wall = new EnumMap<>(Phase.class);
+  private final Map<Phase, Map<String, LongAdder>> allocated = new EnumMap<>(Phase.class);
+  private final Queue<Rendering> renderings = new ConcurrentLinkedQueue<>();
+  private final LongAdder unresolved = new LongAdder();
+  private final LongAdder arguments = new LongAdder();
+  private final Map<String, LongAdder> undeclared = new ConcurrentHashMap<>();
+
+  /**
+   * @param top number of the slowest types reported, 0 if disabled
+   */
+  private Metrics(int top) {
+    this.top = top;
+
+    final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    this.threads = (bean instanceof com.sun.management.ThreadMXBean b && b.isThreadAllocatedMemorySupported()) ? b : null;
+
+    for (Phase phase : Phase.values()) {
+      wall.put(phase, new LongAdder());
+      allocated.put(phase, new ConcurrentHashMap<>());
+    }
+  }
+
+  /**
+   * Parse the {@code ts.metrics} option: {@code true}, or the number of the slowest types reported.
+   *
+   * @param value option value, may be null
+   * @param warn  report of an invalid value
+   * @return metrics of a generation, disabled if the option isn't set
+   */
+  static Metrics of(String value, Consumer<String> warn) {
+    if (value == null || "false".equalsIgnoreCase(value.trim())) return DISABLED;
+    if ("true".equalsIgnoreCase(value.trim())) return new Metrics(DEFAULT_TOP);
+    try {
+      final int result = Integer.parseInt(value.trim());
+      if (result <= 0) throw new NumberFormatException(value);
+      return new Metrics(result);
+    } catch (NumberFormatException e) {
+      warn.accept(String.format("invalid ts.metrics [%s], fallback to [%d] slowest types", value, DEFAULT_TOP));
+      return new Metrics(DEFAULT_TOP);
+    }
+  }
+
+  /**
+   * @return metrics doing nothing
+   */
+  static Metrics disabled() {
+    return DISABLED;
+  }
+
+  boolean isEnabled() {
+    return top > 0;
+  }
+
+  /**
+   * Measure a phase run by the current thread.
+   *
+   * @param phase measured phase
+   * @return measure, to close at the end of the phase
+   */
+  Span thread(Phase phase) {
+    if (!isEnabled()) return NONE;
+
+    final long start = System.nanoTime();
+    final long bytes = currentThreadAllocatedBytes();
+    return () -> {
+      wall.get(phase).add(System.nanoTime() - start);
+      allocated(phase, Thread.currentThread().getName(), currentThreadAllocatedBytes() - bytes);
+    };
+  }
+
+  /**
+   * Measure a phase that may run on other threads, the allocations of all the live threads are counted.
+   *
+   * @param phase measured phase
+   * @return measure, to close at the end of the phase
+   */
+  Span phase(Phase phase) {
+    if (!isEnabled()) return NONE;
+
+    final long start = System.nanoTime();
+    final Map<Long, Long> before = allocatedBytes();
+    return () -> {
+      wall.get(phase).add(System.nanoTime() - start);
+
+      final Map<Long, Long> after = allocatedBytes();
+      final long[] ids = after.keySet().stream().mapToLong(Long::longValue).toArray();
+      final ThreadInfo[] infos = (threads == null) ? new ThreadInfo[0] : threads.getThreadInfo(ids);
+      for (int i = 0; i < infos.length; ++i) {
+        if (infos[i] == null) continue;
+        allocated(phase, infos[i].getThreadName(), after.get(ids[i]) - before.getOrDefault(ids[i], 0L));
+      }
+    };
+  }
+
+  private void allocated(Phase phase, String thread, long bytes) {
+    if (bytes <= 0) return;
+    allocated.get(phase).computeIfAbsent(thread, t -> new LongAdder()).add(bytes);
+  }
+
+  private long currentThreadAllocatedBytes() {
+    return (threads == null) ? 0 : threads.getCurrentThreadAllocatedBytes();
+  }
+
+  private Map<Long, Long> allocatedBytes() {
+    if (threads == null) return Map.of();
+
+    final long[] ids = threads.getAllThreadIds();
+    final long[] bytes = threads.getThreadAllocatedBytes(ids);
+    final Map<Long, Long> result = new HashMap<>();
+    for (int i = 0; i < ids.length; ++i) {
+      if (bytes[i] >= 0) result.put(ids[i], bytes[i]);
+    }
+    return result;
+  }
+
+  /**
+   * @param extension extension of the rendering (e.g. d.ts)
+   * @param renderer  rendering of a single type
+   * @return a renderer measuring the render time of each type and, for declarations, counting the {@code any} fallbacks
+   */
+  Function<TSType, ? extends CharSequence> wrap(String extension, Function<TSType, ? extends CharSequence> renderer) {
+    if (!isEnabled()) return renderer;
+
+    final boolean declaration = TSDeclarationBundle.DECLARATION.equals(extension);
+    return type -> {
+      final long start = System.nanoTime();
+      final CharSequence result = renderer.apply(type);
+      renderings.add(new Rendering(type.getJavaClass().getName(), extension, System.nanoTime() - start));
+
+      if (declaration) countFallbacks(result);
+      return result;
+    };
+  }
+
+  private void countFallbacks(CharSequence rendering) {
+    for (Matcher m = UNDECLARED.matcher(rendering); m.find(); ) {
+      undeclared.computeIfAbsent(m.group(1), c -> new LongAdder()).increment();
+    }
+    for (Matcher m = UNRESOLVED.matcher(rendering); m.find(); ) unresolved.increment();
+    for (Matcher m = ARGUMENT.matcher(rendering); m.find(); ) arguments.increment();
+  }
+
+  /**
+   * The wall time of the writes is summed up and added once, when the file is closed: measuring each of them as a
+   * {@link Span span} would cost more than most writes. The allocations are the ones of opening and closing the file,
+   * the writes allocate only within the encoder buffers.
+   *
+   * @param output destination of the generated files
+   * @return output whose files measure the {@link Phase#WRITING writing} phase
+   */
+  TSGenerator.Output wrap(TSGenerator.Output output) {
+    if (!isEnabled()) return output;
+
+    return file -> {
+      final Writer w;
+      try (Span s = thread(Phase.WRITING)) {
+        w = output.open(file);
+      }
+      return new FilterWriter(w) {
+        private long nanos;
+
+        @Override
+        public void write(int c) throws IOException {
+          final long start = System.nanoTime();
+          super.write(c);
+          nanos += System.nanoTime() - start;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+          final long start = System.nanoTime();
+          super.write(cbuf, off, len);
+          nanos += System.nanoTime() - start;
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+          final long start = System.nanoTime();
+          super.write(str, off, len);
+          nanos += System.nanoTime() - start;
+        }
+
+        @Override
+        public void flush() throws IOException {
+          final long start = System.nanoTime();
+          super.flush();
+          nanos += System.nanoTime() - start;
+        }
+
+        @Override
+        public void close() throws IOException {
+          try (Span s = thread(Phase.WRITING)) {
+            super.close();
+          } finally {
+            wall.get(Phase.WRITING).add(nanos);
+            nanos = 0;
+          }
+        }
+      };
+    };
+  }
+
+  /**
+   * Write the metrics as json, if enabled.
+   *
+   * @param output  destination of the generated files
+   * @param outfile base name of the generated files
+   * @throws IOException if an I/O error occurs
+   */
+  void write(TSGenerator.Output output, String outfile) throws IOException {
+    if (!isEnabled()) return;
+
+    final Map<String, Object> phases = new LinkedHashMap<>();
+    for (Phase phase : Phase.values()) {
+      final Map<String, Object> bytes = new TreeMap<>();
+      allocated.get(phase).forEach((thread, b) -> bytes.put(thread, b.sum()));
+      final Map<String, Object> metrics = new LinkedHashMap<>();
+      metrics.put("wallMillis", millis(wall.get(phase).sum()));
+      metrics.put("allocatedBytes", bytes);
+      phases.put(phase.key, metrics);
+    }
+
+    final List<Object> slowest = new ArrayList<>();
+    renderings.stream()
+        .sorted(Comparator.comparingLong(Rendering::nanos).reversed().thenComparing(Rendering::type))
+        .limit(top)
+        .forEach(r -> {
+          final Map<String, Object> rendering = new LinkedHashMap<>();
+          rendering.put("type", r.type());
+          rendering.put("extension", r.extension());
+          rendering.put("millis", millis(r.nanos()));
+          slowest.add(rendering);
+        });
+
+    final Map<String, Object> classes = new TreeMap<>();
+    undeclared.forEach((c, n) -> classes.put(c, n.sum()));
+
+    final Map<String, Object> fallbacks = new LinkedHashMap<>();
+    fallbacks.put("undeclared", undeclared.values().stream().mapToLong(LongAdder::sum).sum());
+    fallbacks.put("unresolved", unresolved.sum());
+    fallbacks.put("typeArguments", arguments.sum());
+    fallbacks.put("undeclaredClasses", classes);
+
+    final Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("renderedTypes", renderings.size());
+    metrics.put("phases", phases);
+    metrics.put("slowestTypes", slowest);
+    metrics.put("anyFallbacks", fallbacks);
+
+    // written by hand, as javax.json is an optional dependency not available on the processor path of the users
+    final StringBuilder sb = new StringBuilder();
+    json(sb, metrics, "");
+    try (final Writer w = output.open(Paths.get(outfile.concat(FILE_SUFFIX)))) {
+      w.append(sb).append('\n');
+    }
+  }
+
+  /**
+   * Append the given value as pretty printed json.
+   *
+   * @param sb     destination
+   * @param value  map, in iteration order, list, number or string
+   * @param indent indentation of the value
+   */
+  private static void json(StringBuilder sb, Object value, String indent) {
+    if (value instanceof Map<?, ?> map) {
+      if (map.isEmpty()) {
+        sb.append("{}");
+        return;
+      }
+      sb.append('{');
+      String separator = "\n";
+      for (Map.Entry<?, ?> e : map.entrySet()) {
+        sb.append(separator).append(indent).append("  ");
+        quote(sb, String.valueOf(e.getKey()));
+        sb.append(": ");
+        json(sb, e.getValue(), indent + "  ");
+        separator = ",\n";
+      }
+      sb.append('\n').append(indent).append('}');
+    } else if (value instanceof List<?> list) {
+      if (list.isEmpty()) {
+        sb.append("[]");
+        return;
+      }
+      sb.append('[');
+      String separator = "\n";
+      for (Object item : list) {
+        sb.append(separator).append(indent).append("  ");
+        json(sb, item, indent + "  ");
+        separator = ",\n";
+      }
+      sb.append('\n').append(indent).append(']');
+    } else if (value instanceof Number) {
+      sb.append(value);
+    } else {
+      quote(sb, String.valueOf(value));
+    }
+  }
+
+  private static void quote(StringBuilder sb, String value) {
+    sb.append('"');
+    for (int i = 0; i < value.length(); ++i) {
+      final char c = value.charAt(i);
+      switch (c) {
+        case '"': sb.append("\\\""); break;
+        case '\\': sb.append("\\\\"); break;
+        case '\n': sb.append("\\n"); break;
+        case '\r': sb.append("\\r"); break;
+        case '\t': sb.append("\\t"); break;
+        default:
+          if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+          else sb.append(c);
+      }
+    }
+    sb.append('"');
+  }
+
+  private static double millis(long nanos) {
+    return Math.round(nanos / 1_000.0) / 1_000.0;
+  }
+}
@@ -0,0 +1,56 @@
+package org.bsc.processor;
+
+import org.bsc.java2typescript.TSType;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * In memory renderings of the types, kept between the generations of the watch mode until the
+ * types are invalidated.
+ */
+final class RenderingCache implements TSGenerator.Renderings {
+
+  private final Map<String, Map<String, String>> renderings = new ConcurrentHashMap<>();
+  private final AtomicInteger rendered = new AtomicInteger();
+
+  @Override
+  public Function<TSType, CharSequence> wrap(String extension, Function<TSType, ? extends CharSequence> renderer) {
+    final Map<String, String> cache = renderings.computeIfAbsent(extension, e -> new ConcurrentHashMap<>());
+    return type -> {
+      final String key = type.getJavaClass().getName();
+      final String result = cache.get(key);
+      if (result != null) return result;
+
+      // the renderer may reuse its buffer (streaming)
+      final String rendering = renderer.apply(type).toString();
+      cache.put(key, rendering);
+      rendered.incrementAndGet();
+      return rendering;
+    };
+  }
+
+  /**
+   * @param names class names of the types to render again
+   */
+  void invalidate(Collection<String> names) {
+    renderings.values().forEach(cache -> cache.keySet().removeAll(names));
+  }
+
+  /**
+   * render again all the types
+   */
+  void clear() {
+    renderings.clear();
+  }
+
+  /**
+   * @return number of types rendered since the previous call
+   */
+  int resetRendered() {
+    return rendered.getAndSet(0);
+  }
+}
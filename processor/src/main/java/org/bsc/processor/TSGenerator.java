@@ -0,0 +1,651 @@
+package org.bsc.processor;
+
+import org.bsc.java2typescript.Java2TSConverter;
+import org.bsc.java2typescript.TSDeclarationBundle;
+import org.bsc.java2typescript.TSDeclarationCache;
+import org.bsc.java2typescript.TSGlobal;
+import org.bsc.java2typescript.TSNamespaceBlock;
+import org.bsc.java2typescript.TSTrace;
+import org.bsc.java2typescript.TSType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.bsc.java2typescript.Java2TSConverter.PREDEFINED_TYPES;
+import static org.bsc.java2typescript.Java2TSConverter.REQUIRED_TYPES;
+
+/**
+ * Writes the typescript declarations ({@code <outfile>.d.ts}) and the exported definitions ({@code <outfile>.js})
+ * of the declared configurations, wherever they have been read from (annotations or command line).
+ */
+final class TSGenerator {
+
+  /**
+   * file holding headers, pre/post types and globals when the output is split by namespace
+   */
+  static final String GLOBALS_FILE = "globals.d.ts";
+
+  /**
+   * Destination of the generated files
+   */
+  @FunctionalInterface
+  interface Output {
+
+    /**
+     * @param file path relative to the output folder
+     * @return a writer for the given file
+     * @throws IOException if an I/O error occurs
+     */
+    java.io.Writer open(Path file) throws IOException;
+  }
+
+  /**
+   * Reuse of the renderings of a previous generation
+   */
+  @FunctionalInterface
+  interface Renderings {
+
+    /**
+     * @param extension extension of the rendering (e.g. d.ts)
+     * @param renderer  rendering of a single type
+     * @return a renderer reusing the previous rendering of unchanged types
+     */
+    Function<TSType, ? extends CharSequence> wrap(String extension, Function<TSType, ? extends CharSequence> renderer);
+  }
+
+  private final List<Java2TSConverter> targets;
+  private final String outfile;
+  private final int parallelism;
+  private final boolean streaming;
+  private final boolean split;
+  private final boolean grouped;
+  private final boolean prerendered;
+  private final Metrics metrics;
+
+  /**
+   * @param targets     converter of the declared types for each target, as returned by {@link #targets(String, String, boolean, Optional)}
+   * @param outfile     base name of the generated files
+   * @param parallelism number of threads rendering declarations
+   * @param streaming   write each declaration as soon as it is rendered
+   * @param split       write each namespace in its own files
+   * @param grouped     write the declarations of each namespace in a single {@code declare namespace} block
+   * @param prerendered reuse the declarations of the required types bundled for the running JDK
+   * @param metrics     metrics of the generation
+   */
+  TSGenerator(List<Java2TSConverter> targets, String outfile, int parallelism, boolean streaming, boolean split,
+              boolean grouped, boolean prerendered, Metrics metrics) {
+    this.targets = List.copyOf(targets);
+    this.outfile = outfile;
+    this.parallelism = parallelism;
+    this.streaming = streaming;
+    this.split = split;
+    this.grouped = grouped;
+    this.prerendered = prerendered;
+    this.metrics = metrics;
+  }
+
+  /**
+   * Parse the {@code compatibility} option, a comma separated list of targets (e.g. {@code RHINO,GRAALJS}).
+   *
+   * @param compatibility          option value
+   * @param foreignObjectPrototype option value, may be null
+   * @param omitInherited          if true the declarations extend their declared supertypes, omitting the members
+   *                               inherited from them
+   * @param declarationCache       renderings of the runtime classes shared across the builds of this process, if any
+   * @return a converter for each target, sharing the conversion of the java types
+   */
+  static List<Java2TSConverter> targets(String compatibility, String foreignObjectPrototype, boolean omitInherited,
+                                        Optional<TSDeclarationCache> declarationCache) {
+    final List<Java2TSConverter> result = new ArrayList<>();
+
+    for (String value : compatibility.split(",")) {
+      final Java2TSConverter converter = Java2TSConverter.builder()
+          .compatibility(value.trim())
+          .foreignObjectPrototype(foreignObjectPrototype)
+          .omitInherited(omitInherited)
+          .declarationCache(declarationCache.orElse(null))
+          .build();
+
+      if (result.stream().noneMatch(c -> c.getOptions().compatibility == converter.getOptions().compatibility)) {
+        result.add((result.isEmpty()) ? converter : result.get(0).fork(converter.getOptions()));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @param target converter of a target
+   * @return folder of the files of the given target, relative to the output folder, empty if the only target
+   */
+  String folder(Java2TSConverter target) {
+    return (targets.size() > 1) ? target.getOptions().compatibility.name().toLowerCase() : "";
+  }
+
+  /**
+   * Parse the {@code ts.parallelism} option.
+   *
+   * @param value option value, may be null
+   * @param warn  report of an invalid value
+   * @return number of threads rendering declarations
+   */
+  static int parallelism(String value, Consumer<String> warn) {
+    if (value == null) return 1;
+    try {
+      final int result = Integer.parseInt(value.trim());
+      if (result < 0) throw new NumberFormatException(value);
+      return (result == 0) ? Runtime.getRuntime().availableProcessors() : result;
+    } catch (NumberFormatException e) {
+      warn.accept(String.format("invalid ts.parallelism [%s], fallback to serial rendering", value));
+      return 1;
+    }
+  }
+
+  /**
+   * Parse the {@code ts.trace} and {@code ts.trace.file} options into the {@link TSTrace} system properties.
+   * <p>
+   * The options are JVM-wide system properties read once by {@link TSTrace}: the level and the file are fixed by the
+   * first traced conversion of the JVM (e.g. the first build of a Gradle daemon or of a {@link TypescriptDaemon}), a
+   * different level or file given afterwards is reported and ignored. Run the compiler in a forked JVM to change them.
+   * </p>
+   *
+   * @param value option value ({@code off}, {@code debug}, {@code trace}), may be null
+   * @param file  file the trace records are written to, may be null (standard output)
+   * @param warn  report of an invalid or ignored value
+   * @return the trace level of the process
+   */
+  static TSTrace.Level trace(String value, String file, Consumer<String> warn) {
+    if (value != null) {
+      try {
+        final TSTrace.Level level = TSTrace.Level.of(value);
+        if (System.getProperty(TSTrace.LEVEL_PROPERTY) == null) {
+          System.setProperty(TSTrace.LEVEL_PROPERTY, level.name());
+          if (file != null) System.setProperty(TSTrace.FILE_PROPERTY, file);
+        }
+        if (TSTrace.level() != level) {
+          warn.accept(String.format("ts.trace [%s] ignored, trace level of this process is [%s]", value, TSTrace.level()));
+        }
+        else if (file != null && !file.equals(System.getProperty(TSTrace.FILE_PROPERTY))) {
+          warn.accept(String.format("ts.trace.file [%s] ignored, trace file of this process is [%s]",
+              file, System.getProperty(TSTrace.FILE_PROPERTY, "standard output")));
+        }
+      } catch (IllegalArgumentException e) {
+        warn.accept(String.format("invalid ts.trace [%s], expected one of %s", value, Arrays.toString(TSTrace.Level.values())));
+      }
+    }
+    return TSTrace.level();
+  }
+
+  /**
+   * @param configs declared configurations
+   * @return the declared types, required and predefined ones included, by class name, unmodifiable so that the
+   * converters can share them among threads
+   */
+  static Map<String, TSType> declaredTypes(List<Java2TSConfig> configs) {
+
+    // the first declaration of a class wins, the predefined and required types included
+    final Map<String, TSType> types = new HashMap<>();
+    final Consumer<TSType> declare = tt -> types.putIfAbsent(tt.getJavaClass().getName(), tt);
+
+    PREDEFINED_TYPES.forEach(declare);
+    REQUIRED_TYPES.forEach(declare);
+    configs.forEach(c -> c.namespace().types().forEach(declare));
+
+    return Collections.unmodifiableMap(types);
+  }
+
+  /**
+   * Render the given types, sorted, using up to {@code parallelism} threads.
+   * Types are independent of each other once the declared type map is built.
+   *
+   * @param types       types to render
+   * @param phase       phase measured by the metrics
+   * @param renderer    rendering of a single type, must not reuse its buffer
+   * @param order       order of the renderings
+   * @return rendered types sorted as in serial rendering
+   * @throws Exception if a rendering fails
+   */
+  private <R> List<R> render(Collection<TSType> types, Metrics.Phase phase, Function<TSType, R> renderer,
+                             Comparator<? super R> order) throws Exception {
+
+    if (parallelism <= 1 || types.size() <= 1) {
+      try (Metrics.Span s = metrics.thread(phase)) {
+        return types.stream().map(renderer).sorted(order).collect(Collectors.toList());
+      }
+    }
+
+    final AtomicInteger workers = new AtomicInteger();
+    final ForkJoinPool pool = new ForkJoinPool(parallelism, p -> worker(p, workers.getAndIncrement()), null, false);
+    // measured before shutdown, so that the workers are still alive
+    try (Metrics.Span s = metrics.phase(phase)) {
+      return pool.submit(() -> types.parallelStream().map(renderer).sorted(order).collect(Collectors.toList())).get();
+    } catch (ExecutionException e) {
+      throw (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * @param pool  rendering pool
+   * @param index index of the worker within the pool
+   * @return a worker named after its index, so that the threads of the renderings are recognizable
+   * (e.g. in the metrics and in the profilers) and named the same way in every generation
+   */
+  private static ForkJoinWorkerThread worker(ForkJoinPool pool, int index) {
+    final ForkJoinWorkerThread result = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+    result.setName("java2ts-render-" + index);
+    return result;
+  }
+
+  /**
+   * Render the given types sorted by fully qualified name, writing each one as soon as it is rendered.
+   *
+   * @param types    types to render
+   * @param phase    phase measured by the metrics
+   * @param renderer rendering of a single type, may reuse the same buffer
+   * @param w        output
+   * @throws IOException if an I/O error occurs
+   */
+  private void emit(Collection<TSType> types, Metrics.Phase phase, Function<TSType, ? extends CharSequence> renderer, java.io.Writer w) throws IOException {
+
+    final List<TSType> sortedTypes = new ArrayList<>(types);
+    sortedTypes.sort(Comparator.comparing((TSType tt) -> tt.getJavaClass().getName()));
+
+    for (TSType tt : sortedTypes) {
+      final CharSequence rendering;
+      try (Metrics.Span s = metrics.thread(phase)) {
+        rendering = renderer.apply(tt);
+      }
+      w.append(rendering);
+    }
+  }
+
+  /**
+   * Write the given types, either streaming them or rendering them all before writing.
+   *
+   * @param w           output
+   * @param types       types to write
+   * @param phase       phase measured by the metrics
+   * @param renderer    rendering of a single type
+   * @throws Exception if a rendering fails
+   */
+  private void write(java.io.Writer w, Collection<TSType> types, Metrics.Phase phase, Function<TSType, ? extends CharSequence> renderer) throws Exception {
+    if (streaming) {
+      emit(types, phase, renderer, w);
+    } else {
+      for (String s : render(types, phase, renderer.andThen(CharSequence::toString), Comparator.naturalOrder())) w.append(s);
+    }
+  }
+
+  /**
+   * Write the given declarations, each one in its own {@code declare namespace} block or, if grouped, in a single
+   * block for each namespace. Grouped declarations are sorted within their block, either by rendering or, streaming,
+   * by fully qualified name.
+   *
+   * @param w        output
+   * @param types    types to write
+   * @param renderer rendering of a single type
+   * @throws Exception if a rendering fails
+   */
+  private void writeDeclarations(java.io.Writer w, Collection<TSType> types, Function<TSType, ? extends CharSequence> renderer) throws Exception {
+    if (!grouped) {
+      write(w, types, Metrics.Phase.DECLARATIONS, renderer);
+      return;
+    }
+
+    // split before the renderer reuses its buffer (streaming)
+    final Function<TSType, TSNamespaceBlock.Declaration> declaration = tt -> TSNamespaceBlock.split(tt, renderer.apply(tt));
+    final NamespaceBlock block = new NamespaceBlock(w);
+
+    if (streaming) {
+      final List<TSType> sortedTypes = new ArrayList<>(types);
+      sortedTypes.sort(Comparator.comparing((TSType tt) -> tt.supportNamespace() ? tt.getNamespace() : null,
+              Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+          .thenComparing(tt -> tt.getJavaClass().getName()));
+
+      for (TSType tt : sortedTypes) {
+        final TSNamespaceBlock.Declaration d;
+        try (Metrics.Span s = metrics.thread(Metrics.Phase.DECLARATIONS)) {
+          d = declaration.apply(tt);
+        }
+        block.append(d);
+      }
+    } else {
+      for (TSNamespaceBlock.Declaration d : render(types, Metrics.Phase.DECLARATIONS, declaration,
+          Comparator.comparing(TSNamespaceBlock.Declaration::namespace, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+              .thenComparing(TSNamespaceBlock.Declaration::content))) {
+        block.append(d);
+      }
+    }
+    block.close();
+  }
+
+  /**
+   * Block of the declarations of a namespace being written, their trailers (e.g. the {@code declare const} of the
+   * exported types) follow it.
+   */
+  private static final class NamespaceBlock {
+    private final java.io.Writer w;
+    private final StringBuilder trailers = new StringBuilder();
+    private String namespace;
+
+    NamespaceBlock(java.io.Writer w) {
+      this.w = w;
+    }
+
+    /**
+     * @param declaration declaration to write, opening its namespace block if not the current one
+     * @throws IOException if an I/O error occurs
+     */
+    void append(TSNamespaceBlock.Declaration declaration) throws IOException {
+      if (!Objects.equals(namespace, declaration.namespace())) {
+        close();
+        namespace = declaration.namespace();
+        if (namespace != null) w.append(TSNamespaceBlock.begin(namespace));
+      }
+      w.append(declaration.content());
+      trailers.append(declaration.trailer());
+    }
+
+    /**
+     * close the current block, if any, and write its trailers
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    void close() throws IOException {
+      if (namespace != null) w.append(TSNamespaceBlock.end(namespace));
+      w.append(trailers);
+      trailers.setLength(0);
+      namespace = null;
+    }
+  }
+
+  /**
+   * @param w output
+   * @return consumer appending to the given output
+   */
+  private static Consumer<String> appender(java.io.Writer w) {
+    return s -> {
+      try {
+        w.append(s);
+      } catch (IOException e) {
+        throw new UncheckedIOException(String.format("error adding [%s]", s), e);
+      }
+    };
+  }
+
+  /**
+   * Append globals followed by post types.
+   *
+   * @param append       output
+   * @param globals      declared globals
+   * @param prePostTypes declared pre/post types
+   */
+  private static void appendGlobals(Consumer<String> append, List<List<TSGlobal>> globals, List<Tuple2<String, String>> prePostTypes) {
+
+    append.accept("\n\n// Globals\n");
+
+    globals.stream().forEach(gl -> gl.stream().map( g-> String.format("declare const %s: %s;\n", g.name(), g.type().getName())).forEach(append));
+
+    // Insert post types
+    prePostTypes.stream().map( t -> t.$1).forEach(append);
+  }
+
+  /**
+   * @param bundle        pre-rendered declarations
+   * @param extension     extension of the rendering
+   * @param renderer      rendering of a single type
+   * @param declaredTypes the declared types
+   * @return a renderer reusing the bundled rendering of a type, if still valid for the declared types
+   */
+  private static Function<TSType, ? extends CharSequence> prerendered(TSDeclarationBundle bundle, String extension,
+                                                                     Function<TSType, ? extends CharSequence> renderer,
+                                                                     Map<String, TSType> declaredTypes) {
+    return tt -> bundle.get(extension, tt, declaredTypes).map(CharSequence.class::cast).orElseGet(() -> renderer.apply(tt));
+  }
+
+  /**
+   * @param declarations declarations rendered for the other targets, by class name
+   * @param renderer     rendering of a single type
+   * @return a renderer reusing the declaration rendered for another target
+   */
+  private static Function<TSType, ? extends CharSequence> shared(Map<String, String> declarations,
+                                                                Function<TSType, ? extends CharSequence> renderer) {
+    return tt -> {
+      final String key = tt.getJavaClass().getName();
+      final String result = declarations.get(key);
+      if (result != null) return result;
+
+      // the renderer may reuse its buffer (streaming)
+      final String rendering = renderer.apply(tt).toString();
+      declarations.put(key, rendering);
+      return rendering;
+    };
+  }
+
+  /**
+   * Group the given types by namespace.
+   *
+   * @param types types to group
+   * @return types by namespace, sorted by namespace
+   */
+  private static SortedMap<String, List<TSType>> byNamespace(Collection<TSType> types) {
+    return types.stream().collect(Collectors.groupingBy(TSType::getNamespace, TreeMap::new, Collectors.toList()));
+  }
+
+  /**
+   * The declarations of a namespace refer to the declared types of the other namespaces they look up, so that each
+   * file of the split output references the files declaring them.
+   *
+   * @param converter     converter of the target
+   * @param namespace     namespace of the given types
+   * @param types         declared types of the given namespace
+   * @param declaredTypes the declared types, as returned by {@link #declaredTypes(List)}
+   * @param namespaces    namespaces written in their own file
+   * @return the other namespaces looked up by the declarations of the given types, sorted
+   */
+  private static SortedSet<String> references(Java2TSConverter converter, String namespace, Collection<TSType> types,
+                                              Map<String, TSType> declaredTypes, Set<String> namespaces) {
+    return types.stream()
+        .flatMap(tt -> converter.javaClass2DeclarationLookups(tt, declaredTypes).stream())
+        .map(declaredTypes::get)
+        .filter(Objects::nonNull)
+        .map(TSType::getNamespace)
+        .filter(ns -> !ns.equals(namespace) && namespaces.contains(ns))
+        .collect(Collectors.toCollection(TreeSet::new));
+  }
+
+  /**
+   * Open a file for output.
+   *
+   * @param output   destination of the file
+   * @param file     target file
+   * @param header   header resource to prepend to the output, none if null
+   * @return         a writer for the output file
+   * @throws IOException if an I/O error occurs
+   */
+  private static java.io.Writer openFile(Output output, Path file, String header) throws IOException {
+
+    final java.io.Writer w = output.open(file);
+
+    if (header == null) return w;
+
+    try (final java.io.InputStream is = TSGenerator.class.getClassLoader().getResourceAsStream(header)) {
+      int c;
+      while ((c = is.read()) != -1) w.write(c);
+    }
+
+    return w;
+  }
+
+  /**
+   * Write the declarations and the exported definitions of each target, in its own {@link #folder(Java2TSConverter) folder}
+   * if more than one.
+   * <p>
+   * The targets share the conversion of the java types and, apart from the ones using the foreign object prototype,
+   * the rendered declarations. Only the header and the exported definitions are rendered for each target.
+   * </p>
+   *
+   * @param configs       declared configurations
+   * @param declaredTypes the declared types, as returned by {@link #declaredTypes(List)}
+   * @param renderings    reuse of previous renderings of each target, if any
+   * @param output        destination of the generated files
+   * @throws Exception if a rendering fails
+   */
+  void generate(List<Java2TSConfig> configs, Map<String, TSType> declaredTypes,
+                Function<Java2TSConverter, Optional<? extends Renderings>> renderings, Output output) throws Exception {
+
+    final Map<Java2TSConverter, Map<String, String>> sharedDeclarations = new HashMap<>();
+    final Output measured = metrics.wrap(output);
+
+    for (Java2TSConverter target : targets) {
+      final List<Java2TSConverter> same = targets.stream().filter(target::hasSameDeclarations).collect(Collectors.toList());
+      final Optional<Map<String, String>> declarations = (same.size() > 1) ?
+          Optional.of(sharedDeclarations.computeIfAbsent(same.get(0), t -> new ConcurrentHashMap<>())) :
+          Optional.empty();
+
+      final String folder = folder(target);
+
+      generate(target, configs, declaredTypes, declarations, renderings.apply(target),
+          FlushEvent.recording((folder.isEmpty()) ? measured : file -> measured.open(Paths.get(folder).resolve(file)),
+              target.getOptions().compatibility.name()));
+    }
+    TSTrace.flush();
+  }
+
+  /**
+   * Write the declarations and the exported definitions of a target.
+   *
+   * @param converter     converter of the target
+   * @param configs       declared configurations
+   * @param declaredTypes the declared types, as returned by {@link #declaredTypes(List)}
+   * @param declarations  declarations rendered for the other targets, by class name, if shared
+   * @param renderings    reuse of previous renderings, if any
+   * @param output        destination of the generated files
+   * @throws Exception if a rendering fails
+   */
+  private void generate(Java2TSConverter converter, List<Java2TSConfig> configs, Map<String, TSType> declaredTypes,
+                        Optional<Map<String, String>> declarations, Optional<? extends Renderings> renderings,
+                        Output output) throws Exception {
+
+    final String definitionsFile = outfile.concat(".d.ts");
+    final String scriptFile = outfile.concat(".js");
+
+    final List<List<TSGlobal>> globals = configs.stream().map(Java2TSConfig::globals).collect(Collectors.toList());
+    final List<Tuple2<String, String>> prePostTypes = configs.stream().map(Java2TSConfig::prePostTypes).collect(Collectors.toList());
+    final List<Tuple2<String, String>> prePostScripts = configs.stream().map(Java2TSConfig::prePostScripts).collect(Collectors.toList());
+
+    final List<TSType> declarationTypes =
+        declaredTypes.values().stream().filter(tt -> !PREDEFINED_TYPES.contains(tt)).collect(Collectors.toList());
+
+    final List<TSType> exportedTypes =
+        declaredTypes.values().stream().filter(TSType::isExport).collect(Collectors.toList());
+
+    final StringBuilder buffer = new StringBuilder(8 * 1024);
+
+    Function<TSType, ? extends CharSequence> declaration = (streaming) ?
+        tt -> converter.javaClass2DeclarationTransformer(0, tt, declaredTypes, buffer) :
+        tt -> converter.javaClass2DeclarationTransformer(0, tt, declaredTypes);
+    Function<TSType, ? extends CharSequence> staticDefinition = (streaming) ?
+        t -> converter.javaClass2StaticDefinitionTransformer(t, declaredTypes, buffer) :
+        t -> converter.javaClass2StaticDefinitionTransformer(t, declaredTypes);
+
+    final Optional<TSDeclarationBundle> bundle =
+        (prerendered) ? TSDeclarationBundle.of(converter.getOptions()) : Optional.empty();
+
+    if (bundle.isPresent()) {
+      declaration = prerendered(bundle.get(), TSDeclarationBundle.DECLARATION, declaration, declaredTypes);
+      staticDefinition = prerendered(bundle.get(), TSDeclarationBundle.STATIC_DEFINITION, staticDefinition, declaredTypes);
+    }
+
+    if (declarations.isPresent()) {
+      declaration = shared(declarations.get(), declaration);
+    }
+
+    if (renderings.isPresent()) {
+      declaration = renderings.get().wrap("d.ts", declaration);
+      staticDefinition = renderings.get().wrap("js", staticDefinition);
+    }
+
+    declaration = metrics.wrap(TSDeclarationBundle.DECLARATION, declaration);
+    staticDefinition = metrics.wrap(TSDeclarationBundle.STATIC_DEFINITION, staticDefinition);
+
+    final String headerD = converter.isRhino() ? "headerD-rhino.ts" : "headerD.ts";
+
+    // with split output, declarations are written by namespace in <outfile>/ and the main files become an index
+    final SortedMap<String, List<TSType>> declarationsByNamespace = byNamespace(declarationTypes);
+    final SortedMap<String, List<TSType>> exportsByNamespace = byNamespace(exportedTypes);
+
+    if (split) {
+      for (Map.Entry<String, List<TSType>> e : declarationsByNamespace.entrySet()) {
+        try (final java.io.Writer w = openFile(output, Paths.get(outfile, e.getKey().concat(".d.ts")), null)) {
+          w.append(String.format("/// <reference path=\"%s\"/>\n", GLOBALS_FILE));
+          for (String ns : references(converter, e.getKey(), e.getValue(), declaredTypes, declarationsByNamespace.keySet())) {
+            w.append(String.format("/// <reference path=\"%s.d.ts\"/>\n", ns));
+          }
+          w.append('\n');
+          writeDeclarations(w, e.getValue(), declaration);
+        }
+      }
+      for (Map.Entry<String, List<TSType>> e : exportsByNamespace.entrySet()) {
+        try (final java.io.Writer w = openFile(output, Paths.get(outfile, e.getKey().concat(".js")), "headerT.ts")) {
+          w.append(String.format("/// <reference path=\"%s.d.ts\"/>\n\n", e.getKey()));
+          write(w, e.getValue(), Metrics.Phase.STATIC_DEFINITIONS, staticDefinition);
+        }
+      }
+      try (final java.io.Writer wG = openFile(output, Paths.get(outfile, GLOBALS_FILE), headerD)) {
+        final Consumer<String> wG_append = appender(wG);
+
+        // Insert pre types
+        prePostTypes.stream().map( t -> t.$0).forEach(wG_append);
+
+        appendGlobals(wG_append, globals, prePostTypes);
+      }
+    }
+
+    try (
+        final java.io.Writer wD = openFile(output, Paths.get(definitionsFile), (split) ? null : headerD);
+        final java.io.Writer wT = openFile(output, Paths.get(scriptFile), "headerT.ts");
+    ) {
+
+      final Consumer<String> wD_append = appender(wD);
+      final Consumer<String> wT_append = appender(wT);
+
+      if (split) {
+        wD_append.accept(String.format("/// <reference path=\"%s/%s\"/>\n", outfile, GLOBALS_FILE));
+        declarationsByNamespace.keySet().forEach(ns ->
+            wD_append.accept(String.format("/// <reference path=\"%s/%s.d.ts\"/>\n", outfile, ns)));
+      } else {
+        // Insert pre types
+        prePostTypes.stream().map( t -> t.$0).forEach(wD_append);
+
+        writeDeclarations(wD, declarationTypes, declaration);
+
+        appendGlobals(wD_append, globals, prePostTypes);
+      }
+
+      wT_append.accept(String.format("/// <reference path=\"%s\"/>\n\n", definitionsFile));
+      prePostScripts.stream().map( t -> t.$0).forEach(wT_append);
+
+      if (split) {
+        exportsByNamespace.keySet().forEach(ns ->
+            wT_append.accept(String.format("export * from \"./%s/%s.js\";\n", outfile, ns)));
+      } else {
+        write(wT, exportedTypes, Metrics.Phase.STATIC_DEFINITIONS, staticDefinition);
+      }
+      prePostScripts.stream().map( t -> t.$1).forEach(wT_append);
+
+    } // end try-with-resources
+  }
+}
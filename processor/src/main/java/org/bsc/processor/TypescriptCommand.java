@@ -0,0 +1,354 @@
+package org.bsc.processor;
+
+import org.bsc.java2typescript.Java2TSConverter;
+import org.bsc.java2typescript.TSClassPath;
+import org.bsc.java2typescript.TSClassSource;
+import org.bsc.java2typescript.TSDeclarationCache;
+import org.bsc.java2typescript.TSGlobal;
+import org.bsc.java2typescript.TSJavaClass;
+import org.bsc.java2typescript.TSNamespace;
+import org.bsc.java2typescript.TSType;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import javax.json.JsonStructure;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Generates the declarations outside javac, reading the declared types from the class files of a class path.
+ * <pre>
+ * java -cp java2ts-processor.jar:java2ts-processor-core.jar:javax.json.jar org.bsc.processor.TypescriptCommand \
+ *      -cp target/classes:lib/foo.jar -d target/ts -Acompatibility=RHINO java2ts.json
+ * </pre>
+ * <p>
+ * A configuration file holds an object, or an array of objects, with the same content of {@link org.bsc.processor.annotation.Java2TS}:
+ * </p>
+ * <pre>
+ * {
+ *   "name": "sample",
+ *   "declare": [ { "value": "java.util.Optional", "export": true }, { "value": "java.util.function.Function", "alias": "Func" } ],
+ *   "constants": [ { "name": "out", "type": "java.io.PrintStream" } ],
+ *   "preTypes": "", "postTypes": "", "preScript": "", "postScript": ""
+ * }
+ * </pre>
+ * <p>
+ * With {@code --watch} the command keeps running, writing again the outputs affected by the changes of the
+ * class path (see {@link TypescriptWatch}).
+ * </p>
+ * <p>
+ * With {@code --daemon <port>} the command keeps serving the requests of {@code --port <port>} clients on the
+ * loopback interface, so that the JVM, the classes of the runtime image and their metadata stay warm between them.
+ * A request must hold the token the daemon writes to a file readable by its user only (see {@link TypescriptDaemon}).
+ * </p>
+ */
+public final class TypescriptCommand {
+
+  static final String USAGE = String.join("\n",
+      "usage: TypescriptCommand [options] <config.json>...",
+      "  -cp, --classpath <path>  class directories and jars of the declared types",
+      "  -d <dir>                 output folder (default: current folder)",
+      "  -A<key>=<value>          processor option (ts.outfile, compatibility[,compatibility...], foreignobjectprototype,",
+      "                           ts.parallelism, ts.emit, ts.split, ts.group, ts.bundle, ts.cache, ts.metrics,",
+      "                           ts.trace, ts.trace.file, ts.inherited)",
+      "  --daemon <port>          serve the requests sent to the given local port, holding the token written",
+      "                           to ~/.java2ts/daemon-<port>.token",
+      "  --port <port>            send the request to the daemon listening on the given local port",
+      "  --stop                   stop the daemon (with --port)",
+      "  --watch                  generate again when the class path or the configuration files change",
+      "  --debounce <ms>          quiet period closing a burst of changes (default: 200)");
+
+  /**
+   * Parsed arguments of a generation, paths are absolute.
+   *
+   * @param classPath class directories and jars
+   * @param outdir    output folder
+   * @param options   processor options
+   * @param configs   configuration files
+   */
+  record Request(List<Path> classPath, Path outdir, Map<String, String> options, List<Path> configs) {
+
+    Request {
+      classPath = List.copyOf(classPath);
+      options = Map.copyOf(options);
+      configs = List.copyOf(configs);
+    }
+
+    /**
+     * @param cwd  folder relative paths are resolved from
+     * @param args arguments, daemon ones excluded
+     * @return the request
+     * @throws IllegalArgumentException if the arguments are not valid
+     */
+    static Request parse(Path cwd, List<String> args) {
+      final List<Path> classPath = new ArrayList<>();
+      final Map<String, String> options = new HashMap<>();
+      final List<Path> configs = new ArrayList<>();
+      Path outdir = cwd;
+
+      for (Iterator<String> i = args.iterator(); i.hasNext(); ) {
+        final String arg = i.next();
+        if (arg.equals("-cp") || arg.equals("--classpath")) {
+          Arrays.stream(value(arg, i).split(java.io.File.pathSeparator))
+              .filter(e -> !e.isEmpty())
+              .map(e -> cwd.resolve(e).normalize())
+              .forEach(classPath::add);
+        } else if (arg.equals("-d")) {
+          outdir = cwd.resolve(value(arg, i)).normalize();
+        } else if (arg.startsWith("-A")) {
+          final int index = arg.indexOf('=');
+          if (index < 0) options.put(arg.substring(2), "true");
+          else options.put(arg.substring(2, index), arg.substring(index + 1));
+        } else if (arg.startsWith("-")) {
+          throw new IllegalArgumentException(String.format("unknown option [%s]", arg));
+        } else {
+          configs.add(cwd.resolve(arg).normalize());
+        }
+      }
+
+      if (configs.isEmpty()) throw new IllegalArgumentException("no configuration file");
+
+      return new Request(classPath, outdir, options, configs);
+    }
+
+    private static String value(String option, Iterator<String> i) {
+      if (!i.hasNext()) throw new IllegalArgumentException(String.format("missing value of [%s]", option));
+      return i.next();
+    }
+  }
+
+  private TypescriptCommand() {}
+
+  /**
+   * @param value option value
+   * @return the port number
+   */
+  static int port(String value) {
+    try {
+      return Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(String.format("invalid port [%s]", value));
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+
+    final List<String> arguments = new ArrayList<>(Arrays.asList(args));
+    final Path cwd = Paths.get("").toAbsolutePath();
+
+    try {
+      final int daemon = arguments.indexOf("--daemon");
+      if (daemon >= 0) {
+        if (daemon + 1 >= arguments.size()) throw new IllegalArgumentException("missing value of [--daemon]");
+        try (TypescriptDaemon d = new TypescriptDaemon(TypescriptDaemon.folder())) {
+          d.serve(port(arguments.get(daemon + 1)));
+        }
+        return;
+      }
+
+      final int port = arguments.indexOf("--port");
+      if (port >= 0) {
+        if (port + 1 >= arguments.size()) throw new IllegalArgumentException("missing value of [--port]");
+        final int number = port(arguments.remove(port + 1));
+        arguments.remove(port);
+        final boolean stop = arguments.remove("--stop");
+        System.exit(TypescriptDaemon.send(TypescriptDaemon.folder(), number, cwd, (stop) ? null : arguments, System.err) ? 0 : 1);
+      }
+
+      final boolean watch = arguments.remove("--watch");
+      long debounce = 200;
+      final int index = arguments.indexOf("--debounce");
+      if (index >= 0) {
+        if (index + 1 >= arguments.size()) throw new IllegalArgumentException("missing value of [--debounce]");
+        final String value = arguments.remove(index + 1);
+        arguments.remove(index);
+        try {
+          debounce = Long.parseLong(value);
+        } catch (NumberFormatException e) {
+          throw new IllegalArgumentException(String.format("invalid debounce [%s]", value));
+        }
+      }
+
+      final Request request = Request.parse(cwd, arguments);
+
+      if (watch) {
+        try (TypescriptWatch w = new TypescriptWatch(request, debounce, System.err::println)) {
+          w.run();
+        }
+        return;
+      }
+
+      try (TSClassPath classPath = TSClassPath.of(request.classPath())) {
+        generate(request, classPath, System.err::println);
+      }
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.println(USAGE);
+      System.exit(2);
+    }
+  }
+
+  /**
+   * Write the declarations of the given request.
+   *
+   * @param request parsed arguments
+   * @param source  source the declared types are read from
+   * @param warn    report of warnings
+   * @throws Exception if the generation fails
+   */
+  static void generate(Request request, TSClassSource source, Consumer<String> warn) throws Exception {
+
+    final Metrics metrics = Metrics.of(request.options().get("ts.metrics"), warn);
+
+    final List<Java2TSConfig> configs;
+    try (Metrics.Span s = metrics.thread(Metrics.Phase.EXTRACTION)) {
+      configs = readConfigs(request, source, warn);
+    }
+    final Map<String, TSType> declaredTypes;
+    try (Metrics.Span s = metrics.thread(Metrics.Phase.TYPE_MAP)) {
+      declaredTypes = TSGenerator.declaredTypes(configs);
+    }
+
+    generate(request, configs, declaredTypes, target -> Optional.empty(), files(request.outdir()), metrics, warn);
+  }
+
+  /**
+   * Write the declarations of the given configurations.
+   *
+   * @param request       parsed arguments
+   * @param configs       configurations of the request
+   * @param declaredTypes the declared types, as returned by {@link TSGenerator#declaredTypes(List)}
+   * @param renderings    reuse of previous renderings of each target, if any
+   * @param output        destination of the generated files
+   * @param metrics       metrics of the generation, written with the outputs
+   * @param warn          report of warnings
+   * @throws Exception if the generation fails
+   */
+  static void generate(Request request, List<Java2TSConfig> configs, Map<String, TSType> declaredTypes,
+                       Function<Java2TSConverter, Optional<? extends TSGenerator.Renderings>> renderings,
+                       TSGenerator.Output output,
+                       Metrics metrics,
+                       Consumer<String> warn) throws Exception {
+
+    final Map<String, String> options = request.options();
+    final String outfile = options.getOrDefault("ts.outfile", "out");
+    TSGenerator.trace(options.get("ts.trace"), options.get("ts.trace.file"), warn);
+
+    final TSGenerator generator = new TSGenerator(
+        TSGenerator.targets(options.getOrDefault("compatibility", "GRAALJS"), options.get("foreignobjectprototype"),
+            "omit".equalsIgnoreCase(options.get("ts.inherited")),
+            ("false".equalsIgnoreCase(options.get("ts.cache"))) ? Optional.empty() : Optional.of(TSDeclarationCache.shared())),
+        outfile,
+        TSGenerator.parallelism(options.get("ts.parallelism"), warn),
+        "stream".equalsIgnoreCase(options.get("ts.emit")),
+        "namespace".equalsIgnoreCase(options.get("ts.split")),
+        "namespace".equalsIgnoreCase(options.get("ts.group")),
+        !"false".equalsIgnoreCase(options.get("ts.bundle")),
+        metrics);
+
+    generator.generate(configs, declaredTypes, renderings, output);
+    metrics.write(output, outfile);
+  }
+
+  /**
+   * @param outdir output folder
+   * @return output writing the files in the given folder
+   */
+  static TSGenerator.Output files(Path outdir) {
+    return file -> {
+      final Path target = outdir.resolve(file);
+      Files.createDirectories(target.getParent());
+      return Files.newBufferedWriter(target);
+    };
+  }
+
+  /**
+   * @param request parsed arguments
+   * @param source  source the declared types are read from
+   * @param warn    report of warnings
+   * @return the configurations held by the files of the request
+   * @throws IOException if a file can't be read
+   */
+  static List<Java2TSConfig> readConfigs(Request request, TSClassSource source, Consumer<String> warn) throws IOException {
+    final List<Java2TSConfig> configs = new ArrayList<>();
+    for (Path file : request.configs()) {
+      configs.addAll(readConfigs(file, source, warn));
+    }
+    return configs;
+  }
+
+  /**
+   * @param file   configuration file
+   * @param source source the declared types are read from
+   * @param warn   report of warnings
+   * @return the configurations held by the given file
+   * @throws IOException if the file can't be read
+   */
+  static List<Java2TSConfig> readConfigs(Path file, TSClassSource source, Consumer<String> warn) throws IOException {
+
+    try (final Reader r = Files.newBufferedReader(file); final JsonReader reader = Json.createReader(r)) {
+      final JsonStructure json = reader.read();
+
+      final List<JsonObject> objects = (json instanceof JsonArray array) ?
+          array.getValuesAs(JsonObject.class) :
+          List.of(json.asJsonObject());
+
+      return objects.stream().map(o -> toConfig(o, source, warn)).collect(Collectors.toList());
+    }
+  }
+
+  private static Java2TSConfig toConfig(JsonObject o, TSClassSource source, Consumer<String> warn) {
+
+    final Set<TSType> types = objects(o, "declare").stream()
+        .map(t -> TSType.builder(toMapObject(t)).source(source).build())
+        .collect(Collectors.toSet());
+
+    final List<TSGlobal> globals = objects(o, "constants").stream()
+        .map(c -> {
+          final String type = c.getString("type", "java.lang.Object");
+          // read from the class path of the request, as the declared types
+          return TSGlobal.of(c.getString("name", "NULL"),
+              source.find(type).orElseGet(() -> {
+                warn.accept(String.format("class not found [%s]", type));
+                return TSJavaClass.of(java.lang.Object.class);
+              }));
+        })
+        .collect(Collectors.toList());
+
+    return new Java2TSConfig(null,
+        TSNamespace.of(o.getString("name", "unnamed"), types),
+        globals,
+        new Tuple2<>(o.getString("preTypes", ""), o.getString("postTypes", "")),
+        new Tuple2<>(o.getString("preScript", ""), o.getString("postScript", "")));
+  }
+
+  private static List<JsonObject> objects(JsonObject o, String name) {
+    return (o.get(name) instanceof JsonArray array) ? array.getValuesAs(JsonObject.class) : List.of();
+  }
+
+  /**
+   * @param o json object
+   * @return strings and booleans of the given object, as annotation values
+   */
+  private static Map<String, Object> toMapObject(JsonObject o) {
+    final Map<String, Object> result = new HashMap<>();
+    o.forEach((k, v) -> {
+      switch (v.getValueType()) {
+        case STRING -> result.put(k, o.getString(k));
+        case TRUE -> result.put(k, Boolean.TRUE);
+        case FALSE -> result.put(k, Boolean.FALSE);
+        default -> {}
+      }
+    });
+    return result;
+  }
+}
@@ -0,0 +1,348 @@
+package org.bsc.processor;
+
+import org.bsc.java2typescript.TSClassPath;
+import org.bsc.java2typescript.TSDeclarationCache;
+
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Long running {@link TypescriptCommand}, serving requests on the loopback interface one at a time.
+ * <p>
+ * The classes of the runtime image are read once, by a class path shared as parent of the ones of the
+ * requests. The class path of a request is reused as long as none of its entries has changed.
+ * </p>
+ * <p>
+ * The loopback interface is reachable by any local user: the daemon writes a random token to
+ * {@code <folder>/daemon-<port>.token}, readable by its owner only (e.g. {@code ~/.java2ts/daemon-7070.token}), and
+ * serves only the requests holding it.
+ * </p>
+ * <p>
+ * Protocol, a line of json each way: the client sends {@code {"token": <token>, "cwd": <folder>, "args": [<argument>...]}}
+ * (or {@code {"token": <token>, "stop": true}}), the daemon answers {@code {"ok": <boolean>, "messages": [<message>...]}}.
+ * A connection not sending its request within {@link #READ_TIMEOUT_MILLIS}, or sending a request longer than
+ * {@link #MAX_REQUEST_LENGTH}, is closed, so that it doesn't hold the daemon before the token is checked.
+ * </p>
+ */
+final class TypescriptDaemon implements Closeable {
+
+  /**
+   * time given to a connection to send its request
+   */
+  static final int READ_TIMEOUT_MILLIS = 10_000;
+
+  /**
+   * maximum number of characters of a request
+   */
+  static final int MAX_REQUEST_LENGTH = 64 * 1024;
+
+  /**
+   * class path of a request, with the stamp of its entries
+   */
+  private record Entry(TSClassPath classPath, long stamp) {}
+
+  private final TSClassPath runtime = TSClassPath.of();
+  private final Map<List<Path>, Entry> classPaths = new HashMap<>();
+  private final Path folder;
+  private final int readTimeout;
+
+  /**
+   * @param folder folder of the token files, created readable by its owner only if missing
+   */
+  TypescriptDaemon(Path folder) {
+    this(folder, READ_TIMEOUT_MILLIS);
+  }
+
+  /**
+   * @param folder      folder of the token files, created readable by its owner only if missing
+   * @param readTimeout time given to a connection to send its request, in milliseconds
+   */
+  TypescriptDaemon(Path folder, int readTimeout) {
+    this.folder = folder;
+    this.readTimeout = readTimeout;
+  }
+
+  /**
+   * @return default folder of the token files
+   */
+  static Path folder() {
+    return Paths.get(System.getProperty("user.home"), ".java2ts");
+  }
+
+  /**
+   * @param folder folder of the token files
+   * @param port   local port of the daemon
+   * @return the token file of the daemon listening on the given port
+   */
+  static Path tokenFile(Path folder, int port) {
+    return folder.resolve(String.format("daemon-%d.token", port));
+  }
+
+  /**
+   * Write a new token, readable by the owner only.
+   *
+   * @param file token file, replaced if any
+   * @return the token
+   * @throws IOException if the file can't be written
+   */
+  static String writeToken(Path file) throws IOException {
+    final byte[] bytes = new byte[32];
+    new SecureRandom().nextBytes(bytes);
+    final String result = HexFormat.of().formatHex(bytes);
+
+    final boolean posix = file.getFileSystem().supportedFileAttributeViews().contains("posix");
+    if (posix) {
+      Files.createDirectories(file.getParent(), PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+    } else {
+      Files.createDirectories(file.getParent());
+    }
+
+    Files.deleteIfExists(file);
+    if (posix) {
+      Files.createFile(file, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+    } else {
+      Files.createFile(file);
+      final java.io.File f = file.toFile();
+      f.setReadable(false, false);
+      f.setReadable(true, true);
+      f.setWritable(false, false);
+      f.setWritable(true, true);
+    }
+    Files.writeString(file, result, StandardCharsets.UTF_8);
+    return result;
+  }
+
+  /**
+   * @param entries class path entries
+   * @return a stamp changing when an entry, or a file within a directory entry, has been modified
+   * @throws IOException if an entry can't be read
+   */
+  static long stamp(List<Path> entries) throws IOException {
+    long result = 1;
+    for (Path entry : entries) {
+      if (Files.isDirectory(entry)) {
+        try (Stream<Path> files = Files.walk(entry)) {
+          for (Path file : (Iterable<Path>) files::iterator) {
+            final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            result = 31 * result + file.hashCode();
+            result = 31 * result + attributes.lastModifiedTime().toMillis();
+          }
+        }
+      } else if (Files.isRegularFile(entry)) {
+        result = 31 * result + Files.getLastModifiedTime(entry).toMillis();
+        result = 31 * result + Files.size(entry);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @param entries class path entries
+   * @return the class path of the given entries, read again if any of them has changed
+   * @throws IOException if an entry can't be read
+   */
+  TSClassPath classPath(List<Path> entries) throws IOException {
+    final long stamp = stamp(entries);
+
+    final Entry current = classPaths.get(entries);
+    if (current != null && current.stamp() == stamp) {
+      return current.classPath();
+    }
+    if (current != null) {
+      current.classPath().close();
+    }
+
+    final Entry result = new Entry(TSClassPath.of(entries, runtime), stamp);
+    classPaths.put(entries, result);
+    return result.classPath();
+  }
+
+  /**
+   * Serve the requests until a stop request.
+   *
+   * @param port local port, 0 for any free one
+   * @throws IOException if the port can't be opened
+   */
+  void serve(int port) throws IOException {
+    try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+      serve(server);
+    }
+  }
+
+  /**
+   * Serve the requests accepted by the given socket until a stop request, the token file is deleted afterwards.
+   *
+   * @param server socket bound to the loopback interface
+   * @throws IOException if the token file can't be written
+   */
+  void serve(ServerSocket server) throws IOException {
+    final Path file = tokenFile(folder, server.getLocalPort());
+    final byte[] token = writeToken(file).getBytes(StandardCharsets.UTF_8);
+    System.err.printf("java2ts daemon listening on port %d, token in [%s]%n", server.getLocalPort(), file);
+
+    try {
+      boolean running = true;
+      while (running) {
+        try (Socket socket = server.accept()) {
+          socket.setSoTimeout(readTimeout);
+          running = handle(socket, token);
+        } catch (SocketTimeoutException e) {
+          System.err.println("request timed out");
+        } catch (IOException | RuntimeException e) {
+          System.err.printf("request failed: %s%n", e);
+        }
+      }
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  /**
+   * @param socket connection of the client
+   * @param token  token of the daemon
+   * @return false if the daemon has to stop
+   * @throws IOException if an I/O error occurs
+   */
+  private boolean handle(Socket socket, byte[] token) throws IOException {
+    final BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+    final PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+
+    final String line = readLine(in, MAX_REQUEST_LENGTH);
+    if (line == null) return true;
+    if (line.length() > MAX_REQUEST_LENGTH) {
+      out.println(response(false, List.of("request too long")));
+      return true;
+    }
+
+    final JsonObject request = Json.createReader(new StringReader(line)).readObject();
+    if (!MessageDigest.isEqual(token, request.getString("token", "").getBytes(StandardCharsets.UTF_8))) {
+      out.println(response(false, List.of("invalid token")));
+      return true;
+    }
+    if (request.getBoolean("stop", false)) {
+      out.println(response(true, List.of("stopped")));
+      return false;
+    }
+
+    final List<String> messages = new ArrayList<>();
+    boolean ok;
+    try {
+      final long start = System.nanoTime();
+      final TypescriptCommand.Request r = TypescriptCommand.Request.parse(
+          Paths.get(request.getString("cwd")),
+          request.getJsonArray("args").getValuesAs(JsonString.class).stream()
+              .map(JsonString::getString)
+              .collect(Collectors.toList()));
+
+      TypescriptCommand.generate(r, classPath(r.classPath()), messages::add);
+
+      messages.add(String.format("generated in %d ms, cache %s", (System.nanoTime() - start) / 1_000_000,
+          TSDeclarationCache.shared().stats()));
+      ok = true;
+    } catch (Exception e) {
+      messages.add(String.valueOf(e));
+      ok = false;
+    }
+    out.println(response(ok, messages));
+    return true;
+  }
+
+  /**
+   * @param in  input of the connection
+   * @param max maximum number of characters of the line
+   * @return the line, without its terminator, longer than the given maximum if it has been truncated, null at the
+   * end of the input
+   * @throws IOException if an I/O error occurs
+   */
+  static String readLine(BufferedReader in, int max) throws IOException {
+    final StringBuilder sb = new StringBuilder();
+    for (int c; (c = in.read()) != -1; ) {
+      if (c == '\n') return sb.toString();
+      if (c != '\r') sb.append((char) c);
+      if (sb.length() > max) return sb.toString();
+    }
+    return (sb.length() == 0) ? null : sb.toString();
+  }
+
+  private static String response(boolean ok, List<String> messages) {
+    final JsonArrayBuilder array = Json.createArrayBuilder();
+    messages.forEach(array::add);
+    return Json.createObjectBuilder().add("ok", ok).add("messages", array).build().toString();
+  }
+
+  /**
+   * Send a request to a running daemon.
+   *
+   * @param folder folder of the token files
+   * @param port   local port of the daemon
+   * @param cwd    folder the relative paths are resolved from
+   * @param args   arguments of the request, null to stop the daemon
+   * @param err    report of the daemon messages
+   * @return true if the request succeeded
+   * @throws IOException if the daemon can't be reached, or its token can't be read
+   */
+  static boolean send(Path folder, int port, Path cwd, List<String> args, PrintStream err) throws IOException {
+    final String token = Files.readString(tokenFile(folder, port), StandardCharsets.UTF_8).trim();
+
+    final String request;
+    if (args == null) {
+      request = Json.createObjectBuilder().add("token", token).add("stop", true).build().toString();
+    } else {
+      final JsonArrayBuilder array = Json.createArrayBuilder();
+      args.forEach(array::add);
+      request = Json.createObjectBuilder().add("token", token).add("cwd", cwd.toString()).add("args", array).build().toString();
+    }
+
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+      final PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+      final BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+
+      out.println(request);
+
+      final String line = in.readLine();
+      if (line == null) throw new IOException("no response from the daemon");
+
+      final JsonObject response = Json.createReader(new StringReader(line)).readObject();
+      response.getJsonArray("messages").getValuesAs(JsonString.class).forEach(m -> err.println(m.getString()));
+      return response.getBoolean("ok", false);
+    }
+  }
+
+  /**
+   * close the class paths
+   */
+  @Override
+  public void close() {
+    classPaths.values().forEach(e -> e.classPath().close());
+    classPaths.clear();
+    runtime.close();
+  }
+}
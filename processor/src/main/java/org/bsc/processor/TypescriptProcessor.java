@@ -1,7 +1,11 @@
 package org.bsc.processor;
 
+import org.bsc.java2typescript.TSClassResolver;
+import org.bsc.java2typescript.TSDeclarationCache;
+import org.bsc.java2typescript.TSFingerprint;
 import org.bsc.java2typescript.TSGlobal;
 import org.bsc.java2typescript.TSNamespace;
+import org.bsc.java2typescript.TSTrace;
 import org.bsc.java2typescript.TSType;
 import org.bsc.java2typescript.Java2TSConverter;
 import org.bsc.processor.annotation.Java2TS;
@@ -11,6 +15,7 @@ import javax.annotation.processing.SupportedOptions;
 import javax.annotation.processing.SupportedSourceVersion;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Elements;
 import javax.tools.FileObject;
@@ -19,11 +24,9 @@ import java.lang.annotation.Annotation;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import static org.bsc.java2typescript.Java2TSConverter.PREDEFINED_TYPES;
 
 /**
  * <p>
@@ -35,80 +38,79 @@ import static org.bsc.java2typescript.Java2TSConverter.PREDEFINED_TYPES;
  * <ul>
  *     <li>{@code ts.outfile}: target file for typescript declarations</li>
  *     <li>{@code compatibility}: specify compatibility with a given script engine
- *     (NASHORN, RHINO, V8)</li>
+ *     (NASHORN, RHINO, GRAALJS), or a comma separated list of them (e.g. {@code RHINO,GRAALJS}) to write the files
+ *     of each one in its own folder ({@code j2ts/rhino/}, {@code j2ts/graaljs/}) from a single analysis</li>
+ *     <li>{@code ts.parallelism}: number of threads rendering declarations, {@code 0} means
+ *     the available processors (default {@code 1}, serial). Output is the same whatever the value</li>
+ *     <li>{@code ts.emit}: {@code sorted} (default) sorts the rendered declarations before writing them,
+ *     {@code stream} sorts types by fully qualified name and writes each declaration as soon as it is
+ *     rendered, keeping only one of them in memory (parallelism is not applied)</li>
+ *     <li>{@code ts.incremental}: if {@code true} writes a manifest holding a digest of each type next to
+ *     the output and keeps the rendered types in a fragment store, so that the next run renders only the
+ *     types whose digest has changed</li>
+ *     <li>{@code ts.split}: if {@code namespace} writes the declarations and the exported definitions of each
+ *     namespace in their own files under {@code <ts.outfile>/}, the {@code <ts.outfile>.d.ts} and
+ *     {@code <ts.outfile>.js} files become an index referencing them. Each namespace file references the files
+ *     of the other namespaces its declarations refer to</li>
+ *     <li>{@code ts.group}: if {@code namespace} writes the declarations of each namespace in a single
+ *     {@code declare namespace} block, sorted within it, instead of one block for each type (default {@code type})</li>
+ *     <li>{@code ts.model}: {@code reflection} (default) loads the declared types from the processor path,
+ *     {@code element} reads them from the compiler model instead, so that they only need to be on the compile
+ *     class path. Output is the same, parameter names are read from the source or, as reflection does,
+ *     from the {@code MethodParameters} attribute of class files</li>
+ *     <li>{@code ts.bundle}: if {@code false} renders the required JDK types (e.g. {@code String}, {@code Stream},
+ *     the {@code java.util.function} aliases) instead of reusing their declarations pre-rendered in the core jar
+ *     for the running JDK (default {@code true}). Output is the same</li>
+ *     <li>{@code ts.cache}: if {@code false} doesn't share the renderings of the runtime classes with the other
+ *     builds of the same JVM (e.g. a Gradle daemon) through the {@link TSDeclarationCache} (default {@code true}).
+ *     Output is the same</li>
+ *     <li>{@code ts.metrics}: if {@code true}, or the number of the slowest types to report (default {@code 20}),
+ *     writes the metrics of the generation in {@code <ts.outfile>.metrics.json} (see {@link Metrics})</li>
+ *     <li>{@code ts.inherited}: if {@code omit} a declaration extends its nearest declared supertypes (the super
+ *     interfaces of an interface, the superclass of a class) and omits the members inherited from them, overrides
+ *     are kept only if their signature differs (default {@code emit}, every member is declared)</li>
+ *     <li>{@code ts.trace}: {@code debug} or {@code trace} writes a json record of each conversion of a member
+ *     ({@code cached} if reused from a previous conversion) and, if not cached, of the type arguments it resolves,
+ *     to {@code ts.trace.file} or to the standard output (see {@link TSTrace}).
+ *     Both are JVM-wide: the level and the file are fixed by the first generation of the JVM, later values are
+ *     reported and ignored (default {@code off})</li>
  * </ul>
+ * <p>
+ * It is registered as an aggregating processor for Gradle incremental compilation: all the outputs are
+ * generated from every element annotated with {@link Java2TS}, that Gradle processes again on each build.
+ * </p>
  */
 //@SupportedSourceVersion(SourceVersion.RELEASE_8)
 @SupportedSourceVersion(SourceVersion.RELEASE_21)
 @SupportedAnnotationTypes("org.bsc.processor.annotation.*")
-@SupportedOptions({"ts.outfile", "ts.outdir", "compatibility"})
+@SupportedOptions({"ts.outfile", "ts.outdir", "compatibility", "ts.parallelism", "ts.emit", "ts.incremental", "ts.split", "ts.group", "ts.model", "ts.bundle", "ts.cache", "ts.metrics", "ts.trace", "ts.trace.file", "ts.inherited"})
 @org.kohsuke.MetaInfServices(javax.annotation.processing.Processor.class)
 public class TypescriptProcessor extends AbstractProcessorEx {
 
   final static String ENDL = ";\n";
 
-  static final List<TSType> REQUIRED_TYPES = Arrays.asList(
-      TSType.of(java.lang.String.class).setExport(true),
-      TSType.of(java.lang.Iterable.class).setExport(true).setFunctional(true),
-      TSType.of(java.util.Iterator.class),
-      TSType.of(java.util.Collection.class),
-      TSType.of(java.util.List.class),
-      TSType.of(java.util.Set.class),
-      TSType.of(java.util.Map.class),
-      TSType.of(java.util.Optional.class).setExport(true),
-      TSType.of(java.util.stream.Stream.class).setExport(true),
-
-      // Utility class(s)
-      TSType.of(java.util.stream.Collectors.class).setExport(true),
-      TSType.of(java.util.Collections.class).setExport(true),
-
-      // Native functional interface(s)
-      TSType.of(java.util.function.Function.class).setAlias("Func"),
-      TSType.of(java.util.function.BiFunction.class).setAlias("BiFunction"),
-      TSType.of(java.util.function.Consumer.class).setAlias("Consumer"),
-      TSType.of(java.util.function.BiConsumer.class).setAlias("BiConsumer"),
-      TSType.of(java.util.function.UnaryOperator.class).setAlias("UnaryOperator"),
-      TSType.of(java.util.function.BinaryOperator.class).setAlias("BinaryOperator"),
-      TSType.of(java.util.function.Supplier.class).setAlias("Supplier"),
-      TSType.of(java.util.function.Predicate.class).setAlias("Predicate"),
-      TSType.of(java.util.function.BiPredicate.class).setAlias("BiPredicate"),
-      TSType.of(java.lang.Runnable.class),
-      TSType.of(java.lang.Comparable.class)
-
-      // Declare Functional Interface(s)
-  );
-
   /**
    * Open a file for output.
    *
    * @param file     target file
-   * @param header   header file to prepend to the output
+   * @param originatingElements elements the output is generated from
    * @return         a writer for the output file
    * @throws IOException if an I/O error occurs
    */
-  private java.io.Writer openFile(Path file, String header) throws IOException {
+  private java.io.Writer openFile(Path file, Element[] originatingElements) throws IOException {
 
-    final FileObject out = super.getSourceOutputFile(Paths.get("j2ts"), file);
+    final FileObject out = super.getSourceOutputFile(Paths.get("j2ts"), file, originatingElements);
 
     info("output file [%s]", out.getName());
 
-    final java.io.Writer w = out.openWriter();
-
-    try (final java.io.InputStream is = getClass().getClassLoader().getResourceAsStream(header)) {
-      int c;
-      while ((c = is.read()) != -1) w.write(c);
-    }
-
-    return w;
+    return out.openWriter();
   }
+
   @Override
   public boolean process(Context processingContext) throws Exception {
 
     final String targetDefinitionFile = processingContext.getOptionMap().getOrDefault("ts.outfile", "out");
 
-    final String definitionsFile = targetDefinitionFile.concat(".d.ts");
-    final String scriptFile = targetDefinitionFile.concat(".js");
-
     final String foreignObjectPrototype =
             processingContext.getOptionMap()
                     .getOrDefault( "foreignobjectprototype", "false");
@@ -118,78 +120,91 @@ public class TypescriptProcessor extends AbstractProcessorEx {
             .getOrDefault("compatibility", "GRAALJS") ;
     info("COMPATIBILITY WITH [%s]", compatibilityOption);
 
-    final Java2TSConverter converter = Java2TSConverter.builder()
-                                                    .compatibility( compatibilityOption  )
-                                                    .foreignObjectPrototype( foreignObjectPrototype )
-                                                    .build();
-
-    try (
-        final java.io.Writer wD = openFile(Paths.get(definitionsFile), converter.isRhino() ? "headerD-rhino.ts" : "headerD.ts");
-        final java.io.Writer wT = openFile(Paths.get(scriptFile), "headerT.ts");
-    ) {
-
-      final Consumer<String> wD_append = s -> {
-        try {
-          wD.append(s);
-        } catch (IOException e) {
-          error("error adding [%s]", s);
-        }
-      };
-      final Consumer<String> wT_append = s -> {
-        try {
-          wT.append(s);
-        } catch (IOException e) {
-          error("error adding [%s]", s);
-        }
-      };
+    final int parallelism = TSGenerator.parallelism(processingContext.getOptionMap().get("ts.parallelism"), this::warn);
+    info("PARALLELISM [%d]", parallelism);
+
+    final boolean streaming = "stream".equalsIgnoreCase(processingContext.getOptionMap().get("ts.emit"));
+    info("EMIT [%s]", streaming ? "stream" : "sorted");
+
+    final boolean split = "namespace".equalsIgnoreCase(processingContext.getOptionMap().get("ts.split"));
+    info("SPLIT [%s]", split ? "namespace" : "none");
+
+    final boolean grouped = "namespace".equalsIgnoreCase(processingContext.getOptionMap().get("ts.group"));
+    info("GROUP [%s]", grouped ? "namespace" : "type");
+
+    final boolean prerendered = !"false".equalsIgnoreCase(processingContext.getOptionMap().get("ts.bundle"));
+    info("BUNDLE [%s]", prerendered);
+
+    final Optional<TSDeclarationCache> declarationCache =
+        ("false".equalsIgnoreCase(processingContext.getOptionMap().get("ts.cache"))) ?
+            Optional.empty() :
+            Optional.of(TSDeclarationCache.shared());
+    info("CACHE [%s]", declarationCache.isPresent());
+
+    final Metrics metrics = Metrics.of(processingContext.getOptionMap().get("ts.metrics"), this::warn);
+    info("METRICS [%s]", metrics.isEnabled());
+
+    info("TRACE [%s]", TSGenerator.trace(processingContext.getOptionMap().get("ts.trace"),
+        processingContext.getOptionMap().get("ts.trace.file"), this::warn));
+
+    final boolean incremental = Boolean.parseBoolean(processingContext.getOptionMap().get("ts.incremental"));
+
+    final Optional<ElementSource> elementSource =
+        ("element".equalsIgnoreCase(processingContext.getOptionMap().get("ts.model"))) ?
+            Optional.of(new ElementSource(processingEnv)) :
+            Optional.empty();
+    info("MODEL [%s]", elementSource.isPresent() ? "element" : "reflection");
+
+    final boolean omitInherited = "omit".equalsIgnoreCase(processingContext.getOptionMap().get("ts.inherited"));
+    info("INHERITED [%s]", omitInherited ? "omit" : "emit");
+
+    final List<Java2TSConverter> targets =
+        TSGenerator.targets(compatibilityOption, foreignObjectPrototype, omitInherited, declarationCache);
+
+    final List<Java2TSConfig> configs;
+    try (Metrics.Span s = metrics.thread(Metrics.Phase.EXTRACTION)) {
+      configs = enumerateDeclaredConfigs(processingContext, elementSource);
+    }
 
-      final List<TSNamespace> namespaces = enumerateDeclaredPackageAndClass(processingContext);
 			info( "==> detected namespaces");
-			namespaces.forEach(ns -> info( String.valueOf(ns) ));
+			configs.forEach(c -> info( String.valueOf(c.namespace()) ));
 			info( "<== detected namespaces");
-      final List<List<TSGlobal>> globals = enumerateDeclaredGlobals(processingContext);
             info( "==> detected globals");
-            globals.forEach(ns -> info( String.valueOf(ns) ));
+            configs.forEach(c -> info( String.valueOf(c.globals()) ));
             info( "<== detected globals");
-      final List<Tuple2<String, String>> prePostTypes = enumeratePrePostTypes(processingContext);
-      final List<Tuple2<String, String>> prePostScripts = enumeratePrePostScripts(processingContext);
-
-      final Set<TSType> types = new HashSet<>(PREDEFINED_TYPES);
-      types.addAll(REQUIRED_TYPES);
 
-      namespaces.forEach(ns -> types.addAll(ns.types()));
+    // every output aggregates all the annotated elements
+    final Element[] origins = configs.stream().map(Java2TSConfig::element).distinct().toArray(Element[]::new);
 
-      final java.util.Map<String, TSType> declaredTypes =
-          types.stream()
-              .collect(Collectors.toMap(tt -> tt.getValue().getName(), tt -> tt));
-
-      // Insert pre types
-      prePostTypes.stream().map( t -> t.$0).forEach(wD_append);
-
-      types.stream()
-          .filter(tt -> !PREDEFINED_TYPES.contains(tt))
-          .map(tt -> converter.javaClass2DeclarationTransformer(0, tt, declaredTypes))
-          .sorted()
-          .forEach(wD_append);
+    final java.util.Map<String, TSType> declaredTypes;
+    try (Metrics.Span s = metrics.thread(Metrics.Phase.TYPE_MAP)) {
+      declaredTypes = TSGenerator.declaredTypes(configs);
+    }
 
-      wD_append.accept("\n\n// Globals\n");
+    final TSGenerator generator = new TSGenerator(targets, targetDefinitionFile, parallelism, streaming, split, grouped, prerendered,
+        metrics);
 
-      globals.stream().forEach(gl -> gl.stream().map( g-> String.format("declare const %s: %s;\n", g.name(), g.type().getName())).forEach(wD_append));
+    final Map<Java2TSConverter, IncrementalStore> stores = new LinkedHashMap<>();
 
-      // Insert post types
-      prePostTypes.stream().map( t -> t.$1).forEach(wD_append);
+    generator.generate(configs, declaredTypes,
+        target -> (incremental) ?
+            Optional.of(stores.computeIfAbsent(target, t -> {
+              final String folder = generator.folder(t);
+              return IncrementalStore.open(processingEnv.getFiler(), "j2ts",
+                  (folder.isEmpty()) ? targetDefinitionFile : folder + "/" + targetDefinitionFile,
+                  TSFingerprint.of(declaredTypes, t.getOptions()), origins);
+            })) :
+            Optional.empty(),
+        file -> openFile(file, origins));
 
-      wT_append.accept(String.format("/// <reference path=\"%s\"/>\n\n", definitionsFile));
-      prePostScripts.stream().map( t -> t.$0).forEach(wT_append);
+    stores.forEach((t, s) -> {
+      s.close();
+      info("INCREMENTAL [%s] reused [%d] rendered [%d]", t.getOptions().compatibility, s.getReused(), s.getRendered());
+    });
 
-      types.stream()
-          .filter(TSType::isExport)
-          .map(t -> converter.javaClass2StaticDefinitionTransformer(t, declaredTypes))
-          .sorted()
-          .forEach(wT_append);
-      prePostScripts.stream().map( t -> t.$1).forEach(wT_append);
+    declarationCache.ifPresent(c -> info("CACHE size [%d] %s", c.size(), c.stats()));
 
-    } // end try-with-resources
+    metrics.write(file -> openFile(file, origins), targetDefinitionFile);
 
     return true;
   }
@@ -208,39 +223,57 @@ public class TypescriptProcessor extends AbstractProcessorEx {
 
   }
   /**
-   * Processes the given annotation to generate a typescript declaration
+   * Reads the configuration declared by the given annotation
    *
+   * @param e the annotated element
    * @param am the annotation to process
+   * @param elementSource compiler model the declared types are read from, reflection if empty
    *
-   * @return the typescript declaration
+   * @return the configuration
    */
-  private TSNamespace toNamespace(AnnotationMirror am) {
+  private Java2TSConfig toConfig(Element e, AnnotationMirror am, Optional<ElementSource> elementSource) {
 
-    final Function<AnnotationValue, Set<TSType>> mapTypes = (value) ->
-        ((List<? extends AnnotationValue>) value.getValue())
-            .stream()
-            .map(AnnotationValue::getValue)
-            .filter(v -> v instanceof AnnotationMirror)
-            .map(v -> toMapObject((AnnotationMirror) v, TSType::of))
-            .collect(Collectors.toSet());
+    final Map<String,Object> attributes = toMapObject(am, HashMap<String,Object>::new);
 
-    final java.util.Map<? extends ExecutableElement, ? extends AnnotationValue> elementsValues = am.getElementValues();
+    return new Java2TSConfig( e,
+        toNamespace(attributes, elementSource),
+        toGlobals(attributes),
+        new Tuple2<>((String)attributes.get("preTypes"), (String)attributes.get("postTypes")),
+        new Tuple2<>((String)attributes.get("preScript"), (String)attributes.get("postScript")));
+  }
 
-    // elementsValues.entrySet().forEach( e -> System.out.printf( "===> elementValues.get('%s')=%s\n", e.getKey().getClass(), e.getValue()));
+  /**
+   * Processes the given annotation attributes to generate a typescript declaration
+   *
+   * @param attributes the attributes of the annotation to process
+   * @param elementSource compiler model the declared types are read from, reflection if empty
+   *
+   * @return the typescript declaration
+   */
+  private TSNamespace toNamespace(Map<String,Object> attributes, Optional<ElementSource> elementSource) {
+
+    final Function<AnnotationMirror, TSType> toType = (type) -> {
+      final Map<String,Object> typeAttributes = toMapObject(type, HashMap<String,Object>::new);
+
+      elementSource.ifPresent( source -> {
+        if (typeAttributes.get("value") instanceof DeclaredType dt) {
+          typeAttributes.put("value", source.of((TypeElement) dt.asElement()));
+        }
+      });
+      return TSType.builder(typeAttributes).build();
+    };
 
     final Set<TSType> types =
-        elementsValues.entrySet().stream()
-        .filter( e -> String.valueOf(e.getKey()).startsWith("declare"))
-        .map(v -> mapTypes.apply(v.getValue()))
-        .findFirst()
-        .orElse(Collections.emptySet());
-
-    // System.out.printf( "===> types size=%s\n", types.size());
-
-    final String name = elementsValues.entrySet().stream()
-        .filter( e -> String.valueOf(e.getKey()).equals("name"))
-        .map(v -> String.valueOf(v.getValue()))
-        .findFirst()
+        Optional.ofNullable((List<? extends AnnotationValue>) attributes.get("declare"))
+            .map( values -> values.stream()
+                .map(AnnotationValue::getValue)
+                .filter(v -> v instanceof AnnotationMirror)
+                .map(v -> toType.apply((AnnotationMirror) v))
+                .collect(Collectors.toSet()))
+            .orElse(Collections.emptySet());
+
+    final String name = Optional.ofNullable(attributes.get("name"))
+        .map(String::valueOf)
         .orElse("unnamed");
 
     return TSNamespace.of(name, types);
@@ -248,123 +281,55 @@ public class TypescriptProcessor extends AbstractProcessorEx {
   }
 
   /**
-   * Processes the given annotation to generate a typescript declaration
+   * Processes the given annotation attributes to generate the global constants
    *
-   * @param am the annotation to process
+   * @param attributes the attributes of the annotation to process
    *
-   * @return the typescript declaration
+   * @return the global constants
    */
-  private List<TSGlobal> toGlobals(AnnotationMirror am) {
-
-    final Function<AnnotationValue, List<TSGlobal>> mapConstants = (value) ->
-            ((List<? extends AnnotationValue>) value.getValue())
-                    .stream()
-                    .filter(Objects::nonNull)
-                    .map(AnnotationValue::getValue)
-                    .filter(v -> v instanceof AnnotationMirror)
-                    .map(v -> {
-                      TSType m =  toMapObject((AnnotationMirror) v, TSType::of);
-                      String name =  m.get("name") != null? (String)m.get("name") : "NULL";
-                      Class<?> type;
-                      Object dt =  m.get("type");
-                      if (dt instanceof Class)
-                        type= (Class<?>) dt;
-                      final String fqn = dt.toString();
-                      try {
-                        type = Class.forName(fqn);
-
-                      } catch (ClassNotFoundException e1) {
-                        warn("class not found [%s]", dt);
-                        type = java.lang.Object.class;
-                      }
-                      return TSGlobal.of(name, type);
-                    })
-                    .collect(Collectors.toList());
-    final java.util.Map<? extends ExecutableElement, ? extends AnnotationValue> elementsValues = am.getElementValues();
-
-//    elementsValues.entrySet().forEach( e -> info( "===> elementValues.get('%s')=%s\n", e.getKey().getClass(), e.getValue()));
-
-    final List<TSGlobal> constants =
-            elementsValues.entrySet().stream()
-                    .filter( e -> String.valueOf(e.getKey()).startsWith("constants"))
-                    .map(e ->  mapConstants.apply(e.getValue()))
-                    .findFirst()
-                    .orElse(List.of());
-
-//    info( "===> constants size=%s\n", constants.size());
-//    constants.forEach( e -> info( "===> constants.get('%s')=%s\n", e.name(), e.type().getName()));
-
-
-    return constants;
+  private List<TSGlobal> toGlobals(Map<String,Object> attributes) {
+
+    return
+        Optional.ofNullable((List<? extends AnnotationValue>) attributes.get("constants"))
+            .map( values -> values.stream()
+                .filter(Objects::nonNull)
+                .map(AnnotationValue::getValue)
+                .filter(v -> v instanceof AnnotationMirror)
+                .map(v -> {
+                  final Map<String,Object> m =  toMapObject((AnnotationMirror) v, HashMap<String,Object>::new);
+                  String name =  m.get("name") != null? (String)m.get("name") : "NULL";
+                  final Object dt =  m.get("type");
+                  final Class<?> type = (dt instanceof Class) ?
+                          (Class<?>) dt :
+                          TSClassResolver.resolve(dt.toString())
+                            .orElseGet( () -> {
+                              warn("class not found [%s]", dt);
+                              return java.lang.Object.class;
+                            });
+                  return TSGlobal.of(name, type);
+                })
+                .collect(Collectors.toList()))
+            .orElse(List.of());
 
   }
 
   /**
+   * Reads the {@link Java2TS} configurations of the round, in a single pass over the annotated elements
    *
    * @param processingContext
+   * @param elementSource
    * @return
    */
-  private List<TSNamespace> enumerateDeclaredPackageAndClass(final Context processingContext) {
+  private List<Java2TSConfig> enumerateDeclaredConfigs(final Context processingContext, Optional<ElementSource> elementSource) {
 
     return
         processingContext.elementFromAnnotations().stream()
             .peek(e -> info("Annotation [%s]", e.getKind().name()))
             .filter(e -> ElementKind.PACKAGE == e.getKind() || ElementKind.CLASS == e.getKind())
-            .flatMap(e -> e.getAnnotationMirrors().stream().filter(this::isJava2TS))
-            .map(this::toNamespace)
-            .collect(Collectors.toList())
+            .flatMap(e -> e.getAnnotationMirrors().stream()
+                .filter(this::isJava2TS)
+                .map(am -> toConfig(e, am, elementSource)))
+            .collect(Collectors.toUnmodifiableList())
         ;
   }
-
-  /**
-   *
-   * @param processingContext
-   * @return
-   */
-  private List<List<TSGlobal>> enumerateDeclaredGlobals(final Context processingContext) {
-
-    return
-            processingContext.elementFromAnnotations().stream()
-                    .peek(e -> info("Annotation [%s]", e.getKind().name()))
-                    .filter(e -> ElementKind.PACKAGE == e.getKind() || ElementKind.CLASS == e.getKind())
-                    .flatMap(e -> e.getAnnotationMirrors().stream().filter(this::isJava2TS))
-                    .map(this::toGlobals)
-                    .collect(Collectors.toList())
-            ;
-  }
-
-  /**
-   *
-   * @param processingContext
-   * @return
-   */
-  private List<Tuple2<String, String>> enumeratePrePostTypes(final Context processingContext) {
-
-    return
-            processingContext.elementFromAnnotations().stream()
-                    .peek(e -> info("Annotation [%s]", e.getKind().name()))
-                    .filter(e -> ElementKind.PACKAGE == e.getKind() || ElementKind.CLASS == e.getKind())
-                    .flatMap(e -> e.getAnnotationMirrors().stream().filter(this::isJava2TS))
-                    .map(am -> {
-                      TSType m =  toMapObject(am, TSType::of);
-                      return new Tuple2<String, String>((String)m.get("preTypes"),(String)m.get("postTypes") );
-                    })
-                    .collect(Collectors.toList())
-            ;
-  }
-
-  private List<Tuple2<String, String>> enumeratePrePostScripts(final Context processingContext) {
-
-    return
-            processingContext.elementFromAnnotations().stream()
-                    .peek(e -> info("Annotation [%s]", e.getKind().name()))
-                    .filter(e -> ElementKind.PACKAGE == e.getKind() || ElementKind.CLASS == e.getKind())
-                    .flatMap(e -> e.getAnnotationMirrors().stream().filter(this::isJava2TS))
-                    .map(am -> {
-                      TSType m =  toMapObject(am, TSType::of);
-                      return new Tuple2<String, String>((String)m.get("preScript"),(String)m.get("postScript") );
-                    })
-                    .collect(Collectors.toList())
-            ;
-  }
 }
@@ -0,0 +1,250 @@
+package org.bsc.processor;
+
+import org.bsc.java2typescript.Java2TSConverter;
+import org.bsc.java2typescript.TSClassPath;
+import org.bsc.java2typescript.TSDeclarationCache;
+import org.bsc.java2typescript.TSJavaClass;
+import org.bsc.java2typescript.TSType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Watch mode of the {@link TypescriptCommand}: the class path entries and the configuration files are watched
+ * and, once a burst of changes is over, the declarations are generated again.
+ * <p>
+ * Only the declared types whose class, or one of its super types, has changed are rendered again, the others
+ * are reused from the previous generation. A changed jar, or configuration file, renders again all the types.
+ * Output files whose content hasn't changed are not written, so that their watchers (eg. the typescript
+ * language server) are not notified.
+ * </p>
+ */
+final class TypescriptWatch implements Closeable {
+
+  /**
+   * changes of a burst
+   *
+   * @param classes names of the changed classes
+   * @param all     true if all the types have to be rendered again
+   */
+  record Changes(Set<String> classes, boolean all) {}
+
+  private final TypescriptCommand.Request request;
+  private final long debounce;
+  private final Consumer<String> log;
+
+  private final TSClassPath runtime = TSClassPath.of();
+  private final Map<Java2TSConverter.Compatibility, RenderingCache> renderings = new HashMap<>();
+  private final WatchService watcher;
+  private final Map<WatchKey, Path> folders = new HashMap<>();
+
+  private TSClassPath classPath;
+
+  /**
+   * @param request  parsed arguments
+   * @param debounce quiet period, in milliseconds, closing a burst of changes
+   * @param log      report of the generations
+   * @throws IOException if the files can't be watched
+   */
+  TypescriptWatch(TypescriptCommand.Request request, long debounce, Consumer<String> log) throws IOException {
+    this.request = request;
+    this.debounce = debounce;
+    this.log = log;
+    this.watcher = FileSystems.getDefault().newWatchService();
+
+    for (Path entry : request.classPath()) {
+      if (Files.isDirectory(entry)) {
+        registerAll(entry);
+      } else {
+        register(entry.getParent());
+      }
+    }
+    for (Path config : request.configs()) {
+      register(config.getParent());
+    }
+  }
+
+  private void register(Path folder) throws IOException {
+    if (folder == null || folders.containsValue(folder) || !Files.isDirectory(folder)) return;
+    folders.put(folder.register(watcher, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), folder);
+  }
+
+  private void registerAll(Path root) throws IOException {
+    try (Stream<Path> paths = Files.walk(root)) {
+      for (Path folder : (Iterable<Path>) paths.filter(Files::isDirectory)::iterator) {
+        register(folder);
+      }
+    }
+  }
+
+  /**
+   * Generate the declarations, then generate them again on each burst of changes, until interrupted.
+   *
+   * @throws IOException if the files can't be watched
+   * @throws InterruptedException if interrupted while waiting for changes
+   */
+  void run() throws IOException, InterruptedException {
+    generate(new Changes(Set.of(), true));
+
+    while (true) {
+      final Changes changes = take();
+      if (changes.all() || !changes.classes().isEmpty()) {
+        generate(changes);
+      }
+    }
+  }
+
+  /**
+   * @return the changes of the next burst, waiting for its first change
+   */
+  Changes take() throws IOException, InterruptedException {
+    final Set<String> classes = new HashSet<>();
+    boolean all = false;
+
+    for (WatchKey key = watcher.take(); key != null; key = watcher.poll(debounce, TimeUnit.MILLISECONDS)) {
+      final Path folder = folders.get(key);
+
+      for (WatchEvent<?> event : key.pollEvents()) {
+        if (event.kind() == OVERFLOW || folder == null) {
+          all = true;
+          continue;
+        }
+        final Path file = folder.resolve((Path) event.context());
+
+        if (request.configs().contains(file) || request.classPath().contains(file)) {
+          all = true;
+        } else if (event.kind() == ENTRY_CREATE && Files.isDirectory(file)) {
+          // classes may have been written before the folder is registered
+          registerAll(file);
+          try (Stream<Path> files = Files.walk(file)) {
+            files.forEach(f -> className(request.classPath(), f).ifPresent(classes::add));
+          }
+        } else {
+          className(request.classPath(), file).ifPresent(classes::add);
+        }
+      }
+      if (!key.reset()) {
+        folders.remove(key);
+      }
+    }
+    return new Changes(classes, all);
+  }
+
+  /**
+   * @param classPath class path entries
+   * @param file      changed file
+   * @return binary name of the class of the given file (e.g. {@code p.Outer$Inner}), if a class file within a
+   * class path folder
+   */
+  static Optional<String> className(List<Path> classPath, Path file) {
+    final String name = file.getFileName().toString();
+    if (!name.endsWith(".class")) return Optional.empty();
+
+    return classPath.stream()
+        .filter(root -> file.startsWith(root) && !file.equals(root))
+        .findFirst()
+        .map(root -> {
+          final String path = root.relativize(file).toString();
+          return path.substring(0, path.length() - ".class".length())
+              .replace(file.getFileSystem().getSeparator(), ".");
+        });
+  }
+
+  /**
+   * @param types   declared types
+   * @param changed names of the changed classes
+   * @return names of the types whose class, or one of its super types, has changed
+   */
+  static Set<String> affected(Collection<TSType> types, Set<String> changed) {
+    return types.stream()
+        .map(TSType::getJavaClass)
+        .filter(type -> hierarchy(type).anyMatch(changed::contains))
+        .map(TSJavaClass::getName)
+        .collect(Collectors.toSet());
+  }
+
+  private static Stream<String> hierarchy(TSJavaClass type) {
+    return Stream.concat(
+        Stream.of(type.getName()),
+        Stream.concat(type.getSuperclass().stream(), type.getInterfaces().stream())
+            .flatMap(TypescriptWatch::hierarchy));
+  }
+
+  private void generate(Changes changes) {
+    final long start = System.nanoTime();
+    try {
+      if (classPath != null) classPath.close();
+      classPath = TSClassPath.of(request.classPath(), runtime);
+
+      final Metrics metrics = Metrics.of(request.options().get("ts.metrics"), log);
+
+      final List<Java2TSConfig> configs;
+      try (Metrics.Span s = metrics.thread(Metrics.Phase.EXTRACTION)) {
+        configs = TypescriptCommand.readConfigs(request, classPath, log);
+      }
+      final Map<String, TSType> declaredTypes;
+      try (Metrics.Span s = metrics.thread(Metrics.Phase.TYPE_MAP)) {
+        declaredTypes = TSGenerator.declaredTypes(configs);
+      }
+
+      if (changes.all()) {
+        renderings.clear();
+      } else {
+        final Set<String> affected = affected(declaredTypes.values(), changes.classes());
+        renderings.values().forEach(r -> r.invalidate(affected));
+      }
+
+      final List<Path> updated = new ArrayList<>();
+      TypescriptCommand.generate(request, configs, declaredTypes,
+          target -> Optional.of(renderings.computeIfAbsent(target.getOptions().compatibility, c -> new RenderingCache())),
+          output(updated), metrics, log);
+
+      log.accept(String.format("generated in %d ms, rendered [%d] updated %s, cache %s",
+          (System.nanoTime() - start) / 1_000_000,
+          renderings.values().stream().mapToInt(RenderingCache::resetRendered).sum(), updated,
+          TSDeclarationCache.shared().stats()));
+    } catch (Exception e) {
+      log.accept(String.format("generation failed: %s", e));
+    }
+  }
+
+  /**
+   * @param updated files written
+   * @return output writing only the files whose content has changed
+   */
+  private TSGenerator.Output output(List<Path> updated) {
+    return file -> new StringWriter() {
+      @Override
+      public void close() throws IOException {
+        final Path target = request.outdir().resolve(file);
+        final String content = toString();
+
+        if (Files.isRegularFile(target) && Files.readString(target, StandardCharsets.UTF_8).equals(content)) return;
+
+        Files.createDirectories(target.getParent());
+        Files.writeString(target, content, StandardCharsets.UTF_8);
+        updated.add(file);
+      }
+    };
+  }
+
+  /**
+   * stop watching and close the class paths
+   */
+  @Override
+  public void close() throws IOException {
+    watcher.close();
+    if (classPath != null) classPath.close();
+    runtime.close();
+  }
+}
@@ -10,7 +10,7 @@ import java.lang.annotation.Target;
  * @author bsorrentino
  *
  */
-@Retention(RetentionPolicy.SOURCE)
+@Retention(RetentionPolicy.CLASS)
 @Target( {ElementType.ANNOTATION_TYPE} )
 public @interface GlobalConst {
 	String name();
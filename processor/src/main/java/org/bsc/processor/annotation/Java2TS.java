@@ -10,7 +10,7 @@ import java.lang.annotation.Target;
  * @author bsorrentino
  *
  */
-@Retention(RetentionPolicy.SOURCE)
+@Retention(RetentionPolicy.CLASS)
 @Target( {ElementType.TYPE, ElementType.PACKAGE} )
 public @interface Java2TS {
     String name() default "";
@@ -0,0 +1,162 @@
+package org.bsc.processor;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Generation of the declarations of a sample package, run by the {@code javac} launcher
+ */
+public abstract class AbstractGenerationTest extends AbstractProcessorTest {
+
+  static final Map<String, String> SOURCES = Map.ofEntries(
+      Map.entry("p/Box.java", String.join("\n",
+          "package p;",
+          "import java.util.*;",
+          "public class Box<T extends Comparable<T>> implements Comparable<Box<T>>, Iterable<T> {",
+          "  public T value;",
+          "  public static final String NAME = \"box\";",
+          "  public Box() {}",
+          "  public Box(T value, String... tags) { this.value = value; }",
+          "  public T get() { return value; }",
+          "  public void set(T value) { this.value = value; }",
+          "  public <R extends Comparable<R>> Box<R> map(java.util.function.Function<? super T, ? extends R> f) { return null; }",
+          "  public List<? extends T> list(Collection<? super T> c, T[] array, int[][] matrix) { return null; }",
+          "  public static <E extends Comparable<E>> Box<E> of(E value) { return null; }",
+          "  public int compareTo(Box<T> o) { return 0; }",
+          "  public Iterator<T> iterator() { return null; }",
+          "  protected void hidden() {}",
+          "  void packagePrivate() {}",
+          "}")),
+      Map.entry("p/Named.java", String.join("\n",
+          "package p;",
+          "public interface Named<N> {",
+          "  N name();",
+          "  default String label() { return String.valueOf(name()); }",
+          "  static <N> Named<N> of(N name) { return () -> name; }",
+          "}")),
+      Map.entry("p/StringBox.java", String.join("\n",
+          "package p;",
+          "public class StringBox extends Box<String> implements Named<String>, Cloneable {",
+          "  @Override public String get() { return super.get(); }",
+          "  @Override public void set(String value) {}",
+          "  @Override public String name() { return value; }",
+          "  @Override public StringBox clone() { return this; }",
+          "  @Override public int compareTo(Box<String> o) { return 1; }",
+          "}")),
+      Map.entry("p/Base.java", String.join("\n",
+          "package p;",
+          "abstract class Base<K> {",
+          "  public K key() { return null; }",
+          "  public abstract Object copy();",
+          "}")),
+      Map.entry("p/Entry.java", String.join("\n",
+          "package p;",
+          "public class Entry extends Base<Long> implements java.util.function.Supplier<Long> {",
+          "  @Override public Entry copy() { return this; }",
+          "  @Override public Long get() { return key(); }",
+          "}")),
+      Map.entry("p/Color.java", String.join("\n",
+          "package p;",
+          "public enum Color implements Named<String> {",
+          "  RED, GREEN { @Override public Color next() { return RED; } };",
+          "  public Color next() { return GREEN; }",
+          "  public String name2() { return name(); }",
+          "}")),
+      Map.entry("p/Outer.java", String.join("\n",
+          "package p;",
+          "public class Outer {",
+          "  public static class Inner<V> extends Box<String> { public V inner() { return null; } }",
+          "  public enum Kind { A, B; public Kind other() { return A; } }",
+          "  public interface Visitor<R> { R visit(Outer o); }",
+          "  public Inner<Kind> inner() { return null; }",
+          "  public <R> R accept(Visitor<R> v) { return v.visit(this); }",
+          "}")),
+      Map.entry("p/Mapper.java", String.join("\n",
+          "package p;",
+          "@FunctionalInterface",
+          "public interface Mapper<A, B> extends java.util.function.Function<A, B> {",
+          "  default <C> Mapper<A, C> then(Mapper<? super B, ? extends C> after) { return a -> after.apply(apply(a)); }",
+          "}")));
+
+  static final String PACKAGE_INFO = String.join("\n",
+      "@Java2TS(name = \"p\", declare = {",
+      "  @Type(value = p.Box.class, export = true),",
+      "  @Type(value = p.Named.class),",
+      "  @Type(value = p.StringBox.class, export = true),",
+      "  @Type(value = p.Entry.class, export = true),",
+      "  @Type(value = p.Color.class, export = true),",
+      "  @Type(value = p.Outer.class, export = true),",
+      "  @Type(value = p.Outer.Inner.class, export = true),",
+      "  @Type(value = p.Outer.Kind.class, export = true),",
+      "  @Type(value = p.Outer.Visitor.class, functional = true),",
+      "  @Type(value = p.Mapper.class, alias = \"Mapper\"),",
+      "  @Type(value = java.lang.Comparable.class),",
+      "  @Type(value = java.lang.Cloneable.class),",
+      "  @Type(value = java.util.Iterator.class),",
+      "  @Type(value = java.util.Collection.class),",
+      "  @Type(value = java.util.List.class)",
+      "}, constants = { @GlobalConst(name = \"box\", type = p.Box.class) })",
+      "package api;",
+      "import org.bsc.processor.annotation.*;");
+
+  /**
+   * @return folder of the compiled sample package
+   * @throws Exception if the sources can't be compiled
+   */
+  protected Path classes() throws Exception {
+    final Path classes = folder.newFolder().toPath();
+    compile(write(folder.getRoot().toPath().resolve(classes.getFileName() + "-src"), SOURCES),
+        "-d", classes.toString(), "-proc:none");
+    return classes;
+  }
+
+  /**
+   * The processor path holds the processor and its required dependencies only, as the one of the users
+   * (e.g. the optional {@code javax.json} is left out).
+   *
+   * @param classes compiled sample package
+   * @param options processor options
+   * @return folder of the generated files
+   * @throws Exception if the generation fails
+   */
+  protected Path generate(Path classes, String... options) throws Exception {
+    final Path root = folder.newFolder().toPath();
+    final Path source = write(root, Map.of("src/api/package-info.java", PACKAGE_INFO)).get(0);
+    final Path gen = Files.createDirectories(root.resolve("gen"));
+    final String path = Stream.concat(
+            Stream.of(processorPath().split(File.pathSeparator)).filter(p -> !p.contains("javax.json")),
+            Stream.of(classes.toString()))
+        .collect(Collectors.joining(File.pathSeparator));
+
+    final List<String> args = new ArrayList<>(List.of("-proc:only",
+        "-processor", TypescriptProcessor.class.getName(),
+        "-processorpath", path, "-cp", path,
+        "-d", Files.createDirectories(root.resolve("classes")).toString(), "-s", gen.toString(),
+        "-Ats.cache=false"));
+    for (String option : options) args.add("-A" + option);
+    args.add(source.toString());
+
+    javac(args);
+    return gen.resolve("j2ts");
+  }
+
+  /**
+   * @param expected folder of the expected files
+   * @param actual   folder of the actual files
+   * @param files    files compared, relative to the given folders
+   * @throws Exception if a file can't be read
+   */
+  protected static void assertSameFiles(Path expected, Path actual, String... files) throws Exception {
+    for (String file : files) {
+      assertEquals(file, Files.readString(expected.resolve(file)), Files.readString(actual.resolve(file)));
+    }
+  }
+}
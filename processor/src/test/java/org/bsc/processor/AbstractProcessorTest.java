@@ -0,0 +1,91 @@
+package org.bsc.processor;
+
+import org.junit.Rule;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Sources compiled in a temporary folder
+ */
+public abstract class AbstractProcessorTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * @param root    folder of the files
+   * @param content content of the files, by path relative to the given folder
+   * @return the written files
+   * @throws IOException if a file can't be written
+   */
+  protected static List<Path> write(Path root, Map<String, String> content) throws IOException {
+    final List<Path> result = new ArrayList<>();
+    for (Map.Entry<String, String> e : content.entrySet()) {
+      final Path file = root.resolve(e.getKey());
+      Files.createDirectories(file.getParent());
+      result.add(Files.writeString(file, e.getValue()));
+    }
+    return result;
+  }
+
+  /**
+   * @return class path of the processor, its dependencies included
+   */
+  protected static String processorPath() {
+    return Stream.of(System.getProperty("jdk.module.path"), System.getProperty("java.class.path"))
+        .filter(p -> p != null && !p.isEmpty())
+        .collect(Collectors.joining(File.pathSeparator));
+  }
+
+  /**
+   * Compile the given files.
+   *
+   * @param files   source files
+   * @param options compiler options
+   * @throws IOException if a file can't be read
+   */
+  protected static void compile(List<Path> files, String... options) throws IOException {
+    final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+    try (StandardJavaFileManager manager = compiler.getStandardFileManager(diagnostics, null, null)) {
+      final boolean ok = compiler.getTask(null, manager, diagnostics, List.of(options), null,
+          manager.getJavaFileObjectsFromPaths(files)).call();
+      assertTrue(diagnostics.getDiagnostics().toString(), ok);
+    }
+  }
+
+  /**
+   * Compile the given arguments with the {@code javac} launcher, so that the processor and the classes it reflects
+   * are loaded from the processor path rather than from the modules of the test.
+   *
+   * @param arguments compiler options and source files
+   * @throws IOException if the compiler can't be launched
+   * @throws InterruptedException if interrupted while waiting for the compiler
+   */
+  protected static void javac(List<String> arguments) throws IOException, InterruptedException {
+    final List<String> command = new ArrayList<>();
+    command.add(Path.of(System.getProperty("java.home"), "bin", "javac").toString());
+    command.addAll(arguments);
+
+    final Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+    final String output = new String(process.getInputStream().readAllBytes());
+    assertTrue(output, process.waitFor() == 0);
+  }
+}
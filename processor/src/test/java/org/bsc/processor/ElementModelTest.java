@@ -0,0 +1,41 @@
+package org.bsc.processor;
+
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+/**
+ * The declarations read from the compiler model ({@code ts.model=element}) are the same as the ones read by reflection
+ */
+public class ElementModelTest extends AbstractGenerationTest {
+
+  private void assertSameOutput(String... options) throws Exception {
+    final Path classes = classes();
+
+    final Path reflection = generate(classes, concat("ts.model=reflection", options));
+    final Path element = generate(classes, concat("ts.model=element", options));
+
+    assertTrue(Files.readString(reflection.resolve("out.d.ts")).contains("class StringBox"));
+    assertSameFiles(reflection, element, "out.d.ts", "out.js");
+  }
+
+  private static String[] concat(String option, String... options) {
+    final String[] result = new String[options.length + 1];
+    result[0] = option;
+    System.arraycopy(options, 0, result, 1, options.length);
+    return result;
+  }
+
+  @Test
+  public void testSameOutput() throws Exception {
+    assertSameOutput();
+  }
+
+  @Test
+  public void testSameOutputOmittingInherited() throws Exception {
+    assertSameOutput("ts.inherited=omit");
+  }
+}
@@ -0,0 +1,46 @@
+package org.bsc.processor;
+
+import org.junit.Test;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class MetricsTest extends AbstractGenerationTest {
+
+  @Test
+  public void testReport() throws Exception {
+    final Path classes = classes();
+    final Path gen = generate(classes, "ts.metrics=3");
+
+    final JsonObject metrics;
+    try (JsonReader r = Json.createReader(new StringReader(Files.readString(gen.resolve("out" + Metrics.FILE_SUFFIX))))) {
+      metrics = r.readObject();
+    }
+
+    assertTrue(metrics.getInt("renderedTypes") > 0);
+    for (Metrics.Phase phase : Metrics.Phase.values()) {
+      final JsonObject p = metrics.getJsonObject("phases").getJsonObject(phase.key);
+      assertNotNull(phase.key, p);
+      assertTrue(phase.key, p.getJsonNumber("wallMillis").doubleValue() >= 0);
+      assertNotNull(phase.key, p.getJsonObject("allocatedBytes"));
+    }
+    assertEquals(3, metrics.getJsonArray("slowestTypes").size());
+    final JsonObject slowest = metrics.getJsonArray("slowestTypes").getJsonObject(0);
+    assertFalse(slowest.getString("type").isEmpty());
+    assertFalse(slowest.getString("extension").isEmpty());
+    assertTrue(slowest.getJsonNumber("millis").doubleValue() >= 0);
+
+    final JsonObject fallbacks = metrics.getJsonObject("anyFallbacks");
+    assertEquals(fallbacks.getInt("undeclared"),
+        fallbacks.getJsonObject("undeclaredClasses").values().stream().mapToInt(v -> Integer.parseInt(v.toString())).sum());
+
+    // the outputs are the same with or without metrics
+    assertSameFiles(generate(classes), gen, "out.d.ts", "out.js");
+  }
+}
@@ -0,0 +1,98 @@
+package org.bsc.processor;
+
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+/**
+ * The options changing how the declarations are rendered don't change the output
+ */
+public class TSGeneratorTest extends AbstractGenerationTest {
+
+  @Test
+  public void testParallelism() throws Exception {
+    final Path classes = classes();
+    final Path sequential = generate(classes);
+
+    assertSameFiles(sequential, generate(classes, "ts.parallelism=4"), "out.d.ts", "out.js");
+    assertSameFiles(generate(classes, "ts.group=namespace"),
+        generate(classes, "ts.group=namespace", "ts.parallelism=4"), "out.d.ts", "out.js");
+    // the required types rendered too, rather than read from the bundle
+    assertSameFiles(generate(classes, "ts.bundle=false"),
+        generate(classes, "ts.bundle=false", "ts.parallelism=4"), "out.d.ts", "out.js");
+  }
+
+  @Test
+  public void testStreaming() throws Exception {
+    final Path classes = classes();
+    final Path sorted = generate(classes);
+    final Path streamed = generate(classes, "ts.emit=stream");
+
+    // same declarations, sorted by fully qualified name
+    final String declarations = Files.readString(streamed.resolve("out.d.ts"));
+    assertEquals(Files.readString(sorted.resolve("out.d.ts")).lines().sorted().toList(), declarations.lines().sorted().toList());
+
+    final List<String> declared = declarationNames(declarations);
+    assertTrue(declared.toString(), declared.containsAll(List.of("java.util.Optional", "p.Box", "p.Outer$Kind", "p.StringBox")));
+    assertEquals(declared.stream().sorted().toList(), declared);
+
+    final List<String> exported = scriptNames(Files.readString(streamed.resolve("out.js")));
+    assertEquals(scriptNames(Files.readString(sorted.resolve("out.js"))).stream().sorted().toList(), exported.stream().sorted().toList());
+    assertTrue(exported.toString(), exported.containsAll(List.of("java.lang.Iterable", "p.Box", "p.Outer$Kind")));
+    assertEquals(exported.stream().sorted().toList(), exported);
+  }
+
+  @Test
+  public void testTargets() throws Exception {
+    final Path classes = classes();
+
+    for (String foreignObjectPrototype : List.of("false", "true")) {
+      final Path targets = generate(classes, "compatibility=GRAALJS,RHINO,NASHORN",
+          "foreignobjectprototype=" + foreignObjectPrototype);
+
+      // each target is written as if it were the only one
+      for (String target : List.of("GRAALJS", "RHINO", "NASHORN")) {
+        final Path single = generate(classes, "compatibility=" + target, "foreignobjectprototype=" + foreignObjectPrototype);
+        assertSameFiles(single, targets.resolve(target.toLowerCase()), "out.d.ts", "out.js");
+      }
+    }
+  }
+
+  /**
+   * @param declarations content of a declarations file
+   * @return fully qualified names of the declared classes, in order, the aliased ones excepted
+   */
+  private static List<String> declarationNames(String declarations) {
+    final Pattern namespace = Pattern.compile("^declare namespace (\\S+) \\{$");
+    final Pattern declaration = Pattern.compile("^(?:/\\* enum \\*/)?(?:class|interface) ([\\w$]+)");
+    final List<String> result = new ArrayList<>();
+
+    String current = null;
+    for (String line : (Iterable<String>) declarations.lines()::iterator) {
+      final Matcher n = namespace.matcher(line);
+      final Matcher d = declaration.matcher(line);
+      if (n.find()) current = n.group(1);
+      else if (line.startsWith("} // end namespace")) current = null;
+      else if (current != null && d.find() && !d.group(1).endsWith("Static")) result.add(current + "." + d.group(1));
+    }
+    return result;
+  }
+
+  /**
+   * @param script content of a script file
+   * @return fully qualified names of the exported classes, in order
+   */
+  private static List<String> scriptNames(String script) {
+    final Matcher m = Pattern.compile("Java\\.type\\(\"([^\"]+)\"\\)").matcher(script);
+    final List<String> result = new ArrayList<>();
+    while (m.find()) result.add(m.group(1));
+    return result;
+  }
+}
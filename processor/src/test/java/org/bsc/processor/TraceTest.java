@@ -0,0 +1,53 @@
+package org.bsc.processor;
+
+import org.junit.Test;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class TraceTest extends AbstractGenerationTest {
+
+  private List<JsonObject> records(Path file) throws Exception {
+    return Files.readAllLines(file).stream().map(line -> {
+      try (JsonReader r = Json.createReader(new StringReader(line))) {
+        return r.readObject();
+      }
+    }).collect(Collectors.toList());
+  }
+
+  @Test
+  public void testTrace() throws Exception {
+    final Path classes = classes();
+    final Path file = folder.getRoot().toPath().resolve("trace/records.json");
+    final Path gen = generate(classes, "ts.trace=trace", "ts.trace.file=" + file);
+
+    final List<JsonObject> records = records(file);
+    assertTrue(records.stream().anyMatch(r ->
+        r.getString("level").equals("debug") && r.getString("event").equals("member")
+            && r.getString("type").equals("p.Outer$Inner") && r.getString("member").equals("map")
+            && r.getString("javaType").equals("p.Box<R>") && !r.getBoolean("cached")));
+    assertTrue(records.stream().anyMatch(r ->
+        r.getString("level").equals("trace") && r.getString("event").equals("typeArgument")));
+
+    // the outputs are the same with or without trace
+    assertSameFiles(generate(classes), gen, "out.d.ts", "out.js");
+  }
+
+  @Test
+  public void testDebug() throws Exception {
+    final Path file = folder.getRoot().toPath().resolve("debug.json");
+    generate(classes(), "ts.trace=debug", "ts.trace.file=" + file);
+
+    final List<JsonObject> records = records(file);
+    assertFalse(records.isEmpty());
+    records.forEach(r -> assertEquals(r.toString(), "debug", r.getString("level")));
+  }
+}
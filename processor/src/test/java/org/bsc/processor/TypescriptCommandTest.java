@@ -0,0 +1,264 @@
+package org.bsc.processor;
+
+import org.bsc.java2typescript.TSClassPath;
+import org.junit.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class TypescriptCommandTest extends AbstractProcessorTest {
+
+  private static final String CONFIG =
+      "{ \"name\": \"sample\", \"declare\": [ { \"value\": \"java.util.Optional\", \"export\": true } ] }";
+
+  @Test
+  public void testParse() {
+    final Path cwd = Paths.get("/work").toAbsolutePath();
+
+    final TypescriptCommand.Request request = TypescriptCommand.Request.parse(cwd,
+        List.of("-cp", String.join(java.io.File.pathSeparator, "classes", "", "lib/foo.jar"), "-d", "target/../ts",
+            "-Acompatibility=RHINO", "-Ats.bundle", "java2ts.json"));
+
+    assertEquals(List.of(cwd.resolve("classes"), cwd.resolve("lib/foo.jar")), request.classPath());
+    assertEquals(cwd.resolve("ts"), request.outdir());
+    assertEquals(Map.of("compatibility", "RHINO", "ts.bundle", "true"), request.options());
+    assertEquals(List.of(cwd.resolve("java2ts.json")), request.configs());
+
+    assertEquals(cwd, TypescriptCommand.Request.parse(cwd, List.of("java2ts.json")).outdir());
+
+    assertInvalid("unknown option [--foo]", cwd, "--foo", "java2ts.json");
+    assertInvalid("missing value of [-d]", cwd, "java2ts.json", "-d");
+    assertInvalid("no configuration file", cwd, "-d", "ts");
+  }
+
+  private static void assertInvalid(String message, Path cwd, String... args) {
+    try {
+      TypescriptCommand.Request.parse(cwd, List.of(args));
+      fail(String.join(" ", args));
+    } catch (IllegalArgumentException e) {
+      assertEquals(message, e.getMessage());
+    }
+  }
+
+  @Test
+  public void testPort() {
+    assertEquals(7070, TypescriptCommand.port("7070"));
+    try {
+      TypescriptCommand.port("http");
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals("invalid port [http]", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testConstantsOfTheClassPath() throws Exception {
+    final Path root = folder.getRoot().toPath();
+    final Path classes = folder.newFolder("classes").toPath();
+    compile(write(root, Map.of("src/p/Foo.java", "package p; public class Foo { public String name() { return null; } }")),
+        "-d", classes.toString());
+    write(root, Map.of("d.json",
+        "{ \"name\": \"sample\", \"declare\": [ { \"value\": \"p.Foo\" } ], \"constants\": [ { \"name\": \"foo\", \"type\": \"p.Foo\" } ] }"));
+
+    final TypescriptCommand.Request request =
+        TypescriptCommand.Request.parse(root, List.of("-cp", "classes", "-d", "ts", "d.json"));
+    final List<String> warnings = new ArrayList<>();
+    try (TSClassPath classPath = TSClassPath.of(request.classPath())) {
+      TypescriptCommand.generate(request, classPath, warnings::add);
+    }
+
+    assertEquals(List.of(), warnings);
+    assertTrue(Files.readString(root.resolve("ts/out.d.ts")).contains("declare const foo: p.Foo;"));
+  }
+
+  @Test
+  public void testSplit() throws Exception {
+    final Path root = folder.getRoot().toPath();
+    final Path classes = folder.newFolder("classes").toPath();
+    compile(write(root, Map.of(
+            "src/p/Foo.java", "package p; public class Foo { public q.Bar bar() { return null; } public java.util.Optional<Foo> self() { return null; } }",
+            "src/q/Bar.java", "package q; public class Bar { public String name() { return null; } }")),
+        "-d", classes.toString());
+    write(root, Map.of("d.json",
+        "{ \"name\": \"sample\", \"declare\": [ { \"value\": \"p.Foo\", \"export\": true }, { \"value\": \"q.Bar\" }, { \"value\": \"java.util.Optional\" } ] }"));
+
+    final TypescriptCommand.Request request =
+        TypescriptCommand.Request.parse(root, List.of("-cp", "classes", "-d", "ts", "-Ats.split=namespace", "d.json"));
+    try (TSClassPath classPath = TSClassPath.of(request.classPath())) {
+      TypescriptCommand.generate(request, classPath, message -> fail(message));
+    }
+
+    final Path out = root.resolve("ts/out");
+    final String p = Files.readString(out.resolve("p.d.ts"));
+    assertTrue(p, p.startsWith(String.join("\n",
+        "/// <reference path=\"globals.d.ts\"/>",
+        "/// <reference path=\"java.util.d.ts\"/>",
+        "/// <reference path=\"q.d.ts\"/>",
+        "",
+        "declare namespace p {")));
+
+    final String q = Files.readString(out.resolve("q.d.ts"));
+    assertTrue(q, q.startsWith("/// <reference path=\"globals.d.ts\"/>\n\ndeclare namespace q {"));
+
+    final String index = Files.readString(root.resolve("ts/out.d.ts"));
+    assertTrue(index, index.contains("/// <reference path=\"out/q.d.ts\"/>"));
+  }
+
+  @Test
+  public void testFlushEvents() throws Exception {
+    final Path root = folder.getRoot().toPath();
+    write(root, Map.of("d.json", CONFIG));
+    final Path file = root.resolve("events.jfr");
+
+    try (Recording recording = new Recording()) {
+      recording.enable("org.bsc.java2typescript.Flush").withThreshold(Duration.ZERO);
+      recording.start();
+
+      final TypescriptCommand.Request request =
+          TypescriptCommand.Request.parse(root, List.of("-d", "ts", "-Acompatibility=RHINO", "d.json"));
+      try (TSClassPath classPath = TSClassPath.of(request.classPath())) {
+        TypescriptCommand.generate(request, classPath, message -> {});
+      }
+
+      recording.stop();
+      recording.dump(file);
+    }
+
+    final List<RecordedEvent> closes = RecordingFile.readAllEvents(file).stream()
+        .filter(e -> e.getEventType().getName().equals("org.bsc.java2typescript.Flush") && e.getBoolean("close"))
+        .toList();
+    assertEquals(List.of("out.d.ts", "out.js"), closes.stream().map(e -> e.getString("file")).sorted().toList());
+    closes.forEach(e -> assertEquals("RHINO", e.getString("compatibility")));
+  }
+
+  @Test
+  public void testDaemon() throws Exception {
+    final Path root = folder.getRoot().toPath();
+    final Path tokens = root.resolve("tokens");
+    write(root, Map.of("d.json", CONFIG));
+
+    try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+         TypescriptDaemon daemon = new TypescriptDaemon(tokens)) {
+      final int port = server.getLocalPort();
+      final Thread thread = new Thread(() -> {
+        try {
+          daemon.serve(server);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+      thread.start();
+
+      final Path token = TypescriptDaemon.tokenFile(tokens, port);
+      for (int i = 0; i < 100 && !(Files.exists(token) && Files.size(token) > 0); ++i) Thread.sleep(50);
+      if (token.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+        assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(token)));
+        assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(tokens)));
+      }
+
+      final ByteArrayOutputStream messages = new ByteArrayOutputStream();
+      final PrintStream err = new PrintStream(messages, true, StandardCharsets.UTF_8);
+
+      // requests without the token are refused, the daemon keeps running
+      final JsonObject refused = request(port, "{\"token\": \"0\", \"stop\": true}");
+      assertFalse(refused.getBoolean("ok"));
+      assertEquals("invalid token", refused.getJsonArray("messages").getString(0));
+      assertFalse(request(port, "{\"cwd\": \"/\", \"args\": [\"d.json\"]}").getBoolean("ok"));
+
+      assertTrue(messages.toString(StandardCharsets.UTF_8), TypescriptDaemon.send(tokens, port, root, List.of("-d", "ts", "d.json"), err));
+      final String declarations = Files.readString(root.resolve("ts/out.d.ts"));
+      assertTrue(declarations, declarations.contains("class Optional<T>"));
+
+      assertFalse(TypescriptDaemon.send(tokens, port, root, List.of("--foo", "d.json"), err));
+      assertTrue(messages.toString(StandardCharsets.UTF_8).contains("unknown option [--foo]"));
+
+      assertTrue(TypescriptDaemon.send(tokens, port, root, null, err));
+      thread.join(10_000);
+      assertFalse(thread.isAlive());
+      assertFalse(Files.exists(token));
+    }
+  }
+
+  @Test
+  public void testDaemonIdleConnection() throws Exception {
+    final Path root = folder.getRoot().toPath();
+    final Path tokens = root.resolve("tokens");
+    write(root, Map.of("d.json", CONFIG));
+
+    try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+         TypescriptDaemon daemon = new TypescriptDaemon(tokens, 500)) {
+      final int port = server.getLocalPort();
+      final Thread thread = new Thread(() -> {
+        try {
+          daemon.serve(server);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+      thread.start();
+
+      final Path token = TypescriptDaemon.tokenFile(tokens, port);
+      for (int i = 0; i < 100 && !(Files.exists(token) && Files.size(token) > 0); ++i) Thread.sleep(50);
+
+      final ByteArrayOutputStream messages = new ByteArrayOutputStream();
+      final PrintStream err = new PrintStream(messages, true, StandardCharsets.UTF_8);
+
+      // a connection sending nothing is closed once timed out, the next request is served
+      try (Socket idle = new Socket(InetAddress.getLoopbackAddress(), port)) {
+        final long start = System.nanoTime();
+        assertTrue(messages.toString(StandardCharsets.UTF_8), TypescriptDaemon.send(tokens, port, root, List.of("-d", "ts", "d.json"), err));
+        assertTrue((System.nanoTime() - start) / 1_000_000 >= 400);
+        assertEquals(-1, idle.getInputStream().read());
+      }
+      assertTrue(Files.readString(root.resolve("ts/out.d.ts")).contains("class Optional<T>"));
+
+      // a request longer than the maximum is refused without being read further
+      try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+        socket.getOutputStream().write("0".repeat(TypescriptDaemon.MAX_REQUEST_LENGTH + 1).getBytes(StandardCharsets.UTF_8));
+        socket.shutdownOutput();
+        final String line = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8)).readLine();
+        final JsonObject refused = Json.createReader(new StringReader(line)).readObject();
+        assertFalse(refused.getBoolean("ok"));
+        assertEquals("request too long", refused.getJsonArray("messages").getString(0));
+      }
+
+      assertTrue(TypescriptDaemon.send(tokens, port, root, null, err));
+      thread.join(10_000);
+      assertFalse(thread.isAlive());
+    }
+  }
+
+  private static JsonObject request(int port, String request) throws IOException {
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+      new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8).println(request);
+      final String line = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8)).readLine();
+      return Json.createReader(new StringReader(line)).readObject();
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package org.bsc.processor;
+
+import org.bsc.java2typescript.TSClassPath;
+import org.bsc.java2typescript.TSType;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class TypescriptWatchTest extends AbstractProcessorTest {
+
+  private static final Map<String, String> SOURCES = Map.of(
+      "src/p/Base.java", "package p; public class Base { public String name() { return null; } }",
+      "src/p/Sub.java", "package p; public class Sub extends Base {}",
+      "src/p/Shape.java", "package p; public interface Shape { double area(); }",
+      "src/p/Circle.java", "package p; public class Circle implements Shape { public double area() { return 0; } }",
+      "src/p/Other.java", "package p; public class Other {}",
+      "src/p/Outer.java", "package p; public class Outer { public static class Inner extends Sub {} }");
+
+  private Path classes() throws Exception {
+    final Path root = folder.getRoot().toPath();
+    final Path classes = folder.newFolder("classes").toPath();
+    compile(write(root, SOURCES), "-d", classes.toString());
+    return classes;
+  }
+
+  @Test
+  public void testAffected() throws Exception {
+    final Path classes = classes();
+
+    try (TSClassPath runtime = TSClassPath.of(); TSClassPath classPath = TSClassPath.of(List.of(classes), runtime)) {
+      final List<TSType> types = Stream.of("p.Base", "p.Sub", "p.Circle", "p.Other", "p.Outer$Inner")
+          .map(name -> TSType.builder().value(name).source(classPath).build())
+          .collect(Collectors.toList());
+
+      // a change of a super type affects its sub types, directly or not
+      assertEquals(Set.of("p.Base", "p.Sub", "p.Outer$Inner"), TypescriptWatch.affected(types, Set.of("p.Base")));
+      assertEquals(Set.of("p.Sub", "p.Outer$Inner"), TypescriptWatch.affected(types, Set.of("p.Sub")));
+      // super interfaces are followed too, even if not declared
+      assertEquals(Set.of("p.Circle"), TypescriptWatch.affected(types, Set.of("p.Shape")));
+      // unrelated classes don't
+      assertEquals(Set.of("p.Other"), TypescriptWatch.affected(types, Set.of("p.Other")));
+      assertEquals(Set.of(), TypescriptWatch.affected(types, Set.of("p.Outer", "q.Base")));
+    }
+  }
+
+  @Test
+  public void testClassName() {
+    final Path root = folder.getRoot().toPath();
+    final Path classes = root.resolve("classes");
+    final List<Path> classPath = List.of(root.resolve("lib/foo.jar"), classes);
+
+    assertEquals(Optional.of("p.Base"), TypescriptWatch.className(classPath, classes.resolve("p/Base.class")));
+    assertEquals(Optional.of("p.Outer$Inner"), TypescriptWatch.className(classPath, classes.resolve("p/Outer$Inner.class")));
+    assertEquals(Optional.of("Main"), TypescriptWatch.className(classPath, classes.resolve("Main.class")));
+
+    assertEquals(Optional.empty(), TypescriptWatch.className(classPath, classes.resolve("p/Base.java")));
+    assertEquals(Optional.empty(), TypescriptWatch.className(classPath, root.resolve("other/p/Base.class")));
+    assertEquals(Optional.empty(), TypescriptWatch.className(classPath, root.resolve("lib/foo.jar")));
+  }
+
+  @Test
+  public void testTake() throws Exception {
+    final Path root = folder.getRoot().toPath();
+    final Path classes = classes();
+    final Path config = write(root, Map.of("d.json", "{ \"name\": \"sample\", \"declare\": [ { \"value\": \"p.Base\" } ] }")).get(0);
+
+    final TypescriptCommand.Request request =
+        TypescriptCommand.Request.parse(root, List.of("-cp", "classes", "d.json"));
+
+    try (TypescriptWatch watch = new TypescriptWatch(request, 200, m -> {})) {
+      Files.writeString(classes.resolve("p/Sub.class"), "changed");
+      Files.writeString(classes.resolve("p/Sub.java"), "ignored");
+      assertEquals(new TypescriptWatch.Changes(Set.of("p.Sub"), false), watch.take());
+
+      // classes written in a new folder, before it's watched
+      Files.createDirectories(classes.resolve("q/r"));
+      Files.writeString(classes.resolve("q/r/Foo$Bar.class"), "new");
+      assertTrue(watch.take().classes().contains("q.r.Foo$Bar"));
+
+      Files.writeString(config, "{}");
+      assertTrue(watch.take().all());
+    }
+  }
+}